@@ -31,6 +31,10 @@ IF DEFINED JAVA_HOME (
   SET JAVA=java
 )
 
+REM Java 9+ requires opening java.nio to the Arrow connector's memory module; only Java 9+
+REM launchers read JDK_JAVA_OPTIONS, Java 8 ignores it.
+SET JDK_JAVA_OPTIONS=--add-opens=java.base/java.nio=ALL-UNNAMED %JDK_JAVA_OPTIONS%
+
 REM Attempt to find the window width, to make help output look nicer.
 for /F "usebackq tokens=2* delims=: " %%W in (`mode con ^| findstr Columns`) do set COLUMNS=%%W
 
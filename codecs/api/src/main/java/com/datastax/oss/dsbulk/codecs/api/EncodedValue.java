@@ -0,0 +1,90 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.api;
+
+import com.datastax.oss.driver.api.core.type.DataType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A value that is already encoded in the native protocol format of its CQL type, e.g. as returned
+ * by {@link com.datastax.oss.driver.api.core.data.GettableByIndex#getBytesUnsafe(int)}.
+ *
+ * <p>Connectors that produce or consume values of this type declare {@code
+ * GenericType.of(EncodedValue.class)} as field type; such values are then bound and read as is,
+ * without any conversion. This is only correct if the value was encoded for the same CQL type as
+ * the one it is bound to, or if the value knows the CQL type it was encoded for: in the latter
+ * case, values bound to a column of a different type are decoded and converted to that type.
+ */
+public final class EncodedValue {
+
+  private final ByteBuffer bytes;
+  private final DataType cqlType;
+
+  public EncodedValue(@NonNull ByteBuffer bytes) {
+    this(bytes, null);
+  }
+
+  public EncodedValue(@NonNull ByteBuffer bytes, @Nullable DataType cqlType) {
+    this.bytes = bytes;
+    this.cqlType = cqlType;
+  }
+
+  /**
+   * Returns the encoded bytes of this value. The returned buffer should not be modified, and its
+   * position should not be changed; use {@link ByteBuffer#duplicate()} if needed.
+   */
+  @NonNull
+  public ByteBuffer getBytes() {
+    return bytes;
+  }
+
+  /**
+   * Returns the CQL type that this value was encoded for, or null if it is unknown, in which case
+   * the value is assumed to be encoded for the CQL type of the column it is bound to.
+   */
+  @Nullable
+  public DataType getCqlType() {
+    return cqlType;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof EncodedValue)) {
+      return false;
+    }
+    EncodedValue that = (EncodedValue) o;
+    return bytes.equals(that.bytes) && Objects.equals(cqlType, that.cqlType);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(bytes, cqlType);
+  }
+
+  @Override
+  public String toString() {
+    if (cqlType == null) {
+      return "EncodedValue(" + bytes.remaining() + " bytes)";
+    }
+    return "EncodedValue(" + bytes.remaining() + " bytes, " + cqlType.asCql(false, true) + ")";
+  }
+}
@@ -47,6 +47,11 @@ public class ZonedTemporalFormat extends SimpleTemporalFormat {
     this.timeZone = timeZone;
   }
 
+  /** @return The time zone applied to parsed inputs without time zone, and when formatting. */
+  public ZoneId getTimeZone() {
+    return timeZone;
+  }
+
   @Override
   public TemporalAccessor parse(String text) {
     TemporalAccessor temporal = super.parse(text);
@@ -0,0 +1,116 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.jdk.encoded;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import com.datastax.oss.dsbulk.codecs.api.EncodedValue;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A codec for {@link EncodedValue}s: values are bound and read as is, without being decoded. The
+ * internal codec is only used by {@link #externalToInternal(EncodedValue)} and {@link
+ * #internalToExternal(Object)}, which are not involved when encoding or decoding.
+ *
+ * <p>Values that were {@linkplain EncodedValue#getCqlType() encoded for} a CQL type other than this
+ * codec's type are decoded and converted with a codec obtained from the codec factory, if one was
+ * provided; such conversions are slower, but allow e.g. an {@code int} value to be bound to a
+ * {@code bigint} column.
+ */
+public class EncodedValueCodec<T> extends ConvertingCodec<EncodedValue, T> {
+
+  @Nullable private final ConvertingCodecFactory codecFactory;
+
+  private final Map<DataType, Function<ByteBuffer, T>> converters = new ConcurrentHashMap<>();
+
+  public EncodedValueCodec(TypeCodec<T> internalCodec) {
+    this(internalCodec, null);
+  }
+
+  public EncodedValueCodec(
+      TypeCodec<T> internalCodec, @Nullable ConvertingCodecFactory codecFactory) {
+    super(internalCodec, EncodedValue.class);
+    this.codecFactory = codecFactory;
+  }
+
+  @Override
+  public ByteBuffer encode(EncodedValue value, @NonNull ProtocolVersion protocolVersion) {
+    if (value == null) {
+      return null;
+    }
+    if (isSameType(value)) {
+      return value.getBytes().duplicate();
+    }
+    return internalCodec.encode(convert(value), protocolVersion);
+  }
+
+  @Override
+  public EncodedValue decode(ByteBuffer bytes, @NonNull ProtocolVersion protocolVersion) {
+    return bytes == null ? null : new EncodedValue(bytes);
+  }
+
+  @Override
+  public T externalToInternal(EncodedValue value) {
+    if (value == null) {
+      return null;
+    }
+    if (isSameType(value)) {
+      return internalCodec.decode(value.getBytes().duplicate(), ProtocolVersion.DEFAULT);
+    }
+    return convert(value);
+  }
+
+  @Override
+  public EncodedValue internalToExternal(T value) {
+    ByteBuffer bytes = internalCodec.encode(value, ProtocolVersion.DEFAULT);
+    return bytes == null ? null : new EncodedValue(bytes);
+  }
+
+  private boolean isSameType(@NonNull EncodedValue value) {
+    DataType valueType = value.getCqlType();
+    return valueType == null || valueType.equals(getCqlType());
+  }
+
+  private T convert(@NonNull EncodedValue value) {
+    DataType valueType = value.getCqlType();
+    assert valueType != null;
+    return converters
+        .computeIfAbsent(valueType, this::newConverter)
+        .apply(value.getBytes().duplicate());
+  }
+
+  @NonNull
+  private Function<ByteBuffer, T> newConverter(@NonNull DataType valueType) {
+    if (codecFactory == null) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Cannot convert a value encoded for CQL type %s to CQL type %s",
+              valueType.asCql(false, true), getCqlType().asCql(false, true)));
+    }
+    TypeCodec<Object> valueCodec = codecFactory.getCodecRegistry().codecFor(valueType);
+    ConvertingCodec<Object, T> converter =
+        codecFactory.createConvertingCodec(getCqlType(), valueCodec.getJavaType(), true);
+    return bytes -> converter.externalToInternal(valueCodec.decode(bytes, ProtocolVersion.DEFAULT));
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.jdk.encoded;
+
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecProvider;
+import com.datastax.oss.dsbulk.codecs.api.EncodedValue;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Optional;
+
+public class EncodedValueConvertingCodecProvider implements ConvertingCodecProvider {
+
+  private static final GenericType<EncodedValue> ENCODED_VALUE = GenericType.of(EncodedValue.class);
+
+  @NonNull
+  @Override
+  public Optional<ConvertingCodec<?, ?>> maybeProvide(
+      @NonNull DataType cqlType,
+      @NonNull GenericType<?> externalJavaType,
+      @NonNull ConvertingCodecFactory codecFactory,
+      boolean rootCodec) {
+    if (externalJavaType.equals(ENCODED_VALUE)) {
+      TypeCodec<Object> typeCodec = codecFactory.getCodecRegistry().codecFor(cqlType);
+      return Optional.of(new EncodedValueCodec<>(typeCodec, codecFactory));
+    }
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.jdk.encoded;
+
+import static com.datastax.oss.dsbulk.tests.assertions.TestAssertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import com.datastax.oss.dsbulk.codecs.api.EncodedValue;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EncodedValueCodecTest {
+
+  private final EncodedValueCodec<Integer> codec = new EncodedValueCodec<>(TypeCodecs.INT);
+
+  @Test
+  void should_encode_and_decode_bytes_as_is() {
+    ByteBuffer bytes = TypeCodecs.INT.encode(42, ProtocolVersion.DEFAULT);
+    EncodedValue value = new EncodedValue(bytes);
+    assertThat(codec.encode(value, ProtocolVersion.DEFAULT)).isEqualTo(bytes);
+    assertThat(codec.encode(null, ProtocolVersion.DEFAULT)).isNull();
+    assertThat(codec.decode(bytes, ProtocolVersion.DEFAULT)).isEqualTo(value);
+    assertThat(codec.decode(null, ProtocolVersion.DEFAULT)).isNull();
+    // encoding must not consume the value's bytes
+    assertThat(value.getBytes().remaining()).isEqualTo(4);
+  }
+
+  @Test
+  void should_convert_when_valid_input() {
+    EncodedValue value = new EncodedValue(TypeCodecs.INT.encode(42, ProtocolVersion.DEFAULT));
+    assertThat(codec)
+        .convertsFromExternal(value)
+        .toInternal(42)
+        .convertsFromInternal(42)
+        .toExternal(value)
+        .convertsFromExternal(null)
+        .toInternal(null)
+        .convertsFromInternal(null)
+        .toExternal(null);
+  }
+
+  @Test
+  void should_be_provided_for_any_cql_type() {
+    ConvertingCodecFactory factory = new ConvertingCodecFactory();
+    ConvertingCodec<EncodedValue, List<String>> listCodec =
+        factory.createConvertingCodec(
+            DataTypes.listOf(DataTypes.TEXT), GenericType.of(EncodedValue.class), true);
+    assertThat(listCodec).isInstanceOf(EncodedValueCodec.class);
+    ByteBuffer bytes =
+        TypeCodecs.listOf(TypeCodecs.TEXT).encode(Arrays.asList("a", "b"), ProtocolVersion.DEFAULT);
+    assertThat(listCodec.encode(new EncodedValue(bytes), ProtocolVersion.DEFAULT)).isEqualTo(bytes);
+    assertThat(listCodec.externalToInternal(new EncodedValue(bytes))).containsExactly("a", "b");
+  }
+
+  @Test
+  void should_convert_values_encoded_for_another_type() {
+    ConvertingCodecFactory factory = new ConvertingCodecFactory();
+    ConvertingCodec<EncodedValue, Long> bigintCodec =
+        factory.createConvertingCodec(DataTypes.BIGINT, GenericType.of(EncodedValue.class), true);
+    EncodedValue value =
+        new EncodedValue(TypeCodecs.INT.encode(42, ProtocolVersion.DEFAULT), DataTypes.INT);
+    assertThat(bigintCodec.encode(value, ProtocolVersion.DEFAULT))
+        .isEqualTo(TypeCodecs.BIGINT.encode(42L, ProtocolVersion.DEFAULT));
+    assertThat(bigintCodec.externalToInternal(value)).isEqualTo(42L);
+    // values encoded for the codec's own type are bound as is
+    EncodedValue same =
+        new EncodedValue(TypeCodecs.BIGINT.encode(42L, ProtocolVersion.DEFAULT), DataTypes.BIGINT);
+    assertThat(bigintCodec.encode(same, ProtocolVersion.DEFAULT)).isEqualTo(same.getBytes());
+  }
+
+  @Test
+  void should_not_convert_values_without_codec_factory() {
+    EncodedValue value =
+        new EncodedValue(TypeCodecs.BIGINT.encode(42L, ProtocolVersion.DEFAULT), DataTypes.BIGINT);
+    assertThatThrownBy(() -> codec.encode(value, ProtocolVersion.DEFAULT))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Cannot convert a value encoded for CQL type bigint to CQL type int");
+  }
+}
@@ -15,7 +15,10 @@
  */
 package com.datastax.oss.dsbulk.codecs.text.string;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
@@ -23,12 +26,16 @@ public class StringToBooleanCodec extends StringConvertingCodec<Boolean> {
 
   private final Map<String, Boolean> inputs;
   private final Map<Boolean, String> outputs;
+  private final String trueOutput;
+  private final String falseOutput;
 
   public StringToBooleanCodec(
       Map<String, Boolean> inputs, Map<Boolean, String> outputs, List<String> nullStrings) {
     super(TypeCodecs.BOOLEAN, nullStrings);
     this.inputs = inputs;
     this.outputs = outputs;
+    trueOutput = internalToExternal(true);
+    falseOutput = internalToExternal(false);
   }
 
   @Override
@@ -54,4 +61,13 @@ public class StringToBooleanCodec extends StringConvertingCodec<Boolean> {
     }
     return s;
   }
+
+  @Override
+  public String decode(ByteBuffer bytes, @NonNull ProtocolVersion protocolVersion) {
+    // fast path: skip the lookup of the output string
+    if (bytes != null && bytes.remaining() == 1) {
+      return bytes.get(bytes.position()) == 0 ? falseOutput : trueOutput;
+    }
+    return super.decode(bytes, protocolVersion);
+  }
 }
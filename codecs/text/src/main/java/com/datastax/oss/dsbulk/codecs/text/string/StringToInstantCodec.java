@@ -15,19 +15,28 @@
  */
 package com.datastax.oss.dsbulk.codecs.text.string;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
+import com.datastax.oss.dsbulk.codecs.api.util.CqlTemporalFormat;
 import com.datastax.oss.dsbulk.codecs.api.util.TemporalFormat;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.TemporalAccessor;
+import java.time.zone.ZoneRules;
 import java.util.List;
 
 public class StringToInstantCodec extends StringToTemporalCodec<Instant> {
 
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+
   private final ZoneId timeZone;
   private final ZonedDateTime epoch;
+  private final boolean isoUtcFormat;
 
   public StringToInstantCodec(
       TemporalFormat temporalFormat,
@@ -37,6 +46,9 @@ public class StringToInstantCodec extends StringToTemporalCodec<Instant> {
     super(TypeCodecs.TIMESTAMP, temporalFormat, nullStrings);
     this.timeZone = timeZone;
     this.epoch = epoch;
+    isoUtcFormat =
+        temporalFormat instanceof CqlTemporalFormat
+            && isUtc(((CqlTemporalFormat) temporalFormat).getTimeZone());
   }
 
   @Override
@@ -47,4 +59,82 @@ public class StringToInstantCodec extends StringToTemporalCodec<Instant> {
     }
     return CodecUtils.toInstant(temporal, timeZone, epoch.toLocalDate());
   }
+
+  @Override
+  public String decode(ByteBuffer bytes, @NonNull ProtocolVersion protocolVersion) {
+    // fast path: format the value without creating Instant and ZonedDateTime instances
+    if (isoUtcFormat && bytes != null && bytes.remaining() == 8) {
+      String s = formatIsoUtc(bytes.getLong(bytes.position()));
+      if (s != null) {
+        return s;
+      }
+    }
+    return super.decode(bytes, protocolVersion);
+  }
+
+  private static boolean isUtc(ZoneId zone) {
+    ZoneRules rules = zone.getRules();
+    return rules.isFixedOffset() && rules.getOffset(Instant.EPOCH).getTotalSeconds() == 0;
+  }
+
+  /**
+   * Formats the given number of milliseconds since the Epoch exactly like {@link
+   * java.time.format.DateTimeFormatter#ISO_OFFSET_DATE_TIME} would in UTC, e.g.
+   * "2020-01-31T12:34:56.78Z".
+   *
+   * @return the formatted timestamp, or null if its year is not between 0 and 9999.
+   */
+  @Nullable
+  static String formatIsoUtc(long millis) {
+    long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+    int millisOfDay = (int) Math.floorMod(millis, MILLIS_PER_DAY);
+    // convert days since the Epoch to a proleptic Gregorian date, see
+    // http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+    long z = days + 719468;
+    long era = Math.floorDiv(z, 146097);
+    int dayOfEra = (int) (z - era * 146097);
+    int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    int mp = (5 * dayOfYear + 2) / 153;
+    int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+    int month = mp < 10 ? mp + 3 : mp - 9;
+    long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+    if (year < 0 || year > 9999) {
+      return null;
+    }
+    int fraction = millisOfDay % 1000;
+    int seconds = millisOfDay / 1000;
+    char[] chars = new char[24];
+    writeDigits(chars, 0, (int) year, 4);
+    chars[4] = '-';
+    writeDigits(chars, 5, month, 2);
+    chars[7] = '-';
+    writeDigits(chars, 8, day, 2);
+    chars[10] = 'T';
+    writeDigits(chars, 11, seconds / 3600, 2);
+    chars[13] = ':';
+    writeDigits(chars, 14, seconds / 60 % 60, 2);
+    chars[16] = ':';
+    writeDigits(chars, 17, seconds % 60, 2);
+    int length = 19;
+    if (fraction != 0) {
+      chars[length++] = '.';
+      // the fraction is printed with as few digits as possible
+      int digits = fraction % 100 == 0 ? 1 : fraction % 10 == 0 ? 2 : 3;
+      for (int i = 3; i > digits; i--) {
+        fraction /= 10;
+      }
+      writeDigits(chars, length, fraction, digits);
+      length += digits;
+    }
+    chars[length++] = 'Z';
+    return new String(chars, 0, length);
+  }
+
+  private static void writeDigits(char[] chars, int offset, int value, int digits) {
+    for (int i = offset + digits - 1; i >= offset; i--) {
+      chars[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+  }
 }
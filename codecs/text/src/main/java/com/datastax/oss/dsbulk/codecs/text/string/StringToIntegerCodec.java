@@ -17,12 +17,15 @@ package com.datastax.oss.dsbulk.codecs.text.string;
 
 import static java.util.stream.Collectors.toList;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.dsbulk.codecs.api.util.OverflowStrategy;
 import com.datastax.oss.dsbulk.codecs.api.util.TemporalFormat;
+import edu.umd.cs.findbugs.annotations.NonNull;
 import io.netty.util.concurrent.FastThreadLocal;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
 import java.text.NumberFormat;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -65,4 +68,13 @@ public class StringToIntegerCodec extends StringToNumberCodec<Integer> {
     }
     return narrowNumber(number, Integer.class);
   }
+
+  @Override
+  public String decode(ByteBuffer bytes, @NonNull ProtocolVersion protocolVersion) {
+    // fast path: format the value without boxing it
+    if (plainFormat && bytes != null && bytes.remaining() == 4) {
+      return Integer.toString(bytes.getInt(bytes.position()));
+    }
+    return super.decode(bytes, protocolVersion);
+  }
 }
@@ -19,6 +19,7 @@ import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
 import com.datastax.oss.dsbulk.codecs.api.util.OverflowStrategy;
 import com.datastax.oss.dsbulk.codecs.api.util.TemporalFormat;
+import com.datastax.oss.dsbulk.codecs.api.util.ToStringNumberFormat;
 import io.netty.util.concurrent.FastThreadLocal;
 import java.math.RoundingMode;
 import java.text.NumberFormat;
@@ -31,6 +32,12 @@ import java.util.concurrent.TimeUnit;
 public abstract class StringToNumberCodec<N extends Number> extends StringConvertingCodec<N> {
 
   private final FastThreadLocal<NumberFormat> numberFormat;
+  /**
+   * Whether numbers are formatted with {@link Number#toString()}; if so, subclasses may format
+   * primitive values directly, without going through the number format.
+   */
+  final boolean plainFormat;
+
   private final OverflowStrategy overflowStrategy;
   private final RoundingMode roundingMode;
   private final TemporalFormat temporalFormat;
@@ -54,6 +61,7 @@ public abstract class StringToNumberCodec<N extends Number> extends StringConver
       List<String> nullStrings) {
     super(targetCodec, nullStrings);
     this.numberFormat = numberFormat;
+    this.plainFormat = numberFormat.get() instanceof ToStringNumberFormat;
     this.overflowStrategy = overflowStrategy;
     this.roundingMode = roundingMode;
     this.temporalFormat = temporalFormat;
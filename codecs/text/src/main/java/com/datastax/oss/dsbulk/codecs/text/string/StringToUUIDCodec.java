@@ -15,16 +15,21 @@
  */
 package com.datastax.oss.dsbulk.codecs.text.string;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
 import com.datastax.oss.dsbulk.codecs.api.util.TimeUUIDGenerator;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 public class StringToUUIDCodec extends StringConvertingCodec<UUID> {
 
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
   private final ConvertingCodec<String, Instant> instantCodec;
   private final TimeUUIDGenerator generator;
 
@@ -53,4 +58,36 @@ public class StringToUUIDCodec extends StringConvertingCodec<UUID> {
     }
     return value.toString();
   }
+
+  @Override
+  public String decode(ByteBuffer bytes, @NonNull ProtocolVersion protocolVersion) {
+    // fast path: format the value without creating a UUID instance
+    if (bytes != null && bytes.remaining() == 16) {
+      int position = bytes.position();
+      return formatUUID(bytes.getLong(position), bytes.getLong(position + 8));
+    }
+    return super.decode(bytes, protocolVersion);
+  }
+
+  /** Formats the given UUID bits exactly like {@link UUID#toString()} would. */
+  private static String formatUUID(long msb, long lsb) {
+    char[] chars = new char[36];
+    formatHex(chars, 0, msb >>> 32, 8);
+    chars[8] = '-';
+    formatHex(chars, 9, msb >>> 16, 4);
+    chars[13] = '-';
+    formatHex(chars, 14, msb, 4);
+    chars[18] = '-';
+    formatHex(chars, 19, lsb >>> 48, 4);
+    chars[23] = '-';
+    formatHex(chars, 24, lsb, 12);
+    return new String(chars);
+  }
+
+  private static void formatHex(char[] chars, int offset, long value, int digits) {
+    for (int i = offset + digits - 1; i >= offset; i--) {
+      chars[i] = HEX_DIGITS[(int) (value & 0xF)];
+      value >>>= 4;
+    }
+  }
 }
@@ -17,6 +17,8 @@ package com.datastax.oss.dsbulk.codecs.text.string;
 
 import static com.datastax.oss.dsbulk.tests.assertions.TestAssertions.assertThat;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
 import com.datastax.oss.driver.shaded.guava.common.collect.Lists;
 import java.util.Map;
@@ -63,6 +65,19 @@ class StringToBooleanCodecTest {
         .toExternal("NULL");
   }
 
+  @Test
+  void should_decode_bytes_as_formatted_internal() {
+    assertThat(
+            codec.decode(
+                TypeCodecs.BOOLEAN.encode(true, ProtocolVersion.DEFAULT), ProtocolVersion.DEFAULT))
+        .isEqualTo("foo");
+    assertThat(
+            codec.decode(
+                TypeCodecs.BOOLEAN.encode(false, ProtocolVersion.DEFAULT), ProtocolVersion.DEFAULT))
+        .isEqualTo("bar");
+    assertThat(codec.decode(null, ProtocolVersion.DEFAULT)).isEqualTo("NULL");
+  }
+
   @Test
   void should_not_convert_from_invalid_external() {
     assertThat(codec).cannotConvertFromExternal("not a valid boolean");
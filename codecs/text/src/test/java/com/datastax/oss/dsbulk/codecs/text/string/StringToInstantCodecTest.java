@@ -18,15 +18,22 @@ package com.datastax.oss.dsbulk.codecs.text.string;
 import static com.datastax.oss.dsbulk.tests.assertions.TestAssertions.assertThat;
 import static java.util.concurrent.TimeUnit.MINUTES;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.shaded.guava.common.collect.Lists;
 import com.datastax.oss.dsbulk.codecs.api.ConversionContext;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.datastax.oss.dsbulk.codecs.api.util.CqlTemporalFormat;
 import com.datastax.oss.dsbulk.codecs.text.TextConversionContext;
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Random;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -136,6 +143,40 @@ class StringToInstantCodecTest {
     assertThat(codec4).convertsFromInternal(minutesAfterMillennium).toExternal("123456");
   }
 
+  @Test
+  void should_decode_bytes_as_formatted_internal() {
+    ConversionContext parisContext =
+        new TextConversionContext().setNullStrings("NULL").setTimeZone(ZoneId.of("Europe/Paris"));
+    StringToInstantCodec parisCodec =
+        (StringToInstantCodec)
+            new ConvertingCodecFactory(parisContext)
+                .<String, Instant>createConvertingCodec(
+                    DataTypes.TIMESTAMP, GenericType.STRING, true);
+    List<Instant> instants =
+        Lists.newArrayList(
+            Instant.EPOCH,
+            Instant.ofEpochMilli(-1),
+            Instant.parse("0000-01-01T00:00:00Z"),
+            Instant.parse("-0001-12-31T23:59:59.999Z"),
+            Instant.parse("1600-02-29T12:00:00.100Z"),
+            Instant.parse("2000-02-29T23:59:59.120Z"),
+            Instant.parse("2016-07-24T20:34:12.999Z"),
+            Instant.parse("9999-12-31T23:59:59.999Z"),
+            Instant.parse("+10000-01-01T00:00:00Z"));
+    Random random = new Random(42);
+    for (int i = 0; i < 10000; i++) {
+      instants.add(Instant.ofEpochMilli(random.nextLong() % 400_000_000_000_000L));
+    }
+    for (Instant instant : instants) {
+      ByteBuffer bytes = TypeCodecs.TIMESTAMP.encode(instant, ProtocolVersion.DEFAULT);
+      assertThat(codec1.decode(bytes, ProtocolVersion.DEFAULT))
+          .isEqualTo(codec1.internalToExternal(instant));
+      assertThat(parisCodec.decode(bytes, ProtocolVersion.DEFAULT))
+          .isEqualTo(parisCodec.internalToExternal(instant));
+    }
+    assertThat(codec1.decode(null, ProtocolVersion.DEFAULT)).isEqualTo("NULL");
+  }
+
   @Test
   void should_not_convert_from_invalid_external() {
     assertThat(codec1).cannotConvertFromExternal("not a valid date format");
@@ -17,11 +17,14 @@ package com.datastax.oss.dsbulk.codecs.text.string;
 
 import static com.datastax.oss.dsbulk.tests.assertions.TestAssertions.assertThat;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.dsbulk.codecs.api.ConversionContext;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.datastax.oss.dsbulk.codecs.text.TextConversionContext;
+import java.nio.ByteBuffer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -138,6 +141,17 @@ class StringToIntegerCodecTest {
         .toExternal("NULL");
   }
 
+  @Test
+  void should_decode_bytes_as_formatted_internal() {
+    for (int value : new int[] {0, 1, -1, 42, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+      ByteBuffer bytes = TypeCodecs.INT.encode(value, ProtocolVersion.DEFAULT);
+      assertThat(codec1.decode(bytes, ProtocolVersion.DEFAULT)).isEqualTo(String.valueOf(value));
+      assertThat(codec2.decode(bytes, ProtocolVersion.DEFAULT))
+          .isEqualTo(codec2.internalToExternal(value));
+    }
+    assertThat(codec2.decode(null, ProtocolVersion.DEFAULT)).isEqualTo("NULL");
+  }
+
   @Test
   void should_not_convert_from_invalid_external() {
     assertThat(codec1)
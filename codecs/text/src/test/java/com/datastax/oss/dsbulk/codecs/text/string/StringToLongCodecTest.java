@@ -17,11 +17,14 @@ package com.datastax.oss.dsbulk.codecs.text.string;
 
 import static com.datastax.oss.dsbulk.tests.assertions.TestAssertions.assertThat;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.dsbulk.codecs.api.ConversionContext;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.datastax.oss.dsbulk.codecs.text.TextConversionContext;
+import java.nio.ByteBuffer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -82,6 +85,23 @@ class StringToLongCodecTest {
         .toExternal("NULL");
   }
 
+  @Test
+  void should_decode_bytes_as_formatted_internal() {
+    ConversionContext context = new TextConversionContext().setNullStrings("NULL");
+    StringToLongCodec plainCodec =
+        (StringToLongCodec)
+            new ConvertingCodecFactory(context)
+                .<String, Long>createConvertingCodec(DataTypes.BIGINT, GenericType.STRING, true);
+    for (long value : new long[] {0, 1, -1, 42, Long.MAX_VALUE, Long.MIN_VALUE}) {
+      ByteBuffer bytes = TypeCodecs.BIGINT.encode(value, ProtocolVersion.DEFAULT);
+      assertThat(plainCodec.decode(bytes, ProtocolVersion.DEFAULT))
+          .isEqualTo(String.valueOf(value));
+      assertThat(codec.decode(bytes, ProtocolVersion.DEFAULT))
+          .isEqualTo(codec.internalToExternal(value));
+    }
+    assertThat(plainCodec.decode(null, ProtocolVersion.DEFAULT)).isEqualTo("NULL");
+  }
+
   @Test
   void should_not_convert_from_invalid_external() {
     assertThat(codec)
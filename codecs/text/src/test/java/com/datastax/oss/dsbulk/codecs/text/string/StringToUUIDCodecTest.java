@@ -22,12 +22,14 @@ import static java.time.ZoneOffset.UTC;
 import static java.util.Locale.US;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.driver.api.core.uuid.Uuids;
 import com.datastax.oss.driver.shaded.guava.common.collect.Lists;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
 import com.datastax.oss.dsbulk.codecs.api.util.TimeUUIDGenerator;
 import io.netty.util.concurrent.FastThreadLocal;
+import java.nio.ByteBuffer;
 import java.text.NumberFormat;
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -111,6 +113,22 @@ class StringToUUIDCodecTest {
         .toExternal("a15341ec-ebef-4eab-b91d-ff16bf801a79");
   }
 
+  @Test
+  void should_decode_bytes_as_formatted_internal() {
+    List<UUID> uuids =
+        Lists.newArrayList(
+            new UUID(0, 0), new UUID(-1, -1), new UUID(Long.MIN_VALUE, Long.MAX_VALUE));
+    for (int i = 0; i < 1000; i++) {
+      uuids.add(UUID.randomUUID());
+      uuids.add(Uuids.timeBased());
+    }
+    for (UUID uuid : uuids) {
+      ByteBuffer bytes = TypeCodecs.UUID.encode(uuid, ProtocolVersion.DEFAULT);
+      assertThat(codec.decode(bytes, ProtocolVersion.DEFAULT)).isEqualTo(uuid.toString());
+    }
+    assertThat(codec.decode(null, ProtocolVersion.DEFAULT)).isEqualTo("NULL");
+  }
+
   @Test
   void should_not_convert_from_invalid_external() {
     assertThat(codec).cannotConvertFromExternal("not a valid UUID");
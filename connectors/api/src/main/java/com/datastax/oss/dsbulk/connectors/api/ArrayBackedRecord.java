@@ -0,0 +1,182 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.api;
+
+import com.datastax.oss.driver.shaded.guava.common.base.MoreObjects;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.net.URI;
+import java.util.AbstractList;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link Record} that stores its values in an array, and its fields in a {@link RecordSchema}
+ * shared with other records.
+ *
+ * <p>Contrary to {@link DefaultRecord}, creating such a record does not allocate any field or map
+ * entry; connectors reading resources whose fields are known in advance, such as files with a
+ * header, should favor this implementation.
+ */
+public final class ArrayBackedRecord implements Record {
+
+  private static final Object[] EMPTY = new Object[0];
+
+  private final Object source;
+  private final URI resource;
+  private final long position;
+
+  private RecordSchema schema;
+  private Object[] values;
+
+  /**
+   * Creates a new record.
+   *
+   * @param source the record source (its original form); may be null if the source cannot be
+   *     determined or should not be retained.
+   * @param resource the record resource (where it comes from: file, database, etc).
+   * @param position the record position inside the resource (line number, etc.).
+   * @param schema the record schema.
+   * @param values the record values; the array is not copied and should not be modified afterwards.
+   * @throws IllegalArgumentException if the number of values does not match the schema size.
+   */
+  public ArrayBackedRecord(
+      @Nullable Object source,
+      @NonNull URI resource,
+      long position,
+      @NonNull RecordSchema schema,
+      @NonNull Object... values) {
+    if (values.length != schema.size()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Expecting record to contain %d fields but found %d.", schema.size(), values.length));
+    }
+    this.source = source;
+    this.resource = resource;
+    this.position = position;
+    this.schema = schema;
+    this.values = values;
+  }
+
+  @Nullable
+  @Override
+  public Object getSource() {
+    return source;
+  }
+
+  @NonNull
+  @Override
+  public URI getResource() {
+    return resource;
+  }
+
+  @Override
+  public long getPosition() {
+    return position;
+  }
+
+  /** @return the record schema. */
+  @NonNull
+  public RecordSchema getSchema() {
+    return schema;
+  }
+
+  @NonNull
+  @Override
+  public Set<Field> fields() {
+    return schema.fields();
+  }
+
+  @NonNull
+  @Override
+  public Collection<Object> values() {
+    return new AbstractList<Object>() {
+      @Override
+      public Object get(int index) {
+        return values[schema.valueIndexAt(index)];
+      }
+
+      @Override
+      public int size() {
+        return schema.fields().size();
+      }
+    };
+  }
+
+  @Override
+  public Object getFieldValue(@NonNull Field field) {
+    int index = schema.indexOf(field);
+    return index == -1 ? null : values[index];
+  }
+
+  /**
+   * Returns the value at the given index, as determined by {@link RecordSchema#indexOf(Field)}.
+   *
+   * @param index the value index.
+   * @return the value at the given index.
+   */
+  public Object getValue(int index) {
+    return values[index];
+  }
+
+  @Override
+  public void clear() {
+    schema = RecordSchema.empty();
+    values = EMPTY;
+  }
+
+  @Override
+  public String toString() {
+    List<Map.Entry<Field, Object>> entries = new ArrayList<>(schema.fields().size());
+    int i = 0;
+    for (Field field : schema.fields()) {
+      entries.add(new SimpleImmutableEntry<>(field, values[schema.valueIndexAt(i++)]));
+    }
+    return MoreObjects.toStringHelper(this)
+        .add("source", source)
+        .add("resource", resource)
+        .add("position", position)
+        .add("entries", entries)
+        .toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ArrayBackedRecord that = (ArrayBackedRecord) o;
+    return position == that.position
+        && Objects.equals(source, that.source)
+        && resource.equals(that.resource)
+        && schema.equals(that.schema)
+        && Arrays.equals(values, that.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(schema, Arrays.hashCode(values), source, resource, position);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.net.URI;
+
+/**
+ * The checkpoint of a read operation: keeps track of which resources and records were already
+ * processed by a previous execution of the same operation, if the operation is being resumed, and
+ * of which resources were entirely read by the current execution.
+ *
+ * <p>Records are considered processed when they were either successfully written, or rejected;
+ * rejected records can be found in the bad files of the execution that processed them.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @see Connector#setCheckpoint(Checkpoint)
+ */
+public interface Checkpoint {
+
+  /**
+   * Whether all the records of the given resource were processed by a previous execution of the
+   * operation.
+   *
+   * @param resource the resource to check.
+   * @return {@code true} if the resource can be skipped entirely, {@code false} otherwise.
+   */
+  boolean isComplete(@NonNull URI resource);
+
+  /**
+   * Whether the record at the given position in the given resource was processed by a previous
+   * execution of the operation.
+   *
+   * @param resource the resource of the record to check.
+   * @param position the position of the record to check.
+   * @return {@code true} if the record can be skipped, {@code false} otherwise.
+   */
+  boolean isProcessed(@NonNull URI resource, long position);
+
+  /**
+   * Returns the position of the first record, at or after the given position in the given resource,
+   * that was not processed by a previous execution of the operation. Connectors may skip the
+   * records in between without reading them.
+   *
+   * <p>This implementation returns the given position, that is, it does not allow any record to be
+   * skipped without being read.
+   *
+   * @param resource the resource of the records to check.
+   * @param position the position of the first record to check.
+   * @return the position of the first record not processed, at or after the given position.
+   */
+  default long nextUnprocessedPosition(@NonNull URI resource, long position) {
+    return position;
+  }
+
+  /**
+   * Notifies the checkpoint that the given resource was entirely read by the current execution.
+   * Records skipped because they were already processed must be taken into account when computing
+   * the first and last positions.
+   *
+   * @param resource the resource that was read.
+   * @param firstPosition the position of the first record read, or {@code -1} if the resource did
+   *     not contain any record.
+   * @param lastPosition the position of the last record read, or {@code -1} if the resource did not
+   *     contain any record.
+   */
+  void onResourceRead(@NonNull URI resource, long firstPosition, long lastPosition);
+}
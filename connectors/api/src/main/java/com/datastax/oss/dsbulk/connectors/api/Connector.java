@@ -17,6 +17,8 @@ package com.datastax.oss.dsbulk.connectors.api;
 
 import com.typesafe.config.Config;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.net.URI;
 import java.util.function.Function;
 import org.reactivestreams.Publisher;
 
@@ -179,6 +181,58 @@ public interface Connector extends AutoCloseable {
     return false;
   }
 
+  /**
+   * Sets the checkpoint of the current read operation.
+   *
+   * <p>Connectors that support checkpointing should not emit records that the checkpoint reports as
+   * {@linkplain Checkpoint#isProcessed(URI, long) processed}, and should skip resources that it
+   * reports as {@linkplain Checkpoint#isComplete(URI) complete} altogether; they should also
+   * {@linkplain Checkpoint#onResourceRead(URI, long, long) notify} the checkpoint every time a
+   * resource has been entirely read. Connectors that do not support checkpointing can simply ignore
+   * this method, in which case resumed operations will read all their records again.
+   *
+   * <p>This method is only called when the connector is configured for reads, after the connector
+   * is properly {@link #init() initialized}, and before any invocation of {@link #read()}.
+   *
+   * @param checkpoint the checkpoint of the current read operation.
+   */
+  default void setCheckpoint(@NonNull Checkpoint checkpoint) {}
+
+  /**
+   * Flushes the records written so far: once this method returns, all the records emitted by the
+   * {@linkplain #write() write function} before it was called are written to their destination.
+   *
+   * <p>This method is only called when the connector is configured for writes, and may be called
+   * concurrently with writes. Connectors that cannot flush records while writing return false, in
+   * which case records are only guaranteed to be written once the connector is {@linkplain #close()
+   * closed}; this is the default.
+   *
+   * @return true if the records were flushed, false if this connector cannot flush records.
+   * @throws Exception if the records cannot be flushed.
+   */
+  default boolean flush() throws Exception {
+    return false;
+  }
+
+  /**
+   * Returns a fingerprint of the data that this connector is about to read, that is, a string that
+   * changes whenever the data changes; this allows the workflow runner to reuse the results of
+   * expensive analyses of the data, such as data size sampling, across operations reading the same
+   * data.
+   *
+   * <p>Connectors that cannot compute such a fingerprint cheaply, or that cannot tell whether their
+   * data changed, should return null, which is the default.
+   *
+   * <p>This method is only called when the connector is configured for reads, after the connector
+   * is properly {@link #init() initialized}.
+   *
+   * @return the fingerprint of the data to read, or null if it cannot be determined.
+   */
+  @Nullable
+  default String getFingerprint() {
+    return null;
+  }
+
   /**
    * Returns metadata about the records that this connector can read or write.
    *
@@ -0,0 +1,177 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.api;
+
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The immutable set of fields shared by {@link ArrayBackedRecord}s.
+ *
+ * <p>A schema assigns to each of its fields the index of the field value in the records' value
+ * arrays. Schemas are meant to be created once per resource, then shared by all the records read
+ * from that resource.
+ *
+ * <p>Schemas can contain both mapped and indexed fields referring to the same values: this allows
+ * records of files with headers to be mapped either by name or by index.
+ */
+public final class RecordSchema {
+
+  private static final RecordSchema EMPTY = indexed(0);
+
+  /**
+   * Creates a schema containing the indexed fields {@code 0} to {@code size - 1}.
+   *
+   * @param size the number of fields.
+   * @return a schema of indexed fields.
+   */
+  @NonNull
+  public static RecordSchema indexed(int size) {
+    return new RecordSchema(new Field[0], size, true);
+  }
+
+  /**
+   * Creates a schema containing the given fields; the value of the field at index {@code i} is the
+   * value at index {@code i} in the records' value arrays.
+   *
+   * @param fields the schema fields.
+   * @return a schema of mapped fields.
+   */
+  @NonNull
+  public static RecordSchema mapped(@NonNull Field... fields) {
+    return new RecordSchema(fields, fields.length, false);
+  }
+
+  /**
+   * Creates a schema containing the given fields, followed by the indexed fields {@code 0} to
+   * {@code fields.length - 1}: both the field at index {@code i} and the indexed field {@code i}
+   * refer to the value at index {@code i} in the records' value arrays.
+   *
+   * @param fields the schema mapped fields.
+   * @return a schema of mapped and indexed fields.
+   */
+  @NonNull
+  public static RecordSchema mappedAndIndexed(@NonNull Field... fields) {
+    return new RecordSchema(fields, fields.length, true);
+  }
+
+  @NonNull
+  static RecordSchema empty() {
+    return EMPTY;
+  }
+
+  private final int size;
+  private final boolean indexed;
+  private final Map<Field, Integer> mappedIndices;
+  private final ImmutableSet<Field> fields;
+  // the value index of each field, in iteration order
+  private final int[] valueIndices;
+
+  private RecordSchema(Field[] mappedFields, int size, boolean indexed) {
+    this.size = size;
+    this.indexed = indexed;
+    // When a field appears more than once, it keeps its first position, but refers to its last
+    // value, just like it would in a record backed by a LinkedHashMap.
+    mappedIndices = new HashMap<>(mappedFields.length * 2);
+    List<Field> fields = new ArrayList<>(mappedFields.length + (indexed ? size : 0));
+    for (int i = 0; i < mappedFields.length; i++) {
+      if (mappedIndices.put(mappedFields[i], i) == null) {
+        fields.add(mappedFields[i]);
+      }
+    }
+    int mappedCount = fields.size();
+    valueIndices = new int[mappedCount + (indexed ? size : 0)];
+    for (int i = 0; i < mappedCount; i++) {
+      valueIndices[i] = mappedIndices.get(fields.get(i));
+    }
+    if (indexed) {
+      for (int i = 0; i < size; i++) {
+        valueIndices[mappedCount + i] = i;
+        fields.add(new DefaultIndexedField(i));
+      }
+    }
+    this.fields = ImmutableSet.copyOf(fields);
+  }
+
+  /** @return the number of values of the records using this schema. */
+  public int size() {
+    return size;
+  }
+
+  /** @return the fields of this schema, in iteration order. */
+  @NonNull
+  public Set<Field> fields() {
+    return fields;
+  }
+
+  /**
+   * Returns the index of the value of the given field, or -1 if this schema does not contain the
+   * field.
+   *
+   * @param field the field to look up.
+   * @return the index of the value of the given field, or -1 if this schema does not contain the
+   *     field.
+   */
+  public int indexOf(@NonNull Field field) {
+    if (field instanceof IndexedField) {
+      int index = ((IndexedField) field).getFieldIndex();
+      return indexed && index < size ? index : -1;
+    }
+    Integer index = mappedIndices.get(field);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Returns the index of the value of the field at the given position in {@linkplain #fields()
+   * iteration order}.
+   *
+   * @param position the field position, between 0 and {@code fields().size() - 1}.
+   * @return the index of the value of the field at the given position.
+   */
+  public int valueIndexAt(int position) {
+    return valueIndices[position];
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RecordSchema that = (RecordSchema) o;
+    return size == that.size
+        && fields.asList().equals(that.fields.asList())
+        && Arrays.equals(valueIndices, that.valueIndices);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * fields.hashCode() + size;
+  }
+
+  @Override
+  public String toString() {
+    return fields.toString();
+  }
+}
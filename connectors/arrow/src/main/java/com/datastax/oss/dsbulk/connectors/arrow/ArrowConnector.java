@@ -0,0 +1,803 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.arrow;
+
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.driver.shaded.guava.common.io.CountingOutputStream;
+import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
+import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
+import com.datastax.oss.dsbulk.connectors.api.ConnectorFeature;
+import com.datastax.oss.dsbulk.connectors.api.DefaultErrorRecord;
+import com.datastax.oss.dsbulk.connectors.api.DefaultIndexedField;
+import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
+import com.datastax.oss.dsbulk.connectors.api.Field;
+import com.datastax.oss.dsbulk.connectors.api.IndexedField;
+import com.datastax.oss.dsbulk.connectors.api.MappedField;
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.oss.dsbulk.connectors.api.RecordSchema;
+import com.datastax.oss.dsbulk.connectors.arrow.ArrowTypes.ColumnReader;
+import com.datastax.oss.dsbulk.connectors.arrow.ArrowTypes.ColumnWriter;
+import com.datastax.oss.dsbulk.connectors.arrow.ArrowTypes.ValueReader;
+import com.datastax.oss.dsbulk.connectors.commons.AbstractSplittableFileBasedConnector;
+import com.datastax.oss.dsbulk.io.CompressedIOUtils;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigFactory;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.flatbuf.MessageHeader;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryEncoder;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.ArrowWriter;
+import org.apache.arrow.vector.ipc.ReadChannel;
+import org.apache.arrow.vector.ipc.message.ArrowBlock;
+import org.apache.arrow.vector.ipc.message.MessageMetadataResult;
+import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.SynchronousSink;
+
+/**
+ * A connector for files in the Arrow IPC format, either the random-access file format (also known
+ * as Feather V2) or the streaming format.
+ *
+ * <p>Records are read and written one record batch at a time. When reading, the values of each
+ * column of a batch are copied out of the Arrow vectors in bulk; local files in the file format are
+ * split on record batch boundaries, which allows a single file to be read in parallel. When
+ * writing, values are stored in vectors until a batch is full, then the whole batch is written.
+ * Values of CQL types that map to an Arrow primitive type are exchanged as {@linkplain
+ * com.datastax.oss.dsbulk.codecs.api.EncodedValue encoded values}, see {@link ArrowTypes}.
+ *
+ * <p>This connector is highly configurable; see its {@code dsbulk-reference.conf} file, bundled
+ * within its jar archive, for detailed information.
+ */
+public class ArrowConnector extends AbstractSplittableFileBasedConnector {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ArrowConnector.class);
+
+  private static final String BATCH_SIZE = "batchSize";
+  private static final String FORMAT = "format";
+
+  private static final String FILE_FORMAT = "file";
+  private static final String STREAM_FORMAT = "stream";
+
+  /** The magic string that starts and ends files in the Arrow file format. */
+  private static final byte[] MAGIC = {'A', 'R', 'R', 'O', 'W', '1'};
+
+  /** The size of the magic string, padded to an 8-byte boundary. */
+  private static final int PADDED_MAGIC_LENGTH = 8;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Settings of file-based connectors that do not apply to Arrow files, which are binary. These
+   * values take precedence over user-supplied ones.
+   */
+  private static final Config FIXED_SETTINGS =
+      ConfigFactory.parseMap(ImmutableMap.of(ENCODING, "UTF-8", READ_BUFFER_SIZE, BUFFER_SIZE));
+
+  private int batchSize;
+  private boolean streamFormat;
+  private BufferAllocator rootAllocator;
+
+  // read state
+  private final Map<Field, GenericType<?>> readTypes = new ConcurrentHashMap<>();
+
+  // write state
+  private final Map<Field, ColumnWriter> columnWriters = new ConcurrentHashMap<>();
+  private WriteSchema writeSchema;
+
+  @Override
+  @NonNull
+  public String getConnectorName() {
+    return "arrow";
+  }
+
+  @Override
+  public void configure(@NonNull Config settings, boolean read, boolean retainRecordSources) {
+    try {
+      super.configure(FIXED_SETTINGS.withFallback(settings), read, retainRecordSources);
+      splitSize = settings.getLong(SPLIT_SIZE);
+      batchSize = settings.getInt(BATCH_SIZE);
+      if (batchSize <= 0) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for connector.arrow.%s: Expecting a strictly positive number, got: %d",
+                BATCH_SIZE, batchSize));
+      }
+      String format = settings.getString(FORMAT);
+      if (format.equalsIgnoreCase(STREAM_FORMAT)) {
+        streamFormat = true;
+      } else if (format.equalsIgnoreCase(FILE_FORMAT)) {
+        streamFormat = false;
+      } else {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for connector.arrow.%s, valid values: %s,%s, got: '%s'",
+                FORMAT, FILE_FORMAT, STREAM_FORMAT, format));
+      }
+    } catch (ConfigException e) {
+      throw ConfigUtils.convertConfigException(e, "dsbulk.connector.arrow");
+    }
+  }
+
+  @Override
+  public void init() throws URISyntaxException, IOException {
+    rootAllocator = new RootAllocator();
+    super.init();
+  }
+
+  @Override
+  public void close() {
+    try {
+      super.close();
+    } finally {
+      if (rootAllocator != null) {
+        rootAllocator.close();
+      }
+    }
+  }
+
+  @NonNull
+  @Override
+  public RecordMetadata getRecordMetadata() {
+    if (read) {
+      return (field, cqlType) -> {
+        GenericType<?> javaType = readTypes.get(field);
+        return javaType == null ? GenericType.STRING : javaType;
+      };
+    }
+    return (field, cqlType) ->
+        columnWriters
+            .computeIfAbsent(field, f -> ArrowTypes.newColumnWriter(cqlType))
+            .getJavaType();
+  }
+
+  @Override
+  public boolean supports(@NonNull ConnectorFeature feature) {
+    if (feature instanceof CommonConnectorFeature) {
+      CommonConnectorFeature commonFeature = (CommonConnectorFeature) feature;
+      switch (commonFeature) {
+        case MAPPED_RECORDS:
+        case INDEXED_RECORDS:
+          // columns have both a name and a position
+          return true;
+        case DATA_SIZE_SAMPLING:
+          return isDataSizeSamplingAvailable();
+      }
+    }
+    return false;
+  }
+
+  @NonNull
+  @Override
+  protected RecordReader newSingleFileReader(@NonNull URL url) throws IOException {
+    return new ArrowRecordReader(url, null, 0);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Only files in the Arrow file format can be split, since the streaming format has no footer
+   * listing the record batches of the file.
+   */
+  @Override
+  protected boolean isSplittable(@NonNull URL url) {
+    return super.isSplittable(url) && isLocalArrowFile(url);
+  }
+
+  /** Whether the given resource is a local, uncompressed file in the Arrow file format. */
+  private boolean isLocalArrowFile(@NonNull URL url) {
+    if (!url.getProtocol().equalsIgnoreCase("file")
+        || !CompressedIOUtils.isNoneCompression(compression)) {
+      return false;
+    }
+    try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()))) {
+      ByteBuffer magic = ByteBuffer.allocate(MAGIC.length);
+      while (magic.hasRemaining() && channel.read(magic) != -1) {
+        // keep reading
+      }
+      return Arrays.equals(magic.array(), MAGIC);
+    } catch (URISyntaxException | IOException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Local files in the Arrow file format are split using their footer. Other resources cannot be
+   * split, but can still be fast-forwarded to the first record to read: they are then read as one
+   * single split.
+   */
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Arrow files cannot be flushed: they can only be read once their footer is written, when the
+   * file is closed.
+   */
+  @Override
+  public boolean flush() {
+    return false;
+  }
+
+  @NonNull
+  @Override
+  protected FileSplitter newFileSplitter(
+      @NonNull URL url, long firstRecordNumber, long maxSplitSize) throws IOException {
+    if (isLocalArrowFile(url)) {
+      return new RecordBatchSplitter(url, firstRecordNumber, maxSplitSize);
+    }
+    return new StreamSplitter(url, firstRecordNumber);
+  }
+
+  /**
+   * Splits an Arrow file into groups of contiguous record batches of roughly {@code maxSplitSize}
+   * bytes, using the file footer. The number of rows of each batch is read from its metadata, the
+   * batch bodies are not read; batches that end before the first record to read are skipped.
+   */
+  private class RecordBatchSplitter implements FileSplitter {
+
+    private final URL url;
+    private final Path path;
+    private final List<ArrowBlock> blocks;
+    private final long[] rowCounts;
+    private final long firstRecordNumber;
+    private final long maxSplitSize;
+
+    private int nextBlock;
+    private long nextRecordNumber = 1;
+    // the number of rows to skip at the beginning of the first split
+    private long skippedRows;
+
+    private RecordBatchSplitter(URL url, long firstRecordNumber, long maxSplitSize)
+        throws IOException {
+      this.url = url;
+      this.firstRecordNumber = firstRecordNumber;
+      this.maxSplitSize = maxSplitSize > 0 ? maxSplitSize : Long.MAX_VALUE;
+      try {
+        path = Paths.get(url.toURI());
+      } catch (URISyntaxException e) {
+        throw new IOException(e);
+      }
+      try (BufferAllocator allocator =
+              rootAllocator.newChildAllocator(url.toString(), 0, Long.MAX_VALUE);
+          FileChannel channel = FileChannel.open(path);
+          ArrowFileReader reader = new ArrowFileReader(channel, allocator)) {
+        blocks = new ArrayList<>(reader.getRecordBlocks());
+        rowCounts = new long[blocks.size()];
+        for (int i = 0; i < rowCounts.length; i++) {
+          channel.position(blocks.get(i).getOffset());
+          // don't close the read channel, it would close the file channel
+          MessageMetadataResult message = MessageSerializer.readMessage(new ReadChannel(channel));
+          if (message == null || message.headerType() != MessageHeader.RecordBatch) {
+            throw new IOException("Invalid footer: block does not point to a record batch");
+          }
+          rowCounts[i] = ((RecordBatch) message.getMessage().header(new RecordBatch())).length();
+        }
+      } catch (IOException | RuntimeException e) {
+        throw new IOException(String.format("Error reading footer of %s", url), e);
+      }
+      while (nextBlock < blocks.size()
+          && nextRecordNumber + rowCounts[nextBlock] <= firstRecordNumber) {
+        nextRecordNumber += rowCounts[nextBlock++];
+      }
+      skippedRows = Math.max(0, firstRecordNumber - nextRecordNumber);
+    }
+
+    @Nullable
+    @Override
+    public FileSplit nextSplit() {
+      if (nextBlock == blocks.size()) {
+        return null;
+      }
+      long start = blocks.get(nextBlock).getOffset();
+      long end;
+      long splitFirstRecordNumber = Math.max(nextRecordNumber, firstRecordNumber);
+      do {
+        ArrowBlock block = blocks.get(nextBlock);
+        end = block.getOffset() + block.getMetadataLength() + block.getBodyLength();
+        nextRecordNumber += rowCounts[nextBlock++];
+      } while (nextBlock < blocks.size() && end - start < maxSplitSize);
+      return new FileSplit(this, url, path, start, end - start, splitFirstRecordNumber);
+    }
+
+    @NonNull
+    @Override
+    public RecordReader newSplitReader(@NonNull FileSplit split) throws IOException {
+      boolean first = split.getFirstRecordNumber() == firstRecordNumber;
+      return new ArrowRecordReader(split.getUrl(), split, first ? skippedRows : 0);
+    }
+
+    @Override
+    public void close() {
+      // nothing to close, the footer was read in the constructor
+    }
+  }
+
+  /**
+   * Emits a single split continuing a resource that cannot be split, such as a compressed file, a
+   * file in the streaming format, or the standard input. Batches are loaded to find their number of
+   * rows, but the rows before the first record to read are not converted to records.
+   */
+  private class StreamSplitter implements FileSplitter {
+
+    private final URL url;
+    private final long firstRecordNumber;
+
+    private boolean done;
+
+    private StreamSplitter(URL url, long firstRecordNumber) {
+      this.url = url;
+      this.firstRecordNumber = firstRecordNumber;
+    }
+
+    @Nullable
+    @Override
+    public FileSplit nextSplit() throws IOException {
+      if (done) {
+        return null;
+      }
+      done = true;
+      InputStream in = CompressedIOUtils.newInputStream(url, compression, decompressionThreads);
+      return new FileSplit(this, url, in, 0, firstRecordNumber);
+    }
+
+    @NonNull
+    @Override
+    public RecordReader newSplitReader(@NonNull FileSplit split) throws IOException {
+      return new ArrowRecordReader(split.getUrl(), split, firstRecordNumber - 1);
+    }
+
+    @Override
+    public void close() {
+      // the stream is closed by the split reader
+    }
+  }
+
+  private class ArrowRecordReader implements RecordReader {
+
+    private final URL url;
+    private final URI resource;
+    private final BufferAllocator allocator;
+    private final ArrowReader reader;
+    private final VectorSchemaRoot root;
+    private final MappedField[] mappedFields;
+    private final IndexedField[] indexedFields;
+    private final RecordSchema schema;
+
+    /** The record batches to read, for file splits; null when reading a whole stream. */
+    @Nullable private final List<ArrowBlock> blocks;
+
+    private int nextBlock;
+    private ColumnReader[] columnReaders;
+    private ValueReader[] valueReaders;
+    private FieldVector[] decodedVectors;
+    private int row;
+    private int rowCount;
+    private long recordNumber = 1;
+    // the number of rows to skip before emitting the first record
+    private long skippedRows;
+
+    private ArrowRecordReader(URL url, @Nullable FileSplit split, long skippedRows)
+        throws IOException {
+      this.url = url;
+      this.skippedRows = skippedRows;
+      resource = URI.create(url.toExternalForm());
+      allocator = rootAllocator.newChildAllocator(url.toString(), 0, Long.MAX_VALUE);
+      try {
+        if (split == null || split.getPath() == null) {
+          InputStream in =
+              split == null
+                  ? CompressedIOUtils.newInputStream(url, compression, decompressionThreads)
+                  : Objects.requireNonNull(split.getStream());
+          reader =
+              new ArrowStreamReader(
+                  skipFileMagic(in), allocator, CommonsCompressionFactory.INSTANCE);
+          blocks = null;
+          if (split != null) {
+            recordNumber = split.getFirstRecordNumber();
+          }
+        } else {
+          long start = split.getStart();
+          long end = start + split.getLength();
+          ArrowFileReader fileReader =
+              new ArrowFileReader(
+                  FileChannel.open(split.getPath(), StandardOpenOption.READ),
+                  allocator,
+                  CommonsCompressionFactory.INSTANCE);
+          reader = fileReader;
+          blocks =
+              fileReader.getRecordBlocks().stream()
+                  .filter(block -> block.getOffset() >= start && block.getOffset() < end)
+                  .collect(Collectors.toList());
+          recordNumber = split.getFirstRecordNumber();
+        }
+        root = reader.getVectorSchemaRoot();
+        List<org.apache.arrow.vector.types.pojo.Field> fields = root.getSchema().getFields();
+        mappedFields = new MappedField[fields.size()];
+        indexedFields = new IndexedField[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+          mappedFields[i] = new DefaultMappedField(fields.get(i).getName());
+          indexedFields[i] = new DefaultIndexedField(i);
+        }
+        // also emit indexed fields
+        schema = RecordSchema.mappedAndIndexed(mappedFields);
+      } catch (Exception e) {
+        allocator.close();
+        throw new IOException(
+            String.format("Error reading from %s", split == null ? url : split), e);
+      }
+    }
+
+    /**
+     * Skips the magic string that starts files in the Arrow file format, if present: what follows
+     * is a regular stream, terminated by an end-of-stream marker that precedes the file footer.
+     */
+    @NonNull
+    private InputStream skipFileMagic(@NonNull InputStream in) throws IOException {
+      BufferedInputStream buffered =
+          in instanceof BufferedInputStream
+              ? (BufferedInputStream) in
+              : new BufferedInputStream(in, BUFFER_SIZE);
+      buffered.mark(PADDED_MAGIC_LENGTH);
+      byte[] header = new byte[PADDED_MAGIC_LENGTH];
+      int read = 0;
+      while (read < header.length) {
+        int n = buffered.read(header, read, header.length - read);
+        if (n == -1) {
+          break;
+        }
+        read += n;
+      }
+      if (read < header.length || !Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC)) {
+        buffered.reset();
+      }
+      return buffered;
+    }
+
+    @NonNull
+    @Override
+    public RecordReader readNext(@NonNull SynchronousSink<Record> sink) {
+      try {
+        while (row == rowCount) {
+          if (!loadNextBatch()) {
+            LOGGER.debug("Done reading {}", url);
+            sink.complete();
+            return this;
+          }
+        }
+        Record record = toRecord(row++);
+        LOGGER.trace("Emitting record {}", record);
+        sink.next(record);
+      } catch (Exception e) {
+        sink.error(
+            new IOException(
+                String.format("Error reading from %s at record %d", url, recordNumber), e));
+      }
+      return this;
+    }
+
+    private boolean loadNextBatch() throws IOException {
+      while (true) {
+        boolean loaded;
+        if (blocks == null) {
+          loaded = reader.loadNextBatch();
+        } else if (nextBlock < blocks.size()) {
+          loaded = ((ArrowFileReader) reader).loadRecordBatch(blocks.get(nextBlock++));
+        } else {
+          loaded = false;
+        }
+        if (!loaded) {
+          return false;
+        }
+        if (skippedRows < root.getRowCount()) {
+          break;
+        }
+        // skip the whole batch without reading its values
+        skippedRows -= root.getRowCount();
+      }
+      if (columnReaders == null) {
+        // dictionaries are only available once the first batch is loaded
+        initColumns();
+      }
+      closeDecodedVectors();
+      List<FieldVector> vectors = root.getFieldVectors();
+      for (int i = 0; i < columnReaders.length; i++) {
+        FieldVector vector = vectors.get(i);
+        DictionaryEncoding encoding = vector.getField().getDictionary();
+        if (encoding != null) {
+          Dictionary dictionary = reader.lookup(encoding.getId());
+          vector = (FieldVector) DictionaryEncoder.decode(vector, dictionary);
+          decodedVectors[i] = vector;
+        }
+        valueReaders[i] = columnReaders[i].load(vector);
+      }
+      rowCount = root.getRowCount();
+      row = (int) skippedRows;
+      skippedRows = 0;
+      return true;
+    }
+
+    private void initColumns() throws IOException {
+      List<FieldVector> vectors = root.getFieldVectors();
+      columnReaders = new ColumnReader[vectors.size()];
+      valueReaders = new ValueReader[vectors.size()];
+      decodedVectors = new FieldVector[vectors.size()];
+      for (int i = 0; i < columnReaders.length; i++) {
+        org.apache.arrow.vector.types.pojo.Field field = vectors.get(i).getField();
+        DictionaryEncoding encoding = field.getDictionary();
+        columnReaders[i] =
+            ArrowTypes.newColumnReader(
+                encoding == null
+                    ? field.getType()
+                    : reader.lookup(encoding.getId()).getVectorType());
+        GenericType<?> javaType = columnReaders[i].getJavaType();
+        GenericType<?> previous = readTypes.putIfAbsent(mappedFields[i], javaType);
+        if (previous != null && !previous.equals(javaType)) {
+          throw new IOException(
+              String.format(
+                  "Column %s has type %s, but it has a different type in other files",
+                  field.getName(), field.getType()));
+        }
+        readTypes.putIfAbsent(indexedFields[i], javaType);
+      }
+    }
+
+    @NonNull
+    private Record toRecord(int row) {
+      long position = recordNumber++;
+      try {
+        Object[] values = new Object[valueReaders.length];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = valueReaders[i].read(row);
+        }
+        return new ArrayBackedRecord(null, resource, position, schema, values);
+      } catch (Exception e) {
+        return new DefaultErrorRecord(null, resource, position, e);
+      }
+    }
+
+    private void closeDecodedVectors() {
+      if (decodedVectors != null) {
+        for (int i = 0; i < decodedVectors.length; i++) {
+          if (decodedVectors[i] != null) {
+            decodedVectors[i].close();
+            decodedVectors[i] = null;
+          }
+        }
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        closeDecodedVectors();
+        reader.close();
+      } finally {
+        allocator.close();
+      }
+    }
+  }
+
+  @NonNull
+  @Override
+  protected RecordWriter newSingleFileWriter() {
+    return new ArrowRecordWriter();
+  }
+
+  /**
+   * Returns the schema of written files, computed from the fields of the first record to write and
+   * from the CQL types reported for these fields through {@link #getRecordMetadata()}.
+   */
+  @NonNull
+  private synchronized WriteSchema getWriteSchema(@NonNull Record record) {
+    if (writeSchema == null) {
+      Field[] fields = record.fields().toArray(new Field[0]);
+      ColumnWriter[] writers = new ColumnWriter[fields.length];
+      List<org.apache.arrow.vector.types.pojo.Field> arrowFields = new ArrayList<>(fields.length);
+      for (int i = 0; i < fields.length; i++) {
+        writers[i] = columnWriters.get(fields[i]);
+        if (writers[i] == null) {
+          throw new IllegalStateException("Unknown CQL type for field " + fields[i]);
+        }
+        arrowFields.add(
+            new org.apache.arrow.vector.types.pojo.Field(
+                fields[i].getFieldDescription(),
+                FieldType.nullable(writers[i].getArrowType()),
+                null));
+      }
+      writeSchema = new WriteSchema(fields, writers, new Schema(arrowFields));
+      LOGGER.debug("Writing Arrow files with schema {}", writeSchema.arrowSchema);
+    }
+    return writeSchema;
+  }
+
+  private static final class WriteSchema {
+
+    private final Field[] fields;
+    private final ColumnWriter[] writers;
+    private final Schema arrowSchema;
+
+    private WriteSchema(Field[] fields, ColumnWriter[] writers, Schema arrowSchema) {
+      this.fields = fields;
+      this.writers = writers;
+      this.arrowSchema = arrowSchema;
+    }
+  }
+
+  private class ArrowRecordWriter implements RecordWriter {
+
+    private URL url;
+    private CountingOutputStream counter;
+    private BufferedOutputStream out;
+    private BufferAllocator allocator;
+    private VectorSchemaRoot root;
+    private ArrowWriter writer;
+    private WriteSchema schema;
+    private FieldVector[] vectors;
+    private int rows;
+    private long currentRecords;
+
+    @Override
+    public void write(@NonNull Record record) throws IOException {
+      try {
+        if (writer == null) {
+          open(record);
+        } else if (shouldRoll()) {
+          close();
+          open(record);
+        }
+        LOGGER.trace("Writing record {} to {}", record, url);
+        if (record.fields().size() != schema.fields.length) {
+          throw new IllegalArgumentException(
+              String.format(
+                  "Record has %d fields but file schema has %d fields",
+                  record.fields().size(), schema.fields.length));
+        }
+        for (int i = 0; i < schema.fields.length; i++) {
+          schema.writers[i].write(vectors[i], rows, record.getFieldValue(schema.fields[i]));
+        }
+        rows++;
+        currentRecords++;
+        if (rows == batchSize) {
+          writeBatch();
+        }
+      } catch (ClosedChannelException e) {
+        // OK, happens when the channel was closed due to interruption
+      } catch (RuntimeException e) {
+        throw new IOException(String.format("Error writing to %s", url), e);
+      }
+    }
+
+    private boolean shouldRoll() {
+      // record batches are written as a whole, so the file size only grows between batches
+      return (!roots.isEmpty() && currentRecords == maxRecords)
+          || (rows == 0 && isMaxFileSizeReached(counter.getCount()));
+    }
+
+    private void writeBatch() throws IOException {
+      root.setRowCount(rows);
+      writer.writeBatch();
+      root.allocateNew();
+      rows = 0;
+    }
+
+    private void open(@NonNull Record record) throws IOException {
+      url = getOrCreateDestinationURL();
+      try {
+        schema = getWriteSchema(record);
+        counter = newCountingOutputStream(url);
+        out =
+            new BufferedOutputStream(
+                CompressedIOUtils.newOutputStream(counter, compression, compressionThreads),
+                BUFFER_SIZE);
+        allocator = rootAllocator.newChildAllocator(url.toString(), 0, Long.MAX_VALUE);
+        root = VectorSchemaRoot.create(schema.arrowSchema, allocator);
+        vectors = root.getFieldVectors().toArray(new FieldVector[0]);
+        writer =
+            streamFormat
+                ? new ArrowStreamWriter(root, null, Channels.newChannel(out))
+                : new ArrowFileWriter(root, null, Channels.newChannel(out));
+        writer.start();
+        root.allocateNew();
+        rows = 0;
+        currentRecords = 0;
+        LOGGER.debug("Writing {}", url);
+      } catch (ClosedChannelException e) {
+        // OK, happens when the channel was closed due to interruption
+      } catch (RuntimeException | IOException e) {
+        throw new IOException(String.format("Error opening %s", url), e);
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (writer != null) {
+        try {
+          if (rows > 0) {
+            writeBatch();
+          }
+          out.flush();
+        } catch (ClosedChannelException e) {
+          // OK, happens when the channel was closed due to interruption
+        } catch (RuntimeException e) {
+          throw new IOException(String.format("Error writing to %s", url), e);
+        }
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (writer != null) {
+        try {
+          if (rows > 0) {
+            writeBatch();
+          }
+          writer.end();
+          writer.close();
+          LOGGER.debug("Done writing {}", url);
+        } catch (ClosedChannelException e) {
+          // OK, happens when the channel was closed due to interruption
+        } catch (RuntimeException | IOException e) {
+          throw new IOException(String.format("Error closing %s", url), e);
+        } finally {
+          writer = null;
+          root.close();
+          allocator.close();
+        }
+      }
+    }
+  }
+}
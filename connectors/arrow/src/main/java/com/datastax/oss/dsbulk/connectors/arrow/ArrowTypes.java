@@ -0,0 +1,526 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.arrow;
+
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.dsbulk.codecs.api.EncodedValue;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.function.Function;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.BaseLargeVariableWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeNanoVector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+
+/**
+ * Mappings between Arrow vectors and the values exchanged with DSBulk's converting codecs.
+ *
+ * <p>When an Arrow type has a direct CQL counterpart, e.g. a 32-bit signed integer and a CQL {@code
+ * int}, values are exchanged as {@link EncodedValue}s: when reading, each batch of a column is
+ * converted in bulk to the big-endian format of the native protocol, and when writing, encoded
+ * values are stored in vectors without being decoded. Neither direction creates boxed primitives
+ * for such values. Other types are exchanged with their natural Java types when they have one, or
+ * as strings otherwise.
+ */
+final class ArrowTypes {
+
+  private static final GenericType<EncodedValue> ENCODED_VALUE = GenericType.of(EncodedValue.class);
+
+  private static final EncodedValue TRUE =
+      new EncodedValue(ByteBuffer.wrap(new byte[] {1}).asReadOnlyBuffer(), DataTypes.BOOLEAN);
+
+  private static final EncodedValue FALSE =
+      new EncodedValue(ByteBuffer.wrap(new byte[] {0}).asReadOnlyBuffer(), DataTypes.BOOLEAN);
+
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+
+  private ArrowTypes() {}
+
+  /** Reads the values of a column in the record batch that is currently loaded. */
+  @FunctionalInterface
+  interface ValueReader {
+
+    /** @return The value of the column at the given row, or null if it has no value. */
+    @Nullable
+    Object read(int row);
+  }
+
+  /** Adds one non-null value to a vector. */
+  @FunctionalInterface
+  private interface ValueWriter {
+    void write(@NonNull FieldVector vector, int row, @NonNull Object value);
+  }
+
+  /** Reads the values of a column of an Arrow file, one record batch at a time. */
+  static final class ColumnReader {
+
+    private final GenericType<?> javaType;
+    private final Function<FieldVector, ValueReader> loader;
+
+    private ColumnReader(GenericType<?> javaType, Function<FieldVector, ValueReader> loader) {
+      this.javaType = javaType;
+      this.loader = loader;
+    }
+
+    /** @return The Java type of the values produced by this reader. */
+    @NonNull
+    GenericType<?> getJavaType() {
+      return javaType;
+    }
+
+    /**
+     * Returns a reader for the values of the given vector, which holds the values of this column in
+     * the record batch that was just loaded. The returned reader can only be used until the next
+     * batch is loaded; the values it produces, however, remain valid afterwards.
+     */
+    @NonNull
+    ValueReader load(@NonNull FieldVector vector) {
+      if (vector.getValueCount() == 0) {
+        return row -> null;
+      }
+      return loader.apply(vector);
+    }
+  }
+
+  /** Writes the values of a record field to a column of an Arrow file. */
+  static final class ColumnWriter {
+
+    private final ArrowType arrowType;
+    private final GenericType<?> javaType;
+    private final ValueWriter writer;
+
+    private ColumnWriter(ArrowType arrowType, GenericType<?> javaType, ValueWriter writer) {
+      this.arrowType = arrowType;
+      this.javaType = javaType;
+      this.writer = writer;
+    }
+
+    /** @return The type of the column in the Arrow schema. */
+    @NonNull
+    ArrowType getArrowType() {
+      return arrowType;
+    }
+
+    /** @return The Java type of the values accepted by this writer. */
+    @NonNull
+    GenericType<?> getJavaType() {
+      return javaType;
+    }
+
+    /** Sets the given row of the given vector to the given value; null values are skipped. */
+    void write(@NonNull FieldVector vector, int row, @Nullable Object value) {
+      if (value != null) {
+        writer.write(vector, row, value);
+      }
+    }
+  }
+
+  /** Creates a reader for an Arrow column of the given type. */
+  @NonNull
+  static ColumnReader newColumnReader(@NonNull ArrowType arrowType) {
+    MinorType minorType = Types.getMinorTypeForArrowType(arrowType);
+    switch (minorType) {
+      case TINYINT:
+        return encoded(vector -> encodedBytes(vector, DataTypes.TINYINT));
+      case SMALLINT:
+        return encoded(ArrowTypes::encodedShorts);
+      case INT:
+        return encoded(vector -> encodedInts(vector, DataTypes.INT, null));
+      case FLOAT4:
+        // copying the bits is enough, both formats use IEEE 754
+        return encoded(vector -> encodedInts(vector, DataTypes.FLOAT, null));
+      case BIGINT:
+        return encoded(vector -> encodedLongs(vector, DataTypes.BIGINT, null));
+      case FLOAT8:
+        return encoded(vector -> encodedLongs(vector, DataTypes.DOUBLE, null));
+      case BIT:
+        return encoded(
+            vector -> {
+              BitVector bits = (BitVector) vector;
+              return row -> bits.isNull(row) ? null : bits.get(row) == 0 ? FALSE : TRUE;
+            });
+      case VARCHAR:
+        return encoded(vector -> encodedVariableWidth(vector, DataTypes.TEXT));
+      case LARGEVARCHAR:
+        return encoded(vector -> encodedLargeVariableWidth(vector, DataTypes.TEXT));
+      case VARBINARY:
+        return encoded(vector -> encodedVariableWidth(vector, DataTypes.BLOB));
+      case LARGEVARBINARY:
+        return encoded(vector -> encodedLargeVariableWidth(vector, DataTypes.BLOB));
+      case FIXEDSIZEBINARY:
+        return encoded(ArrowTypes::encodedFixedSizeBinary);
+      case DATEDAY:
+        // CQL dates are unsigned integers, with the epoch at 2^31
+        return encoded(
+            vector -> encodedInts(vector, DataTypes.DATE, days -> days ^ Integer.MIN_VALUE));
+      case TIMESEC:
+        return encoded(
+            vector -> encodedIntsToLongs(vector, DataTypes.TIME, t -> t * 1_000_000_000L));
+      case TIMEMILLI:
+        return encoded(vector -> encodedIntsToLongs(vector, DataTypes.TIME, t -> t * 1_000_000L));
+      case TIMEMICRO:
+        return encoded(vector -> encodedLongs(vector, DataTypes.TIME, t -> t * 1_000L));
+      case TIMENANO:
+        return encoded(vector -> encodedLongs(vector, DataTypes.TIME, null));
+      case TIMESTAMPSEC:
+      case TIMESTAMPSECTZ:
+        return encoded(vector -> encodedLongs(vector, DataTypes.TIMESTAMP, t -> t * 1_000L));
+      case TIMESTAMPMILLI:
+      case TIMESTAMPMILLITZ:
+        return encoded(vector -> encodedLongs(vector, DataTypes.TIMESTAMP, null));
+      case TIMESTAMPMICRO:
+      case TIMESTAMPMICROTZ:
+        // CQL timestamps have a millisecond precision, let codecs decide how to handle the rest
+        return instants(1_000_000L);
+      case TIMESTAMPNANO:
+      case TIMESTAMPNANOTZ:
+        return instants(1_000_000_000L);
+      case DATEMILLI:
+        return new ColumnReader(
+            GenericType.LOCAL_DATE,
+            vector -> {
+              DateMilliVector dates = (DateMilliVector) vector;
+              return row ->
+                  dates.isNull(row)
+                      ? null
+                      : LocalDate.ofEpochDay(Math.floorDiv(dates.get(row), MILLIS_PER_DAY));
+            });
+      case DECIMAL:
+      case DECIMAL256:
+        return new ColumnReader(GenericType.BIG_DECIMAL, vector -> vector::getObject);
+      case NULL:
+        return new ColumnReader(GenericType.STRING, vector -> row -> null);
+      default:
+        // nested and other types: use the string representation of Arrow's Java objects, which is
+        // JSON for lists, maps and structs
+        return new ColumnReader(
+            GenericType.STRING,
+            vector ->
+                row -> {
+                  Object value = vector.getObject(row);
+                  return value == null ? null : value.toString();
+                });
+    }
+  }
+
+  /** Creates a writer for a record field of the given CQL type. */
+  @NonNull
+  static ColumnWriter newColumnWriter(@NonNull DataType cqlType) {
+    if (cqlType == DataTypes.TEXT || cqlType == DataTypes.ASCII) {
+      return encoded(ArrowType.Utf8.INSTANCE, ArrowTypes::writeVariableWidth);
+    }
+    if (cqlType == DataTypes.BLOB) {
+      return encoded(ArrowType.Binary.INSTANCE, ArrowTypes::writeVariableWidth);
+    }
+    if (cqlType == DataTypes.BOOLEAN) {
+      return encoded(
+          ArrowType.Bool.INSTANCE,
+          (vector, row, bytes) ->
+              ((BitVector) vector).setSafe(row, bytes.get(bytes.position()) == 0 ? 0 : 1));
+    }
+    if (cqlType == DataTypes.TINYINT) {
+      return encoded(
+          new ArrowType.Int(8, true),
+          (vector, row, bytes) ->
+              ((TinyIntVector) vector).setSafe(row, bytes.get(bytes.position())));
+    }
+    if (cqlType == DataTypes.SMALLINT) {
+      return encoded(
+          new ArrowType.Int(16, true),
+          (vector, row, bytes) ->
+              ((SmallIntVector) vector).setSafe(row, bytes.getShort(bytes.position())));
+    }
+    if (cqlType == DataTypes.INT) {
+      return encoded(
+          new ArrowType.Int(32, true),
+          (vector, row, bytes) ->
+              ((IntVector) vector).setSafe(row, bytes.getInt(bytes.position())));
+    }
+    if (cqlType == DataTypes.BIGINT || cqlType == DataTypes.COUNTER) {
+      return encoded(
+          new ArrowType.Int(64, true),
+          (vector, row, bytes) ->
+              ((BigIntVector) vector).setSafe(row, bytes.getLong(bytes.position())));
+    }
+    if (cqlType == DataTypes.FLOAT) {
+      return encoded(
+          new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE),
+          (vector, row, bytes) ->
+              ((Float4Vector) vector).setSafe(row, bytes.getFloat(bytes.position())));
+    }
+    if (cqlType == DataTypes.DOUBLE) {
+      return encoded(
+          new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE),
+          (vector, row, bytes) ->
+              ((Float8Vector) vector).setSafe(row, bytes.getDouble(bytes.position())));
+    }
+    if (cqlType == DataTypes.TIMESTAMP) {
+      return encoded(
+          new ArrowType.Timestamp(TimeUnit.MILLISECOND, "UTC"),
+          (vector, row, bytes) ->
+              ((TimeStampMilliTZVector) vector).setSafe(row, bytes.getLong(bytes.position())));
+    }
+    if (cqlType == DataTypes.DATE) {
+      return encoded(
+          new ArrowType.Date(DateUnit.DAY),
+          (vector, row, bytes) ->
+              ((DateDayVector) vector)
+                  .setSafe(row, bytes.getInt(bytes.position()) ^ Integer.MIN_VALUE));
+    }
+    if (cqlType == DataTypes.TIME) {
+      return encoded(
+          new ArrowType.Time(TimeUnit.NANOSECOND, 64),
+          (vector, row, bytes) ->
+              ((TimeNanoVector) vector).setSafe(row, bytes.getLong(bytes.position())));
+    }
+    // decimals, varints, UUIDs, collections, etc. are formatted by codecs
+    return new ColumnWriter(
+        ArrowType.Utf8.INSTANCE,
+        GenericType.STRING,
+        (vector, row, value) ->
+            ((VarCharVector) vector)
+                .setSafe(row, ((String) value).getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @NonNull
+  private static ColumnReader encoded(@NonNull Function<FieldVector, ValueReader> loader) {
+    return new ColumnReader(ENCODED_VALUE, loader);
+  }
+
+  @NonNull
+  private static ColumnReader instants(long unitsPerSecond) {
+    long nanosPerUnit = 1_000_000_000L / unitsPerSecond;
+    return new ColumnReader(
+        GenericType.INSTANT,
+        vector -> {
+          TimeStampVector timestamps = (TimeStampVector) vector;
+          return row -> {
+            if (timestamps.isNull(row)) {
+              return null;
+            }
+            long value = timestamps.get(row);
+            return Instant.ofEpochSecond(
+                Math.floorDiv(value, unitsPerSecond),
+                Math.floorMod(value, unitsPerSecond) * nanosPerUnit);
+          };
+        });
+  }
+
+  /**
+   * Returns a reader for the values of a fixed-width vector, that were copied to the given
+   * big-endian array.
+   */
+  @NonNull
+  private static ValueReader fixedWidth(
+      @NonNull FieldVector vector, @NonNull DataType cqlType, byte[] values, int width) {
+    return row ->
+        vector.isNull(row)
+            ? null
+            : new EncodedValue(ByteBuffer.wrap(values, row * width, width).slice(), cqlType);
+  }
+
+  /** Returns a little-endian view of the data of the given fixed-width vector. */
+  @NonNull
+  private static ByteBuffer data(@NonNull FieldVector vector, int width) {
+    return vector
+        .getDataBuffer()
+        .nioBuffer(0, vector.getValueCount() * width)
+        .order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  @NonNull
+  private static ValueReader encodedBytes(@NonNull FieldVector vector, @NonNull DataType cqlType) {
+    byte[] values = new byte[vector.getValueCount()];
+    vector.getDataBuffer().getBytes(0, values);
+    return fixedWidth(vector, cqlType, values, 1);
+  }
+
+  @NonNull
+  private static ValueReader encodedShorts(@NonNull FieldVector vector) {
+    byte[] values = new byte[vector.getValueCount() * 2];
+    ByteBuffer.wrap(values).asShortBuffer().put(data(vector, 2).asShortBuffer());
+    return fixedWidth(vector, DataTypes.SMALLINT, values, 2);
+  }
+
+  @NonNull
+  private static ValueReader encodedInts(
+      @NonNull FieldVector vector,
+      @NonNull DataType cqlType,
+      @Nullable IntUnaryOperator conversion) {
+    int count = vector.getValueCount();
+    byte[] values = new byte[count * 4];
+    IntBuffer source = data(vector, 4).asIntBuffer();
+    IntBuffer target = ByteBuffer.wrap(values).asIntBuffer();
+    if (conversion == null) {
+      target.put(source);
+    } else {
+      for (int i = 0; i < count; i++) {
+        target.put(i, conversion.applyAsInt(source.get(i)));
+      }
+    }
+    return fixedWidth(vector, cqlType, values, 4);
+  }
+
+  @NonNull
+  private static ValueReader encodedLongs(
+      @NonNull FieldVector vector,
+      @NonNull DataType cqlType,
+      @Nullable LongUnaryOperator conversion) {
+    int count = vector.getValueCount();
+    byte[] values = new byte[count * 8];
+    LongBuffer source = data(vector, 8).asLongBuffer();
+    LongBuffer target = ByteBuffer.wrap(values).asLongBuffer();
+    if (conversion == null) {
+      target.put(source);
+    } else {
+      for (int i = 0; i < count; i++) {
+        target.put(i, conversion.applyAsLong(source.get(i)));
+      }
+    }
+    return fixedWidth(vector, cqlType, values, 8);
+  }
+
+  @NonNull
+  private static ValueReader encodedIntsToLongs(
+      @NonNull FieldVector vector,
+      @NonNull DataType cqlType,
+      @NonNull IntToLongFunction conversion) {
+    int count = vector.getValueCount();
+    byte[] values = new byte[count * 8];
+    IntBuffer source = data(vector, 4).asIntBuffer();
+    LongBuffer target = ByteBuffer.wrap(values).asLongBuffer();
+    for (int i = 0; i < count; i++) {
+      target.put(i, conversion.applyAsLong(source.get(i)));
+    }
+    return fixedWidth(vector, cqlType, values, 8);
+  }
+
+  @NonNull
+  private static ValueReader encodedFixedSizeBinary(@NonNull FieldVector vector) {
+    int width = ((FixedSizeBinaryVector) vector).getByteWidth();
+    byte[] values = new byte[vector.getValueCount() * width];
+    vector.getDataBuffer().getBytes(0, values);
+    return fixedWidth(vector, DataTypes.BLOB, values, width);
+  }
+
+  @NonNull
+  private static ValueReader encodedVariableWidth(
+      @NonNull FieldVector vector, @NonNull DataType cqlType) {
+    ArrowBuf offsets = vector.getOffsetBuffer();
+    int count = vector.getValueCount();
+    long start = offsets.getInt(0);
+    long end = offsets.getInt((long) count * BaseVariableWidthVector.OFFSET_WIDTH);
+    byte[] values = copy(vector, start, end);
+    return row -> {
+      if (vector.isNull(row)) {
+        return null;
+      }
+      int offset = offsets.getInt((long) row * BaseVariableWidthVector.OFFSET_WIDTH);
+      int next = offsets.getInt((long) (row + 1) * BaseVariableWidthVector.OFFSET_WIDTH);
+      return new EncodedValue(
+          ByteBuffer.wrap(values, (int) (offset - start), next - offset).slice(), cqlType);
+    };
+  }
+
+  @NonNull
+  private static ValueReader encodedLargeVariableWidth(
+      @NonNull FieldVector vector, @NonNull DataType cqlType) {
+    ArrowBuf offsets = vector.getOffsetBuffer();
+    int count = vector.getValueCount();
+    long start = offsets.getLong(0);
+    long end = offsets.getLong((long) count * BaseLargeVariableWidthVector.OFFSET_WIDTH);
+    byte[] values = copy(vector, start, end);
+    return row -> {
+      if (vector.isNull(row)) {
+        return null;
+      }
+      long offset = offsets.getLong((long) row * BaseLargeVariableWidthVector.OFFSET_WIDTH);
+      long next = offsets.getLong((long) (row + 1) * BaseLargeVariableWidthVector.OFFSET_WIDTH);
+      return new EncodedValue(
+          ByteBuffer.wrap(values, (int) (offset - start), (int) (next - offset)).slice(), cqlType);
+    };
+  }
+
+  /**
+   * Copies the given range of the data of a variable-width vector to the heap, so that values
+   * remain valid once the vector is reused for the next batch.
+   */
+  private static byte[] copy(@NonNull FieldVector vector, long start, long end) {
+    if (end - start > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Cannot read column %s: record batch holds more than 2 GB of data",
+              vector.getName()));
+    }
+    byte[] values = new byte[(int) (end - start)];
+    vector.getDataBuffer().getBytes(start, values);
+    return values;
+  }
+
+  /** Adds one encoded value to a vector; the value's buffer must not be modified. */
+  @FunctionalInterface
+  private interface EncodedValueWriter {
+    void write(@NonNull FieldVector vector, int row, @NonNull ByteBuffer bytes);
+  }
+
+  @NonNull
+  private static ColumnWriter encoded(
+      @NonNull ArrowType arrowType, @NonNull EncodedValueWriter writer) {
+    return new ColumnWriter(
+        arrowType,
+        ENCODED_VALUE,
+        (vector, row, value) -> writer.write(vector, row, ((EncodedValue) value).getBytes()));
+  }
+
+  private static void writeVariableWidth(
+      @NonNull FieldVector vector, int row, @NonNull ByteBuffer bytes) {
+    // Arrow moves the position of the source buffer
+    ByteBuffer source = bytes.duplicate();
+    ((BaseVariableWidthVector) vector).setSafe(row, source, source.position(), source.remaining());
+  }
+}
@@ -0,0 +1,484 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.arrow;
+
+import static com.datastax.oss.dsbulk.tests.utils.FileUtils.deleteDirectory;
+import static com.datastax.oss.dsbulk.tests.utils.StringUtils.quoteJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.dsbulk.codecs.api.EncodedValue;
+import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
+import com.datastax.oss.dsbulk.connectors.api.DefaultIndexedField;
+import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
+import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
+import com.datastax.oss.dsbulk.connectors.api.Field;
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.oss.dsbulk.tests.utils.TestConfigUtils;
+import com.datastax.oss.dsbulk.url.BulkLoaderURLStreamHandlerFactory;
+import com.typesafe.config.Config;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider.MapDictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class ArrowConnectorTest {
+
+  static {
+    BulkLoaderURLStreamHandlerFactory.install();
+  }
+
+  private static final int RECORDS = 1000;
+
+  private static final GenericType<EncodedValue> ENCODED_VALUE = GenericType.of(EncodedValue.class);
+
+  private static final DataType[] CQL_TYPES = {
+    DataTypes.INT,
+    DataTypes.TEXT,
+    DataTypes.BIGINT,
+    DataTypes.SMALLINT,
+    DataTypes.TINYINT,
+    DataTypes.DOUBLE,
+    DataTypes.FLOAT,
+    DataTypes.BOOLEAN,
+    DataTypes.DATE,
+    DataTypes.TIME,
+    DataTypes.TIMESTAMP,
+    DataTypes.BLOB,
+    DataTypes.DECIMAL
+  };
+
+  private static final Field[] FIELDS = new Field[CQL_TYPES.length];
+
+  static {
+    for (int i = 0; i < CQL_TYPES.length; i++) {
+      FIELDS[i] = new DefaultMappedField("c_" + CQL_TYPES[i].asCql(false, true));
+    }
+  }
+
+  private static final int DECIMAL = CQL_TYPES.length - 1;
+
+  private final URI resource = URI.create("file://file1.arrow");
+
+  @Test
+  void should_write_and_read_encoded_values() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      List<Record> written = createRecords();
+      write(dir, written, "batchSize", 300);
+      Path file = dir.resolve("output-000001.arrow");
+      try (BufferAllocator allocator = new RootAllocator();
+          ArrowFileReader reader =
+              new ArrowFileReader(FileChannel.open(file, StandardOpenOption.READ), allocator)) {
+        assertThat(reader.getRecordBlocks()).hasSize(4);
+        assertThat(reader.getVectorSchemaRoot().getSchema().findField("c_date").getType())
+            .isEqualTo(new ArrowType.Date(org.apache.arrow.vector.types.DateUnit.DAY));
+      }
+      try (ArrowConnector connector = new ArrowConnector()) {
+        connector.configure(settings(dir), true, true);
+        connector.init();
+        assertThat(connector.supports(CommonConnectorFeature.MAPPED_RECORDS)).isTrue();
+        assertThat(connector.supports(CommonConnectorFeature.INDEXED_RECORDS)).isTrue();
+        assertThat(connector.supports(CommonConnectorFeature.DATA_SIZE_SAMPLING)).isTrue();
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(RECORDS);
+        RecordMetadata metadata = connector.getRecordMetadata();
+        for (int i = 0; i < FIELDS.length; i++) {
+          assertThat(metadata.getFieldType(FIELDS[i], CQL_TYPES[i])).isEqualTo(ENCODED_VALUE);
+          assertThat(metadata.getFieldType(new DefaultIndexedField(i), CQL_TYPES[i]))
+              .isEqualTo(ENCODED_VALUE);
+        }
+        for (int i = 0; i < RECORDS; i++) {
+          Record expected = written.get(i);
+          Record actual = read.get(i);
+          assertThat(actual.getPosition()).isEqualTo(i + 1);
+          assertThat(actual.getResource().toString()).endsWith("output-000001.arrow");
+          for (int j = 0; j < FIELDS.length; j++) {
+            Object expectedValue = expected.getFieldValue(FIELDS[j]);
+            Object actualValue = actual.getFieldValue(FIELDS[j]);
+            assertThat(actual.getFieldValue(new DefaultIndexedField(j))).isEqualTo(actualValue);
+            if (expectedValue == null) {
+              assertThat(actualValue).isNull();
+            } else if (j == DECIMAL) {
+              // decimals are written as strings, and read as text
+              assertThat(actualValue)
+                  .isEqualTo(new EncodedValue(utf8((String) expectedValue), DataTypes.TEXT));
+            } else {
+              EncodedValue value = (EncodedValue) actualValue;
+              assertThat(value.getBytes()).isEqualTo(((EncodedValue) expectedValue).getBytes());
+              assertThat(value.getCqlType()).isEqualTo(CQL_TYPES[j]);
+            }
+          }
+        }
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_read_file_in_parallel_splits() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      List<Record> written = createRecords();
+      write(dir, written, "batchSize", 100);
+      try (ArrowConnector connector = new ArrowConnector()) {
+        connector.configure(settings(dir, "splitSize", 1000, "maxConcurrentFiles", 4), true, false);
+        connector.init();
+        assertThat(connector.readConcurrency()).isEqualTo(4);
+        List<List<Record>> splits =
+            Flux.from(connector.read())
+                .concatMap(s -> Flux.from(s).collectList())
+                .collectList()
+                .block();
+        assertThat(splits).hasSizeGreaterThan(1);
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+          assertThat(read.get(i).getPosition()).isEqualTo(i + 1);
+          assertThat(read.get(i).getFieldValue(FIELDS[0]))
+              .isEqualTo(i % 10 == 0 ? null : new EncodedValue(int32(i), DataTypes.INT));
+        }
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_skip_record_batches_when_skipping_records() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      write(dir, createRecords(), "batchSize", 100);
+      try (ArrowConnector connector = new ArrowConnector()) {
+        connector.configure(
+            settings(dir, "splitSize", 1000, "skipRecords", 250, "maxConcurrentFiles", 4),
+            true,
+            false);
+        connector.init();
+        assertThat(Flux.from(connector.read()).count().block()).isGreaterThan(1);
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(RECORDS - 250);
+        for (int i = 0; i < read.size(); i++) {
+          assertThat(read.get(i).getPosition()).isEqualTo(i + 251);
+          assertThat(read.get(i).getFieldValue(FIELDS[0]))
+              .isEqualTo(i % 10 == 0 ? null : new EncodedValue(int32(i + 250), DataTypes.INT));
+        }
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_skip_records_of_compressed_files() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      write(dir, createRecords(), "compression", "gzip", "batchSize", 100);
+      try (ArrowConnector connector = new ArrowConnector()) {
+        connector.configure(
+            settings(dir, "compression", "gzip", "skipRecords", 250, "maxRecords", 100),
+            true,
+            false);
+        connector.init();
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(100);
+        for (int i = 0; i < read.size(); i++) {
+          assertThat(read.get(i).getPosition()).isEqualTo(i + 251);
+        }
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_read_file_written_by_other_tools() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      writeForeignFile(dir.resolve("foreign.arrow"));
+      try (ArrowConnector connector = new ArrowConnector()) {
+        connector.configure(settings(dir, "splitSize", 1, "maxConcurrentFiles", 4), true, false);
+        connector.init();
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(15);
+        RecordMetadata metadata = connector.getRecordMetadata();
+        Field i = new DefaultMappedField("i");
+        Field ts = new DefaultMappedField("ts");
+        Field price = new DefaultMappedField("price");
+        Field color = new DefaultMappedField("color");
+        assertThat(metadata.getFieldType(i, DataTypes.INT)).isEqualTo(ENCODED_VALUE);
+        assertThat(metadata.getFieldType(ts, DataTypes.TIMESTAMP)).isEqualTo(GenericType.INSTANT);
+        assertThat(metadata.getFieldType(price, DataTypes.DECIMAL))
+            .isEqualTo(GenericType.BIG_DECIMAL);
+        assertThat(metadata.getFieldType(color, DataTypes.TEXT)).isEqualTo(ENCODED_VALUE);
+        for (int row = 0; row < 15; row++) {
+          Record record = read.get(row);
+          assertThat(record.getPosition()).isEqualTo(row + 1);
+          assertThat(record.getFieldValue(i))
+              .isEqualTo(new EncodedValue(int32(row), DataTypes.INT));
+          assertThat(record.getFieldValue(ts))
+              .isEqualTo(Instant.ofEpochSecond(1_600_000_000L + row, 123_456_000));
+          assertThat(record.getFieldValue(price)).isEqualTo(new BigDecimal(row + ".25"));
+          assertThat(record.getFieldValue(color))
+              .isEqualTo(new EncodedValue(utf8(row % 2 == 0 ? "red" : "blue"), DataTypes.TEXT));
+        }
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_write_to_stdout_and_read_from_stdin_in_stream_format() throws Exception {
+    List<Record> written = createRecords();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    PrintStream stdout = System.out;
+    try {
+      System.setOut(new PrintStream(baos));
+      try (ArrowConnector connector = new ArrowConnector()) {
+        connector.configure(
+            TestConfigUtils.createTestConfig(
+                "dsbulk.connector.arrow", "url", "-", "format", "stream", "batchSize", 7),
+            false,
+            false);
+        connector.init();
+        assertThat(connector.writeConcurrency()).isOne();
+        registerTypes(connector.getRecordMetadata());
+        Flux.fromIterable(written).transform(connector.write()).blockLast();
+      }
+    } finally {
+      System.setOut(stdout);
+    }
+    InputStream stdin = System.in;
+    try {
+      System.setIn(new ByteArrayInputStream(baos.toByteArray()));
+      try (ArrowConnector connector = new ArrowConnector()) {
+        connector.configure(
+            TestConfigUtils.createTestConfig("dsbulk.connector.arrow", "url", "-"), true, false);
+        connector.init();
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(RECORDS);
+        assertThat(read.get(0).getResource()).isEqualTo(URI.create("std:/"));
+        assertThat(read.get(42).getFieldValue(FIELDS[DECIMAL]))
+            .isEqualTo(
+                new EncodedValue(
+                    utf8((String) written.get(42).getFieldValue(FIELDS[DECIMAL])), DataTypes.TEXT));
+      }
+    } finally {
+      System.setIn(stdin);
+    }
+  }
+
+  @Test
+  void should_write_and_read_compressed_files() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      write(dir, createRecords(), "compression", "gzip", "maxRecords", 600);
+      assertThat(dir.resolve("output-000001.arrow.gz")).exists();
+      assertThat(dir.resolve("output-000002.arrow.gz")).exists();
+      try (ArrowConnector connector = new ArrowConnector()) {
+        connector.configure(settings(dir, "compression", "gzip"), true, false);
+        connector.init();
+        assertThat(Flux.merge(connector.read()).count().block()).isEqualTo(RECORDS);
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_error_when_format_is_invalid() {
+    ArrowConnector connector = new ArrowConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig("dsbulk.connector.arrow", "format", "\"parquet\"");
+    assertThatThrownBy(() -> connector.configure(settings, false, false))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage(
+            "Invalid value for connector.arrow.format, valid values: file,stream, got: 'parquet'");
+  }
+
+  private void write(Path dir, List<Record> records, Object... settings) throws Exception {
+    try (ArrowConnector connector = new ArrowConnector()) {
+      Object[] allSettings = Arrays.copyOf(settings, settings.length + 2);
+      allSettings[settings.length] = "maxConcurrentFiles";
+      allSettings[settings.length + 1] = 1;
+      connector.configure(settings(dir, allSettings), false, false);
+      connector.init();
+      registerTypes(connector.getRecordMetadata());
+      Flux.fromIterable(records).transform(connector.write()).blockLast();
+    }
+  }
+
+  /** Writes a file the way Arrow-based tools would, with types that have no CQL counterpart. */
+  private static void writeForeignFile(Path file) throws Exception {
+    try (BufferAllocator allocator = new RootAllocator();
+        VarCharVector colors = new VarCharVector("colors", allocator)) {
+      colors.allocateNew();
+      colors.setSafe(0, "red".getBytes(StandardCharsets.UTF_8));
+      colors.setSafe(1, "blue".getBytes(StandardCharsets.UTF_8));
+      colors.setValueCount(2);
+      Dictionary dictionary = new Dictionary(colors, new DictionaryEncoding(1L, false, null));
+      Schema schema =
+          new Schema(
+              Arrays.asList(
+                  arrowField("i", FieldType.nullable(new ArrowType.Int(32, true))),
+                  arrowField(
+                      "ts",
+                      FieldType.nullable(new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC"))),
+                  arrowField("price", FieldType.nullable(new ArrowType.Decimal(10, 2, 128))),
+                  arrowField(
+                      "color",
+                      new FieldType(true, new ArrowType.Int(32, true), dictionary.getEncoding()))));
+      try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+          ArrowFileWriter writer =
+              new ArrowFileWriter(
+                  root,
+                  new MapDictionaryProvider(dictionary),
+                  FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE))) {
+        writer.start();
+        for (int batch = 0; batch < 3; batch++) {
+          root.allocateNew();
+          for (int j = 0; j < 5; j++) {
+            int row = batch * 5 + j;
+            ((IntVector) root.getVector("i")).setSafe(j, row);
+            ((TimeStampMicroTZVector) root.getVector("ts"))
+                .setSafe(j, (1_600_000_000L + row) * 1_000_000L + 123_456);
+            ((DecimalVector) root.getVector("price")).setSafe(j, new BigDecimal(row + ".25"));
+            ((IntVector) root.getVector("color")).setSafe(j, row % 2);
+          }
+          root.setRowCount(5);
+          writer.writeBatch();
+        }
+        writer.end();
+      }
+    }
+  }
+
+  private static org.apache.arrow.vector.types.pojo.Field arrowField(String name, FieldType type) {
+    return new org.apache.arrow.vector.types.pojo.Field(name, type, null);
+  }
+
+  private static void registerTypes(RecordMetadata metadata) {
+    for (int i = 0; i < FIELDS.length; i++) {
+      assertThat(metadata.getFieldType(FIELDS[i], CQL_TYPES[i]))
+          .isEqualTo(i == DECIMAL ? GenericType.STRING : ENCODED_VALUE);
+    }
+  }
+
+  private static Config settings(Path dir, Object... settings) {
+    Object[] allSettings = new Object[settings.length + 2];
+    allSettings[0] = "url";
+    allSettings[1] = quoteJson(dir);
+    System.arraycopy(settings, 0, allSettings, 2, settings.length);
+    return TestConfigUtils.createTestConfig("dsbulk.connector.arrow", allSettings);
+  }
+
+  private static List<Record> readAll(ArrowConnector connector) {
+    return Flux.merge(connector.read())
+        .collectSortedList(Comparator.comparing(Record::getPosition))
+        .block();
+  }
+
+  private List<Record> createRecords() {
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < RECORDS; i++) {
+      DefaultRecord record = new DefaultRecord(null, resource, i + 1);
+      // every tenth record has only null values
+      boolean nulls = i % 10 == 0;
+      Object[] values = {
+        i,
+        i % 11 == 0 ? "" : "name " + i,
+        i * 1_000_000_000L,
+        (short) -i,
+        (byte) i,
+        i / 3d,
+        i / 7f,
+        i % 2 == 0,
+        LocalDate.ofEpochDay(i - 500),
+        LocalTime.ofNanoOfDay(i * 1_000_001L),
+        Instant.ofEpochMilli(1_600_000_000_000L - i),
+        ByteBuffer.wrap(new byte[] {(byte) i, 1, 2}),
+        "1" + i + ".5"
+      };
+      for (int j = 0; j < FIELDS.length; j++) {
+        Object value;
+        if (nulls) {
+          value = null;
+        } else if (j == DECIMAL) {
+          value = values[j];
+        } else {
+          value = new EncodedValue(encode(CQL_TYPES[j], values[j]));
+        }
+        record.setFieldValue(FIELDS[j], value);
+      }
+      records.add(record);
+    }
+    return records;
+  }
+
+  private static ByteBuffer encode(DataType cqlType, Object value) {
+    return CodecRegistry.DEFAULT.codecFor(cqlType).encode(value, ProtocolVersion.DEFAULT);
+  }
+
+  private static ByteBuffer utf8(String value) {
+    return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static ByteBuffer int32(int value) {
+    return TypeCodecs.INT.encode(value, ProtocolVersion.DEFAULT);
+  }
+}
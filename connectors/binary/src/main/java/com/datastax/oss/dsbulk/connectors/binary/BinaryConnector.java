@@ -0,0 +1,375 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.binary;
+
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.driver.shaded.guava.common.io.CountingOutputStream;
+import com.datastax.oss.dsbulk.codecs.api.EncodedValue;
+import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
+import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
+import com.datastax.oss.dsbulk.connectors.api.ConnectorFeature;
+import com.datastax.oss.dsbulk.connectors.api.DefaultIndexedField;
+import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
+import com.datastax.oss.dsbulk.connectors.api.Field;
+import com.datastax.oss.dsbulk.connectors.api.IndexedField;
+import com.datastax.oss.dsbulk.connectors.api.MappedField;
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.oss.dsbulk.connectors.api.RecordSchema;
+import com.datastax.oss.dsbulk.connectors.commons.AbstractFileBasedConnector;
+import com.datastax.oss.dsbulk.io.CompressedIOUtils;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigFactory;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.SynchronousSink;
+
+/**
+ * A connector for files in DSBulk's binary format, where values are stored exactly as they are
+ * encoded by the native protocol.
+ *
+ * <p>Each file starts with a header made of the magic number {@code DSBK}, the format version as a
+ * single byte, and the number of fields as a 4-byte integer, followed by the name and the CQL type
+ * of each field, both stored with {@link DataOutputStream#writeUTF(String)}. The header is followed
+ * by rows; each row contains one value per field, in header order, and each value is stored as its
+ * length, as a 4-byte integer, followed by its encoded bytes; nulls are stored as a length of -1.
+ *
+ * <p>Values are emitted and consumed as {@link EncodedValue}s, so that they are bound to statements
+ * and read from rows without being converted by codecs.
+ *
+ * <p>This connector is highly configurable; see its {@code dsbulk-reference.conf} file, bundled
+ * within its jar archive, for detailed information.
+ */
+public class BinaryConnector extends AbstractFileBasedConnector {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BinaryConnector.class);
+
+  private static final GenericType<EncodedValue> ENCODED_VALUE = GenericType.of(EncodedValue.class);
+
+  /** The magic number that starts all files, {@code DSBK} in ASCII. */
+  static final int MAGIC = 0x4453424B;
+
+  static final int VERSION = 1;
+
+  private static final int NULL_LENGTH = -1;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Settings of file-based connectors that do not apply to binary files. These values take
+   * precedence over user-supplied ones.
+   */
+  private static final Config FIXED_SETTINGS =
+      ConfigFactory.parseMap(ImmutableMap.of(ENCODING, "UTF-8", READ_BUFFER_SIZE, BUFFER_SIZE));
+
+  /** The CQL types of the fields found in the headers of files read so far. */
+  private final Map<Field, String> readTypes = new ConcurrentHashMap<>();
+
+  /** The CQL types of the fields to write, as reported by the workflow. */
+  private final Map<Field, DataType> writeTypes = new ConcurrentHashMap<>();
+
+  private final Map<DataType, String> cqlNames = new ConcurrentHashMap<>();
+
+  @Override
+  @NonNull
+  public String getConnectorName() {
+    return "binary";
+  }
+
+  @Override
+  public void configure(@NonNull Config settings, boolean read, boolean retainRecordSources) {
+    try {
+      super.configure(FIXED_SETTINGS.withFallback(settings), read, retainRecordSources);
+    } catch (ConfigException e) {
+      throw ConfigUtils.convertConfigException(e, "dsbulk.connector.binary");
+    }
+  }
+
+  @NonNull
+  @Override
+  public RecordMetadata getRecordMetadata() {
+    if (read) {
+      return (field, cqlType) -> {
+        String fileType = readTypes.get(field);
+        if (fileType != null) {
+          String columnType = cqlNames.computeIfAbsent(cqlType, t -> t.asCql(false, true));
+          if (!fileType.equals(columnType)) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Field %s was written with CQL type %s and cannot be loaded into a column of type %s",
+                    field.getFieldDescription(), fileType, columnType));
+          }
+        }
+        return ENCODED_VALUE;
+      };
+    }
+    return (field, cqlType) -> {
+      if (writeTypes.get(field) == null) {
+        writeTypes.put(field, cqlType);
+      }
+      return ENCODED_VALUE;
+    };
+  }
+
+  @Override
+  public boolean supports(@NonNull ConnectorFeature feature) {
+    if (feature instanceof CommonConnectorFeature) {
+      CommonConnectorFeature commonFeature = (CommonConnectorFeature) feature;
+      switch (commonFeature) {
+        case MAPPED_RECORDS:
+        case INDEXED_RECORDS:
+          // fields have both a name and a position
+          return true;
+        case DATA_SIZE_SAMPLING:
+          return isDataSizeSamplingAvailable();
+      }
+    }
+    return false;
+  }
+
+  @NonNull
+  @Override
+  protected RecordReader newSingleFileReader(@NonNull URL url) throws IOException {
+    return new BinaryRecordReader(url);
+  }
+
+  private class BinaryRecordReader implements RecordReader {
+
+    private final URL url;
+    private final URI resource;
+    private final DataInputStream in;
+    private final MappedField[] mappedFields;
+    private final IndexedField[] indexedFields;
+    private final RecordSchema schema;
+
+    private long recordNumber = 1;
+
+    private BinaryRecordReader(URL url) throws IOException {
+      this.url = url;
+      resource = URI.create(url.toExternalForm());
+      InputStream is = CompressedIOUtils.newInputStream(url, compression, decompressionThreads);
+      try {
+        in =
+            new DataInputStream(
+                is instanceof BufferedInputStream ? is : new BufferedInputStream(is, BUFFER_SIZE));
+        if (in.readInt() != MAGIC) {
+          throw new IOException("Invalid header: not a DSBulk binary file");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+          throw new IOException(
+              String.format("Invalid header: unsupported format version %d", version));
+        }
+        int count = in.readInt();
+        mappedFields = new MappedField[count];
+        indexedFields = new IndexedField[count];
+        for (int i = 0; i < count; i++) {
+          mappedFields[i] = new DefaultMappedField(in.readUTF());
+          indexedFields[i] = new DefaultIndexedField(i);
+          String type = in.readUTF();
+          readTypes.put(mappedFields[i], type);
+          readTypes.put(indexedFields[i], type);
+        }
+        // also emit indexed fields
+        schema = RecordSchema.mappedAndIndexed(mappedFields);
+      } catch (Exception e) {
+        is.close();
+        throw new IOException(String.format("Error reading from %s", url), e);
+      }
+    }
+
+    @NonNull
+    @Override
+    public RecordReader readNext(@NonNull SynchronousSink<Record> sink) {
+      try {
+        int first = mappedFields.length == 0 ? -1 : in.read();
+        if (first == -1) {
+          LOGGER.debug("Done reading {}", url);
+          sink.complete();
+        } else {
+          Object[] values = new Object[mappedFields.length];
+          for (int i = 0; i < values.length; i++) {
+            int length = i == 0 ? readInt(first) : in.readInt();
+            EncodedValue value = null;
+            if (length != NULL_LENGTH) {
+              byte[] bytes = new byte[length];
+              in.readFully(bytes);
+              value = new EncodedValue(ByteBuffer.wrap(bytes));
+            }
+            values[i] = value;
+          }
+          Record record = new ArrayBackedRecord(null, resource, recordNumber++, schema, values);
+          LOGGER.trace("Emitting record {}", record);
+          sink.next(record);
+        }
+      } catch (Exception e) {
+        sink.error(new IOException(String.format("Error reading from %s", url), e));
+      }
+      return this;
+    }
+
+    /** Reads a 4-byte integer whose first byte was already read. */
+    private int readInt(int first) throws IOException {
+      return (first << 24)
+          | (in.readUnsignedByte() << 16)
+          | (in.readUnsignedByte() << 8)
+          | in.readUnsignedByte();
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  @NonNull
+  @Override
+  protected RecordWriter newSingleFileWriter() {
+    return new BinaryRecordWriter();
+  }
+
+  private class BinaryRecordWriter implements RecordWriter {
+
+    private URL url;
+    private CountingOutputStream counter;
+    private DataOutputStream out;
+    private Field[] fields;
+    private long currentRecords;
+
+    @Override
+    public void write(@NonNull Record record) throws IOException {
+      try {
+        if (out == null) {
+          open(record);
+        } else if (shouldRoll()) {
+          close();
+          open(record);
+        }
+        LOGGER.trace("Writing record {}", record);
+        if (record.fields().size() != fields.length) {
+          throw new IllegalArgumentException(
+              String.format(
+                  "Record has %d fields but file header has %d fields",
+                  record.fields().size(), fields.length));
+        }
+        for (Field field : fields) {
+          writeValue(field, record.getFieldValue(field));
+        }
+        currentRecords++;
+      } catch (ClosedChannelException e) {
+        // OK, happens when the channel was closed due to interruption
+      } catch (RuntimeException e) {
+        throw new IOException(String.format("Error writing to %s", url), e);
+      }
+    }
+
+    private void writeValue(Field field, Object value) throws IOException {
+      if (value == null) {
+        out.writeInt(NULL_LENGTH);
+      } else if (value instanceof EncodedValue) {
+        ByteBuffer bytes = ((EncodedValue) value).getBytes();
+        out.writeInt(bytes.remaining());
+        if (bytes.hasArray()) {
+          out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        } else {
+          byte[] array = new byte[bytes.remaining()];
+          bytes.duplicate().get(array);
+          out.write(array);
+        }
+      } else {
+        throw new IllegalArgumentException(
+            String.format(
+                "Expecting field %s to be an encoded value, got: %s",
+                field.getFieldDescription(), value.getClass().getName()));
+      }
+    }
+
+    private boolean shouldRoll() {
+      return (!roots.isEmpty() && currentRecords == maxRecords)
+          || isMaxFileSizeReached(counter.getCount());
+    }
+
+    private void open(Record record) throws IOException {
+      url = getOrCreateDestinationURL();
+      try {
+        counter = newCountingOutputStream(url);
+        out =
+            new DataOutputStream(
+                new BufferedOutputStream(
+                    CompressedIOUtils.newOutputStream(counter, compression, compressionThreads),
+                    BUFFER_SIZE));
+        fields = record.fields().toArray(new Field[0]);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(fields.length);
+        for (Field field : fields) {
+          DataType type = writeTypes.get(field);
+          if (type == null) {
+            throw new IllegalStateException(
+                "Unknown CQL type for field " + field.getFieldDescription());
+          }
+          out.writeUTF(field.getFieldDescription());
+          out.writeUTF(cqlNames.computeIfAbsent(type, t -> t.asCql(false, true)));
+        }
+        currentRecords = 0;
+        LOGGER.debug("Writing " + url);
+      } catch (ClosedChannelException e) {
+        // OK, happens when the channel was closed due to interruption
+      } catch (RuntimeException | IOException e) {
+        throw new IOException(String.format("Error opening %s", url), e);
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (out != null) {
+        out.flush();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (out != null) {
+        try {
+          out.close();
+          LOGGER.debug("Done writing {}", url);
+          out = null;
+        } catch (ClosedChannelException e) {
+          // OK, happens when the channel was closed due to interruption
+        } catch (RuntimeException | IOException e) {
+          throw new IOException(String.format("Error closing %s", url), e);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.binary;
+
+import static com.datastax.oss.dsbulk.tests.utils.FileUtils.deleteDirectory;
+import static com.datastax.oss.dsbulk.tests.utils.StringUtils.quoteJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.dsbulk.codecs.api.EncodedValue;
+import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
+import com.datastax.oss.dsbulk.connectors.api.DefaultIndexedField;
+import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
+import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
+import com.datastax.oss.dsbulk.connectors.api.Field;
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.oss.dsbulk.tests.utils.TestConfigUtils;
+import com.datastax.oss.dsbulk.url.BulkLoaderURLStreamHandlerFactory;
+import com.typesafe.config.Config;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class BinaryConnectorTest {
+
+  static {
+    BulkLoaderURLStreamHandlerFactory.install();
+  }
+
+  private static final int RECORDS = 1000;
+
+  private static final GenericType<EncodedValue> ENCODED_VALUE = GenericType.of(EncodedValue.class);
+
+  private static final Field ID = new DefaultMappedField("id");
+  private static final Field NAME = new DefaultMappedField("name");
+  private static final Field TAGS = new DefaultMappedField("tags");
+
+  private static final Field[] FIELDS = {ID, NAME, TAGS};
+
+  private static final DataType[] CQL_TYPES = {
+    DataTypes.INT, DataTypes.TEXT, DataTypes.listOf(DataTypes.TEXT)
+  };
+
+  private final URI resource = URI.create("file://file1.bin");
+
+  @Test
+  void should_write_and_read_encoded_values() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      List<Record> written = createRecords();
+      write(dir, written);
+      try (BinaryConnector connector = new BinaryConnector()) {
+        connector.configure(settings(dir), true, true);
+        connector.init();
+        assertThat(connector.supports(CommonConnectorFeature.MAPPED_RECORDS)).isTrue();
+        assertThat(connector.supports(CommonConnectorFeature.INDEXED_RECORDS)).isTrue();
+        assertThat(connector.supports(CommonConnectorFeature.DATA_SIZE_SAMPLING)).isTrue();
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(RECORDS);
+        RecordMetadata metadata = connector.getRecordMetadata();
+        for (int i = 0; i < FIELDS.length; i++) {
+          assertThat(metadata.getFieldType(FIELDS[i], CQL_TYPES[i])).isEqualTo(ENCODED_VALUE);
+          assertThat(metadata.getFieldType(new DefaultIndexedField(i), CQL_TYPES[i]))
+              .isEqualTo(ENCODED_VALUE);
+        }
+        for (int i = 0; i < RECORDS; i++) {
+          Record expected = written.get(i);
+          Record actual = read.get(i);
+          assertThat(actual.getPosition()).isEqualTo(i + 1);
+          assertThat(actual.getResource().toString()).endsWith("output-000001.bin");
+          assertThat(actual.getSource()).isNull();
+          for (int j = 0; j < FIELDS.length; j++) {
+            assertThat(actual.getFieldValue(FIELDS[j]))
+                .isEqualTo(expected.getFieldValue(FIELDS[j]));
+            assertThat(actual.getFieldValue(new DefaultIndexedField(j)))
+                .isEqualTo(expected.getFieldValue(FIELDS[j]));
+          }
+        }
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_reject_field_loaded_into_column_of_different_type() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      write(dir, createRecords());
+      try (BinaryConnector connector = new BinaryConnector()) {
+        connector.configure(settings(dir), true, false);
+        connector.init();
+        assertThat(readAll(connector)).hasSize(RECORDS);
+        RecordMetadata metadata = connector.getRecordMetadata();
+        assertThatThrownBy(() -> metadata.getFieldType(ID, DataTypes.BIGINT))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage(
+                "Field id was written with CQL type int and cannot be loaded into a column of type bigint");
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_write_and_read_compressed_files() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      List<Record> written = createRecords();
+      write(dir, written, "compression", "gzip", "compressionThreads", 2);
+      assertThat(dir.resolve("output-000001.bin.gz")).exists();
+      try (BinaryConnector connector = new BinaryConnector()) {
+        connector.configure(
+            settings(dir, "compression", "gzip", "decompressionThreads", 2), true, false);
+        connector.init();
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(RECORDS);
+        assertThat(read.get(RECORDS - 1).getFieldValue(NAME))
+            .isEqualTo(written.get(RECORDS - 1).getFieldValue(NAME));
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_roll_file_when_max_records_reached() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      write(dir, createRecords(), "maxRecords", 300);
+      try (Stream<Path> files = Files.list(dir)) {
+        assertThat(files.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList()))
+            .containsExactly(
+                "output-000001.bin", "output-000002.bin", "output-000003.bin", "output-000004.bin");
+      }
+      try (BinaryConnector connector = new BinaryConnector()) {
+        connector.configure(settings(dir), true, false);
+        connector.init();
+        assertThat(Flux.merge(connector.read()).count().block()).isEqualTo(RECORDS);
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_write_to_stdout_and_read_from_stdin() throws Exception {
+    List<Record> written = createRecords();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    PrintStream stdout = System.out;
+    try {
+      System.setOut(new PrintStream(baos));
+      try (BinaryConnector connector = new BinaryConnector()) {
+        connector.configure(
+            TestConfigUtils.createTestConfig("dsbulk.connector.binary", "url", "-"), false, false);
+        connector.init();
+        assertThat(connector.writeConcurrency()).isOne();
+        registerTypes(connector.getRecordMetadata());
+        Flux.fromIterable(written).transform(connector.write()).blockLast();
+      }
+    } finally {
+      System.setOut(stdout);
+    }
+    InputStream stdin = System.in;
+    try {
+      System.setIn(new ByteArrayInputStream(baos.toByteArray()));
+      try (BinaryConnector connector = new BinaryConnector()) {
+        connector.configure(
+            TestConfigUtils.createTestConfig("dsbulk.connector.binary", "url", "-"), true, false);
+        connector.init();
+        assertThat(connector.supports(CommonConnectorFeature.DATA_SIZE_SAMPLING)).isFalse();
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(RECORDS);
+        assertThat(read.get(0).getResource()).isEqualTo(URI.create("std:/"));
+        assertThat(read.get(42).getFieldValue(TAGS)).isEqualTo(written.get(42).getFieldValue(TAGS));
+      }
+    } finally {
+      System.setIn(stdin);
+    }
+  }
+
+  @Test
+  void should_error_when_file_is_not_a_binary_file() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      Files.write(dir.resolve("bogus.bin"), "not binary".getBytes(StandardCharsets.UTF_8));
+      try (BinaryConnector connector = new BinaryConnector()) {
+        connector.configure(settings(dir), true, false);
+        connector.init();
+        assertThatThrownBy(() -> readAll(connector))
+            .satisfies(
+                t ->
+                    assertThat(t)
+                        .hasRootCauseInstanceOf(IOException.class)
+                        .hasStackTraceContaining("Invalid header: not a DSBulk binary file"));
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_error_when_file_is_truncated() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      write(dir, createRecords());
+      Path file = dir.resolve("output-000001.bin");
+      byte[] bytes = Files.readAllBytes(file);
+      Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+      try (BinaryConnector connector = new BinaryConnector()) {
+        connector.configure(settings(dir), true, false);
+        connector.init();
+        assertThatThrownBy(() -> readAll(connector))
+            .hasStackTraceContaining("Error reading from")
+            .hasStackTraceContaining("EOFException");
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  private void write(Path dir, List<Record> records, Object... settings) throws Exception {
+    try (BinaryConnector connector = new BinaryConnector()) {
+      Object[] allSettings = Arrays.copyOf(settings, settings.length + 2);
+      allSettings[settings.length] = "maxConcurrentFiles";
+      allSettings[settings.length + 1] = 1;
+      connector.configure(settings(dir, allSettings), false, false);
+      connector.init();
+      registerTypes(connector.getRecordMetadata());
+      Flux.fromIterable(records).transform(connector.write()).blockLast();
+    }
+  }
+
+  private static void registerTypes(RecordMetadata metadata) {
+    for (int i = 0; i < FIELDS.length; i++) {
+      assertThat(metadata.getFieldType(FIELDS[i], CQL_TYPES[i])).isEqualTo(ENCODED_VALUE);
+    }
+  }
+
+  private static Config settings(Path dir, Object... settings) {
+    Object[] allSettings = new Object[settings.length + 2];
+    allSettings[0] = "url";
+    allSettings[1] = quoteJson(dir);
+    System.arraycopy(settings, 0, allSettings, 2, settings.length);
+    return TestConfigUtils.createTestConfig("dsbulk.connector.binary", allSettings);
+  }
+
+  private static List<Record> readAll(BinaryConnector connector) {
+    return Flux.merge(connector.read())
+        .collectSortedList(Comparator.comparing(Record::getPosition))
+        .block();
+  }
+
+  private List<Record> createRecords() {
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < RECORDS; i++) {
+      DefaultRecord record = new DefaultRecord(null, resource, i + 1);
+      record.setFieldValue(ID, encode(TypeCodecs.INT.encode(i, ProtocolVersion.DEFAULT)));
+      // every tenth name is null, and every eleventh name is empty
+      String name = i % 10 == 0 ? null : i % 11 == 0 ? "" : "name " + i;
+      record.setFieldValue(NAME, encode(TypeCodecs.TEXT.encode(name, ProtocolVersion.DEFAULT)));
+      record.setFieldValue(
+          TAGS,
+          encode(
+              TypeCodecs.listOf(TypeCodecs.TEXT)
+                  .encode(Arrays.asList("a" + i, "b" + i), ProtocolVersion.DEFAULT)));
+      records.add(record);
+    }
+    return records;
+  }
+
+  private static EncodedValue encode(ByteBuffer bytes) {
+    return bytes == null ? null : new EncodedValue(bytes);
+  }
+}
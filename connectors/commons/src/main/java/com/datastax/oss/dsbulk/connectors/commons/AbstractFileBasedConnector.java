@@ -15,38 +15,52 @@
  */
 package com.datastax.oss.dsbulk.connectors.commons;
 
+import com.datastax.oss.driver.shaded.guava.common.hash.Hasher;
+import com.datastax.oss.driver.shaded.guava.common.hash.Hashing;
+import com.datastax.oss.driver.shaded.guava.common.io.CountingOutputStream;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.connectors.api.Checkpoint;
 import com.datastax.oss.dsbulk.connectors.api.Connector;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.io.CompressedIOUtils;
 import com.datastax.oss.dsbulk.io.IOUtils;
 import com.typesafe.config.Config;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 import reactor.core.publisher.SynchronousSink;
 
 /** A parent class for connectors that read from and write to text-based files. */
@@ -61,26 +75,54 @@ public abstract class AbstractFileBasedConnector implements Connector {
   protected static final String FILE_NAME_PATTERN = "fileNamePattern";
   protected static final String SKIP_RECORDS = "skipRecords";
   protected static final String MAX_RECORDS = "maxRecords";
+  protected static final String MAX_FILE_SIZE = "maxFileSize";
   protected static final String MAX_CONCURRENT_FILES = "maxConcurrentFiles";
   protected static final String RECURSIVE = "recursive";
+  protected static final String LARGEST_FILES_FIRST = "largestFilesFirst";
   protected static final String FILE_NAME_FORMAT = "fileNameFormat";
+  protected static final String SPLIT_SIZE = "splitSize";
+  protected static final String READ_BUFFER_SIZE = "readBufferSize";
+  protected static final String DECOMPRESSION_THREADS = "decompressionThreads";
+  protected static final String COMPRESSION_THREADS = "compressionThreads";
 
   protected boolean read;
   protected boolean retainRecordSources;
   protected List<URL> urls;
   protected List<Path> roots = new ArrayList<>();
   protected List<URL> files = new ArrayList<>();
+  /**
+   * All the resources to read, sorted by decreasing size, when {@code largestFilesFirst} is
+   * enabled; null otherwise.
+   */
+  @Nullable protected List<URL> scheduledFiles;
+  /** The checkpoint of the current read operation, if any. */
+  @Nullable protected Checkpoint checkpoint;
+
   protected Charset encoding;
+  protected int readBufferSize;
+  protected int decompressionThreads;
+  protected int compressionThreads;
   protected String compression;
   protected String fileNameFormat;
   protected boolean recursive;
+  protected boolean largestFilesFirst;
   protected String pattern;
   protected long skipRecords;
   protected long maxRecords;
+  protected long maxFileSize;
   protected int resourceCount;
   protected int maxConcurrentFiles;
+  protected long splitSize = -1;
   protected Deque<RecordWriter> writers;
   protected RecordWriter singleWriter;
+  /** All the writers ever created, including the ones currently borrowed from the pool. */
+  protected Set<RecordWriter> allWriters;
+  /**
+   * The standard output, when several writers write to it concurrently; null when writing to files,
+   * or when the standard output is written by a {@linkplain #singleWriter single writer}.
+   */
+  @Nullable protected OutputGatherer gatherer;
+
   protected AtomicInteger fileCounter;
   protected AtomicInteger nextWriterIndex;
 
@@ -95,8 +137,9 @@ public abstract class AbstractFileBasedConnector implements Connector {
   @Override
   public int writeConcurrency() {
     assert !read;
-    // When writing to an URL, force write concurrency to 1
-    if (roots.isEmpty()) {
+    // When writing to an URL, force write concurrency to 1, unless the output of many writers can
+    // be gathered into the URL
+    if (roots.isEmpty() && gatherer == null) {
       return 1;
     }
     return maxConcurrentFiles;
@@ -128,13 +171,44 @@ public abstract class AbstractFileBasedConnector implements Connector {
       fileNameFormat = fileNameFormat + CompressedIOUtils.getCompressionSuffix(compression);
     }
     recursive = settings.getBoolean(RECURSIVE);
+    largestFilesFirst = settings.getBoolean(LARGEST_FILES_FIRST);
     if ("AUTO".equals(settings.getString(MAX_CONCURRENT_FILES))) {
-      maxConcurrentFiles = ConfigUtils.resolveThreads(read ? "1C" : "0.5C");
+      if (!read && urls.size() == 1 && IOUtils.isStandardStream(urls.get(0))) {
+        // gathering the output of many writers into the standard output is opt-in, since it does
+        // not preserve the order in which records are written
+        maxConcurrentFiles = 1;
+      } else {
+        maxConcurrentFiles = ConfigUtils.resolveThreads(read ? "1C" : "0.5C");
+      }
     } else {
       maxConcurrentFiles = ConfigUtils.getThreads(settings, MAX_CONCURRENT_FILES);
     }
     skipRecords = settings.getLong(SKIP_RECORDS);
     maxRecords = settings.getLong(MAX_RECORDS);
+    maxFileSize = settings.getLong(MAX_FILE_SIZE);
+    if (maxFileSize == 0 || maxFileSize < -1) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid value for connector.%s.%s: Expecting a strictly positive number or -1, got: %d",
+              getConnectorName(), MAX_FILE_SIZE, maxFileSize));
+    }
+    readBufferSize = settings.getInt(READ_BUFFER_SIZE);
+    if (readBufferSize <= 0) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid value for connector.%s.%s: Expecting a strictly positive number, got: %d",
+              getConnectorName(), READ_BUFFER_SIZE, readBufferSize));
+    }
+    if ("0".equals(settings.getString(DECOMPRESSION_THREADS))) {
+      decompressionThreads = 0;
+    } else {
+      decompressionThreads = ConfigUtils.getThreads(settings, DECOMPRESSION_THREADS);
+    }
+    if ("0".equals(settings.getString(COMPRESSION_THREADS))) {
+      compressionThreads = 0;
+    } else {
+      compressionThreads = ConfigUtils.getThreads(settings, COMPRESSION_THREADS);
+    }
   }
 
   @Override
@@ -145,75 +219,92 @@ public abstract class AbstractFileBasedConnector implements Connector {
       processURLsForWrite();
       fileCounter = new AtomicInteger(0);
       nextWriterIndex = new AtomicInteger(0);
-      if (!roots.isEmpty() && maxConcurrentFiles > 1) {
+      if (isOutputGatherable()) {
+        gatherer = new OutputGatherer(IOUtils.newBufferedOutputStream(urls.get(0)));
+      }
+      allWriters = ConcurrentHashMap.newKeySet();
+      if ((!roots.isEmpty() || gatherer != null) && maxConcurrentFiles > 1) {
         writers = new ConcurrentLinkedDeque<>();
         for (int i = 0; i < maxConcurrentFiles; i++) {
-          writers.add(newSingleFileWriter());
+          writers.add(newTrackedWriter());
         }
       } else {
-        singleWriter = newSingleFileWriter();
+        singleWriter = newTrackedWriter();
+      }
+    }
+  }
+
+  @Override
+  public void setCheckpoint(@NonNull Checkpoint checkpoint) {
+    this.checkpoint = checkpoint;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The fingerprint is computed from the URL, size and last modification time of each resource
+   * to read; it is null if any of the resources is not a local file, since the contents of remote
+   * resources and of the standard input cannot be checked without reading them.
+   */
+  @Nullable
+  @Override
+  public String getFingerprint() {
+    assert read;
+    Hasher hasher =
+        Hashing.sha256().newHasher().putString(getConnectorName(), StandardCharsets.UTF_8);
+    Iterable<URL> resources =
+        scheduledFiles != null
+            ? scheduledFiles
+            : Flux.concat(
+                    Flux.fromIterable(roots).flatMap(this::scanRootDirectory),
+                    Flux.fromIterable(files))
+                .toIterable();
+    for (URL url : resources) {
+      if (!url.getProtocol().equalsIgnoreCase("file")) {
+        return null;
+      }
+      try {
+        BasicFileAttributes attributes =
+            Files.readAttributes(Paths.get(url.toURI()), BasicFileAttributes.class);
+        hasher
+            .putString(url.toExternalForm(), StandardCharsets.UTF_8)
+            .putLong(attributes.size())
+            .putLong(attributes.lastModifiedTime().toMillis());
+      } catch (URISyntaxException | IOException | RuntimeException e) {
+        return null;
       }
     }
+    return hasher.hash().toString();
   }
 
   @NonNull
   @Override
   public Publisher<Publisher<Record>> read() {
     assert read;
+    if (scheduledFiles != null) {
+      return Flux.fromIterable(scheduledFiles).concatMap(this::readResource);
+    }
     return Flux.concat(
             Flux.fromIterable(roots).flatMap(this::scanRootDirectory), Flux.fromIterable(files))
-        .map(url -> readSingleFile(url).transform(this::applyPerFileLimits));
+        .concatMap(this::readResource);
   }
 
-  @SuppressWarnings("BlockingMethodInNonBlockingContext")
   @NonNull
   @Override
   public Function<Publisher<Record>, Publisher<Record>> write() {
     assert !read;
-    if (!roots.isEmpty() && maxConcurrentFiles > 1) {
+    if (writers != null) {
+      // Each subscriber borrows a writer for as long as its subscription lasts, instead of looking
+      // it up for every record. Writers are not flushed when given back: they flush their buffers
+      // when these are full, and are flushed one last time when the connector is closed. Writers
+      // are given back eagerly, i.e. before the completion is signaled downstream, so that they
+      // are all back in the pool by the time the connector is closed.
       return records ->
-          Flux.from(records)
-              .concatMap(
-                  record ->
-                      Mono.subscriberContext()
-                          .flatMap(
-                              ctx -> {
-                                try {
-                                  RecordWriter writer = ctx.get("WRITER");
-                                  writer.write(record);
-                                  return Mono.just(record);
-                                } catch (Exception e) {
-                                  return Mono.error(e);
-                                }
-                              }),
-                  500)
-              .concatWith(
-                  Mono.subscriberContext()
-                      .flatMap(
-                          ctx -> {
-                            try {
-                              RecordWriter writer = ctx.get("WRITER");
-                              writer.flush();
-                              writers.offer(writer);
-                              return Mono.empty();
-                            } catch (Exception e) {
-                              return Mono.error(e);
-                            }
-                          }))
-              .subscriberContext(ctx -> ctx.put("WRITER", writers.remove()));
+          Flux.using(
+              this::borrowWriter, writer -> writeRecords(records, writer), writers::offer, true);
     } else {
       return records ->
-          Flux.from(records)
-              .concatMap(
-                  record -> {
-                    try {
-                      singleWriter.write(record);
-                      return Mono.just(record);
-                    } catch (Exception e) {
-                      return Mono.error(e);
-                    }
-                  },
-                  500)
+          writeRecords(records, singleWriter)
               .concatWith(
                   Flux.create(
                       sink -> {
@@ -227,6 +318,62 @@ public abstract class AbstractFileBasedConnector implements Connector {
     }
   }
 
+  @NonNull
+  private RecordWriter borrowWriter() {
+    RecordWriter writer = writers.poll();
+    // should not happen if the caller honors writeConcurrency(), but just in case,
+    // create a new writer; it will be added to the pool when released
+    return writer == null ? newTrackedWriter() : writer;
+  }
+
+  @NonNull
+  private RecordWriter newTrackedWriter() {
+    RecordWriter writer = newSingleFileWriter();
+    allWriters.add(writer);
+    return writer;
+  }
+
+  @NonNull
+  private Flux<Record> writeRecords(
+      @NonNull Publisher<Record> records, @NonNull RecordWriter writer) {
+    return Flux.from(records)
+        .handle(
+            (record, sink) -> {
+              try {
+                // uncontended, except when the connector is being flushed
+                synchronized (writer) {
+                  writer.write(record);
+                }
+                sink.next(record);
+              } catch (Exception e) {
+                sink.error(e);
+              }
+            });
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Each writer is flushed in turn, while no record is being written to it. Compressed files
+   * cannot be flushed: their records are only guaranteed to be written once the file is closed.
+   */
+  @Override
+  public boolean flush() throws IOException {
+    assert !read;
+    if (!CompressedIOUtils.isNoneCompression(compression)) {
+      return false;
+    }
+    for (RecordWriter writer : allWriters) {
+      synchronized (writer) {
+        writer.flush();
+      }
+    }
+    if (gatherer != null) {
+      gatherer.flush();
+    }
+    return true;
+  }
+
   @Override
   public void close() {
     if (writers != null) {
@@ -255,6 +402,13 @@ public abstract class AbstractFileBasedConnector implements Connector {
         throw new UncheckedIOException(e);
       }
     }
+    if (gatherer != null) {
+      try {
+        gatherer.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
   }
 
   // Protected members
@@ -293,6 +447,106 @@ public abstract class AbstractFileBasedConnector implements Connector {
         });
   }
 
+  /**
+   * Reads the given resource, see {@link #readRecords(URL, ResourceProgress)}. When resuming an
+   * operation, resources that were already entirely processed are skipped, and so are the records
+   * that were already processed.
+   */
+  @NonNull
+  private Flux<Publisher<Record>> readResource(@NonNull URL url) {
+    ResourceProgress progress = null;
+    if (checkpoint != null) {
+      URI resource = URI.create(url.toExternalForm());
+      if (checkpoint.isComplete(resource)) {
+        LOGGER.debug("Skipping {}: all its records were already processed", url);
+        return Flux.empty();
+      }
+      progress = new ResourceProgress(resource, checkpoint);
+    }
+    Flux<Publisher<Record>> records = readRecords(url, progress);
+    if (progress != null) {
+      records = records.map(progress::track).doOnComplete(progress::release);
+    }
+    return records;
+  }
+
+  /**
+   * Reads the given resource as one or more streams of records. Used during the {@linkplain #read()
+   * data reading phase}. This implementation reads the resource {@linkplain #readSingleFile(URL) as
+   * a whole}, then applies the {@linkplain #applyPerFileLimits(Flux) per-file limits}.
+   *
+   * @param url The URL to read.
+   * @param progress The progress of the current read operation on this resource, if it is being
+   *     checkpointed, or null otherwise; records already processed are filtered out afterwards.
+   * @return A stream of streams of {@link Record}s.
+   */
+  @NonNull
+  protected Flux<Publisher<Record>> readRecords(
+      @NonNull URL url, @Nullable ResourceProgress progress) {
+    return Flux.just(readSingleFile(url).transform(this::applyPerFileLimits));
+  }
+
+  /**
+   * Tracks the records read from a resource on behalf of the {@linkplain #checkpoint checkpoint}:
+   * filters out the records that were already processed, and notifies the checkpoint when all the
+   * streams of records of the resource – there can be many if the resource is read in splits – were
+   * entirely read.
+   */
+  protected static final class ResourceProgress {
+
+    private final URI resource;
+    private final Checkpoint checkpoint;
+
+    // one for the stream of streams, plus one per stream of records not yet entirely read
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final LongAccumulator first = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator last = new LongAccumulator(Math::max, -1);
+
+    private ResourceProgress(@NonNull URI resource, @NonNull Checkpoint checkpoint) {
+      this.resource = resource;
+      this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Returns the number of the first record to read, given the number of the first record that
+     * would be read if no record was processed already; records skipped are accounted for as if
+     * they were read.
+     */
+    long skipProcessed(long firstRecordNumber) {
+      long next = checkpoint.nextUnprocessedPosition(resource, firstRecordNumber);
+      if (next > firstRecordNumber) {
+        first.accumulate(firstRecordNumber);
+        last.accumulate(next - 1);
+      }
+      return next;
+    }
+
+    @NonNull
+    private Publisher<Record> track(@NonNull Publisher<Record> records) {
+      pending.incrementAndGet();
+      return Flux.from(records)
+          .filter(
+              record -> {
+                long position = record.getPosition();
+                if (position <= 0) {
+                  return true;
+                }
+                first.accumulate(position);
+                last.accumulate(position);
+                return !checkpoint.isProcessed(record.getResource(), position);
+              })
+          .doOnComplete(this::release);
+    }
+
+    private void release() {
+      if (pending.decrementAndGet() == 0) {
+        long firstPosition = first.get();
+        checkpoint.onResourceRead(
+            resource, firstPosition == Long.MAX_VALUE ? -1 : firstPosition, last.get());
+      }
+    }
+  }
+
   /**
    * Returns a new {@link RecordReader} instance; cannot be null. Only used when reading. Each
    * invocation of this method is expected to return a newly-allocated instance. The reader is
@@ -427,10 +681,15 @@ public abstract class AbstractFileBasedConnector implements Connector {
    * <p>Should be called at the beginning of the {@linkplain #init() initialization process}, but
    * only when reading, never when writing.
    *
+   * <p>If {@code largestFilesFirst} is enabled, root directories are scanned only once, here, and
+   * all the resources found are cached in {@link #scheduledFiles}, largest first, so that the
+   * biggest files start being read early on, instead of delaying the end of the operation.
+   *
    * <p>This method expects that {@link #loadURLs(Config)} has been previously called.
    */
   protected void processURLsForRead() throws URISyntaxException, IOException {
     resourceCount = 0;
+    List<SizedResource> resources = largestFilesFirst ? new ArrayList<>() : null;
     for (URL u : urls) {
       try {
         Path root = Paths.get(u.toURI());
@@ -440,8 +699,23 @@ public abstract class AbstractFileBasedConnector implements Connector {
                 String.format("Directory is not readable: %s.", root));
           }
           roots.add(root);
-          int inDirectoryResourceCount =
-              Objects.requireNonNull(scanRootDirectory(root).take(1000).count().block()).intValue();
+          int inDirectoryResourceCount;
+          if (resources != null) {
+            List<URL> found = Objects.requireNonNull(scanRootDirectory(root).collectList().block());
+            inDirectoryResourceCount = 0;
+            for (URL file : found) {
+              inDirectoryResourceCount += estimateResourceCount(file);
+              resources.add(new SizedResource(file));
+            }
+          } else {
+            inDirectoryResourceCount =
+                Objects.requireNonNull(
+                    scanRootDirectory(root)
+                        .take(1000)
+                        .map(this::estimateResourceCount)
+                        .reduce(0, Integer::sum)
+                        .block());
+          }
           if (inDirectoryResourceCount == 0) {
             if (IOUtils.countReadableFiles(root, recursive) == 0) {
               LOGGER.warn("Directory {} has no readable files.", root);
@@ -455,17 +729,54 @@ public abstract class AbstractFileBasedConnector implements Connector {
           }
           resourceCount += inDirectoryResourceCount;
         } else {
-          resourceCount += 1;
+          resourceCount += estimateResourceCount(u);
           files.add(u);
         }
       } catch (FileSystemNotFoundException ignored) {
         // not a path on a known filesystem, fall back to reading from URL directly
         files.add(u);
-        resourceCount++;
+        resourceCount += estimateResourceCount(u);
+      }
+    }
+    if (resources != null) {
+      for (URL file : files) {
+        resources.add(new SizedResource(file));
+      }
+      // stable sort: resources of unknown size are read last, in their original order
+      resources.sort(Comparator.comparingLong((SizedResource r) -> r.size).reversed());
+      scheduledFiles = new ArrayList<>(resources.size());
+      for (SizedResource resource : resources) {
+        scheduledFiles.add(resource.url);
       }
     }
   }
 
+  /** A resource to read, and its size in bytes, or -1 if the size cannot be determined. */
+  private static final class SizedResource {
+
+    private final URL url;
+    private final long size;
+
+    private SizedResource(@NonNull URL url) {
+      this.url = url;
+      long size;
+      try {
+        size = Files.size(Paths.get(url.toURI()));
+      } catch (URISyntaxException | IOException | RuntimeException e) {
+        size = -1;
+      }
+      this.size = size;
+    }
+  }
+
+  /**
+   * Estimates the number of resources that reading the given URL will produce. This implementation
+   * returns 1; connectors that read resources in splits override this method.
+   */
+  protected int estimateResourceCount(@NonNull URL url) {
+    return 1;
+  }
+
   /**
    * Inspects the list or URLs as loaded by {@link #loadURLs(Config)} and determines if the
    * connector should write to a single file, or to a directory of files.
@@ -569,6 +880,159 @@ public abstract class AbstractFileBasedConnector implements Connector {
     return urls.get(0);
   }
 
+  /**
+   * Opens the given destination URL for writing, and returns a stream that counts the bytes written
+   * to it. Writers that support {@code maxFileSize} should create their destination streams with
+   * this method, and pass the stream's {@linkplain CountingOutputStream#getCount() count} to {@link
+   * #isMaxFileSizeReached(long)}.
+   *
+   * <p>The returned stream should be wrapped by any compressing or encoding streams, so that the
+   * count reflects the actual size of the file being written, minus the data still buffered by
+   * these streams.
+   *
+   * @throws IOException If the URL cannot be opened.
+   */
+  @NonNull
+  protected CountingOutputStream newCountingOutputStream(@NonNull URL url) throws IOException {
+    if (gatherer != null) {
+      return new CountingOutputStream(gatherer.newChunkStream());
+    }
+    return new CountingOutputStream(IOUtils.newBufferedOutputStream(url));
+  }
+
+  /**
+   * Whether the output of many writers can be gathered into the destination URL. This
+   * implementation returns true when writing uncompressed data to the standard output with more
+   * than one writer, and if {@link #isOutputGatheringSupported()} returns true.
+   */
+  protected boolean isOutputGatherable() {
+    return roots.isEmpty()
+        && maxConcurrentFiles > 1
+        && IOUtils.isStandardStream(urls.get(0))
+        && CompressedIOUtils.isNoneCompression(compression)
+        && isOutputGatheringSupported();
+  }
+
+  /**
+   * Whether this connector's writers are able to write to an {@link OutputGatherer}, that is,
+   * whether they {@linkplain OutputStream#flush() flush} their output streams only on record
+   * boundaries, and write their header, if any, with {@link OutputGatherer#writeHeader(byte[])}.
+   * This implementation returns false.
+   */
+  protected boolean isOutputGatheringSupported() {
+    return false;
+  }
+
+  /**
+   * Whether a writer that wrote the given number of bytes to its chunk stream since its last flush
+   * should flush it, thus handing its records over to the {@link OutputGatherer}. Always returns
+   * false when output is not being gathered.
+   */
+  protected boolean isChunkComplete(long bytesWritten) {
+    return gatherer != null && bytesWritten >= OutputGatherer.CHUNK_SIZE;
+  }
+
+  /**
+   * Gathers the output of many writers into a single, largely-buffered destination stream.
+   *
+   * <p>Each writer formats its records into its own {@linkplain #newChunkStream() chunk stream};
+   * when the writer flushes its chunk stream, the bytes written so far are appended to the
+   * destination in one go, so that records written by different writers are never interleaved, as
+   * long as writers only flush on record boundaries. The relative order of records written by
+   * different writers is not preserved.
+   */
+  protected static final class OutputGatherer implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    private static final int BUFFER_SIZE = 8 * 1024 * 1024;
+
+    private final OutputStream destination;
+    private volatile boolean headerWritten;
+
+    public OutputGatherer(@NonNull OutputStream destination) {
+      this.destination = new BufferedOutputStream(destination, BUFFER_SIZE);
+    }
+
+    /** @return A new stream for a writer to write its records to. */
+    @NonNull
+    public OutputStream newChunkStream() {
+      return new ChunkStream();
+    }
+
+    /**
+     * Writes the given header to the destination, unless a header was written already. Writers must
+     * call this method before writing their first record, so that the header is written before any
+     * record.
+     *
+     * @throws IOException If the header cannot be written.
+     */
+    public void writeHeader(@NonNull byte[] header) throws IOException {
+      if (!headerWritten) {
+        synchronized (this) {
+          if (!headerWritten) {
+            destination.write(header);
+            headerWritten = true;
+          }
+        }
+      }
+    }
+
+    private synchronized void append(@NonNull ByteArrayOutputStream chunk) throws IOException {
+      chunk.writeTo(destination);
+    }
+
+    /**
+     * Flushes the chunks appended so far to the destination.
+     *
+     * @throws IOException If the destination cannot be flushed.
+     */
+    public synchronized void flush() throws IOException {
+      destination.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+      destination.close();
+    }
+
+    private final class ChunkStream extends OutputStream {
+
+      private final ByteArrayOutputStream chunk = new ByteArrayOutputStream(CHUNK_SIZE);
+
+      @Override
+      public void write(int b) {
+        chunk.write(b);
+      }
+
+      @Override
+      public void write(@NonNull byte[] b, int off, int len) {
+        chunk.write(b, off, len);
+      }
+
+      @Override
+      public void flush() throws IOException {
+        if (chunk.size() > 0) {
+          append(chunk);
+          chunk.reset();
+        }
+      }
+
+      @Override
+      public void close() throws IOException {
+        flush();
+      }
+    }
+  }
+
+  /**
+   * Whether a writer that already wrote the given number of bytes to its current file should roll
+   * to a new file. Files are only rolled when writing to a directory; since some data may still be
+   * buffered when this method is called, files may end up slightly bigger than {@code maxFileSize}.
+   */
+  protected boolean isMaxFileSizeReached(long bytesWritten) {
+    return maxFileSize > 0 && !roots.isEmpty() && bytesWritten >= maxFileSize;
+  }
+
   /**
    * Checks whether it is safe to perform data size sampling on this connector's data source. Data
    * size sampling is usually not safe if the data can only be streamed once.
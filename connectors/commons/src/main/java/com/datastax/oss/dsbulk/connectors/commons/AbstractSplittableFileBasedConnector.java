@@ -0,0 +1,645 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.commons;
+
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.io.CompressedIOUtils;
+import com.datastax.oss.dsbulk.io.IOUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+/**
+ * A parent class for file-based connectors that can read resources as sequences of {@linkplain
+ * FileSplit splits}.
+ */
+public abstract class AbstractSplittableFileBasedConnector extends AbstractFileBasedConnector {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(AbstractSplittableFileBasedConnector.class);
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>When the connector is able to {@linkplain #isSplittingSupported() split} resources, the
+   * resource is read as a sequence of {@linkplain FileSplit splits} if it {@linkplain
+   * #isSplittable(URL) is splittable}; records skipped because of {@code skipRecords}, or because
+   * they were already processed, are skipped without being parsed, by scanning the resource for
+   * record boundaries; records are then read from the first record not to skip onwards.
+   */
+  @NonNull
+  @Override
+  protected Flux<Publisher<Record>> readRecords(
+      @NonNull URL url, @Nullable ResourceProgress progress) {
+    if (!isSplittingSupported()) {
+      return super.readRecords(url, progress);
+    }
+    long firstRecordNumber = skipRecords + 1;
+    if (progress != null) {
+      firstRecordNumber = progress.skipProcessed(firstRecordNumber);
+    }
+    if (isSplittable(url)) {
+      return readSplits(url, firstRecordNumber, splitSize);
+    } else if (firstRecordNumber > 1) {
+      return Flux.just(fastForward(url, firstRecordNumber));
+    } else {
+      return super.readRecords(url, progress);
+    }
+  }
+
+  /**
+   * Reads the given resource from the given record onwards, skipping the records before it without
+   * parsing them, then applies {@code maxRecords}, if any.
+   */
+  @NonNull
+  private Flux<Record> fastForward(@NonNull URL url, long firstRecordNumber) {
+    LOGGER.debug("Fast-forwarding {} to record {}", url, firstRecordNumber);
+    Flux<Record> records = readSplits(url, firstRecordNumber, -1).concatMap(split -> split);
+    if (maxRecords != -1) {
+      // records before skipRecords + 1 do not count, records skipped because they were already
+      // processed do
+      long remaining = skipRecords + maxRecords - (firstRecordNumber - 1);
+      records = remaining > 0 ? records.take(remaining) : Flux.empty();
+    }
+    return records;
+  }
+
+  /**
+   * Reads a single resource as a sequence of {@linkplain FileSplit splits}, each split being
+   * emitted as a distinct stream of records, which allows the resource to be read in parallel. Used
+   * during the {@linkplain #read() data reading phase}, if the resource {@linkplain
+   * #isSplittable(URL) is splittable}, or if records must be skipped.
+   *
+   * <p>Splits are computed lazily: each split is emitted as soon as its end boundary is found, so
+   * that its records can be consumed while the rest of the resource is still being split.
+   *
+   * @param url The URL to read.
+   * @param firstRecordNumber The number (1-based) of the first record to read; records before it
+   *     are skipped.
+   * @param maxSplitSize The size above which a split ends, or -1 to read all the records in one
+   *     split.
+   * @return A stream of streams of {@link Record}s, one per split.
+   */
+  @NonNull
+  protected Flux<Publisher<Record>> readSplits(
+      @NonNull URL url, long firstRecordNumber, long maxSplitSize) {
+    return Flux.<FileSplit, FileSplitter>generate(
+            () -> newFileSplitter(url, firstRecordNumber, maxSplitSize),
+            (splitter, sink) -> {
+              try {
+                FileSplit split = splitter.nextSplit();
+                if (split == null) {
+                  LOGGER.debug("Done splitting {}", url);
+                  sink.complete();
+                } else {
+                  LOGGER.debug("Emitting split {}", split);
+                  sink.next(split);
+                }
+              } catch (Exception e) {
+                sink.error(e);
+              }
+              return splitter;
+            },
+            splitter -> {
+              try {
+                splitter.close();
+              } catch (IOException e) {
+                LOGGER.error("Error closing splitter for " + url, e);
+              }
+            })
+        .<Publisher<Record>>map(split -> readSplit(split.getSplitter(), split));
+  }
+
+  /** Reads a single {@link FileSplit}. */
+  @NonNull
+  private Flux<Record> readSplit(@NonNull FileSplitter splitter, @NonNull FileSplit split) {
+    return Flux.generate(
+        () -> splitter.newSplitReader(split),
+        RecordReader::readNext,
+        recordReader -> {
+          try {
+            recordReader.close();
+          } catch (IOException e) {
+            LOGGER.error("Error closing " + split, e);
+          }
+        });
+  }
+
+  /**
+   * Whether the given resource can be read as a sequence of independent {@linkplain FileSplit
+   * splits}.
+   *
+   * <p>This implementation returns true if {@code splitSize} is positive, the resource is a local,
+   * uncompressed file bigger than {@code splitSize} or the uncompressed standard input, {@code
+   * maxRecords} is not in effect, and {@link #isSplittingSupported()} returns true.
+   */
+  protected boolean isSplittable(@NonNull URL url) {
+    if (splitSize <= 0
+        || !CompressedIOUtils.isNoneCompression(compression)
+        || maxRecords != -1
+        || !isSplittingSupported()) {
+      return false;
+    }
+    if (IOUtils.isStandardStream(url)) {
+      // the size of the standard input is unknown
+      return true;
+    }
+    if (!url.getProtocol().equalsIgnoreCase("file")) {
+      return false;
+    }
+    try {
+      Path path = Paths.get(url.toURI());
+      return Files.isRegularFile(path) && Files.size(path) > splitSize;
+    } catch (URISyntaxException | IOException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Whether this connector is able to split resources with its current configuration, that is,
+   * whether it is able to find record boundaries by scanning raw bytes. Connectors that split
+   * resources can also skip records without parsing them. This implementation returns true;
+   * connectors that cannot split resources with some configurations may override it.
+   */
+  protected boolean isSplittingSupported() {
+    return true;
+  }
+
+  /**
+   * Returns a new {@link FileSplitter} for the given resource. Only used when reading, and only if
+   * {@linkplain #isSplittingSupported() splitting is supported}.
+   *
+   * @param url The URL to split.
+   * @param firstRecordNumber The number (1-based) of the first record of the first split; records
+   *     before it are skipped.
+   * @param maxSplitSize The size above which a split ends, or -1 to emit one single split.
+   * @throws IOException If the splitter cannot be initialized.
+   * @see AbstractFileSplitter
+   */
+  @NonNull
+  protected abstract FileSplitter newFileSplitter(
+      @NonNull URL url, long firstRecordNumber, long maxSplitSize) throws IOException;
+
+  /**
+   * A splitter for local files: cuts a file into contiguous {@linkplain FileSplit splits} starting
+   * on record boundaries, and creates readers for the splits it produced. Implementors are not
+   * expected to deal with thread-safety issues when computing splits; however {@link
+   * #newSplitReader(FileSplit)} may be called concurrently, and may be called after the splitter
+   * was closed.
+   */
+  protected interface FileSplitter extends AutoCloseable {
+
+    /**
+     * Computes the next split.
+     *
+     * @return the next split, or null if the end of the file has been reached.
+     * @throws IOException If an I/O error occurs while scanning the file.
+     */
+    @Nullable
+    FileSplit nextSplit() throws IOException;
+
+    /**
+     * Returns a new {@link RecordReader} instance for the given split, that was previously produced
+     * by this splitter. The reader is expected to be initialized already, and ready to emit its
+     * first record.
+     *
+     * @throws IOException If the reader cannot be initialized.
+     */
+    @NonNull
+    RecordReader newSplitReader(@NonNull FileSplit split) throws IOException;
+
+    /**
+     * Releases any resources used to compute splits. Readers created by this splitter must not be
+     * affected by this method.
+     *
+     * @throws IOException If an I/O error occurs while closing.
+     */
+    @Override
+    void close() throws IOException;
+  }
+
+  /**
+   * A {@link FileSplitter} that scans raw bytes, leaving to subclasses the task of finding where
+   * records start.
+   *
+   * <p>Local, uncompressed files are scanned through a file channel, and their splits are byte
+   * ranges of the file, read through a file channel in turn. Other resources, such as compressed
+   * files and the standard input, are scanned sequentially: the bytes of each split are copied as
+   * they are scanned, so that each split can be parsed from memory while the next splits are still
+   * being scanned; when a single split is requested, the split rather continues the scanned stream,
+   * right where the split starts.
+   *
+   * <p>The bytes of the header line, if any, are never part of any split: they are handed over to
+   * {@link #onHeader(byte[])} before the first split is emitted.
+   */
+  protected abstract class AbstractFileSplitter implements FileSplitter {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    protected final URL url;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final InputStream in;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final long firstRecordNumber;
+    private final long maxSplitSize;
+    private final int headerRecords;
+    // the bytes of the header, or of the current split when scanning a stream, that were scanned
+    // in previous blocks; and the index in the buffer of the first byte not copied yet, or -1
+    private final ByteArrayOutputStream scanned = new ByteArrayOutputStream();
+    private int copyFrom = -1;
+
+    private long bufferOffset = 0;
+    private long records = 0;
+    private long splitStart = -1;
+    private long splitFirstRecordNumber = -1;
+    private boolean done = false;
+    private boolean handedOver = false;
+
+    /**
+     * Creates a new splitter.
+     *
+     * @param url The URL to split.
+     * @param firstRecordNumber The number (1-based) of the first record of the first split.
+     * @param maxSplitSize The size above which a split ends, or -1 to emit one single split.
+     * @param header Whether the resource starts with a header line.
+     * @throws IOException If the resource cannot be opened.
+     */
+    protected AbstractFileSplitter(
+        @NonNull URL url, long firstRecordNumber, long maxSplitSize, boolean header)
+        throws IOException {
+      this.url = url;
+      this.firstRecordNumber = firstRecordNumber;
+      this.maxSplitSize = maxSplitSize > 0 ? maxSplitSize : Long.MAX_VALUE;
+      headerRecords = header ? 1 : 0;
+      Path path = null;
+      if (url.getProtocol().equalsIgnoreCase("file")
+          && CompressedIOUtils.isNoneCompression(compression)) {
+        try {
+          path = Paths.get(url.toURI());
+        } catch (URISyntaxException | FileSystemNotFoundException | IllegalArgumentException e) {
+          // not a path on a known filesystem, fall back to reading from URL directly
+        }
+      }
+      if (path != null && Files.isRegularFile(path)) {
+        this.path = path;
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        in = null;
+      } else {
+        this.path = null;
+        channel = null;
+        in = CompressedIOUtils.newInputStream(url, compression, decompressionThreads);
+      }
+      buffer.limit(0);
+      if (fill() && encoding.equals(StandardCharsets.UTF_8)) {
+        skipByteOrderMark();
+      }
+    }
+
+    /**
+     * Advances the scanner by one byte.
+     *
+     * @return true if a record starts at this byte, false otherwise.
+     */
+    protected abstract boolean advance(byte b);
+
+    /**
+     * Called with the bytes of the header line, if any, before the first split is emitted. This
+     * implementation does nothing.
+     *
+     * @throws IOException If the header cannot be read.
+     */
+    protected void onHeader(@NonNull byte[] header) throws IOException {}
+
+    @Nullable
+    @Override
+    public FileSplit nextSplit() throws IOException {
+      if (done) {
+        return null;
+      }
+      byte[] array = buffer.array();
+      while (buffer.hasRemaining() || fill()) {
+        int limit = buffer.limit();
+        for (int i = buffer.position(); i < limit; i++) {
+          if (advance(array[i])) {
+            FileSplit split = onRecordStart(i);
+            if (split != null) {
+              buffer.position(i + 1);
+              return split;
+            }
+          }
+        }
+        buffer.position(limit);
+      }
+      done = true;
+      if (splitStart == -1) {
+        // no records to read
+        return null;
+      }
+      return newSplit(0, bufferOffset - splitStart);
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (channel != null) {
+        channel.close();
+      } else if (!handedOver) {
+        in.close();
+      }
+    }
+
+    private void skipByteOrderMark() {
+      byte[] array = buffer.array();
+      if (buffer.remaining() >= 3
+          && array[0] == (byte) 0xEF
+          && array[1] == (byte) 0xBB
+          && array[2] == (byte) 0xBF) {
+        buffer.position(3);
+      }
+    }
+
+    private boolean fill() throws IOException {
+      if (copyFrom != -1) {
+        scanned.write(buffer.array(), copyFrom, buffer.limit() - copyFrom);
+        copyFrom = 0;
+      }
+      bufferOffset += buffer.limit();
+      buffer.clear();
+      while (buffer.hasRemaining()) {
+        int read;
+        if (channel != null) {
+          read = channel.read(buffer, bufferOffset + buffer.position());
+        } else {
+          read = in.read(buffer.array(), buffer.position(), buffer.remaining());
+          if (read > 0) {
+            buffer.position(buffer.position() + read);
+          }
+        }
+        if (read == -1) {
+          break;
+        }
+      }
+      buffer.flip();
+      return buffer.hasRemaining();
+    }
+
+    /**
+     * Called when a record starts at the given index in the buffer. Returns the split that this
+     * record terminates, if any.
+     */
+    @Nullable
+    private FileSplit onRecordStart(int index) throws IOException {
+      records++;
+      if (records <= headerRecords) {
+        // header line, not part of any split
+        copyFrom = index;
+        return null;
+      }
+      if (headerRecords > 0 && records == headerRecords + 1) {
+        onHeader(takeScanned(index));
+        copyFrom = -1;
+      }
+      long recordNumber = records - headerRecords;
+      if (recordNumber < firstRecordNumber) {
+        return null;
+      }
+      long offset = bufferOffset + index;
+      FileSplit split = null;
+      if (splitStart != -1 && offset - splitStart >= maxSplitSize) {
+        split = newSplit(index, offset - splitStart);
+        splitStart = -1;
+      }
+      if (splitStart == -1) {
+        splitStart = offset;
+        splitFirstRecordNumber = recordNumber;
+        if (in != null) {
+          if (maxSplitSize == Long.MAX_VALUE) {
+            // one single split: continue reading the stream from here
+            done = true;
+            handedOver = true;
+            InputStream remaining =
+                new SequenceInputStream(
+                    new ByteArrayInputStream(buffer.array(), index, buffer.limit() - index), in);
+            return new FileSplit(this, url, remaining, offset, recordNumber);
+          }
+          copyFrom = index;
+        }
+      }
+      return split;
+    }
+
+    @NonNull
+    private FileSplit newSplit(int index, long length) {
+      if (in != null) {
+        return new FileSplit(this, url, takeScanned(index), splitStart, splitFirstRecordNumber);
+      }
+      return new FileSplit(this, url, path, splitStart, length, splitFirstRecordNumber);
+    }
+
+    /** Returns the bytes scanned since the last call, up to the given index in the buffer. */
+    @NonNull
+    private byte[] takeScanned(int to) {
+      scanned.write(buffer.array(), copyFrom, to - copyFrom);
+      byte[] bytes = scanned.toByteArray();
+      scanned.reset();
+      copyFrom = to;
+      return bytes;
+    }
+  }
+
+  /**
+   * A contiguous byte range inside a local file, starting on a record boundary and ending right
+   * before the next split's first record, or at the end of the file.
+   *
+   * <p>Splits of resources that are not local, uncompressed files hold either a copy of the bytes
+   * they span, or the stream to read them from.
+   */
+  protected static final class FileSplit {
+
+    private final FileSplitter splitter;
+    private final URL url;
+    private final Path path;
+    private final byte[] data;
+    private final InputStream stream;
+    private final long start;
+    private final long length;
+    private final long firstRecordNumber;
+
+    public FileSplit(
+        @NonNull FileSplitter splitter,
+        @NonNull URL url,
+        @NonNull Path path,
+        long start,
+        long length,
+        long firstRecordNumber) {
+      this(splitter, url, path, null, null, start, length, firstRecordNumber);
+    }
+
+    public FileSplit(
+        @NonNull FileSplitter splitter,
+        @NonNull URL url,
+        @NonNull byte[] data,
+        long start,
+        long firstRecordNumber) {
+      this(splitter, url, null, data, null, start, data.length, firstRecordNumber);
+    }
+
+    public FileSplit(
+        @NonNull FileSplitter splitter,
+        @NonNull URL url,
+        @NonNull InputStream stream,
+        long start,
+        long firstRecordNumber) {
+      this(splitter, url, null, null, stream, start, -1, firstRecordNumber);
+    }
+
+    private FileSplit(
+        FileSplitter splitter,
+        URL url,
+        Path path,
+        byte[] data,
+        InputStream stream,
+        long start,
+        long length,
+        long firstRecordNumber) {
+      this.splitter = splitter;
+      this.url = url;
+      this.path = path;
+      this.data = data;
+      this.stream = stream;
+      this.start = start;
+      this.length = length;
+      this.firstRecordNumber = firstRecordNumber;
+    }
+
+    @NonNull
+    private FileSplitter getSplitter() {
+      return splitter;
+    }
+
+    /** @return The URL of the file this split belongs to. */
+    @NonNull
+    public URL getUrl() {
+      return url;
+    }
+
+    /** @return The path of the file this split belongs to, or null if it is not a local file. */
+    @Nullable
+    public Path getPath() {
+      return path;
+    }
+
+    /**
+     * @return The stream to read this split from, if the split extends to the end of a stream, or
+     *     null otherwise.
+     */
+    @Nullable
+    public InputStream getStream() {
+      return stream;
+    }
+
+    /** @return The position, in bytes, of the first byte of this split. */
+    public long getStart() {
+      return start;
+    }
+
+    /**
+     * @return The length, in bytes, of this split, or -1 if the split extends to the end of a
+     *     stream.
+     */
+    public long getLength() {
+      return length;
+    }
+
+    /** @return The record number (1-based) of the first record in this split. */
+    public long getFirstRecordNumber() {
+      return firstRecordNumber;
+    }
+
+    /**
+     * Opens this split for reading. Can only be called once.
+     *
+     * @param charset The charset to use to decode bytes.
+     * @param bufferSize The size of the byte buffer to use for local files.
+     * @return A new {@link Reader} reading the bytes of this split.
+     * @throws IOException If the split cannot be opened.
+     */
+    @NonNull
+    public Reader newReader(@NonNull Charset charset, int bufferSize) throws IOException {
+      if (path != null) {
+        return IOUtils.newFileReader(path, start, length, charset, bufferSize);
+      }
+      return new InputStreamReader(data != null ? new ByteArrayInputStream(data) : stream, charset);
+    }
+
+    @Override
+    public String toString() {
+      if (length == -1) {
+        return String.format("%s [%d-] (first record: %d)", url, start, firstRecordNumber);
+      }
+      return String.format(
+          "%s [%d-%d] (first record: %d)", url, start, start + length, firstRecordNumber);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This implementation returns 1 for regular resources, or the expected number of splits if the
+   * resource {@linkplain #isSplittable(URL) is splittable}. Connectors may override this method
+   * when splits are not based on {@code splitSize}.
+   *
+   * <p>The size of the standard input being unknown, it is expected to produce enough splits to
+   * read {@code maxConcurrentFiles} of them in parallel.
+   */
+  @Override
+  protected int estimateResourceCount(@NonNull URL url) {
+    if (isSplittable(url)) {
+      if (IOUtils.isStandardStream(url)) {
+        return maxConcurrentFiles;
+      }
+      try {
+        long size = Files.size(Paths.get(url.toURI()));
+        return (int) Math.min((size + splitSize - 1) / splitSize, Integer.MAX_VALUE);
+      } catch (URISyntaxException | IOException e) {
+        return 1;
+      }
+    }
+    return 1;
+  }
+}
@@ -16,18 +16,19 @@
 package com.datastax.oss.dsbulk.connectors.csv;
 
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.shaded.guava.common.io.CountingOutputStream;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.ConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.DefaultErrorRecord;
-import com.datastax.oss.dsbulk.connectors.api.DefaultIndexedField;
 import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
-import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
 import com.datastax.oss.dsbulk.connectors.api.Field;
 import com.datastax.oss.dsbulk.connectors.api.MappedField;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
-import com.datastax.oss.dsbulk.connectors.commons.AbstractFileBasedConnector;
+import com.datastax.oss.dsbulk.connectors.api.RecordSchema;
+import com.datastax.oss.dsbulk.connectors.commons.AbstractSplittableFileBasedConnector;
 import com.datastax.oss.dsbulk.io.CompressedIOUtils;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
@@ -40,13 +41,18 @@ import com.univocity.parsers.csv.CsvParserSettings;
 import com.univocity.parsers.csv.CsvWriter;
 import com.univocity.parsers.csv.CsvWriterSettings;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLStreamHandler;
 import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -64,7 +70,7 @@ import reactor.core.publisher.SynchronousSink;
  * <p>This connector is highly configurable; see its {@code dsbulk-reference.conf} file, bundled
  * within its jar archive, for detailed information.
  */
-public class CSVConnector extends AbstractFileBasedConnector {
+public class CSVConnector extends AbstractSplittableFileBasedConnector {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(CSVConnector.class);
   private static final GenericType<String> STRING_TYPE = GenericType.STRING;
@@ -105,7 +111,9 @@ public class CSVConnector extends AbstractFileBasedConnector {
   private boolean normalizeLineEndingsInQuotes;
   private String nullValue;
   private String emptyValue;
+  private boolean splittingSupported;
   private CsvParserSettings parserSettings;
+  private CsvParserSettings splitParserSettings;
   private CsvWriterSettings writerSettings;
 
   @Override
@@ -146,6 +154,8 @@ public class CSVConnector extends AbstractFileBasedConnector {
                 "Invalid value for dsbulk.connector.csv.%s: Expecting '%s' or a string containing 1 or 2 chars, got: '%s'",
                 NEWLINE, AUTO_NEWLINE, newline));
       }
+      splitSize = settings.getLong(SPLIT_SIZE);
+      splittingSupported = read && canSplit();
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.connector.csv");
     }
@@ -182,6 +192,9 @@ public class CSVConnector extends AbstractFileBasedConnector {
       } else {
         format.setLineSeparator(newline);
       }
+      // file splits never contain the header line, see CSVFileSplitter
+      splitParserSettings = parserSettings.clone();
+      splitParserSettings.setHeaderExtractionEnabled(false);
     } else {
       writerSettings = new CsvWriterSettings();
       writerSettings.setFormat(format);
@@ -232,6 +245,40 @@ public class CSVConnector extends AbstractFileBasedConnector {
     return new CSVRecordReader(url);
   }
 
+  @Override
+  protected boolean isSplittingSupported() {
+    return splittingSupported;
+  }
+
+  @NonNull
+  @Override
+  protected FileSplitter newFileSplitter(
+      @NonNull URL url, long firstRecordNumber, long maxSplitSize) throws IOException {
+    return new CSVFileSplitter(url, firstRecordNumber, maxSplitSize);
+  }
+
+  @Override
+  protected boolean isOutputGatheringSupported() {
+    return true;
+  }
+
+  /**
+   * Whether files can be split with the current settings. Splitting requires scanning raw bytes for
+   * quotes, comments and line endings, so it is only possible when the encoding is ASCII-compatible
+   * and all these characters are ASCII characters.
+   */
+  private boolean canSplit() {
+    boolean asciiCompatible =
+        encoding.equals(StandardCharsets.UTF_8)
+            || encoding.equals(StandardCharsets.US_ASCII)
+            || encoding.equals(StandardCharsets.ISO_8859_1);
+    return asciiCompatible
+        && quote < 0x80
+        && escape < 0x80
+        && comment < 0x80
+        && (AUTO_NEWLINE.equalsIgnoreCase(newline) || newline.chars().allMatch(c -> c < 0x80));
+  }
+
   private class CSVRecordReader implements RecordReader {
 
     private final URL url;
@@ -239,6 +286,9 @@ public class CSVConnector extends AbstractFileBasedConnector {
     private final CsvParser parser;
     private final ParsingContext context;
     private final MappedField[] fieldNames;
+    // shared by all the records of this reader; when there is no header, records may have varying
+    // numbers of fields, so the schema is only reused as long as the number of fields is the same
+    private RecordSchema schema;
 
     private long recordNumber = 1;
 
@@ -247,38 +297,31 @@ public class CSVConnector extends AbstractFileBasedConnector {
       try {
         resource = URI.create(url.toExternalForm());
         parser = new CsvParser(parserSettings);
-        Reader r = CompressedIOUtils.newBufferedReader(url, encoding, compression);
+        Reader r =
+            CompressedIOUtils.newReader(
+                url, encoding, compression, readBufferSize, decompressionThreads);
         parser.beginParsing(r);
         context = parser.getContext();
         fieldNames = header ? getFieldNames(url, context) : null;
+        schema = fieldNames == null ? null : RecordSchema.mappedAndIndexed(fieldNames);
       } catch (Exception e) {
         throw asIOException(url, e, "Error creating CSV parser for " + url);
       }
     }
 
-    private MappedField[] getFieldNames(URL url, ParsingContext context) throws IOException {
-      List<String> fieldNames = new ArrayList<>();
-      String[] parsedHeaders = context.headers();
-      if (parsedHeaders == null) {
-        throw new IOException(
-            String.format("The parsed headers from provided url: %s are null", url));
-      }
-      List<String> errors = new ArrayList<>();
-      for (int i = 0; i < parsedHeaders.length; i++) {
-        String name = parsedHeaders[i];
-        // DAT-427: prevent empty names and duplicated names
-        if (name == null || name.isEmpty() || WHITESPACE.matcher(name).matches()) {
-          errors.add(String.format("found empty field name at index %d", i));
-        } else if (fieldNames.contains(name)) {
-          errors.add(String.format("found duplicate field name at index %d", i));
-        }
-        fieldNames.add(name);
-      }
-      if (errors.isEmpty()) {
-        return fieldNames.stream().map(DefaultMappedField::new).toArray(MappedField[]::new);
-      } else {
-        String msg = url + " has invalid header: " + String.join("; ", errors) + ".";
-        throw new IOException(msg);
+    private CSVRecordReader(FileSplit split, @Nullable MappedField[] fieldNames)
+        throws IOException {
+      this.url = split.getUrl();
+      this.fieldNames = fieldNames;
+      schema = fieldNames == null ? null : RecordSchema.mappedAndIndexed(fieldNames);
+      try {
+        resource = URI.create(url.toExternalForm());
+        parser = new CsvParser(splitParserSettings);
+        parser.beginParsing(split.newReader(encoding, readBufferSize));
+        context = parser.getContext();
+        recordNumber = split.getFirstRecordNumber();
+      } catch (Exception e) {
+        throw asIOException(url, e, "Error creating CSV parser for " + split);
       }
     }
 
@@ -310,17 +353,11 @@ public class CSVConnector extends AbstractFileBasedConnector {
       Record record;
       try {
         Object[] values = row.getValues();
-        if (header) {
-          record = DefaultRecord.mapped(source, resource, recordNumber++, fieldNames, values);
-          // also emit indexed fields
-          for (int i = 0; i < values.length; i++) {
-            DefaultIndexedField field = new DefaultIndexedField(i);
-            Object value = values[i];
-            ((DefaultRecord) record).setFieldValue(field, value);
-          }
-        } else {
-          record = DefaultRecord.indexed(source, resource, recordNumber++, values);
+        if (fieldNames == null && (schema == null || schema.size() != values.length)) {
+          schema = RecordSchema.indexed(values.length);
         }
+        // when there is a header, records contain both mapped and indexed fields
+        record = new ArrayBackedRecord(source, resource, recordNumber++, schema, values);
       } catch (Exception e) {
         record = new DefaultErrorRecord(source, resource, recordNumber, e);
       }
@@ -335,6 +372,166 @@ public class CSVConnector extends AbstractFileBasedConnector {
     }
   }
 
+  /**
+   * Splits CSV data into byte ranges aligned on record boundaries.
+   *
+   * <p>The data is scanned byte by byte, without decoding characters nor parsing values. Quoted
+   * values, comment lines and empty lines are tracked the same way the parser does, so that splits
+   * never start in the middle of a multi-line record, and that the number of the first record in
+   * each split is known. The header line, if any, is read once and shared by all splits.
+   */
+  private class CSVFileSplitter extends AbstractFileSplitter {
+
+    private static final int LINE_START = 0;
+    private static final int FIELD_START = 1;
+    private static final int UNQUOTED = 2;
+    private static final int QUOTED = 3;
+    private static final int ESCAPING = 4;
+    private static final int QUOTE_SEEN = 5;
+    private static final int COMMENT = 6;
+
+    private final byte quoteByte = (byte) quote;
+    private final byte escapeByte = (byte) escape;
+    private final byte commentByte = (byte) comment;
+    private final byte[] delimiterBytes = delimiter.getBytes(encoding);
+    private final byte[] newlineBytes =
+        AUTO_NEWLINE.equalsIgnoreCase(newline) ? null : newline.getBytes(encoding);
+
+    private int state = LINE_START;
+    private int delimiterMatch = 0;
+    private byte previous = 0;
+
+    // set when the header line was scanned, before the first split is emitted
+    private MappedField[] fieldNames;
+
+    private CSVFileSplitter(URL url, long firstRecordNumber, long maxSplitSize) throws IOException {
+      super(url, firstRecordNumber, maxSplitSize, header);
+    }
+
+    @Override
+    protected void onHeader(@NonNull byte[] headerLine) throws IOException {
+      CsvParser parser = new CsvParser(parserSettings);
+      try {
+        parser.beginParsing(new InputStreamReader(new ByteArrayInputStream(headerLine), encoding));
+        fieldNames = getFieldNames(url, parser.getContext());
+      } catch (Exception e) {
+        throw asIOException(url, e, "Error reading header of " + url);
+      } finally {
+        parser.stopParsing();
+      }
+    }
+
+    @NonNull
+    @Override
+    public RecordReader newSplitReader(@NonNull FileSplit split) throws IOException {
+      return new CSVRecordReader(split, fieldNames);
+    }
+
+    @Override
+    protected boolean advance(byte b) {
+      boolean recordStart = false;
+      if (state == LINE_START) {
+        if (isNewline(b)) {
+          // empty line, ignored by the parser
+          previous = b;
+          return false;
+        }
+        if (comment != '\0' && b == commentByte) {
+          state = COMMENT;
+          previous = b;
+          return false;
+        }
+        recordStart = true;
+        state = FIELD_START;
+      }
+      advanceField(b);
+      previous = b;
+      return recordStart;
+    }
+
+    private void advanceField(byte b) {
+      switch (state) {
+        case FIELD_START:
+          if (ignoreLeadingWhitespaces && (b == ' ' || b == '\t')) {
+            break;
+          }
+          if (b == quoteByte) {
+            state = QUOTED;
+            break;
+          }
+          state = UNQUOTED;
+          delimiterMatch = 0;
+          advanceUnquoted(b);
+          break;
+        case UNQUOTED:
+          advanceUnquoted(b);
+          break;
+        case QUOTED:
+          if (b == escapeByte && escapeByte != quoteByte) {
+            state = ESCAPING;
+          } else if (b == quoteByte) {
+            state = QUOTE_SEEN;
+          }
+          break;
+        case ESCAPING:
+          state = QUOTED;
+          break;
+        case QUOTE_SEEN:
+          if (b == quoteByte) {
+            // doubled quote inside a quoted value
+            state = QUOTED;
+          } else {
+            state = UNQUOTED;
+            delimiterMatch = 0;
+            advanceUnquoted(b);
+          }
+          break;
+        case COMMENT:
+          if (isLineEnd(b)) {
+            state = LINE_START;
+          }
+          break;
+        default:
+          throw new IllegalStateException("Unexpected state: " + state);
+      }
+    }
+
+    private void advanceUnquoted(byte b) {
+      if (isLineEnd(b)) {
+        state = LINE_START;
+      } else if (b == delimiterBytes[delimiterMatch]) {
+        if (++delimiterMatch == delimiterBytes.length) {
+          delimiterMatch = 0;
+          state = FIELD_START;
+        }
+      } else {
+        delimiterMatch = b == delimiterBytes[0] ? 1 : 0;
+      }
+    }
+
+    private boolean isLineEnd(byte b) {
+      if (newlineBytes == null) {
+        return b == '\n' || b == '\r';
+      } else if (newlineBytes.length == 1) {
+        return b == newlineBytes[0];
+      } else {
+        return b == newlineBytes[1] && previous == newlineBytes[0];
+      }
+    }
+
+    private boolean isNewline(byte b) {
+      if (newlineBytes == null) {
+        return b == '\n' || b == '\r';
+      }
+      for (byte newlineByte : newlineBytes) {
+        if (b == newlineByte) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   @NonNull
   @Override
   protected RecordWriter newSingleFileWriter() {
@@ -344,7 +541,10 @@ public class CSVConnector extends AbstractFileBasedConnector {
   private class CSVRecordWriter implements RecordWriter {
 
     private URL url;
+    private CountingOutputStream out;
     private CsvWriter writer;
+    // when output is gathered: the byte count of the output stream when it was last flushed
+    private long flushedCount;
 
     @Override
     public void write(@NonNull Record record) throws IOException {
@@ -356,10 +556,20 @@ public class CSVConnector extends AbstractFileBasedConnector {
           open();
         }
         if (shouldWriteHeader()) {
-          writer.writeHeaders(record.fields().stream().map(Field::toString).toArray(String[]::new));
+          String[] headers = record.fields().stream().map(Field::toString).toArray(String[]::new);
+          if (gatherer == null) {
+            writer.writeHeaders(headers);
+          } else {
+            gatherer.writeHeader(formatHeaders(headers));
+          }
         }
         LOGGER.trace("Writing record {} to {}", record, url);
         writer.writeRow(record.values());
+        if (isChunkComplete(out.getCount() - flushedCount)) {
+          // hand the records written so far over to the gatherer, now that a record is complete
+          writer.flush();
+          flushedCount = out.getCount();
+        }
       } catch (TextWritingException e) {
         if (!(e.getCause() instanceof ClosedChannelException)) {
           throw new IOException(String.format("Error writing to %s", url), e);
@@ -371,16 +581,29 @@ public class CSVConnector extends AbstractFileBasedConnector {
       return header && writer.getRecordCount() == 0;
     }
 
+    @NonNull
+    private byte[] formatHeaders(String[] headers) {
+      StringWriter headerLine = new StringWriter();
+      CsvWriter headerWriter = new CsvWriter(headerLine, writerSettings);
+      headerWriter.writeHeaders(headers);
+      headerWriter.close();
+      return headerLine.toString().getBytes(encoding);
+    }
+
     private boolean shouldRoll() {
-      return !roots.isEmpty() && writer.getRecordCount() == maxRecords;
+      return (!roots.isEmpty() && writer.getRecordCount() == maxRecords)
+          || isMaxFileSizeReached(out.getCount());
     }
 
     private void open() throws IOException {
       url = getOrCreateDestinationURL();
       try {
+        out = newCountingOutputStream(url);
+        flushedCount = 0;
         writer =
             new CsvWriter(
-                CompressedIOUtils.newBufferedWriter(url, encoding, compression), writerSettings);
+                CompressedIOUtils.newBufferedWriter(out, encoding, compression, compressionThreads),
+                writerSettings);
         LOGGER.debug("Writing {}", url);
       } catch (ClosedChannelException e) {
         // OK, happens when the channel was closed due to interruption
@@ -417,6 +640,32 @@ public class CSVConnector extends AbstractFileBasedConnector {
     }
   }
 
+  private MappedField[] getFieldNames(URL url, ParsingContext context) throws IOException {
+    List<String> fieldNames = new ArrayList<>();
+    String[] parsedHeaders = context.headers();
+    if (parsedHeaders == null) {
+      throw new IOException(
+          String.format("The parsed headers from provided url: %s are null", url));
+    }
+    List<String> errors = new ArrayList<>();
+    for (int i = 0; i < parsedHeaders.length; i++) {
+      String name = parsedHeaders[i];
+      // DAT-427: prevent empty names and duplicated names
+      if (name == null || name.isEmpty() || WHITESPACE.matcher(name).matches()) {
+        errors.add(String.format("found empty field name at index %d", i));
+      } else if (fieldNames.contains(name)) {
+        errors.add(String.format("found duplicate field name at index %d", i));
+      }
+      fieldNames.add(name);
+    }
+    if (errors.isEmpty()) {
+      return fieldNames.stream().map(DefaultMappedField::new).toArray(MappedField[]::new);
+    } else {
+      String msg = url + " has invalid header: " + String.join("; ", errors) + ".";
+      throw new IOException(msg);
+    }
+  }
+
   @NonNull
   private IOException asIOException(@NonNull URL url, Exception e, String genericErrorMessage) {
     IOException error;
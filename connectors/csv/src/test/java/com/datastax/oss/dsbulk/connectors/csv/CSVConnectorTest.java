@@ -30,6 +30,7 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 import com.datastax.oss.driver.shaded.guava.common.base.Charsets;
 import com.datastax.oss.driver.shaded.guava.common.base.Strings;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.connectors.api.Checkpoint;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.DefaultIndexedField;
 import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
@@ -49,13 +50,17 @@ import com.datastax.oss.dsbulk.url.BulkLoaderURLStreamHandlerFactory;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.typesafe.config.Config;
 import com.univocity.parsers.common.TextParsingException;
+import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.Writer;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -67,12 +72,17 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import org.assertj.core.util.Throwables;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -265,6 +275,98 @@ class CSVConnectorTest {
     }
   }
 
+  @ParameterizedTest(name = "[{index}] read splits (sources: {0})")
+  @ValueSource(booleans = {true, false})
+  void should_read_single_file_in_splits(boolean retainRecordSources) throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.connector.csv",
+            "url",
+            url("/sample.csv"),
+            "normalizeLineEndingsInQuotes",
+            true,
+            "escape",
+            "\"\\\"\"",
+            "comment",
+            "\"#\"",
+            "splitSize",
+            1);
+    connector.configure(settings, true, retainRecordSources);
+    connector.init();
+    // one split per record
+    assertThat(Flux.from(connector.read()).count().block()).isEqualTo(5);
+    List<Record> actual =
+        Flux.merge(connector.read())
+            .sort(Comparator.comparingLong(Record::getPosition))
+            .collectList()
+            .block();
+    assertRecords(actual, retainRecordSources);
+    connector.close();
+  }
+
+  @Test
+  void should_read_large_file_in_splits_without_header() throws Exception {
+    Path file = Files.createTempFile("dsbulk-", ".csv");
+    try {
+      List<String> lines = new ArrayList<>();
+      for (int i = 1; i <= 1000; i++) {
+        lines.add(i % 3 == 0 ? i + ",\"multi\nline, \"\"quoted\"\"\"" : i + ",plain");
+      }
+      Files.write(file, lines, UTF_8);
+      CSVConnector connector = new CSVConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(file),
+              "header",
+              false,
+              "escape",
+              "\"\\\"\"",
+              "splitSize",
+              1024);
+      connector.configure(settings, true, true);
+      connector.init();
+      assertThat(Flux.from(connector.read()).count().block()).isGreaterThan(1);
+      List<Record> actual =
+          Flux.merge(connector.read())
+              .sort(Comparator.comparingLong(Record::getPosition))
+              .collectList()
+              .block();
+      assertThat(actual).hasSize(1000);
+      for (int i = 1; i <= 1000; i++) {
+        Record record = actual.get(i - 1);
+        assertThat(record.getPosition()).isEqualTo(i);
+        assertThat(record.getFieldValue(new DefaultIndexedField(0))).isEqualTo(String.valueOf(i));
+        assertThat(record.getFieldValue(new DefaultIndexedField(1)))
+            .isEqualTo(i % 3 == 0 ? "multi\nline, \"quoted\"" : "plain");
+      }
+      connector.close();
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void should_not_split_compressed_file() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.connector.csv",
+            "url",
+            url("/sample.csv.gz"),
+            "compression",
+            "gzip",
+            "splitSize",
+            1);
+    connector.configure(settings, true, true);
+    connector.init();
+    assertThat(connector.readConcurrency()).isOne();
+    assertThat(Flux.from(connector.read()).count().block()).isEqualTo(1);
+    connector.close();
+  }
+
   @Test
   void should_read_from_stdin_with_special_encoding() throws Exception {
     InputStream stdin = System.in;
@@ -427,6 +529,102 @@ class CSVConnectorTest {
     }
   }
 
+  @Test
+  void should_read_from_stdin_in_splits() throws Exception {
+    InputStream stdin = System.in;
+    try {
+      StringBuilder sb = new StringBuilder("key,value\n");
+      for (int i = 1; i <= 1000; i++) {
+        sb.append(i).append(i % 3 == 0 ? ",\"multi\nline, \"\"quoted\"\"\"\n" : ",plain\n");
+      }
+      System.setIn(new ByteArrayInputStream(sb.toString().getBytes(UTF_8)));
+      CSVConnector connector = new CSVConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              "-",
+              "escape",
+              "\"\\\"\"",
+              "splitSize",
+              1024,
+              "maxConcurrentFiles",
+              4);
+      connector.configure(settings, true, true);
+      connector.init();
+      assertThat(connector.readConcurrency()).isEqualTo(4);
+      List<List<Record>> splits =
+          Flux.from(connector.read())
+              .concatMap(split -> Flux.from(split).collectList())
+              .collectList()
+              .block();
+      assertThat(splits).hasSizeGreaterThan(1);
+      List<Record> actual = new ArrayList<>();
+      splits.forEach(actual::addAll);
+      assertThat(actual).hasSize(1000);
+      for (int i = 1; i <= 1000; i++) {
+        Record record = actual.get(i - 1);
+        assertThat(record.getResource()).isEqualTo(URI.create("std:/"));
+        assertThat(record.getPosition()).isEqualTo(i);
+        assertThat(record.getFieldValue(new DefaultMappedField("key")))
+            .isEqualTo(String.valueOf(i));
+        assertThat(record.getFieldValue(new DefaultMappedField("value")))
+            .isEqualTo(i % 3 == 0 ? "multi\nline, \"quoted\"" : "plain");
+      }
+      connector.close();
+    } finally {
+      System.setIn(stdin);
+    }
+  }
+
+  @Test
+  void should_gather_stdout_from_many_writers() throws Exception {
+    PrintStream stdout = System.out;
+    try {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      System.setOut(new PrintStream(baos));
+      CSVConnector connector = new CSVConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv", "header", true, "maxConcurrentFiles", 4);
+      connector.configure(settings, false, true);
+      connector.init();
+      assertThat(connector.writeConcurrency()).isEqualTo(4);
+      int perWriter = 50_000;
+      Flux.range(0, 4)
+          .flatMap(
+              writer ->
+                  Flux.range(writer * perWriter, perWriter)
+                      .<Record>map(
+                          i ->
+                              DefaultRecord.mapped(
+                                  "source",
+                                  resource,
+                                  i,
+                                  new Field[] {new DefaultMappedField("key")},
+                                  "gathered record number " + i))
+                      .transform(connector.write())
+                      .subscribeOn(Schedulers.parallel()),
+              4)
+          .blockLast();
+      connector.close();
+      List<String> lines =
+          Arrays.asList(new String(baos.toByteArray(), UTF_8).split(System.lineSeparator()));
+      assertThat(lines).hasSize(4 * perWriter + 1);
+      assertThat(lines.get(0)).isEqualTo("key");
+      // records are not interleaved, but their order is not preserved
+      assertThat(
+              lines.stream()
+                  .skip(1)
+                  .map(line -> Integer.parseInt(line.substring("gathered record number ".length())))
+                  .sorted()
+                  .collect(Collectors.toList()))
+          .isEqualTo(IntStream.range(0, 4 * perWriter).boxed().collect(Collectors.toList()));
+    } finally {
+      System.setOut(stdout);
+    }
+  }
+
   @Test
   void should_read_all_resources_in_directory() throws Exception {
     CSVConnector connector = new CSVConnector();
@@ -488,6 +686,265 @@ class CSVConnectorTest {
     connector.close();
   }
 
+  @Test
+  void should_read_largest_files_first() throws Exception {
+    Path rootPath = Files.createTempDirectory("largest");
+    try {
+      int[] sizes = {10, 300, 1, 50};
+      for (int i = 0; i < sizes.length; i++) {
+        List<String> lines = new ArrayList<>();
+        for (int j = 0; j < sizes[i]; j++) {
+          lines.add(i + "," + j);
+        }
+        Files.write(rootPath.resolve("file" + i + ".csv"), lines, UTF_8);
+      }
+      CSVConnector connector = new CSVConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(rootPath),
+              "header",
+              false,
+              "largestFilesFirst",
+              true,
+              "maxConcurrentFiles",
+              8);
+      connector.configure(settings, true, true);
+      connector.init();
+      // all files are counted, not only the first ones
+      assertThat(connector.readConcurrency()).isEqualTo(4);
+      List<URI> resources =
+          Flux.from(connector.read())
+              .concatMap(records -> Flux.from(records).take(1))
+              .map(Record::getResource)
+              .collectList()
+              .block();
+      assertThat(resources)
+          .containsExactly(
+              rootPath.resolve("file1.csv").toUri(),
+              rootPath.resolve("file3.csv").toUri(),
+              rootPath.resolve("file0.csv").toUri(),
+              rootPath.resolve("file2.csv").toUri());
+      assertThat(Flux.merge(connector.read()).count().block()).isEqualTo(361);
+      connector.close();
+    } finally {
+      FileUtils.deleteDirectory(rootPath);
+    }
+  }
+
+  @Test
+  void should_compute_fingerprint_of_files_to_read() throws Exception {
+    Path rootPath = Files.createTempDirectory("fingerprint");
+    try {
+      Path file = rootPath.resolve("file0.csv");
+      Files.write(file, Collections.singletonList("a,b"), UTF_8);
+      String fingerprint = newRootDirectoryConnector(rootPath).getFingerprint();
+      assertThat(fingerprint)
+          .isNotNull()
+          .isEqualTo(newRootDirectoryConnector(rootPath).getFingerprint());
+      Files.write(file, Collections.singletonList("a,b,c"), UTF_8);
+      assertThat(newRootDirectoryConnector(rootPath).getFingerprint())
+          .isNotNull()
+          .isNotEqualTo(fingerprint);
+      Files.write(rootPath.resolve("file1.csv"), Collections.singletonList("a,b"), UTF_8);
+      assertThat(newRootDirectoryConnector(rootPath).getFingerprint())
+          .isNotNull()
+          .isNotEqualTo(fingerprint);
+    } finally {
+      FileUtils.deleteDirectory(rootPath);
+    }
+  }
+
+  @Test
+  void should_not_compute_fingerprint_of_standard_input() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Config settings = TestConfigUtils.createTestConfig("dsbulk.connector.csv", "url", "-");
+    connector.configure(settings, true, true);
+    connector.init();
+    assertThat(connector.getFingerprint()).isNull();
+    connector.close();
+  }
+
+  private static CSVConnector newRootDirectoryConnector(Path rootPath) throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.connector.csv", "url", StringUtils.quoteJson(rootPath), "header", false);
+    connector.configure(settings, true, true);
+    connector.init();
+    return connector;
+  }
+
+  @Test
+  void should_skip_processed_records_and_resources_when_resuming() throws Exception {
+    Path rootPath = Files.createTempDirectory("resume");
+    try {
+      // file0 was entirely processed, file1 partially, file2 was not processed at all;
+      // file1 is big enough to be read in splits
+      int[] sizes = {10, 1000, 5};
+      for (int i = 0; i < sizes.length; i++) {
+        List<String> lines = new ArrayList<>();
+        for (int j = 1; j <= sizes[i]; j++) {
+          lines.add(i + "," + j);
+        }
+        Files.write(rootPath.resolve("file" + i + ".csv"), lines, UTF_8);
+      }
+      URI file0 = rootPath.resolve("file0.csv").toUri();
+      URI file1 = rootPath.resolve("file1.csv").toUri();
+      URI file2 = rootPath.resolve("file2.csv").toUri();
+      Map<URI, long[]> read = new ConcurrentHashMap<>();
+      Checkpoint checkpoint =
+          new Checkpoint() {
+            @Override
+            public boolean isComplete(@NonNull URI resource) {
+              return resource.equals(file0);
+            }
+
+            @Override
+            public boolean isProcessed(@NonNull URI resource, long position) {
+              return resource.equals(file1) && (position <= 500 || position % 2 == 0);
+            }
+
+            @Override
+            public void onResourceRead(@NonNull URI resource, long first, long last) {
+              assertThat(read.put(resource, new long[] {first, last})).isNull();
+            }
+          };
+      CSVConnector connector = new CSVConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(rootPath),
+              "header",
+              false,
+              "splitSize",
+              1024);
+      connector.configure(settings, true, true);
+      connector.init();
+      connector.setCheckpoint(checkpoint);
+      List<Record> records = Flux.merge(connector.read()).collectList().block();
+      assertThat(records).noneMatch(record -> record.getResource().equals(file0));
+      assertThat(records.stream().filter(record -> record.getResource().equals(file1)))
+          .hasSize(250)
+          .allMatch(record -> record.getPosition() > 500 && record.getPosition() % 2 == 1);
+      assertThat(records.stream().filter(record -> record.getResource().equals(file2))).hasSize(5);
+      assertThat(read).containsOnlyKeys(file1, file2);
+      assertThat(read.get(file1)).containsExactly(1, 1000);
+      assertThat(read.get(file2)).containsExactly(1, 5);
+      connector.close();
+    } finally {
+      FileUtils.deleteDirectory(rootPath);
+    }
+  }
+
+  @ParameterizedTest(name = "[{index}] fast-forward (compression: {0})")
+  @ValueSource(strings = {"none", "gzip"})
+  void should_skip_records_without_parsing_them(String compression) throws Exception {
+    Path file = Files.createTempFile("dsbulk-", ".csv");
+    try {
+      writeMultiLineFile(file, compression);
+      CSVConnector connector = new CSVConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(file),
+              "compression",
+              compression,
+              "escape",
+              "\"\\\"\"",
+              "skipRecords",
+              700,
+              "maxRecords",
+              200);
+      connector.configure(settings, true, true);
+      connector.init();
+      List<Record> actual = Flux.merge(connector.read()).collectList().block();
+      assertMultiLineRecords(actual, 701, 900);
+      connector.close();
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void should_fast_forward_to_first_unprocessed_record_when_resuming() throws Exception {
+    Path file = Files.createTempFile("dsbulk-", ".csv.gz");
+    try {
+      writeMultiLineFile(file, "gzip");
+      URI resource = file.toUri();
+      Map<URI, long[]> read = new ConcurrentHashMap<>();
+      Checkpoint checkpoint =
+          new Checkpoint() {
+            @Override
+            public boolean isComplete(@NonNull URI resource) {
+              return false;
+            }
+
+            @Override
+            public boolean isProcessed(@NonNull URI resource, long position) {
+              // records before the first unprocessed record must not even be read
+              return false;
+            }
+
+            @Override
+            public long nextUnprocessedPosition(@NonNull URI resource, long position) {
+              return Math.max(position, 601);
+            }
+
+            @Override
+            public void onResourceRead(@NonNull URI resource, long first, long last) {
+              assertThat(read.put(resource, new long[] {first, last})).isNull();
+            }
+          };
+      CSVConnector connector = new CSVConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(file),
+              "compression",
+              "gzip",
+              "escape",
+              "\"\\\"\"");
+      connector.configure(settings, true, true);
+      connector.init();
+      connector.setCheckpoint(checkpoint);
+      List<Record> actual = Flux.merge(connector.read()).collectList().block();
+      assertMultiLineRecords(actual, 601, 1000);
+      assertThat(read.get(resource)).containsExactly(1, 1000);
+      connector.close();
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private static void writeMultiLineFile(Path file, String compression) throws IOException {
+    OutputStream out = Files.newOutputStream(file);
+    if (compression.equals("gzip")) {
+      out = new GZIPOutputStream(out);
+    }
+    try (Writer writer = new OutputStreamWriter(out, UTF_8)) {
+      writer.write("key,value\n");
+      for (int i = 1; i <= 1000; i++) {
+        writer.write(i % 3 == 0 ? i + ",\"multi\nline, \"\"quoted\"\"\"\n" : i + ",plain\n");
+      }
+    }
+  }
+
+  private static void assertMultiLineRecords(List<Record> actual, int first, int last) {
+    assertThat(actual).hasSize(last - first + 1);
+    for (int i = first; i <= last; i++) {
+      Record record = actual.get(i - first);
+      assertThat(record.getPosition()).isEqualTo(i);
+      assertThat(record.getFieldValue(new DefaultMappedField("key"))).isEqualTo(String.valueOf(i));
+      assertThat(record.getFieldValue(new DefaultMappedField("value")))
+          .isEqualTo(i % 3 == 0 ? "multi\nline, \"quoted\"" : "plain");
+    }
+  }
+
   @Test
   void should_scan_directory_recursively_with_custom_file_name_format() throws Exception {
     CSVConnector connector = new CSVConnector();
@@ -640,6 +1097,49 @@ class CSVConnectorTest {
     }
   }
 
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2})
+  void should_flush_written_records(int maxConcurrentFiles) throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Path dir = Files.createTempDirectory("test");
+    try {
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(dir),
+              "maxConcurrentFiles",
+              maxConcurrentFiles);
+      connector.configure(settings, false, true);
+      connector.init();
+      Flux.fromIterable(createRecords()).transform(connector.write()).blockLast();
+      assertThat(connector.flush()).isTrue();
+      // records are written before the connector is closed
+      assertThat(Files.readAllLines(dir.resolve("output-000001.csv"))).hasSize(7);
+      connector.close();
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_not_flush_compressed_files() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Path dir = Files.createTempDirectory("test");
+    try {
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv", "url", StringUtils.quoteJson(dir), "compression", "\"gzip\"");
+      connector.configure(settings, false, true);
+      connector.init();
+      Flux.fromIterable(createRecords()).transform(connector.write()).blockLast();
+      assertThat(connector.flush()).isFalse();
+      connector.close();
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
   @Test
   void should_write_single_file_compressed_gzip() throws Exception {
     CSVConnector connector = new CSVConnector();
@@ -843,6 +1343,65 @@ class CSVConnectorTest {
     }
   }
 
+  @Test
+  void should_roll_file_when_max_file_size_reached() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Path out = Files.createTempDirectory("test");
+    try {
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(out),
+              "header",
+              false,
+              "maxConcurrentFiles",
+              1,
+              "maxFileSize",
+              65536);
+      connector.configure(settings, false, true);
+      connector.init();
+      String padding = Strings.repeat("x", 90);
+      List<Record> records = new ArrayList<>();
+      for (int i = 0; i < 10000; i++) {
+        records.add(
+            DefaultRecord.indexed(
+                "source", resource, IRRELEVANT_POSITION, String.valueOf(i), padding));
+      }
+      Flux.fromIterable(records).transform(connector.write()).blockLast();
+      connector.close();
+      List<Path> files;
+      try (Stream<Path> list = Files.list(out)) {
+        files = list.sorted().collect(Collectors.toList());
+      }
+      // about 1 MB of data
+      assertThat(files).hasSizeBetween(8, 16);
+      List<String> lines = new ArrayList<>();
+      for (Path file : files) {
+        // writes are buffered, so files can be slightly bigger than the limit
+        assertThat(Files.size(file)).isLessThan(65536 * 2);
+        lines.addAll(Files.readAllLines(file));
+      }
+      assertThat(lines).hasSize(10000);
+      for (int i = 0; i < 10000; i++) {
+        assertThat(lines.get(i)).isEqualTo(i + "," + padding);
+      }
+    } finally {
+      FileUtils.deleteDirectory(out);
+    }
+  }
+
+  @Test
+  void should_throw_exception_when_maxFileSize_invalid() {
+    CSVConnector connector = new CSVConnector();
+    Config settings = TestConfigUtils.createTestConfig("dsbulk.connector.csv", "maxFileSize", 0);
+    assertThatThrownBy(() -> connector.configure(settings, false, true))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining(
+            "Invalid value for connector.csv.maxFileSize: Expecting a strictly positive number or -1, got: 0");
+    connector.close();
+  }
+
   @Test
   void should_return_unmappable_record_when_line_malformed() throws Exception {
     InputStream stdin = System.in;
@@ -16,6 +16,7 @@
 package com.datastax.oss.dsbulk.connectors.json;
 
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.shaded.guava.common.io.CountingOutputStream;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.ConnectorFeature;
@@ -24,7 +25,7 @@ import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
 import com.datastax.oss.dsbulk.connectors.api.MappedField;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
-import com.datastax.oss.dsbulk.connectors.commons.AbstractFileBasedConnector;
+import com.datastax.oss.dsbulk.connectors.commons.AbstractSplittableFileBasedConnector;
 import com.datastax.oss.dsbulk.io.CompressedIOUtils;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonFactory;
@@ -40,16 +41,20 @@ import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import edu.umd.cs.findbugs.annotations.NonNull;
-import java.io.BufferedReader;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLStreamHandler;
 import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -68,7 +73,7 @@ import reactor.core.publisher.SynchronousSink;
  * <p>This connector is highly configurable; see its {@code dsbulk-reference.conf} file, bundled
  * within its jar archive, for detailed information.
  */
-public class JsonConnector extends AbstractFileBasedConnector {
+public class JsonConnector extends AbstractSplittableFileBasedConnector {
 
   enum DocumentMode {
     MULTI_DOCUMENT,
@@ -86,6 +91,7 @@ public class JsonConnector extends AbstractFileBasedConnector {
   private static final String DESERIALIZATION_FEATURES = "deserializationFeatures";
   private static final String SERIALIZATION_STRATEGY = "serializationStrategy";
   private static final String PRETTY_PRINT = "prettyPrint";
+  private static final String STREAMING = "streaming";
 
   private DocumentMode mode;
   private ObjectMapper objectMapper;
@@ -95,6 +101,12 @@ public class JsonConnector extends AbstractFileBasedConnector {
   private Map<DeserializationFeature, Boolean> deserializationFeatures;
   private JsonInclude.Include serializationStrategy;
   private boolean prettyPrint;
+  private boolean streaming;
+  private boolean useBigDecimalForFloats;
+  private boolean useBigIntegerForInts;
+  private boolean useLongForInts;
+  private boolean failOnDuplicateKeys;
+  private boolean splittingSupported;
 
   @Override
   @NonNull
@@ -116,6 +128,9 @@ public class JsonConnector extends AbstractFileBasedConnector {
           getFeatureMap(settings.getConfig(DESERIALIZATION_FEATURES), DeserializationFeature.class);
       serializationStrategy = settings.getEnum(JsonInclude.Include.class, SERIALIZATION_STRATEGY);
       prettyPrint = settings.getBoolean(PRETTY_PRINT);
+      streaming = settings.getBoolean(STREAMING);
+      splitSize = settings.getLong(SPLIT_SIZE);
+      splittingSupported = read && canSplit();
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.connector.json");
     }
@@ -134,6 +149,13 @@ public class JsonConnector extends AbstractFileBasedConnector {
         objectMapper.configure(
             deserializationFeature, deserializationFeatures.get(deserializationFeature));
       }
+      useBigDecimalForFloats =
+          objectMapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+      useBigIntegerForInts =
+          objectMapper.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS);
+      useLongForInts = objectMapper.isEnabled(DeserializationFeature.USE_LONG_FOR_INTS);
+      failOnDuplicateKeys =
+          objectMapper.isEnabled(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY);
     } else {
       for (JsonGenerator.Feature generatorFeature : generatorFeatures.keySet()) {
         objectMapper.configure(generatorFeature, generatorFeatures.get(generatorFeature));
@@ -177,56 +199,100 @@ public class JsonConnector extends AbstractFileBasedConnector {
     return new JsonRecordReader(url);
   }
 
+  @Override
+  protected boolean isSplittingSupported() {
+    return splittingSupported;
+  }
+
+  @NonNull
+  @Override
+  protected FileSplitter newFileSplitter(
+      @NonNull URL url, long firstRecordNumber, long maxSplitSize) throws IOException {
+    return new JsonFileSplitter(url, firstRecordNumber, maxSplitSize);
+  }
+
+  /**
+   * Whether files can be split with the current settings. Splitting requires scanning raw bytes for
+   * document boundaries, so it is only possible for successive documents, when the encoding is
+   * ASCII-compatible, and when no parser feature alters how strings and comments are delimited,
+   * except for standard comments, which the splitter recognizes.
+   */
+  private boolean canSplit() {
+    boolean asciiCompatible =
+        encoding.equals(StandardCharsets.UTF_8)
+            || encoding.equals(StandardCharsets.US_ASCII)
+            || encoding.equals(StandardCharsets.ISO_8859_1);
+    return asciiCompatible
+        && mode == DocumentMode.MULTI_DOCUMENT
+        && !parserFeatures.getOrDefault(JsonParser.Feature.ALLOW_SINGLE_QUOTES, false)
+        && !parserFeatures.getOrDefault(JsonParser.Feature.ALLOW_YAML_COMMENTS, false);
+  }
+
   private class JsonRecordReader implements RecordReader {
 
+    private static final int MAX_CACHED_VALUES = 1024;
+    private static final int MAX_CACHED_TEXT_LENGTH = 64;
+
     private final URL url;
     private final URI resource;
     private final JsonParser parser;
     private final MappingIterator<JsonNode> nodesIterator;
+    private final JsonNodeFactory nodeFactory;
+
+    // when streaming, field names and short scalar values that repeat across documents, such as
+    // enumerated values or small counters, share one immutable instance instead of one per field;
+    // the first MAX_CACHED_VALUES distinct values are kept, for as long as the file or split is
+    // read
+    private final Map<String, MappedField> mappedFields = new HashMap<>();
+    private final Map<String, JsonNode> textNodes = new HashMap<>();
+    private final JsonNode[] intNodes = new JsonNode[MAX_CACHED_VALUES];
 
     private long recordNumber = 1;
 
     private JsonRecordReader(URL url) throws IOException {
       this.url = url;
       resource = URI.create(url.toExternalForm());
+      nodeFactory = objectMapper.getNodeFactory();
       try {
         JsonFactory factory = objectMapper.getFactory();
-        BufferedReader r = CompressedIOUtils.newBufferedReader(url, encoding, compression);
+        Reader r =
+            CompressedIOUtils.newReader(
+                url, encoding, compression, readBufferSize, decompressionThreads);
         parser = factory.createParser(r);
         if (mode == DocumentMode.SINGLE_DOCUMENT) {
           do {
             parser.nextToken();
           } while (parser.currentToken() != JsonToken.START_ARRAY && parser.currentToken() != null);
-          parser.nextToken();
+          if (!streaming) {
+            parser.nextToken();
+          }
         }
-        nodesIterator = objectMapper.readValues(parser, JsonNode.class);
+        nodesIterator = streaming ? null : objectMapper.readValues(parser, JsonNode.class);
       } catch (Exception e) {
         throw new IOException(String.format("Error reading from %s", url), e);
       }
     }
 
+    private JsonRecordReader(FileSplit split) throws IOException {
+      url = split.getUrl();
+      resource = URI.create(url.toExternalForm());
+      nodeFactory = objectMapper.getNodeFactory();
+      try {
+        JsonFactory factory = objectMapper.getFactory();
+        parser = factory.createParser(split.newReader(encoding, readBufferSize));
+        nodesIterator = streaming ? null : objectMapper.readValues(parser, JsonNode.class);
+        recordNumber = split.getFirstRecordNumber();
+      } catch (Exception e) {
+        throw new IOException(String.format("Error reading from %s", split), e);
+      }
+    }
+
     @NonNull
     @Override
     public RecordReader readNext(@NonNull SynchronousSink<Record> sink) {
       try {
-        if (nodesIterator.hasNext()) {
-          if (parser.currentToken() != JsonToken.START_OBJECT) {
-            throw new JsonParseException(
-                parser,
-                String.format(
-                    "Expecting START_OBJECT, got %s. Did you forget to set connector.json.mode to SINGLE_DOCUMENT?",
-                    parser.currentToken()));
-          }
-          JsonNode source = nodesIterator.next();
-          Map<MappedField, JsonNode> fields = new HashMap<>();
-          Iterator<Entry<String, JsonNode>> children = source.fields();
-          while (children.hasNext()) {
-            Entry<String, JsonNode> child = children.next();
-            fields.put(new DefaultMappedField(child.getKey()), child.getValue());
-          }
-          Record record =
-              DefaultRecord.mapped(
-                  retainRecordSources ? source : null, resource, recordNumber++, fields);
+        Record record = streaming ? readNextStreaming() : readNextTree();
+        if (record != null) {
           LOGGER.trace("Emitting record {}", record);
           sink.next(record);
         } else {
@@ -245,6 +311,293 @@ public class JsonConnector extends AbstractFileBasedConnector {
         parser.close();
       }
     }
+
+    @Nullable
+    private Record readNextTree() throws IOException {
+      if (!nodesIterator.hasNext()) {
+        return null;
+      }
+      checkStartObject(parser.currentToken());
+      JsonNode source = nodesIterator.next();
+      Map<MappedField, JsonNode> fields = new HashMap<>();
+      Iterator<Entry<String, JsonNode>> children = source.fields();
+      while (children.hasNext()) {
+        Entry<String, JsonNode> child = children.next();
+        fields.put(new DefaultMappedField(child.getKey()), child.getValue());
+      }
+      return DefaultRecord.mapped(
+          retainRecordSources ? source : null, resource, recordNumber++, fields);
+    }
+
+    /**
+     * Reads the next document token by token: scalar fields are converted directly to value nodes,
+     * only nested objects and arrays are read as trees. The resulting fields are the same as those
+     * obtained with {@link #readNextTree()}.
+     */
+    @Nullable
+    private Record readNextStreaming() throws IOException {
+      JsonToken token = parser.nextToken();
+      // documents are consumed entirely, so an END_ARRAY here closes the root array
+      if (token == null || token == JsonToken.END_ARRAY) {
+        return null;
+      }
+      checkStartObject(token);
+      Map<MappedField, JsonNode> fields = new HashMap<>();
+      ObjectNode source = retainRecordSources ? nodeFactory.objectNode() : null;
+      String name;
+      while ((name = parser.nextFieldName()) != null) {
+        JsonNode value = readValue(parser.nextToken());
+        if (fields.put(mappedField(name), value) != null && failOnDuplicateKeys) {
+          throw new JsonParseException(
+              parser,
+              String.format(
+                  "Duplicate field '%s' for ObjectNode: not allowed when FAIL_ON_READING_DUP_TREE_KEY enabled",
+                  name));
+        }
+        if (source != null) {
+          source.set(name, value);
+        }
+      }
+      return DefaultRecord.mapped(source, resource, recordNumber++, fields);
+    }
+
+    private void checkStartObject(JsonToken token) throws JsonParseException {
+      if (token != JsonToken.START_OBJECT) {
+        throw new JsonParseException(
+            parser,
+            String.format(
+                "Expecting START_OBJECT, got %s. Did you forget to set connector.json.mode to SINGLE_DOCUMENT?",
+                token));
+      }
+    }
+
+    /**
+     * Converts the current value to a node, the same way {@link ObjectMapper#readTree(JsonParser)}
+     * would.
+     */
+    @NonNull
+    private JsonNode readValue(JsonToken token) throws IOException {
+      switch (token) {
+        case VALUE_STRING:
+          return readText();
+        case VALUE_NUMBER_INT:
+          return readInt();
+        case VALUE_NUMBER_FLOAT:
+          return readFloat();
+        case VALUE_TRUE:
+          return nodeFactory.booleanNode(true);
+        case VALUE_FALSE:
+          return nodeFactory.booleanNode(false);
+        case VALUE_NULL:
+          return nodeFactory.nullNode();
+        default:
+          // nested objects and arrays, embedded objects
+          return objectMapper.readTree(parser);
+      }
+    }
+
+    private JsonNode readInt() throws IOException {
+      JsonParser.NumberType type;
+      if (useBigIntegerForInts) {
+        type = JsonParser.NumberType.BIG_INTEGER;
+      } else if (useLongForInts) {
+        type = JsonParser.NumberType.LONG;
+      } else {
+        type = parser.getNumberType();
+      }
+      switch (type) {
+        case INT:
+          int value = parser.getIntValue();
+          if (value >= 0 && value < MAX_CACHED_VALUES) {
+            JsonNode node = intNodes[value];
+            if (node == null) {
+              node = intNodes[value] = nodeFactory.numberNode(value);
+            }
+            return node;
+          }
+          return nodeFactory.numberNode(value);
+        case LONG:
+          return nodeFactory.numberNode(parser.getLongValue());
+        default:
+          return nodeFactory.numberNode(parser.getBigIntegerValue());
+      }
+    }
+
+    @NonNull
+    private MappedField mappedField(@NonNull String name) {
+      MappedField field = mappedFields.get(name);
+      if (field == null) {
+        field = new DefaultMappedField(name);
+        if (mappedFields.size() < MAX_CACHED_VALUES) {
+          mappedFields.put(name, field);
+        }
+      }
+      return field;
+    }
+
+    @NonNull
+    private JsonNode readText() throws IOException {
+      String text = parser.getText();
+      if (text.length() > MAX_CACHED_TEXT_LENGTH) {
+        return nodeFactory.textNode(text);
+      }
+      JsonNode node = textNodes.get(text);
+      if (node == null) {
+        node = nodeFactory.textNode(text);
+        if (textNodes.size() < MAX_CACHED_VALUES) {
+          textNodes.put(text, node);
+        }
+      }
+      return node;
+    }
+
+    private JsonNode readFloat() throws IOException {
+      JsonParser.NumberType type = parser.getNumberType();
+      if (type == JsonParser.NumberType.BIG_DECIMAL) {
+        return nodeFactory.numberNode(parser.getDecimalValue());
+      }
+      if (useBigDecimalForFloats) {
+        // NaN and infinities cannot be represented as BigDecimals
+        if (parser.isNaN()) {
+          return nodeFactory.numberNode(parser.getDoubleValue());
+        }
+        return nodeFactory.numberNode(parser.getDecimalValue());
+      }
+      if (type == JsonParser.NumberType.FLOAT) {
+        return nodeFactory.numberNode(parser.getFloatValue());
+      }
+      return nodeFactory.numberNode(parser.getDoubleValue());
+    }
+  }
+
+  /**
+   * Splits data containing successive JSON documents into byte ranges aligned on document
+   * boundaries, by scanning raw bytes and tracking strings, comments and nesting depth.
+   */
+  private class JsonFileSplitter extends AbstractFileSplitter {
+
+    private static final int VALUE = 0;
+    private static final int STRING = 1;
+    private static final int STRING_ESCAPE = 2;
+    private static final int SLASH_SEEN = 3;
+    private static final int LINE_COMMENT = 4;
+    private static final int BLOCK_COMMENT = 5;
+    private static final int BLOCK_COMMENT_STAR = 6;
+
+    private final boolean allowComments =
+        parserFeatures.getOrDefault(JsonParser.Feature.ALLOW_COMMENTS, false);
+
+    private int state = VALUE;
+    private int depth = 0;
+    private boolean inScalar = false;
+
+    private JsonFileSplitter(URL url, long firstRecordNumber, long maxSplitSize)
+        throws IOException {
+      super(url, firstRecordNumber, maxSplitSize, false);
+    }
+
+    @NonNull
+    @Override
+    public RecordReader newSplitReader(@NonNull FileSplit split) throws IOException {
+      return new JsonRecordReader(split);
+    }
+
+    @Override
+    protected boolean advance(byte b) {
+      switch (state) {
+        case STRING:
+          if (b == '\\') {
+            state = STRING_ESCAPE;
+          } else if (b == '"') {
+            state = VALUE;
+          }
+          return false;
+        case STRING_ESCAPE:
+          state = STRING;
+          return false;
+        case SLASH_SEEN:
+          if (b == '/') {
+            state = LINE_COMMENT;
+            return false;
+          }
+          if (b == '*') {
+            state = BLOCK_COMMENT;
+            return false;
+          }
+          // not a comment: let the parser report the error
+          state = VALUE;
+          break;
+        case LINE_COMMENT:
+          if (b == '\n' || b == '\r') {
+            state = VALUE;
+          }
+          return false;
+        case BLOCK_COMMENT:
+          if (b == '*') {
+            state = BLOCK_COMMENT_STAR;
+          }
+          return false;
+        case BLOCK_COMMENT_STAR:
+          if (b == '/') {
+            state = VALUE;
+          } else if (b != '*') {
+            state = BLOCK_COMMENT;
+          }
+          return false;
+        default:
+          break;
+      }
+      boolean documentStart = false;
+      switch (b) {
+        case ' ':
+        case '\t':
+        case '\n':
+        case '\r':
+        case ',':
+        case ':':
+          inScalar = false;
+          break;
+        case '/':
+          if (allowComments) {
+            inScalar = false;
+            state = SLASH_SEEN;
+            break;
+          }
+          documentStart = onScalarByte();
+          break;
+        case '"':
+          if (depth == 0) {
+            documentStart = true;
+          }
+          inScalar = false;
+          state = STRING;
+          break;
+        case '{':
+        case '[':
+          if (depth == 0) {
+            documentStart = true;
+          }
+          inScalar = false;
+          depth++;
+          break;
+        case '}':
+        case ']':
+          inScalar = false;
+          // malformed documents are reported by the parser
+          depth = Math.max(0, depth - 1);
+          break;
+        default:
+          documentStart = onScalarByte();
+      }
+      return documentStart;
+    }
+
+    private boolean onScalarByte() {
+      // a top-level scalar is not a valid record, but a document nonetheless
+      boolean documentStart = depth == 0 && !inScalar;
+      inScalar = true;
+      return documentStart;
+    }
   }
 
   @NonNull
@@ -256,6 +609,7 @@ public class JsonConnector extends AbstractFileBasedConnector {
   private class JsonRecordWriter implements RecordWriter {
 
     private URL url;
+    private CountingOutputStream out;
     private JsonGenerator writer;
     private long currentLine;
 
@@ -283,13 +637,15 @@ public class JsonConnector extends AbstractFileBasedConnector {
     }
 
     private boolean shouldRoll() {
-      return !roots.isEmpty() && currentLine == maxRecords;
+      return (!roots.isEmpty() && currentLine == maxRecords)
+          || isMaxFileSizeReached(out.getCount());
     }
 
     private void open() throws IOException {
       url = getOrCreateDestinationURL();
       try {
-        writer = newJsonGenerator(url);
+        out = newCountingOutputStream(url);
+        writer = newJsonGenerator(out);
         if (mode == DocumentMode.SINGLE_DOCUMENT) {
           // do not use writer.writeStartArray(): we need to fool the parser into thinking it's on
           // multi doc mode,
@@ -335,10 +691,11 @@ public class JsonConnector extends AbstractFileBasedConnector {
     }
   }
 
-  private JsonGenerator newJsonGenerator(URL url) throws IOException {
+  private JsonGenerator newJsonGenerator(OutputStream out) throws IOException {
     JsonFactory factory = objectMapper.getFactory();
     JsonGenerator generator =
-        factory.createGenerator(CompressedIOUtils.newBufferedWriter(url, encoding, compression));
+        factory.createGenerator(
+            CompressedIOUtils.newBufferedWriter(out, encoding, compression, compressionThreads));
     generator.setRootValueSeparator(new SerializedString(System.lineSeparator()));
     return generator;
   }
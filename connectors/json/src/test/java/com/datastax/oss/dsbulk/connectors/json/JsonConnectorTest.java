@@ -57,24 +57,30 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import org.assertj.core.util.Throwables;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -180,6 +186,86 @@ class JsonConnectorTest {
         arguments("multi_doc.json.zstd", CompressedIOUtils.ZSTD_COMPRESSION, false));
   }
 
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  void should_read_single_file_in_splits(boolean retainRecordSources) throws Exception {
+    JsonConnector connector = new JsonConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.connector.json",
+            "url",
+            url("/multi_doc.json"),
+            "parserFeatures",
+            "{ALLOW_COMMENTS:true}",
+            "deserializationFeatures",
+            "{USE_BIG_DECIMAL_FOR_FLOATS : false}",
+            "splitSize",
+            1);
+    connector.configure(settings, true, retainRecordSources);
+    connector.init();
+    URI resource = rawURL("/multi_doc.json").toURI();
+    // one split per document
+    assertThat(Flux.from(connector.read()).count().block())
+        .isEqualTo(createRecords(retainRecordSources, resource).size());
+    List<Record> actual =
+        Flux.merge(connector.read())
+            .sort(Comparator.comparingLong(Record::getPosition))
+            .collectList()
+            .block();
+    verifyRecords(actual, retainRecordSources, resource);
+    connector.close();
+  }
+
+  @Test
+  void should_read_large_file_in_splits() throws Exception {
+    Path file = Files.createTempFile("dsbulk-", ".json");
+    try {
+      List<String> lines = new ArrayList<>();
+      for (int i = 1; i <= 1000; i++) {
+        if (i % 3 == 0) {
+          lines.add("/* { [ \" */ // ] }");
+          lines.add("{\"id\": " + i + ",");
+          lines.add(" \"text\": \"} \\\" [ // /* \u00e9\",");
+          lines.add(" \"nested\": {\"a\": [1, {\"b\": \"]\"}]}}");
+        } else {
+          lines.add("{\"id\": " + i + ", \"text\": \"plain\", \"nested\": {}}");
+        }
+      }
+      Files.write(file, lines, Charsets.UTF_8);
+      JsonConnector connector = new JsonConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.json",
+              "url",
+              quoteJson(file),
+              "parserFeatures",
+              "{ALLOW_COMMENTS:true}",
+              "splitSize",
+              1024);
+      connector.configure(settings, true, true);
+      connector.init();
+      assertThat(Flux.from(connector.read()).count().block()).isGreaterThan(1);
+      List<Record> actual =
+          Flux.merge(connector.read())
+              .sort(Comparator.comparingLong(Record::getPosition))
+              .collectList()
+              .block();
+      assertThat(actual).hasSize(1000);
+      for (int i = 1; i <= 1000; i++) {
+        Record record = actual.get(i - 1);
+        assertThat(record.getPosition()).isEqualTo(i);
+        assertThat(record.getFieldValue(new DefaultMappedField("id")))
+            .isEqualTo(JsonNodeFactory.instance.numberNode(i));
+        String text = i % 3 == 0 ? "} \" [ // /* \u00e9" : "plain";
+        assertThat(record.getFieldValue(new DefaultMappedField("text")))
+            .isEqualTo(JsonNodeFactory.instance.textNode(text));
+      }
+      connector.close();
+    } finally {
+      Files.delete(file);
+    }
+  }
+
   @ParameterizedTest
   @ValueSource(booleans = {true, false})
   void should_read_single_file_single_doc(boolean retainRecordSources) throws Exception {
@@ -970,6 +1056,53 @@ class JsonConnectorTest {
     connector.close();
   }
 
+  @ParameterizedTest(name = "[{index}] fast-forward (compression: {0})")
+  @ValueSource(strings = {"none", "gzip"})
+  void should_skip_records_without_parsing_them(String compression) throws Exception {
+    Path file = Files.createTempFile("dsbulk-", ".json");
+    try {
+      OutputStream out = Files.newOutputStream(file);
+      if (compression.equals("gzip")) {
+        out = new GZIPOutputStream(out);
+      }
+      try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+        for (int i = 1; i <= 1000; i++) {
+          writer.write(
+              i % 3 == 0
+                  ? "{\"key\": " + i + ", \"value\": {\"nested\": \"}{ \\\" ]\"}}\n"
+                  : "{\"key\": " + i + ", \"value\": \"plain\"}\n");
+        }
+      }
+      JsonConnector connector = new JsonConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.json",
+              "url",
+              quoteJson(file),
+              "compression",
+              compression,
+              "skipRecords",
+              700,
+              "maxRecords",
+              200);
+      connector.configure(settings, true, true);
+      connector.init();
+      List<Record> actual = Flux.merge(connector.read()).collectList().block();
+      assertThat(actual).hasSize(200);
+      for (int i = 701; i <= 900; i++) {
+        Record record = actual.get(i - 701);
+        assertThat(record.getPosition()).isEqualTo(i);
+        assertThat(record.getFieldValue(new DefaultMappedField("key")))
+            .isEqualTo(JsonNodeFactory.instance.numberNode(i));
+        assertThat(record.getFieldValue(new DefaultMappedField("value")).toString())
+            .isEqualTo(i % 3 == 0 ? "{\"nested\":\"}{ \\\" ]\"}" : "\"plain\"");
+      }
+      connector.close();
+    } finally {
+      Files.delete(file);
+    }
+  }
+
   @Test
   void should_error_on_empty_url() {
     JsonConnector connector = new JsonConnector();
@@ -1150,6 +1283,83 @@ class JsonConnectorTest {
     connector.close();
   }
 
+  @ParameterizedTest(name = "[{index}] mode {0}, deserialization features {1}")
+  @MethodSource
+  void should_read_same_records_when_streaming(String mode, String deserializationFeatures)
+      throws Exception {
+    Path file = Files.createTempFile("dsbulk-", ".json");
+    try {
+      // USE_LONG_FOR_INTS makes Jackson reject integers that do not fit in a long
+      String varint =
+          deserializationFeatures.contains("USE_LONG_FOR_INTS")
+              ? "-9223372036854775808"
+              : "123456789012345678901234567890";
+      String doc =
+          "{\"int\": 42, \"long\": 12345678901, \"varint\": "
+              + varint
+              + ", "
+              + "\"double\": 3.14, \"decimal\": 1.10, \"exp\": 1.5e10, \"string\": \"a\\\"b\", "
+              + "\"true\": true, \"false\": false, \"null\": null, \"empty\": \"\", "
+              + "\"object\": {\"a\": [1, 2.5, {\"b\": null}]}, \"array\": [], "
+              + "\"int\": -1}";
+      String contents =
+          mode.equals("SINGLE_DOCUMENT") ? "[" + doc + ", {}, " + doc + "]" : doc + "\n{}\n" + doc;
+      Files.write(file, contents.getBytes(Charsets.UTF_8));
+      List<Record> streamed = readWithStreaming(file, mode, deserializationFeatures, true);
+      List<Record> trees = readWithStreaming(file, mode, deserializationFeatures, false);
+      assertThat(streamed).hasSize(3).hasSameSizeAs(trees);
+      for (int i = 0; i < streamed.size(); i++) {
+        Record actual = streamed.get(i);
+        Record expected = trees.get(i);
+        assertThat(actual.getPosition()).isEqualTo(expected.getPosition());
+        assertThat(actual.getSource()).isEqualTo(expected.getSource());
+        assertThat(actual.fields()).containsExactlyInAnyOrderElementsOf(expected.fields());
+        for (Field field : expected.fields()) {
+          JsonNode actualValue = (JsonNode) actual.getFieldValue(field);
+          JsonNode expectedValue = (JsonNode) expected.getFieldValue(field);
+          assertThat(actualValue).isEqualTo(expectedValue);
+          assertThat(actualValue.getClass()).isEqualTo(expectedValue.getClass());
+        }
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @SuppressWarnings("unused")
+  private static Stream<Arguments> should_read_same_records_when_streaming() {
+    return Stream.of(
+        arguments("MULTI_DOCUMENT", "{USE_BIG_DECIMAL_FOR_FLOATS : true}"),
+        arguments("MULTI_DOCUMENT", "{USE_BIG_DECIMAL_FOR_FLOATS : false}"),
+        arguments("MULTI_DOCUMENT", "{USE_BIG_INTEGER_FOR_INTS : true}"),
+        arguments("MULTI_DOCUMENT", "{USE_LONG_FOR_INTS : true}"),
+        arguments("SINGLE_DOCUMENT", "{USE_BIG_DECIMAL_FOR_FLOATS : true}"),
+        arguments("SINGLE_DOCUMENT", "{USE_BIG_DECIMAL_FOR_FLOATS : false}"));
+  }
+
+  private static List<Record> readWithStreaming(
+      Path file, String mode, String deserializationFeatures, boolean streaming) throws Exception {
+    JsonConnector connector = new JsonConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.connector.json",
+            "url",
+            quoteJson(file.toUri().toURL()),
+            "mode",
+            mode,
+            "deserializationFeatures",
+            deserializationFeatures,
+            "streaming",
+            streaming);
+    connector.configure(settings, true, true);
+    connector.init();
+    try {
+      return Flux.merge(connector.read()).collectList().block();
+    } finally {
+      connector.close();
+    }
+  }
+
   @ParameterizedTest
   @ValueSource(booleans = {true, false})
   void should_read_from_http_url(boolean retainRecordSources, @Wiremock WireMockServer server)
@@ -0,0 +1,128 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.parquet;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+/**
+ * A Parquet {@link InputFile} for files on a local filesystem, read through a {@link FileChannel}
+ * without going through Hadoop's file system abstraction.
+ */
+final class LocalInputFile implements InputFile {
+
+  private final Path path;
+
+  LocalInputFile(@NonNull Path path) {
+    this.path = path;
+  }
+
+  @Override
+  public long getLength() throws IOException {
+    return Files.size(path);
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    return new ChannelInputStream(FileChannel.open(path, StandardOpenOption.READ));
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+
+  private static final class ChannelInputStream extends SeekableInputStream {
+
+    private final FileChannel channel;
+    private final ByteBuffer single = ByteBuffer.allocate(1);
+
+    private ChannelInputStream(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public long getPos() throws IOException {
+      return channel.position();
+    }
+
+    @Override
+    public void seek(long newPos) throws IOException {
+      channel.position(newPos);
+    }
+
+    @Override
+    public int read() throws IOException {
+      single.clear();
+      return channel.read(single) <= 0 ? -1 : single.get(0) & 0xFF;
+    }
+
+    @Override
+    public int read(@NonNull byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      return channel.read(ByteBuffer.wrap(b, off, len));
+    }
+
+    @Override
+    public int read(ByteBuffer buf) throws IOException {
+      return channel.read(buf);
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+      readFully(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int start, int len) throws IOException {
+      readFully(ByteBuffer.wrap(bytes, start, len));
+    }
+
+    @Override
+    public void readFully(ByteBuffer buf) throws IOException {
+      while (buf.hasRemaining()) {
+        if (channel.read(buf) < 0) {
+          throw new EOFException(
+              String.format(
+                  "Reached the end of stream with %d bytes left to read", buf.remaining()));
+        }
+      }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long position = channel.position();
+      long skipped = Math.max(0, Math.min(n, channel.size() - position));
+      channel.position(position + skipped);
+      return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,650 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.parquet;
+
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
+import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
+import com.datastax.oss.dsbulk.connectors.api.ConnectorFeature;
+import com.datastax.oss.dsbulk.connectors.api.DefaultErrorRecord;
+import com.datastax.oss.dsbulk.connectors.api.DefaultIndexedField;
+import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
+import com.datastax.oss.dsbulk.connectors.api.Field;
+import com.datastax.oss.dsbulk.connectors.api.IndexedField;
+import com.datastax.oss.dsbulk.connectors.api.MappedField;
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.oss.dsbulk.connectors.api.RecordSchema;
+import com.datastax.oss.dsbulk.connectors.commons.AbstractSplittableFileBasedConnector;
+import com.datastax.oss.dsbulk.connectors.parquet.ParquetTypes.ColumnReader;
+import com.datastax.oss.dsbulk.connectors.parquet.ParquetTypes.ColumnWriter;
+import com.datastax.oss.dsbulk.io.IOUtils;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigFactory;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroup;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+
+/**
+ * A connector for Parquet files.
+ *
+ * <p>It is capable of reading from and writing to files on local filesystems only, since Parquet
+ * files require random access. When reading, each row group of a file is emitted as a distinct
+ * stream of records, which allows a single file to be read in parallel; values are emitted with
+ * their natural Java types, e.g. {@link Long} or {@link java.time.Instant}, and are converted to
+ * CQL types without being formatted as text first.
+ *
+ * <p>This connector is highly configurable; see its {@code dsbulk-reference.conf} file, bundled
+ * within its jar archive, for detailed information.
+ */
+public class ParquetConnector extends AbstractSplittableFileBasedConnector {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParquetConnector.class);
+
+  private static final String COLUMNS = "columns";
+  private static final String ROW_GROUP_SIZE = "rowGroupSize";
+  private static final String COMPRESSION_CODEC = "compressionCodec";
+
+  private static final Set<CompressionCodecName> SUPPORTED_CODECS =
+      EnumSet.of(
+          CompressionCodecName.UNCOMPRESSED,
+          CompressionCodecName.SNAPPY,
+          CompressionCodecName.GZIP);
+
+  /**
+   * Settings of file-based connectors that do not apply to Parquet files, which are binary and
+   * compressed internally. These values take precedence over user-supplied ones.
+   */
+  private static final Config FIXED_SETTINGS =
+      ConfigFactory.parseMap(
+          ImmutableMap.of(
+              ENCODING,
+              "UTF-8",
+              COMPRESSION,
+              "none",
+              READ_BUFFER_SIZE,
+              65536,
+              DECOMPRESSION_THREADS,
+              0,
+              COMPRESSION_THREADS,
+              0));
+
+  private List<String> columns;
+  private long rowGroupSize;
+  private CompressionCodecName compressionCodec;
+  private Configuration conf;
+
+  // read state
+  private ColumnReader[] columnReaders = new ColumnReader[0];
+  private MappedField[] mappedFields = new MappedField[0];
+  private IndexedField[] indexedFields = new IndexedField[0];
+  private RecordSchema schema = RecordSchema.mappedAndIndexed();
+  private Map<String, Integer> columnIndices = new HashMap<>();
+
+  // write state
+  private final Map<Field, ColumnWriter> columnWriters = new ConcurrentHashMap<>();
+  private WriteSchema writeSchema;
+
+  @Override
+  @NonNull
+  public String getConnectorName() {
+    return "parquet";
+  }
+
+  @Override
+  public void configure(@NonNull Config settings, boolean read, boolean retainRecordSources) {
+    try {
+      super.configure(FIXED_SETTINGS.withFallback(settings), read, retainRecordSources);
+      columns = settings.getStringList(COLUMNS);
+      rowGroupSize = settings.getLong(ROW_GROUP_SIZE);
+      if (rowGroupSize <= 0) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for connector.parquet.%s: Expecting a strictly positive number, got: %d",
+                ROW_GROUP_SIZE, rowGroupSize));
+      }
+      String codec = settings.getString(COMPRESSION_CODEC);
+      compressionCodec =
+          SUPPORTED_CODECS.stream()
+              .filter(c -> c.name().equalsIgnoreCase(codec))
+              .findFirst()
+              .orElseThrow(
+                  () ->
+                      new IllegalArgumentException(
+                          String.format(
+                              "Invalid value for connector.parquet.%s, valid values: %s, got: '%s'",
+                              COMPRESSION_CODEC,
+                              SUPPORTED_CODECS.stream()
+                                  .map(Enum::name)
+                                  .collect(Collectors.joining(",")),
+                              codec)));
+    } catch (ConfigException e) {
+      throw ConfigUtils.convertConfigException(e, "dsbulk.connector.parquet");
+    }
+  }
+
+  @Override
+  public void init() throws URISyntaxException, IOException {
+    if (urls.stream().anyMatch(IOUtils::isStandardStream)) {
+      throw new IllegalArgumentException(
+          "Invalid value for connector.parquet.url: Parquet files cannot be read from standard input or written to standard output.");
+    }
+    super.init();
+    conf = new Configuration(false);
+    if (read) {
+      inferReadSchema();
+    } else if (roots.isEmpty()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid value for connector.parquet.url: Parquet files can only be written to a directory on a local filesystem, got: %s.",
+              urls.get(0)));
+    }
+  }
+
+  @NonNull
+  @Override
+  public RecordMetadata getRecordMetadata() {
+    if (read) {
+      return (field, cqlType) -> {
+        ColumnReader column = findColumn(field);
+        return column == null ? GenericType.STRING : column.getJavaType();
+      };
+    }
+    return (field, cqlType) ->
+        columnWriters
+            .computeIfAbsent(
+                field, f -> ParquetTypes.newColumnWriter(f.getFieldDescription(), cqlType))
+            .getJavaType();
+  }
+
+  @Override
+  public boolean supports(@NonNull ConnectorFeature feature) {
+    if (feature instanceof CommonConnectorFeature) {
+      CommonConnectorFeature commonFeature = (CommonConnectorFeature) feature;
+      switch (commonFeature) {
+        case MAPPED_RECORDS:
+        case INDEXED_RECORDS:
+          // columns have both a name and a position
+          return true;
+        case DATA_SIZE_SAMPLING:
+          return isDataSizeSamplingAvailable();
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reads the schema of the first file to read, and computes the columns to read, honoring the
+   * {@code columns} setting. All files are read with this schema.
+   */
+  private void inferReadSchema() throws IOException {
+    URL first =
+        Flux.fromIterable(roots)
+            .concatMap(this::scanRootDirectory)
+            .concatWith(Flux.fromIterable(files))
+            .blockFirst();
+    if (first == null) {
+      return;
+    }
+    MessageType fileSchema;
+    try (ParquetFileReader reader = ParquetFileReader.open(newInputFile(first))) {
+      fileSchema = reader.getFileMetaData().getSchema();
+    }
+    MessageType readSchema;
+    if (columns.isEmpty()) {
+      readSchema = fileSchema;
+    } else {
+      List<Type> types = new ArrayList<>();
+      for (String column : columns) {
+        if (!fileSchema.containsField(column)) {
+          throw new IllegalArgumentException(
+              String.format(
+                  "Invalid value for connector.parquet.%s: column %s does not exist in %s.",
+                  COLUMNS, column, first));
+        }
+        types.add(fileSchema.getType(column));
+      }
+      readSchema = new MessageType(fileSchema.getName(), types);
+    }
+    int size = readSchema.getFieldCount();
+    columnReaders = new ColumnReader[size];
+    mappedFields = new MappedField[size];
+    indexedFields = new IndexedField[size];
+    for (int i = 0; i < size; i++) {
+      Type type = readSchema.getType(i);
+      try {
+        columnReaders[i] = ParquetTypes.newColumnReader(type);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Cannot read %s: %s. Use connector.parquet.%s to read supported columns only.",
+                first, e.getMessage(), COLUMNS),
+            e);
+      }
+      mappedFields[i] = new DefaultMappedField(type.getName());
+      indexedFields[i] = new DefaultIndexedField(i);
+      columnIndices.put(type.getName(), i);
+    }
+    // also emit indexed fields
+    schema = RecordSchema.mappedAndIndexed(mappedFields);
+    conf.set(ReadSupport.PARQUET_READ_SCHEMA, readSchema.toString());
+    LOGGER.debug("Reading Parquet files with schema {}", readSchema);
+  }
+
+  @Nullable
+  private ColumnReader findColumn(@NonNull Field field) {
+    Integer index = null;
+    if (field instanceof MappedField) {
+      index = columnIndices.get(((MappedField) field).getFieldName());
+    }
+    if (index == null && field instanceof IndexedField) {
+      int i = ((IndexedField) field).getFieldIndex();
+      if (i >= 0 && i < columnReaders.length) {
+        index = i;
+      }
+    }
+    return index == null ? null : columnReaders[index];
+  }
+
+  @NonNull
+  private static InputFile newInputFile(@NonNull URL url) throws IOException {
+    return new LocalInputFile(toLocalPath(url));
+  }
+
+  @NonNull
+  private static Path toLocalPath(@NonNull URL url) throws IOException {
+    try {
+      return Paths.get(url.toURI());
+    } catch (URISyntaxException | FileSystemNotFoundException | IllegalArgumentException e) {
+      throw new IOException(
+          String.format("Parquet files can only be read from local filesystems, got: %s", url), e);
+    }
+  }
+
+  @Override
+  @NonNull
+  protected RecordReader newSingleFileReader(@NonNull URL url) throws IOException {
+    return new ParquetRecordReader(url, null, 0);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Parquet files are split on row group boundaries, regardless of the {@code splitSize}
+   * setting, as long as {@code maxRecords} is not in effect.
+   */
+  @Override
+  protected boolean isSplittable(@NonNull URL url) {
+    if (maxRecords != -1 || !url.getProtocol().equalsIgnoreCase("file")) {
+      return false;
+    }
+    try {
+      return Files.isRegularFile(Paths.get(url.toURI()));
+    } catch (URISyntaxException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  @Override
+  protected int estimateResourceCount(@NonNull URL url) {
+    if (isSplittable(url)) {
+      try (ParquetFileReader reader = ParquetFileReader.open(newInputFile(url))) {
+        return Math.max(1, reader.getRowGroups().size());
+      } catch (IOException | RuntimeException e) {
+        return 1;
+      }
+    }
+    return 1;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The maximum split size is ignored: splittable files are split on row group boundaries, other
+   * files are read in one split.
+   */
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Parquet files cannot be flushed: they can only be read once their footer is written, when
+   * the file is closed.
+   */
+  @Override
+  public boolean flush() {
+    return false;
+  }
+
+  @NonNull
+  @Override
+  protected FileSplitter newFileSplitter(
+      @NonNull URL url, long firstRecordNumber, long maxSplitSize) throws IOException {
+    return new RowGroupSplitter(url, firstRecordNumber, !isSplittable(url));
+  }
+
+  /**
+   * Splits a Parquet file into its row groups, using the file footer. Row groups that end before
+   * the first record to read are skipped without being read; when a single split is requested, the
+   * split spans all the remaining row groups.
+   */
+  private class RowGroupSplitter implements FileSplitter {
+
+    private final URL url;
+    private final Path path;
+    private final List<BlockMetaData> rowGroups;
+    private final long firstRecordNumber;
+    private final boolean singleSplit;
+
+    private int nextRowGroup;
+    private long nextRecordNumber = 1;
+
+    private RowGroupSplitter(URL url, long firstRecordNumber, boolean singleSplit)
+        throws IOException {
+      this.url = url;
+      this.firstRecordNumber = firstRecordNumber;
+      this.singleSplit = singleSplit;
+      path = toLocalPath(url);
+      try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(path))) {
+        rowGroups = reader.getRowGroups();
+      }
+      while (nextRowGroup < rowGroups.size()
+          && nextRecordNumber + rowGroups.get(nextRowGroup).getRowCount() <= firstRecordNumber) {
+        nextRecordNumber += rowGroups.get(nextRowGroup++).getRowCount();
+      }
+    }
+
+    @Nullable
+    @Override
+    public FileSplit nextSplit() {
+      if (nextRowGroup == rowGroups.size()) {
+        return null;
+      }
+      long start = rowGroups.get(nextRowGroup).getStartingPos();
+      long end;
+      long splitFirstRecordNumber = Math.max(nextRecordNumber, firstRecordNumber);
+      do {
+        BlockMetaData rowGroup = rowGroups.get(nextRowGroup++);
+        end = rowGroup.getStartingPos() + rowGroup.getCompressedSize();
+        nextRecordNumber += rowGroup.getRowCount();
+      } while (singleSplit && nextRowGroup < rowGroups.size());
+      return new FileSplit(this, url, path, start, end - start, splitFirstRecordNumber);
+    }
+
+    @NonNull
+    @Override
+    public RecordReader newSplitReader(@NonNull FileSplit split) throws IOException {
+      return new ParquetRecordReader(split.getUrl(), split, skippedRecords(split));
+    }
+
+    /** Returns the number of records to skip at the beginning of the split's first row group. */
+    private long skippedRecords(@NonNull FileSplit split) {
+      long rowGroupFirstRecordNumber = 1;
+      for (BlockMetaData rowGroup : rowGroups) {
+        if (rowGroup.getStartingPos() == split.getStart()) {
+          break;
+        }
+        rowGroupFirstRecordNumber += rowGroup.getRowCount();
+      }
+      return split.getFirstRecordNumber() - rowGroupFirstRecordNumber;
+    }
+
+    @Override
+    public void close() {
+      // nothing to close, the footer was read in the constructor
+    }
+  }
+
+  private static final class GroupReaderBuilder extends ParquetReader.Builder<Group> {
+
+    private GroupReaderBuilder(InputFile file) {
+      super(file);
+    }
+
+    @Override
+    protected ReadSupport<Group> getReadSupport() {
+      return new GroupReadSupport();
+    }
+  }
+
+  private class ParquetRecordReader implements RecordReader {
+
+    private final URL url;
+    private final URI resource;
+    private final ParquetReader<Group> reader;
+
+    private long recordNumber = 1;
+
+    private ParquetRecordReader(URL url, @Nullable FileSplit split, long skippedRecords)
+        throws IOException {
+      this.url = url;
+      resource = URI.create(url.toExternalForm());
+      try {
+        ParquetReader.Builder<Group> builder = new GroupReaderBuilder(newInputFile(url));
+        builder.withConf(conf);
+        if (split != null) {
+          // a row group belongs to the range that contains its midpoint
+          builder.withFileRange(split.getStart(), split.getStart() + split.getLength());
+          recordNumber = split.getFirstRecordNumber();
+        }
+        reader = builder.build();
+        // records before the first record of the split are read, but not converted
+        for (long i = 0; i < skippedRecords; i++) {
+          reader.read();
+        }
+      } catch (Exception e) {
+        throw new IOException(
+            String.format("Error reading from %s", split == null ? url : split), e);
+      }
+    }
+
+    @NonNull
+    @Override
+    public RecordReader readNext(@NonNull SynchronousSink<Record> sink) {
+      try {
+        Group group = reader.read();
+        if (group == null) {
+          LOGGER.debug("Done reading {}", url);
+          sink.complete();
+        } else {
+          Record record = toRecord(group);
+          LOGGER.trace("Emitting record {}", record);
+          sink.next(record);
+        }
+      } catch (Exception e) {
+        sink.error(
+            new IOException(
+                String.format("Error reading from %s at record %d", url, recordNumber), e));
+      }
+      return this;
+    }
+
+    @NonNull
+    private Record toRecord(@NonNull Group group) {
+      Object source = retainRecordSources ? group : null;
+      long position = recordNumber++;
+      try {
+        Object[] values = new Object[columnReaders.length];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = columnReaders[i].read(group, i);
+        }
+        return new ArrayBackedRecord(source, resource, position, schema, values);
+      } catch (Exception e) {
+        return new DefaultErrorRecord(source, resource, position, e);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (reader != null) {
+        reader.close();
+      }
+    }
+  }
+
+  @NonNull
+  @Override
+  protected RecordWriter newSingleFileWriter() {
+    return new ParquetRecordWriter();
+  }
+
+  /**
+   * Returns the schema of written files, computed from the fields of the first record to write and
+   * from the CQL types reported for these fields through {@link #getRecordMetadata()}.
+   */
+  @NonNull
+  private synchronized WriteSchema getWriteSchema(@NonNull Record record) {
+    if (writeSchema == null) {
+      Field[] fields = record.fields().toArray(new Field[0]);
+      ColumnWriter[] writers = new ColumnWriter[fields.length];
+      List<Type> types = new ArrayList<>(fields.length);
+      for (int i = 0; i < fields.length; i++) {
+        writers[i] = columnWriters.get(fields[i]);
+        if (writers[i] == null) {
+          throw new IllegalStateException("Unknown CQL type for field " + fields[i]);
+        }
+        types.add(writers[i].getParquetType());
+      }
+      writeSchema = new WriteSchema(fields, writers, new MessageType("dsbulk", types));
+      LOGGER.debug("Writing Parquet files with schema {}", writeSchema.messageType);
+    }
+    return writeSchema;
+  }
+
+  private static final class WriteSchema {
+
+    private final Field[] fields;
+    private final ColumnWriter[] writers;
+    private final MessageType messageType;
+
+    private WriteSchema(Field[] fields, ColumnWriter[] writers, MessageType messageType) {
+      this.fields = fields;
+      this.writers = writers;
+      this.messageType = messageType;
+    }
+  }
+
+  private class ParquetRecordWriter implements RecordWriter {
+
+    private URL url;
+    private ParquetWriter<Group> writer;
+    private WriteSchema schema;
+    private long currentRecords;
+
+    @Override
+    public void write(@NonNull Record record) throws IOException {
+      try {
+        if (writer == null) {
+          open(record);
+        } else if (shouldRoll()) {
+          close();
+          open(record);
+        }
+        LOGGER.trace("Writing record {} to {}", record, url);
+        Group group = new SimpleGroup(schema.messageType);
+        for (int i = 0; i < schema.fields.length; i++) {
+          schema.writers[i].write(group, i, record.getFieldValue(schema.fields[i]));
+        }
+        writer.write(group);
+        currentRecords++;
+      } catch (ClosedChannelException e) {
+        // OK, happens when the channel was closed due to interruption
+      } catch (RuntimeException e) {
+        throw new IOException(String.format("Error writing to %s", url), e);
+      }
+    }
+
+    private boolean shouldRoll() {
+      // the data size includes the row group being buffered in memory
+      return currentRecords == maxRecords || isMaxFileSizeReached(writer.getDataSize());
+    }
+
+    private void open(@NonNull Record record) throws IOException {
+      url = getOrCreateDestinationURL();
+      try {
+        schema = getWriteSchema(record);
+        writer =
+            ExampleParquetWriter.builder(new LocalOutputFile(Paths.get(url.toURI())))
+                .withType(schema.messageType)
+                .withConf(conf)
+                .withCompressionCodec(compressionCodec)
+                .withRowGroupSize(rowGroupSize)
+                .build();
+        currentRecords = 0;
+        LOGGER.debug("Writing {}", url);
+      } catch (ClosedChannelException e) {
+        // OK, happens when the channel was closed due to interruption
+      } catch (RuntimeException | IOException | URISyntaxException e) {
+        throw new IOException(String.format("Error opening %s", url), e);
+      }
+    }
+
+    @Override
+    public void flush() {
+      // rows are buffered in memory until their row group is full or the file is closed
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (writer != null) {
+        try {
+          writer.close();
+          LOGGER.debug("Done writing {}", url);
+          writer = null;
+        } catch (ClosedChannelException e) {
+          // OK, happens when the channel was closed due to interruption
+        } catch (RuntimeException | IOException e) {
+          throw new IOException(String.format("Error closing %s", url), e);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,625 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.parquet;
+
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.ListType;
+import com.datastax.oss.driver.api.core.type.MapType;
+import com.datastax.oss.driver.api.core.type.SetType;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.IntLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Type.Repetition;
+import org.apache.parquet.schema.Types;
+
+/**
+ * Mappings between Parquet types and the Java types exchanged with DSBulk's converting codecs.
+ *
+ * <p>Values are never converted to strings when a natural Java counterpart exists: for example an
+ * {@code INT64} column annotated as a timestamp is read as an {@link Instant}, and a CQL {@code
+ * date} is written as an {@code INT32} column annotated as a date.
+ */
+final class ParquetTypes {
+
+  private static final long JULIAN_EPOCH_DAY = 2_440_588L;
+
+  private ParquetTypes() {}
+
+  /** Reads one value of a (possibly repeated) field in a Parquet group. */
+  @FunctionalInterface
+  private interface ValueReader {
+    @NonNull
+    Object read(@NonNull Group group, int field, int index);
+  }
+
+  /** Adds one non-null value to a field in a Parquet group. */
+  @FunctionalInterface
+  private interface ValueWriter {
+    void write(@NonNull Group group, int field, @NonNull Object value);
+  }
+
+  /** Reads the values of a top-level column of a Parquet file. */
+  static final class ColumnReader {
+
+    private final GenericType<?> javaType;
+    private final ValueReader reader;
+    private final boolean repeated;
+
+    private ColumnReader(GenericType<?> javaType, ValueReader reader, boolean repeated) {
+      this.javaType = javaType;
+      this.reader = reader;
+      this.repeated = repeated;
+    }
+
+    /** @return The Java type of the values produced by this reader. */
+    @NonNull
+    GenericType<?> getJavaType() {
+      return javaType;
+    }
+
+    /** @return The value of the given field in the given record, or null if it has no value. */
+    @Nullable
+    Object read(@NonNull Group record, int field) {
+      if (repeated) {
+        return reader.read(record, field, 0);
+      }
+      if (record.getFieldRepetitionCount(field) == 0) {
+        return null;
+      }
+      return reader.read(record, field, 0);
+    }
+  }
+
+  /** Writes the values of a record field to a top-level column of a Parquet file. */
+  static final class ColumnWriter {
+
+    private final Type parquetType;
+    private final GenericType<?> javaType;
+    private final ValueWriter writer;
+
+    private ColumnWriter(Type parquetType, GenericType<?> javaType, ValueWriter writer) {
+      this.parquetType = parquetType;
+      this.javaType = javaType;
+      this.writer = writer;
+    }
+
+    /** @return The type of the column in the Parquet schema. */
+    @NonNull
+    Type getParquetType() {
+      return parquetType;
+    }
+
+    /** @return The Java type of the values accepted by this writer. */
+    @NonNull
+    GenericType<?> getJavaType() {
+      return javaType;
+    }
+
+    /** Adds the given value to the given field of the given record; null values are skipped. */
+    void write(@NonNull Group record, int field, @Nullable Object value) {
+      if (value != null) {
+        writer.write(record, field, value);
+      }
+    }
+  }
+
+  /**
+   * Creates a reader for the given top-level column.
+   *
+   * @throws IllegalArgumentException if the column type is not supported: only primitive types, and
+   *     lists and maps of primitive types, are supported.
+   */
+  @NonNull
+  static ColumnReader newColumnReader(@NonNull Type type) {
+    if (type.isPrimitive()) {
+      ScalarMapping scalar = scalar(type.asPrimitiveType());
+      if (type.isRepetition(Repetition.REPEATED)) {
+        // legacy unannotated list
+        return new ColumnReader(
+            GenericType.listOf(scalar.javaType),
+            (group, field, index) -> readRepeated(group, field, scalar.reader),
+            true);
+      }
+      return new ColumnReader(scalar.javaType, scalar.reader, false);
+    }
+    GroupType group = type.asGroupType();
+    LogicalTypeAnnotation annotation = group.getLogicalTypeAnnotation();
+    if (annotation instanceof LogicalTypeAnnotation.ListLogicalTypeAnnotation) {
+      return newListReader(group);
+    }
+    if (annotation instanceof LogicalTypeAnnotation.MapLogicalTypeAnnotation
+        || annotation instanceof LogicalTypeAnnotation.MapKeyValueTypeAnnotation) {
+      return newMapReader(group);
+    }
+    throw unsupported(type);
+  }
+
+  @NonNull
+  private static ColumnReader newListReader(@NonNull GroupType list) {
+    if (list.getFieldCount() != 1 || !list.getType(0).isRepetition(Repetition.REPEATED)) {
+      throw unsupported(list);
+    }
+    Type repeated = list.getType(0);
+    if (repeated.isPrimitive()) {
+      // 2-level list: the repeated field is the element
+      ScalarMapping element = scalar(repeated.asPrimitiveType());
+      return new ColumnReader(
+          GenericType.listOf(element.javaType),
+          (group, field, index) -> readRepeated(group.getGroup(field, index), 0, element.reader),
+          false);
+    }
+    GroupType elementGroup = repeated.asGroupType();
+    if (elementGroup.getFieldCount() != 1
+        || !elementGroup.getType(0).isPrimitive()
+        || elementGroup.getName().equals("array")
+        || elementGroup.getName().endsWith("_tuple")) {
+      // 2-level list of groups, or list of nested types
+      throw unsupported(list);
+    }
+    // 3-level list: the repeated group wraps an optional element
+    ScalarMapping element = scalar(elementGroup.getType(0).asPrimitiveType());
+    return new ColumnReader(
+        GenericType.listOf(element.javaType),
+        (group, field, index) -> {
+          Group values = group.getGroup(field, index);
+          int count = values.getFieldRepetitionCount(0);
+          List<Object> result = new ArrayList<>(count);
+          for (int i = 0; i < count; i++) {
+            result.add(readOptional(values.getGroup(0, i), 0, element.reader));
+          }
+          return result;
+        },
+        false);
+  }
+
+  @NonNull
+  private static ColumnReader newMapReader(@NonNull GroupType map) {
+    if (map.getFieldCount() != 1
+        || map.getType(0).isPrimitive()
+        || !map.getType(0).isRepetition(Repetition.REPEATED)) {
+      throw unsupported(map);
+    }
+    GroupType entry = map.getType(0).asGroupType();
+    if (entry.getFieldCount() != 2
+        || !entry.getType(0).isPrimitive()
+        || !entry.getType(1).isPrimitive()) {
+      throw unsupported(map);
+    }
+    ScalarMapping key = scalar(entry.getType(0).asPrimitiveType());
+    ScalarMapping value = scalar(entry.getType(1).asPrimitiveType());
+    return new ColumnReader(
+        GenericType.mapOf(key.javaType, value.javaType),
+        (group, field, index) -> {
+          Group entries = group.getGroup(field, index);
+          int count = entries.getFieldRepetitionCount(0);
+          Map<Object, Object> result = new LinkedHashMap<>(count * 2);
+          for (int i = 0; i < count; i++) {
+            Group kv = entries.getGroup(0, i);
+            result.put(readOptional(kv, 0, key.reader), readOptional(kv, 1, value.reader));
+          }
+          return result;
+        },
+        false);
+  }
+
+  @NonNull
+  private static List<Object> readRepeated(
+      @NonNull Group group, int field, @NonNull ValueReader reader) {
+    int count = group.getFieldRepetitionCount(field);
+    List<Object> list = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      list.add(reader.read(group, field, i));
+    }
+    return list;
+  }
+
+  @Nullable
+  private static Object readOptional(@NonNull Group group, int field, @NonNull ValueReader reader) {
+    return group.getFieldRepetitionCount(field) == 0 ? null : reader.read(group, field, 0);
+  }
+
+  private static final class ScalarMapping {
+
+    private final GenericType<?> javaType;
+    private final ValueReader reader;
+
+    private ScalarMapping(GenericType<?> javaType, ValueReader reader) {
+      this.javaType = javaType;
+      this.reader = reader;
+    }
+  }
+
+  @NonNull
+  private static ScalarMapping scalar(@NonNull PrimitiveType type) {
+    LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+    switch (type.getPrimitiveTypeName()) {
+      case BOOLEAN:
+        return new ScalarMapping(GenericType.BOOLEAN, Group::getBoolean);
+      case FLOAT:
+        return new ScalarMapping(GenericType.FLOAT, Group::getFloat);
+      case DOUBLE:
+        return new ScalarMapping(GenericType.DOUBLE, Group::getDouble);
+      case INT32:
+        return int32(annotation);
+      case INT64:
+        return int64(annotation);
+      case INT96:
+        return new ScalarMapping(
+            GenericType.INSTANT, (group, field, index) -> int96(group.getInt96(field, index)));
+      case BINARY:
+      case FIXED_LEN_BYTE_ARRAY:
+        return binary(annotation);
+      default:
+        throw unsupported(type);
+    }
+  }
+
+  @NonNull
+  private static ScalarMapping int32(@Nullable LogicalTypeAnnotation annotation) {
+    if (annotation instanceof DecimalLogicalTypeAnnotation) {
+      int scale = ((DecimalLogicalTypeAnnotation) annotation).getScale();
+      return new ScalarMapping(
+          GenericType.BIG_DECIMAL,
+          (group, field, index) -> BigDecimal.valueOf(group.getInteger(field, index), scale));
+    }
+    if (annotation instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation) {
+      return new ScalarMapping(
+          GenericType.LOCAL_DATE,
+          (group, field, index) -> LocalDate.ofEpochDay(group.getInteger(field, index)));
+    }
+    if (annotation instanceof TimeLogicalTypeAnnotation) {
+      return new ScalarMapping(
+          GenericType.LOCAL_TIME,
+          (group, field, index) ->
+              LocalTime.ofNanoOfDay(TimeUnit.MILLISECONDS.toNanos(group.getInteger(field, index))));
+    }
+    if (annotation instanceof IntLogicalTypeAnnotation) {
+      IntLogicalTypeAnnotation intType = (IntLogicalTypeAnnotation) annotation;
+      if (intType.isSigned() && intType.getBitWidth() == 8) {
+        return new ScalarMapping(
+            GenericType.BYTE, (group, field, index) -> (byte) group.getInteger(field, index));
+      }
+      if (intType.isSigned() && intType.getBitWidth() == 16) {
+        return new ScalarMapping(
+            GenericType.SHORT, (group, field, index) -> (short) group.getInteger(field, index));
+      }
+      if (!intType.isSigned() && intType.getBitWidth() == 32) {
+        return new ScalarMapping(
+            GenericType.LONG,
+            (group, field, index) -> Integer.toUnsignedLong(group.getInteger(field, index)));
+      }
+    }
+    return new ScalarMapping(GenericType.INTEGER, Group::getInteger);
+  }
+
+  @NonNull
+  private static ScalarMapping int64(@Nullable LogicalTypeAnnotation annotation) {
+    if (annotation instanceof DecimalLogicalTypeAnnotation) {
+      int scale = ((DecimalLogicalTypeAnnotation) annotation).getScale();
+      return new ScalarMapping(
+          GenericType.BIG_DECIMAL,
+          (group, field, index) -> BigDecimal.valueOf(group.getLong(field, index), scale));
+    }
+    if (annotation instanceof TimestampLogicalTypeAnnotation) {
+      TimestampLogicalTypeAnnotation timestamp = (TimestampLogicalTypeAnnotation) annotation;
+      TimeUnit unit = toTimeUnit(timestamp.getUnit());
+      if (timestamp.isAdjustedToUTC()) {
+        return new ScalarMapping(
+            GenericType.INSTANT,
+            (group, field, index) -> toInstant(group.getLong(field, index), unit));
+      }
+      return new ScalarMapping(
+          GenericType.of(LocalDateTime.class),
+          (group, field, index) -> {
+            Instant instant = toInstant(group.getLong(field, index), unit);
+            return LocalDateTime.ofEpochSecond(
+                instant.getEpochSecond(), instant.getNano(), ZoneOffset.UTC);
+          });
+    }
+    if (annotation instanceof TimeLogicalTypeAnnotation) {
+      TimeUnit unit = toTimeUnit(((TimeLogicalTypeAnnotation) annotation).getUnit());
+      return new ScalarMapping(
+          GenericType.LOCAL_TIME,
+          (group, field, index) ->
+              LocalTime.ofNanoOfDay(unit.toNanos(group.getLong(field, index))));
+    }
+    if (annotation instanceof IntLogicalTypeAnnotation
+        && !((IntLogicalTypeAnnotation) annotation).isSigned()) {
+      return new ScalarMapping(
+          GenericType.BIG_INTEGER,
+          (group, field, index) ->
+              new BigInteger(Long.toUnsignedString(group.getLong(field, index))));
+    }
+    return new ScalarMapping(GenericType.LONG, Group::getLong);
+  }
+
+  @NonNull
+  private static ScalarMapping binary(@Nullable LogicalTypeAnnotation annotation) {
+    if (annotation instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation
+        || annotation instanceof LogicalTypeAnnotation.EnumLogicalTypeAnnotation
+        || annotation instanceof LogicalTypeAnnotation.JsonLogicalTypeAnnotation) {
+      return new ScalarMapping(
+          GenericType.STRING,
+          (group, field, index) -> group.getBinary(field, index).toStringUsingUTF8());
+    }
+    if (annotation instanceof DecimalLogicalTypeAnnotation) {
+      int scale = ((DecimalLogicalTypeAnnotation) annotation).getScale();
+      return new ScalarMapping(
+          GenericType.BIG_DECIMAL,
+          (group, field, index) ->
+              new BigDecimal(new BigInteger(group.getBinary(field, index).getBytes()), scale));
+    }
+    if (annotation instanceof LogicalTypeAnnotation.UUIDLogicalTypeAnnotation) {
+      return new ScalarMapping(
+          GenericType.UUID,
+          (group, field, index) -> {
+            ByteBuffer bytes = group.getBinary(field, index).toByteBuffer();
+            return new UUID(bytes.getLong(bytes.position()), bytes.getLong(bytes.position() + 8));
+          });
+    }
+    return new ScalarMapping(
+        GenericType.BYTE_BUFFER,
+        (group, field, index) -> ByteBuffer.wrap(group.getBinary(field, index).getBytes()));
+  }
+
+  @NonNull
+  private static TimeUnit toTimeUnit(@NonNull LogicalTypeAnnotation.TimeUnit unit) {
+    switch (unit) {
+      case MILLIS:
+        return TimeUnit.MILLISECONDS;
+      case MICROS:
+        return TimeUnit.MICROSECONDS;
+      default:
+        return TimeUnit.NANOSECONDS;
+    }
+  }
+
+  @NonNull
+  private static Instant toInstant(long value, @NonNull TimeUnit unit) {
+    long seconds = unit.toSeconds(value);
+    long nanos = unit.toNanos(value - unit.convert(seconds, TimeUnit.SECONDS));
+    return Instant.ofEpochSecond(seconds, nanos);
+  }
+
+  /**
+   * Decodes a legacy INT96 timestamp, made of 8 bytes of nanoseconds of the day followed by 4 bytes
+   * of Julian day, both little-endian.
+   */
+  @NonNull
+  private static Instant int96(@NonNull Binary value) {
+    ByteBuffer bytes = ByteBuffer.wrap(value.getBytes()).order(ByteOrder.LITTLE_ENDIAN);
+    long nanosOfDay = bytes.getLong();
+    long julianDay = bytes.getInt();
+    return Instant.ofEpochSecond(TimeUnit.DAYS.toSeconds(julianDay - JULIAN_EPOCH_DAY), nanosOfDay);
+  }
+
+  /**
+   * Creates a writer for a column holding values of the given CQL type. All columns are optional.
+   * CQL types without a natural Parquet counterpart ({@code decimal}, {@code varint}, {@code inet},
+   * {@code duration}, user-defined types, tuples, and nested collections) are written as strings.
+   */
+  @NonNull
+  static ColumnWriter newColumnWriter(@NonNull String name, @NonNull DataType cqlType) {
+    if (cqlType instanceof ListType || cqlType instanceof SetType) {
+      DataType elementType =
+          cqlType instanceof ListType
+              ? ((ListType) cqlType).getElementType()
+              : ((SetType) cqlType).getElementType();
+      ColumnWriter element = scalar("element", elementType, Repetition.OPTIONAL);
+      if (element != null) {
+        return newListWriter(name, element);
+      }
+    } else if (cqlType instanceof MapType) {
+      ColumnWriter key = scalar("key", ((MapType) cqlType).getKeyType(), Repetition.REQUIRED);
+      ColumnWriter value = scalar("value", ((MapType) cqlType).getValueType(), Repetition.OPTIONAL);
+      if (key != null && value != null) {
+        return newMapWriter(name, key, value);
+      }
+    } else {
+      ColumnWriter scalar = scalar(name, cqlType, Repetition.OPTIONAL);
+      if (scalar != null) {
+        return scalar;
+      }
+    }
+    return string(name, Repetition.OPTIONAL);
+  }
+
+  @NonNull
+  private static ColumnWriter newListWriter(@NonNull String name, @NonNull ColumnWriter element) {
+    Type type =
+        Types.optionalGroup()
+            .as(LogicalTypeAnnotation.listType())
+            .addField(new GroupType(Repetition.REPEATED, "list", element.parquetType))
+            .named(name);
+    return new ColumnWriter(
+        type,
+        GenericType.listOf(element.javaType),
+        (group, field, value) -> {
+          Group list = group.addGroup(field);
+          for (Object e : (Collection<?>) value) {
+            element.write(list.addGroup(0), 0, e);
+          }
+        });
+  }
+
+  @NonNull
+  private static ColumnWriter newMapWriter(
+      @NonNull String name, @NonNull ColumnWriter key, @NonNull ColumnWriter value) {
+    Type type =
+        Types.optionalGroup()
+            .as(LogicalTypeAnnotation.mapType())
+            .addField(
+                new GroupType(Repetition.REPEATED, "key_value", key.parquetType, value.parquetType))
+            .named(name);
+    return new ColumnWriter(
+        type,
+        GenericType.mapOf(key.javaType, value.javaType),
+        (group, field, map) -> {
+          Group entries = group.addGroup(field);
+          for (Map.Entry<?, ?> e : ((Map<?, ?>) map).entrySet()) {
+            Group entry = entries.addGroup(0);
+            key.write(entry, 0, e.getKey());
+            value.write(entry, 1, e.getValue());
+          }
+        });
+  }
+
+  @Nullable
+  private static ColumnWriter scalar(
+      @NonNull String name, @NonNull DataType cqlType, @NonNull Repetition repetition) {
+    if (cqlType == DataTypes.TEXT || cqlType == DataTypes.ASCII) {
+      return string(name, repetition);
+    }
+    if (cqlType == DataTypes.BOOLEAN) {
+      return new ColumnWriter(
+          Types.primitive(PrimitiveTypeName.BOOLEAN, repetition).named(name),
+          GenericType.BOOLEAN,
+          (group, field, value) -> group.add(field, ((Boolean) value).booleanValue()));
+    }
+    if (cqlType == DataTypes.TINYINT || cqlType == DataTypes.SMALLINT || cqlType == DataTypes.INT) {
+      int bitWidth = cqlType == DataTypes.TINYINT ? 8 : cqlType == DataTypes.SMALLINT ? 16 : 32;
+      GenericType<?> javaType =
+          bitWidth == 8
+              ? GenericType.BYTE
+              : bitWidth == 16 ? GenericType.SHORT : GenericType.INTEGER;
+      return new ColumnWriter(
+          Types.primitive(PrimitiveTypeName.INT32, repetition)
+              .as(LogicalTypeAnnotation.intType(bitWidth, true))
+              .named(name),
+          javaType,
+          (group, field, value) -> group.add(field, ((Number) value).intValue()));
+    }
+    if (cqlType == DataTypes.BIGINT || cqlType == DataTypes.COUNTER) {
+      return new ColumnWriter(
+          Types.primitive(PrimitiveTypeName.INT64, repetition).named(name),
+          GenericType.LONG,
+          (group, field, value) -> group.add(field, ((Long) value).longValue()));
+    }
+    if (cqlType == DataTypes.FLOAT) {
+      return new ColumnWriter(
+          Types.primitive(PrimitiveTypeName.FLOAT, repetition).named(name),
+          GenericType.FLOAT,
+          (group, field, value) -> group.add(field, ((Float) value).floatValue()));
+    }
+    if (cqlType == DataTypes.DOUBLE) {
+      return new ColumnWriter(
+          Types.primitive(PrimitiveTypeName.DOUBLE, repetition).named(name),
+          GenericType.DOUBLE,
+          (group, field, value) -> group.add(field, ((Double) value).doubleValue()));
+    }
+    if (cqlType == DataTypes.TIMESTAMP) {
+      return new ColumnWriter(
+          Types.primitive(PrimitiveTypeName.INT64, repetition)
+              .as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS))
+              .named(name),
+          GenericType.INSTANT,
+          (group, field, value) -> group.add(field, ((Instant) value).toEpochMilli()));
+    }
+    if (cqlType == DataTypes.DATE) {
+      return new ColumnWriter(
+          Types.primitive(PrimitiveTypeName.INT32, repetition)
+              .as(LogicalTypeAnnotation.dateType())
+              .named(name),
+          GenericType.LOCAL_DATE,
+          (group, field, value) ->
+              group.add(field, Math.toIntExact(((LocalDate) value).toEpochDay())));
+    }
+    if (cqlType == DataTypes.TIME) {
+      return new ColumnWriter(
+          Types.primitive(PrimitiveTypeName.INT64, repetition)
+              .as(LogicalTypeAnnotation.timeType(false, LogicalTypeAnnotation.TimeUnit.NANOS))
+              .named(name),
+          GenericType.LOCAL_TIME,
+          (group, field, value) -> group.add(field, ((LocalTime) value).toNanoOfDay()));
+    }
+    if (cqlType == DataTypes.UUID || cqlType == DataTypes.TIMEUUID) {
+      return new ColumnWriter(
+          Types.primitive(PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY, repetition)
+              .length(16)
+              .as(LogicalTypeAnnotation.uuidType())
+              .named(name),
+          GenericType.UUID,
+          (group, field, value) -> {
+            UUID uuid = (UUID) value;
+            ByteBuffer bytes = ByteBuffer.allocate(16);
+            bytes.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+            group.add(field, Binary.fromConstantByteArray(bytes.array()));
+          });
+    }
+    if (cqlType == DataTypes.BLOB) {
+      return new ColumnWriter(
+          Types.primitive(PrimitiveTypeName.BINARY, repetition).named(name),
+          GenericType.BYTE_BUFFER,
+          (group, field, value) ->
+              group.add(field, Binary.fromConstantByteBuffer(((ByteBuffer) value).duplicate())));
+    }
+    if (cqlType == DataTypes.DECIMAL
+        || cqlType == DataTypes.VARINT
+        || cqlType == DataTypes.INET
+        || cqlType == DataTypes.DURATION) {
+      return string(name, repetition);
+    }
+    // collections, user-defined types, tuples, and custom types
+    return null;
+  }
+
+  @NonNull
+  private static ColumnWriter string(@NonNull String name, @NonNull Repetition repetition) {
+    return new ColumnWriter(
+        Types.primitive(PrimitiveTypeName.BINARY, repetition)
+            .as(LogicalTypeAnnotation.stringType())
+            .named(name),
+        GenericType.STRING,
+        (group, field, value) -> group.add(field, (String) value));
+  }
+
+  @NonNull
+  private static IllegalArgumentException unsupported(@NonNull Type type) {
+    return new IllegalArgumentException(
+        String.format(
+            "Unsupported Parquet type for column %s: %s; "
+                + "only primitive types and lists and maps of primitive types are supported",
+            type.getName(), type.toString().trim()));
+  }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.parquet;
+
+import static com.datastax.oss.dsbulk.tests.utils.FileUtils.deleteDirectory;
+import static com.datastax.oss.dsbulk.tests.utils.StringUtils.quoteJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
+import com.datastax.oss.dsbulk.connectors.api.DefaultIndexedField;
+import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
+import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
+import com.datastax.oss.dsbulk.connectors.api.Field;
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.oss.dsbulk.tests.utils.TestConfigUtils;
+import com.datastax.oss.dsbulk.url.BulkLoaderURLStreamHandlerFactory;
+import com.typesafe.config.Config;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class ParquetConnectorTest {
+
+  static {
+    BulkLoaderURLStreamHandlerFactory.install();
+  }
+
+  private static final int RECORDS = 1000;
+
+  private static final Field ID = new DefaultMappedField("id");
+  private static final Field NAME = new DefaultMappedField("name");
+  private static final Field PRICE = new DefaultMappedField("price");
+  private static final Field TS = new DefaultMappedField("ts");
+  private static final Field DAY = new DefaultMappedField("day");
+  private static final Field TOD = new DefaultMappedField("tod");
+  private static final Field UID = new DefaultMappedField("uid");
+  private static final Field DATA = new DefaultMappedField("data");
+  private static final Field FLAG = new DefaultMappedField("flag");
+  private static final Field RATIO = new DefaultMappedField("ratio");
+  private static final Field SMALL = new DefaultMappedField("small");
+  private static final Field BIG = new DefaultMappedField("big");
+  private static final Field TAGS = new DefaultMappedField("tags");
+  private static final Field SCORES = new DefaultMappedField("scores");
+
+  private static final Field[] FIELDS = {
+    ID, NAME, PRICE, TS, DAY, TOD, UID, DATA, FLAG, RATIO, SMALL, BIG, TAGS, SCORES
+  };
+
+  private static final DataType[] CQL_TYPES = {
+    DataTypes.INT,
+    DataTypes.TEXT,
+    DataTypes.DECIMAL,
+    DataTypes.TIMESTAMP,
+    DataTypes.DATE,
+    DataTypes.TIME,
+    DataTypes.UUID,
+    DataTypes.BLOB,
+    DataTypes.BOOLEAN,
+    DataTypes.DOUBLE,
+    DataTypes.SMALLINT,
+    DataTypes.BIGINT,
+    DataTypes.listOf(DataTypes.TEXT),
+    DataTypes.mapOf(DataTypes.TEXT, DataTypes.INT)
+  };
+
+  private final URI resource = URI.create("file://file1.parquet");
+
+  @Test
+  void should_write_and_read_typed_values() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      List<Record> written = createRecords();
+      write(dir, written, "rowGroupSize", 67108864);
+      try (ParquetConnector connector = new ParquetConnector()) {
+        connector.configure(settings(dir), true, true);
+        connector.init();
+        assertThat(connector.supports(CommonConnectorFeature.MAPPED_RECORDS)).isTrue();
+        assertThat(connector.supports(CommonConnectorFeature.INDEXED_RECORDS)).isTrue();
+        assertThat(connector.supports(CommonConnectorFeature.DATA_SIZE_SAMPLING)).isTrue();
+        RecordMetadata metadata = connector.getRecordMetadata();
+        assertThat(metadata.getFieldType(ID, DataTypes.INT)).isEqualTo(GenericType.INTEGER);
+        assertThat(metadata.getFieldType(PRICE, DataTypes.DECIMAL)).isEqualTo(GenericType.STRING);
+        assertThat(metadata.getFieldType(TS, DataTypes.TIMESTAMP)).isEqualTo(GenericType.INSTANT);
+        assertThat(metadata.getFieldType(DAY, DataTypes.DATE)).isEqualTo(GenericType.LOCAL_DATE);
+        assertThat(metadata.getFieldType(TOD, DataTypes.TIME)).isEqualTo(GenericType.LOCAL_TIME);
+        assertThat(metadata.getFieldType(UID, DataTypes.UUID)).isEqualTo(GenericType.UUID);
+        assertThat(metadata.getFieldType(DATA, DataTypes.BLOB)).isEqualTo(GenericType.BYTE_BUFFER);
+        assertThat(metadata.getFieldType(SMALL, DataTypes.SMALLINT)).isEqualTo(GenericType.SHORT);
+        assertThat(metadata.getFieldType(TAGS, DataTypes.listOf(DataTypes.TEXT)))
+            .isEqualTo(GenericType.listOf(GenericType.STRING));
+        assertThat(metadata.getFieldType(SCORES, DataTypes.mapOf(DataTypes.TEXT, DataTypes.INT)))
+            .isEqualTo(GenericType.mapOf(GenericType.STRING, GenericType.INTEGER));
+        assertThat(metadata.getFieldType(new DefaultIndexedField(0), DataTypes.INT))
+            .isEqualTo(GenericType.INTEGER);
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+          Record expected = written.get(i);
+          Record actual = read.get(i);
+          assertThat(actual.getPosition()).isEqualTo(i + 1);
+          assertThat(actual.getResource().toString()).endsWith("output-000001.parquet");
+          assertThat(actual.getSource()).isNotNull();
+          for (int j = 0; j < FIELDS.length; j++) {
+            assertThat(actual.getFieldValue(FIELDS[j]))
+                .isEqualTo(expected.getFieldValue(FIELDS[j]));
+            assertThat(actual.getFieldValue(new DefaultIndexedField(j)))
+                .isEqualTo(expected.getFieldValue(FIELDS[j]));
+          }
+        }
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_read_row_groups_in_parallel() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      write(dir, createRecords(), "rowGroupSize", 1);
+      try (ParquetConnector connector = new ParquetConnector()) {
+        connector.configure(settings(dir, "maxConcurrentFiles", 4), true, false);
+        connector.init();
+        assertThat(connector.readConcurrency()).isGreaterThan(1);
+        assertThat(Flux.from(connector.read()).count().block()).isGreaterThan(1);
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+          assertThat(read.get(i).getPosition()).isEqualTo(i + 1);
+          assertThat(read.get(i).getFieldValue(ID)).isEqualTo(i);
+          assertThat(read.get(i).getSource()).isNull();
+        }
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_skip_row_groups_when_skipping_records() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      write(dir, createRecords(), "rowGroupSize", 1);
+      try (ParquetConnector connector = new ParquetConnector()) {
+        connector.configure(
+            settings(dir, "skipRecords", 250, "maxConcurrentFiles", 4), true, false);
+        connector.init();
+        assertThat(connector.readConcurrency()).isGreaterThan(1);
+        assertThat(Flux.from(connector.read()).count().block()).isGreaterThan(1);
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(RECORDS - 250);
+        for (int i = 0; i < read.size(); i++) {
+          assertThat(read.get(i).getPosition()).isEqualTo(i + 251);
+          assertThat(read.get(i).getFieldValue(ID)).isEqualTo(i + 250);
+        }
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_read_whole_files_when_per_file_limits_are_in_effect() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      write(dir, createRecords(), "rowGroupSize", 1);
+      try (ParquetConnector connector = new ParquetConnector()) {
+        connector.configure(settings(dir, "skipRecords", 10, "maxRecords", 100), true, false);
+        connector.init();
+        assertThat(connector.readConcurrency()).isOne();
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(100);
+        assertThat(read.get(0).getFieldValue(ID)).isEqualTo(10);
+        assertThat(read.get(99).getFieldValue(ID)).isEqualTo(109);
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_read_selected_columns_only() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      write(dir, createRecords(), "rowGroupSize", 67108864);
+      try (ParquetConnector connector = new ParquetConnector()) {
+        connector.configure(settings(dir, "columns", "[name, id]"), true, false);
+        connector.init();
+        List<Record> read = readAll(connector);
+        assertThat(read).hasSize(RECORDS);
+        Record record = read.get(42);
+        assertThat(record.fields())
+            .containsExactlyInAnyOrder(
+                NAME, ID, new DefaultIndexedField(0), new DefaultIndexedField(1));
+        assertThat(record.getFieldValue(NAME)).isEqualTo("name 42");
+        assertThat(record.getFieldValue(ID)).isEqualTo(42);
+        assertThat(record.getFieldValue(new DefaultIndexedField(0))).isEqualTo("name 42");
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_error_when_column_does_not_exist() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      write(dir, createRecords(), "rowGroupSize", 67108864);
+      try (ParquetConnector connector = new ParquetConnector()) {
+        connector.configure(settings(dir, "columns", "[nonexistent]"), true, false);
+        assertThatThrownBy(connector::init)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining(
+                "Invalid value for connector.parquet.columns: column nonexistent does not exist");
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_roll_file_when_max_records_reached() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try {
+      write(dir, createRecords(), "maxRecords", 300);
+      try (Stream<Path> files = Files.list(dir)) {
+        assertThat(files.map(file -> file.getFileName().toString()).collect(Collectors.toList()))
+            .containsExactlyInAnyOrder(
+                "output-000001.parquet",
+                "output-000002.parquet",
+                "output-000003.parquet",
+                "output-000004.parquet");
+      }
+      try (ParquetConnector connector = new ParquetConnector()) {
+        connector.configure(settings(dir), true, false);
+        connector.init();
+        assertThat(
+                readAll(connector).stream()
+                    .map(record -> record.getFieldValue(ID))
+                    .sorted()
+                    .collect(Collectors.toList()))
+            .hasSize(RECORDS)
+            .doesNotHaveDuplicates();
+      }
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_error_on_invalid_compression_codec() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    try (ParquetConnector connector = new ParquetConnector()) {
+      assertThatThrownBy(
+              () -> connector.configure(settings(dir, "compressionCodec", "LZO"), false, false))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage(
+              "Invalid value for connector.parquet.compressionCodec, valid values: UNCOMPRESSED,SNAPPY,GZIP, got: 'LZO'");
+    } finally {
+      deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_error_when_writing_to_stdout() throws Exception {
+    try (ParquetConnector connector = new ParquetConnector()) {
+      connector.configure(
+          TestConfigUtils.createTestConfig("dsbulk.connector.parquet", "url", "-"), false, false);
+      assertThatThrownBy(connector::init)
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessageContaining("Parquet files cannot be read from standard input");
+    }
+  }
+
+  private void write(Path dir, List<Record> records, Object... settings) throws Exception {
+    try (ParquetConnector connector = new ParquetConnector()) {
+      Object[] allSettings = Arrays.copyOf(settings, settings.length + 2);
+      allSettings[settings.length] = "maxConcurrentFiles";
+      allSettings[settings.length + 1] = 1;
+      connector.configure(settings(dir, allSettings), false, false);
+      connector.init();
+      RecordMetadata metadata = connector.getRecordMetadata();
+      for (int i = 0; i < FIELDS.length; i++) {
+        metadata.getFieldType(FIELDS[i], CQL_TYPES[i]);
+      }
+      assertThat(metadata.getFieldType(TS, DataTypes.TIMESTAMP)).isEqualTo(GenericType.INSTANT);
+      assertThat(metadata.getFieldType(PRICE, DataTypes.DECIMAL)).isEqualTo(GenericType.STRING);
+      Flux.fromIterable(records).transform(connector.write()).blockLast();
+    }
+  }
+
+  private static Config settings(Path dir, Object... settings) {
+    Object[] allSettings = new Object[settings.length + 2];
+    allSettings[0] = "url";
+    allSettings[1] = quoteJson(dir);
+    System.arraycopy(settings, 0, allSettings, 2, settings.length);
+    return TestConfigUtils.createTestConfig("dsbulk.connector.parquet", allSettings);
+  }
+
+  private static List<Record> readAll(ParquetConnector connector) {
+    return Flux.merge(connector.read())
+        .collectSortedList(Comparator.comparing(Record::getPosition))
+        .block();
+  }
+
+  private List<Record> createRecords() {
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < RECORDS; i++) {
+      Map<String, Integer> scores = new LinkedHashMap<>();
+      scores.put("a", i);
+      scores.put("b", -i);
+      records.add(
+          DefaultRecord.mapped(
+              null,
+              resource,
+              i + 1,
+              FIELDS,
+              i,
+              "name " + i,
+              i % 3 == 0
+                  ? null
+                  : new BigDecimal("1234567890.123456789").add(BigDecimal.valueOf(i)).toString(),
+              Instant.ofEpochMilli(1_600_000_000_000L + i),
+              LocalDate.ofEpochDay(18_000 + i),
+              LocalTime.ofNanoOfDay(1_000_000_123L * i),
+              new UUID(i, -i),
+              ByteBuffer.wrap(new byte[] {(byte) i, 1, 2}),
+              i % 2 == 0,
+              i / 3d,
+              (short) i,
+              i % 5 == 0 ? null : (long) i * Integer.MAX_VALUE,
+              Arrays.asList("tag" + i, "other"),
+              scores));
+    }
+    return records;
+  }
+}
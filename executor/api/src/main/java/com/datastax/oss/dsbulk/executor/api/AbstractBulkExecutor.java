@@ -21,6 +21,7 @@ import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Semaphore;
 
 /** Base class for implementations of {@link BulkExecutor}. */
@@ -40,38 +41,66 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
 
   protected final @Nullable RateLimiter rateLimiter;
 
+  protected final @Nullable ByteRateLimiter byteRateLimiter;
+
   protected final @Nullable ExecutionListener listener;
 
+  /** The executor running each statement on its own virtual thread, if enabled. */
+  protected final @Nullable ExecutorService statementExecutor;
+
   protected AbstractBulkExecutor(CqlSession session) {
-    this(session, true, DEFAULT_MAX_IN_FLIGHT_REQUESTS, DEFAULT_MAX_REQUESTS_PER_SECOND, null);
+    this(
+        session,
+        true,
+        new Semaphore(DEFAULT_MAX_IN_FLIGHT_REQUESTS),
+        DEFAULT_MAX_REQUESTS_PER_SECOND,
+        -1,
+        null,
+        false);
   }
 
   protected AbstractBulkExecutor(AbstractBulkExecutorBuilder<?> builder) {
     this(
         builder.session,
         builder.failFast,
-        builder.maxInFlightRequests,
+        builder.adaptiveLimiter != null
+            ? builder.adaptiveLimiter
+            : builder.maxInFlightRequests <= 0 ? null : new Semaphore(builder.maxInFlightRequests),
         builder.maxRequestsPerSecond,
-        builder.listener);
+        builder.maxBytesPerSecond,
+        builder.listener,
+        builder.virtualThreads);
   }
 
   private AbstractBulkExecutor(
       @NonNull CqlSession session,
       boolean failFast,
-      int maxInFlightRequests,
+      @Nullable Semaphore maxConcurrentRequests,
       int maxRequestsPerSecond,
-      @Nullable ExecutionListener listener) {
+      long maxBytesPerSecond,
+      @Nullable ExecutionListener listener,
+      boolean virtualThreads) {
     Objects.requireNonNull(session, "session cannot be null");
     this.session = session;
     this.failFast = failFast;
-    this.maxConcurrentRequests =
-        maxInFlightRequests <= 0 ? null : new Semaphore(maxInFlightRequests);
+    this.maxConcurrentRequests = maxConcurrentRequests;
     this.rateLimiter = maxRequestsPerSecond <= 0 ? null : RateLimiter.create(maxRequestsPerSecond);
+    this.byteRateLimiter =
+        maxBytesPerSecond <= 0
+            ? null
+            : new ByteRateLimiter(
+                maxBytesPerSecond,
+                session.getContext().getProtocolVersion(),
+                session.getContext().getCodecRegistry());
     this.listener = listener;
+    this.statementExecutor =
+        virtualThreads ? VirtualThreads.newVirtualThreadPerTaskExecutor("bulk-executor-") : null;
   }
 
   @Override
   public void close() {
-    // no-op
+    if (statementExecutor != null) {
+      statementExecutor.shutdown();
+    }
   }
 }
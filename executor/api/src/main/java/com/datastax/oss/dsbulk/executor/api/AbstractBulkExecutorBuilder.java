@@ -28,8 +28,18 @@ public abstract class AbstractBulkExecutorBuilder<T extends BulkExecutor>
 
   protected int maxInFlightRequests = AbstractBulkExecutor.DEFAULT_MAX_IN_FLIGHT_REQUESTS;
 
+  protected int maxInFlightRequestsPerNode = -1;
+
+  protected AdaptiveConcurrencyLimiter adaptiveLimiter;
+
   protected int maxRequestsPerSecond = AbstractBulkExecutor.DEFAULT_MAX_REQUESTS_PER_SECOND;
 
+  protected long maxBytesPerSecond = -1;
+
+  protected boolean nonBlockingThrottling = false;
+
+  protected boolean virtualThreads = false;
+
   protected ExecutionListener listener;
 
   protected AbstractBulkExecutorBuilder(CqlSession session) {
@@ -50,6 +60,22 @@ public abstract class AbstractBulkExecutorBuilder<T extends BulkExecutor>
     return this;
   }
 
+  @Override
+  @SuppressWarnings("UnusedReturnValue")
+  public AbstractBulkExecutorBuilder<T> withMaxInFlightRequestsPerNode(
+      int maxInFlightRequestsPerNode) {
+    this.maxInFlightRequestsPerNode = maxInFlightRequestsPerNode;
+    return this;
+  }
+
+  @Override
+  @SuppressWarnings("UnusedReturnValue")
+  public AbstractBulkExecutorBuilder<T> withAdaptiveMaxInFlightRequests(
+      AdaptiveConcurrencyLimiter limiter) {
+    this.adaptiveLimiter = limiter;
+    return this;
+  }
+
   @Override
   @SuppressWarnings("UnusedReturnValue")
   public AbstractBulkExecutorBuilder<T> withMaxRequestsPerSecond(int maxRequestsPerSecond) {
@@ -57,6 +83,27 @@ public abstract class AbstractBulkExecutorBuilder<T extends BulkExecutor>
     return this;
   }
 
+  @Override
+  @SuppressWarnings("UnusedReturnValue")
+  public AbstractBulkExecutorBuilder<T> withMaxBytesPerSecond(long maxBytesPerSecond) {
+    this.maxBytesPerSecond = maxBytesPerSecond;
+    return this;
+  }
+
+  @Override
+  @SuppressWarnings("UnusedReturnValue")
+  public AbstractBulkExecutorBuilder<T> withNonBlockingThrottling() {
+    this.nonBlockingThrottling = true;
+    return this;
+  }
+
+  @Override
+  @SuppressWarnings("UnusedReturnValue")
+  public AbstractBulkExecutorBuilder<T> withVirtualThreads() {
+    this.virtualThreads = true;
+    return this;
+  }
+
   @Override
   @SuppressWarnings("UnusedReturnValue")
   public AbstractBulkExecutorBuilder<T> withExecutionListener(ExecutionListener listener) {
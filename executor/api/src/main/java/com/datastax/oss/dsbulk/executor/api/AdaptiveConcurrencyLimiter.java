@@ -0,0 +1,141 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.connection.BusyConnectionException;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A {@link Semaphore} regulating the amount of in-flight requests, whose number of permits – the
+ * limit – adapts to the load of the cluster, following an additive-increase/multiplicative-decrease
+ * (AIMD) algorithm.
+ *
+ * <p>The limit is decreased by 10% when a request fails because the cluster is overloaded or timed
+ * out, or when the latency of requests grows above twice its long-term average, which is a sign
+ * that requests are queuing up on the replicas, e.g. because of compactions. The limit is then left
+ * alone until the requests that were in flight at the time complete, so that a burst of failures
+ * only counts as one signal. Otherwise, the limit grows by one each time as many requests as the
+ * limit allows complete successfully, provided that at least half of the permits are in use; this
+ * prevents the limit from growing indefinitely when the limiter is not the bottleneck.
+ *
+ * <p>Permits must be released with {@link #release(long, Throwable)}, which also feeds the
+ * algorithm; plain {@link #release()} calls release permits without adapting the limit.
+ */
+public class AdaptiveConcurrencyLimiter extends Semaphore {
+
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private static final double LATENCY_TOLERANCE = 2;
+
+  private static final double RECENT_LATENCY_WEIGHT = 0.1;
+
+  private static final double AVERAGE_LATENCY_WEIGHT = 0.001;
+
+  private final int minLimit;
+  private final int maxLimit;
+
+  private volatile int limit;
+
+  // The following fields are guarded by this.
+  private int successes;
+  private int completionsSinceBackoff;
+  private double recentLatency = -1;
+  private double averageLatency = -1;
+
+  /**
+   * Creates a new limiter. The limit is initially the maximum limit.
+   *
+   * @param minLimit the minimum limit, must be strictly positive.
+   * @param maxLimit the maximum limit, must be greater than or equal to {@code minLimit}.
+   */
+  public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit) {
+    super(maxLimit);
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException(
+          String.format("Invalid limits: expecting 0 < %d <= %d", minLimit, maxLimit));
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    limit = maxLimit;
+    completionsSinceBackoff = maxLimit;
+  }
+
+  /** @return the current limit, that is, the current maximum number of in-flight requests. */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Releases the permit of a completed request, and adapts the limit according to its outcome.
+   *
+   * @param latencyNanos the latency of the request, in nanoseconds.
+   * @param error the error the request failed with, or null if it succeeded.
+   */
+  public void release(long latencyNanos, @Nullable Throwable error) {
+    synchronized (this) {
+      if (completionsSinceBackoff < limit) {
+        completionsSinceBackoff++;
+      }
+      if (error == null) {
+        if (recentLatency == -1) {
+          recentLatency = averageLatency = latencyNanos;
+        } else {
+          recentLatency += RECENT_LATENCY_WEIGHT * (latencyNanos - recentLatency);
+          averageLatency += AVERAGE_LATENCY_WEIGHT * (latencyNanos - averageLatency);
+        }
+        if (recentLatency > averageLatency * LATENCY_TOLERANCE) {
+          backoff();
+        } else if (++successes >= limit) {
+          successes = 0;
+          if (limit < maxLimit && (limit - availablePermits()) * 2 >= limit) {
+            limit++;
+            super.release();
+          }
+        }
+      } else if (isOverloaded(error)) {
+        backoff();
+      }
+    }
+    super.release();
+  }
+
+  private void backoff() {
+    if (completionsSinceBackoff >= limit) {
+      int newLimit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+      reducePermits(limit - newLimit);
+      limit = newLimit;
+      completionsSinceBackoff = 0;
+      successes = 0;
+    }
+  }
+
+  private static boolean isOverloaded(Throwable error) {
+    if (error instanceof CompletionException && error.getCause() != null) {
+      error = error.getCause();
+    }
+    return error instanceof OverloadedException
+        || error instanceof WriteTimeoutException
+        || error instanceof ReadTimeoutException
+        || error instanceof DriverTimeoutException
+        || error instanceof BusyConnectionException;
+  }
+}
@@ -67,6 +67,42 @@ public interface BulkExecutorBuilder<T extends BulkExecutor> {
   @SuppressWarnings("UnusedReturnValue")
   BulkExecutorBuilder<T> withMaxInFlightRequests(int maxInFlightRequests);
 
+  /**
+   * Sets the maximum number of in-flight requests per node. Each statement counts against the limit
+   * of each of its replicas in the local datacenter, as computed from the statement's routing
+   * information; statements whose replicas cannot be computed are only subject to the global limit.
+   * If the limit of a replica is reached, the statements involving that replica wait, without
+   * blocking any thread, until the number of in-flight requests involving that replica drops below
+   * the threshold; statements bound for other replicas are executed in the meantime. A read
+   * statement counts against the limit until all its pages have been emitted.
+   *
+   * <p>This prevents a slow replica from using up all the permits of the global limit set with
+   * {@link #withMaxInFlightRequests(int)}, to the detriment of requests bound for other replicas.
+   * The default is to not limit in-flight requests per node. Setting this option to any negative
+   * value will disable it. Implementations that do not support this option ignore it.
+   *
+   * @param maxInFlightRequestsPerNode the maximum number of in-flight requests per node.
+   * @return this builder (for method chaining).
+   */
+  @SuppressWarnings("UnusedReturnValue")
+  BulkExecutorBuilder<T> withMaxInFlightRequestsPerNode(int maxInFlightRequestsPerNode);
+
+  /**
+   * Sets an {@link AdaptiveConcurrencyLimiter} to regulate the amount of in-flight requests. The
+   * maximum number of in-flight requests then varies at runtime, according to the latencies and
+   * errors observed, between the limiter's minimum and maximum limits. If the current limit is
+   * reached, the executor will block until the number of in-flight requests drops below it.
+   * <em>This feature should not be used in a fully non-blocking application</em>.
+   *
+   * <p>When set, the limiter supersedes the limit set with {@link #withMaxInFlightRequests(int)}.
+   * Limiters should not be shared between executors.
+   *
+   * @param limiter the limiter to use.
+   * @return this builder (for method chaining).
+   */
+  @SuppressWarnings("UnusedReturnValue")
+  BulkExecutorBuilder<T> withAdaptiveMaxInFlightRequests(AdaptiveConcurrencyLimiter limiter);
+
   /**
    * Sets the maximum number of concurrent requests per second. If that limit is reached, the
    * executor will block until the number of requests per second drops below the threshold. <em>This
@@ -83,6 +119,62 @@ public interface BulkExecutorBuilder<T extends BulkExecutor> {
   @SuppressWarnings("UnusedReturnValue")
   BulkExecutorBuilder<T> withMaxRequestsPerSecond(int maxRequestsPerSecond);
 
+  /**
+   * Sets the maximum number of bytes per second. Writes are charged the size of the data they
+   * contain, and reads the size of the rows they return, as computed by {@link
+   * com.datastax.oss.dsbulk.sampler.DataSizes DataSizes}. If that limit is reached, the executor
+   * will block until the number of bytes per second drops below the threshold. <em>This feature
+   * should not be used in a fully non-blocking application</em>.
+   *
+   * <p>This limit applies in addition to the one set with {@link #withMaxRequestsPerSecond(int)}.
+   * Contrary to the latter, it takes the size of statements into account, which makes it better
+   * suited to cap the network and disk pressure on the cluster. The default is to not limit the
+   * number of bytes per second. Setting this option to any negative value will disable it.
+   *
+   * @param maxBytesPerSecond the maximum number of bytes per second.
+   * @return this builder (for method chaining).
+   */
+  @SuppressWarnings("UnusedReturnValue")
+  BulkExecutorBuilder<T> withMaxBytesPerSecond(long maxBytesPerSecond);
+
+  /**
+   * Regulates the amount of in-flight writes and the number of writes per second without blocking
+   * threads. Instead of parking the threads that subscribe to writes until the limits set with
+   * {@link #withMaxInFlightRequests(int)} and {@link #withMaxRequestsPerSecond(int)} allow the
+   * writes to proceed, the executor parks the writes themselves, and resumes them when the limits
+   * allow. Writes and reads are then regulated separately.
+   *
+   * <p>Implementations that do not support non-blocking throttling ignore this option. Since the
+   * other limits can only be enforced by blocking, implementations that support it reject, when
+   * building the executor, a {@linkplain #withMaxBytesPerSecond(long) maximum number of bytes per
+   * second} or an {@linkplain #withAdaptiveMaxInFlightRequests(AdaptiveConcurrencyLimiter) adaptive
+   * limit} of in-flight requests. The {@linkplain #withMaxInFlightRequestsPerNode(int) maximum
+   * number of in-flight requests per node} never blocks, and can be combined with this option.
+   *
+   * @return this builder (for method chaining).
+   */
+  @SuppressWarnings("UnusedReturnValue")
+  BulkExecutorBuilder<T> withNonBlockingThrottling();
+
+  /**
+   * Executes each statement on its own virtual thread.
+   *
+   * <p>By default, statements are executed on the thread that subscribes to them, and this thread
+   * blocks whenever the limits set with {@link #withMaxInFlightRequests(int)}, {@link
+   * #withMaxRequestsPerSecond(int)} or {@link #withMaxBytesPerSecond(long)} are reached. With this
+   * option, the executor hands each statement over to a new virtual thread instead: waiting for
+   * permits then only parks a virtual thread, which is cheap, and the subscribing thread is never
+   * blocked by the executor.
+   *
+   * <p>Virtual threads require Java 21 or higher; {@link #build()} throws an {@link
+   * UnsupportedOperationException} if the current runtime does not support them, see {@link
+   * VirtualThreads#isSupported()}. Implementations that do not support this option ignore it.
+   *
+   * @return this builder (for method chaining).
+   */
+  @SuppressWarnings("UnusedReturnValue")
+  BulkExecutorBuilder<T> withVirtualThreads();
+
   /**
    * Sets an optional {@link ExecutionListener}.
    *
@@ -0,0 +1,88 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
+import com.datastax.oss.dsbulk.sampler.DataSizes;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Regulates throughput in bytes per second.
+ *
+ * <p>Statements are charged the size of the data they contain, and rows the size of the data they
+ * hold, as computed by {@link DataSizes}; a batch of wide rows therefore weighs more than a single
+ * small insert. Note that these sizes do not include the overhead of the native protocol.
+ */
+public class ByteRateLimiter {
+
+  private final RateLimiter rateLimiter;
+  private final ProtocolVersion protocolVersion;
+  private final CodecRegistry codecRegistry;
+
+  /**
+   * Creates a new limiter.
+   *
+   * @param maxBytesPerSecond the maximum number of bytes per second, must be strictly positive.
+   * @param protocolVersion the protocol version to use to compute statement sizes.
+   * @param codecRegistry the codec registry to use to compute statement sizes.
+   */
+  public ByteRateLimiter(
+      long maxBytesPerSecond,
+      @NonNull ProtocolVersion protocolVersion,
+      @NonNull CodecRegistry codecRegistry) {
+    if (maxBytesPerSecond < 1) {
+      throw new IllegalArgumentException(
+          String.format("Invalid rate: expecting 0 < %d", maxBytesPerSecond));
+    }
+    rateLimiter = RateLimiter.create(maxBytesPerSecond);
+    this.protocolVersion = protocolVersion;
+    this.codecRegistry = codecRegistry;
+  }
+
+  /** @return the maximum number of bytes per second. */
+  public double getRate() {
+    return rateLimiter.getRate();
+  }
+
+  /**
+   * Charges the data size of the given statement, blocking until it can be executed.
+   *
+   * @param statement the statement about to be executed.
+   */
+  public void acquire(@NonNull Statement<?> statement) {
+    acquire(DataSizes.getDataSize(statement, protocolVersion, codecRegistry));
+  }
+
+  /**
+   * Charges the data size of the given row, blocking until it can be emitted.
+   *
+   * @param row the row about to be emitted.
+   */
+  public void acquire(@NonNull Row row) {
+    acquire(DataSizes.getDataSize(row));
+  }
+
+  private void acquire(long size) {
+    // sizes are bounded by the maximum frame size, the cap is only a safeguard
+    if (size > 0) {
+      rateLimiter.acquire((int) Math.min(size, Integer.MAX_VALUE));
+    }
+  }
+}
@@ -23,6 +23,7 @@ import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -50,6 +51,8 @@ public class WritesReportingExecutionListener extends AbstractMetricsReportingEx
 
   private static final String REPORTER_NAME = "bulk-execution-writes-reporter";
 
+  private static final String BYTES_LIMIT = "executor/bytes/limit";
+
   /**
    * Creates a new builder for this class.
    *
@@ -82,6 +85,7 @@ public class WritesReportingExecutionListener extends AbstractMetricsReportingEx
   private final Counter successful;
   private final Counter inFlight;
   @Nullable private final Meter sent;
+  private final MetricRegistry registry;
   private final LogSink sink;
 
   /**
@@ -122,6 +126,7 @@ public class WritesReportingExecutionListener extends AbstractMetricsReportingEx
     failed = delegate.getFailedWritesCounter();
     inFlight = delegate.getInFlightRequestsCounter();
     sent = delegate.getBytesSentMeter().orElse(null);
+    registry = delegate.getRegistry();
   }
 
   private WritesReportingExecutionListener(
@@ -142,6 +147,7 @@ public class WritesReportingExecutionListener extends AbstractMetricsReportingEx
     failed = delegate.getFailedWritesCounter();
     inFlight = delegate.getInFlightRequestsCounter();
     sent = delegate.getBytesSentMeter().orElse(null);
+    registry = delegate.getRegistry();
   }
 
   @Override
@@ -174,19 +180,28 @@ public class WritesReportingExecutionListener extends AbstractMetricsReportingEx
               achieved));
     }
     double throughput = timer.getMeanRate();
+    String throughputLine;
     if (sent != null) {
       double sizeSent = sent.getMeanRate();
-      sink.accept(
+      throughputLine =
           String.format(
               throughputMessage,
               convertRate(throughput),
               rateUnit,
               convertRate(sizeSent / BYTES_PER_MB),
               rateUnit,
-              throughput == 0 ? 0 : (sizeSent / BYTES_PER_KB) / throughput));
+              throughput == 0 ? 0 : (sizeSent / BYTES_PER_KB) / throughput);
     } else {
-      sink.accept(String.format(throughputMessage, convertRate(throughput), rateUnit));
+      throughputLine = String.format(throughputMessage, convertRate(throughput), rateUnit);
+    }
+    // the byte rate limit is registered by the executor, if any
+    Gauge<?> bytesLimit = registry.getGauges().get(BYTES_LIMIT);
+    if (bytesLimit != null) {
+      double limit = ((Number) bytesLimit.getValue()).doubleValue();
+      throughputLine +=
+          String.format(", limited to %,.2f mb/%s", convertRate(limit / BYTES_PER_MB), rateUnit);
     }
+    sink.accept(throughputLine);
     sink.accept(
         String.format(
             latencyMessage,
@@ -19,6 +19,7 @@ import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
 import com.datastax.oss.dsbulk.executor.api.AbstractBulkExecutor;
+import com.datastax.oss.dsbulk.executor.api.ByteRateLimiter;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import com.datastax.oss.dsbulk.executor.api.subscription.ReadResultSubscription;
@@ -42,6 +43,7 @@ public class ReadResultPublisher implements Publisher<ReadResult> {
   private final @Nullable ExecutionListener listener;
   private final @Nullable Semaphore maxConcurrentRequests;
   private final @Nullable RateLimiter rateLimiter;
+  private final @Nullable ByteRateLimiter byteRateLimiter;
   private final boolean failFast;
 
   /**
@@ -75,11 +77,35 @@ public class ReadResultPublisher implements Publisher<ReadResult> {
       @Nullable ExecutionListener listener,
       @Nullable Semaphore maxConcurrentRequests,
       @Nullable RateLimiter rateLimiter) {
+    this(statement, session, failFast, listener, maxConcurrentRequests, rateLimiter, null);
+  }
+
+  /**
+   * Creates a new {@link ReadResultPublisher}.
+   *
+   * @param statement The {@link Statement} to execute.
+   * @param session The {@link CqlSession} to use.
+   * @param failFast whether to fail-fast in case of error.
+   * @param listener The {@link ExecutionListener} to use.
+   * @param maxConcurrentRequests The {@link Semaphore} to use to regulate the amount of in-flight
+   *     requests.
+   * @param rateLimiter The {@link RateLimiter} to use to regulate throughput.
+   * @param byteRateLimiter The {@link ByteRateLimiter} to use to regulate throughput in bytes.
+   */
+  public ReadResultPublisher(
+      @NonNull Statement<?> statement,
+      @NonNull CqlSession session,
+      boolean failFast,
+      @Nullable ExecutionListener listener,
+      @Nullable Semaphore maxConcurrentRequests,
+      @Nullable RateLimiter rateLimiter,
+      @Nullable ByteRateLimiter byteRateLimiter) {
     this.statement = statement;
     this.session = session;
     this.listener = listener;
     this.maxConcurrentRequests = maxConcurrentRequests;
     this.rateLimiter = rateLimiter;
+    this.byteRateLimiter = byteRateLimiter;
     this.failFast = failFast;
   }
 
@@ -92,7 +118,13 @@ public class ReadResultPublisher implements Publisher<ReadResult> {
     // of the results.
     ReadResultSubscription subscription =
         new ReadResultSubscription(
-            subscriber, statement, listener, maxConcurrentRequests, rateLimiter, failFast);
+            subscriber,
+            statement,
+            listener,
+            maxConcurrentRequests,
+            rateLimiter,
+            byteRateLimiter,
+            failFast);
     try {
       subscriber.onSubscribe(subscription);
       // must be called after onSubscribe
@@ -20,6 +20,7 @@ import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.shaded.guava.common.collect.AbstractIterator;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
+import com.datastax.oss.dsbulk.executor.api.ByteRateLimiter;
 import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionContext;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
@@ -40,8 +41,16 @@ public class ContinuousReadResultSubscription
       @Nullable ExecutionListener listener,
       @Nullable Semaphore maxConcurrentRequests,
       @Nullable RateLimiter rateLimiter,
+      @Nullable ByteRateLimiter byteRateLimiter,
       boolean failFast) {
-    super(subscriber, statement, listener, maxConcurrentRequests, rateLimiter, failFast);
+    super(
+        subscriber,
+        statement,
+        listener,
+        maxConcurrentRequests,
+        rateLimiter,
+        byteRateLimiter,
+        failFast);
   }
 
   @Override
@@ -101,6 +110,9 @@ public class ContinuousReadResultSubscription
     if (rateLimiter != null) {
       rateLimiter.acquire();
     }
+    if (byteRateLimiter != null) {
+      result.getRow().ifPresent(byteRateLimiter::acquire);
+    }
   }
 
   @Override
@@ -20,6 +20,7 @@ import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.shaded.guava.common.collect.AbstractIterator;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
+import com.datastax.oss.dsbulk.executor.api.ByteRateLimiter;
 import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionContext;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
@@ -39,8 +40,16 @@ public class ReadResultSubscription extends ResultSubscription<ReadResult, Async
       @Nullable ExecutionListener listener,
       @Nullable Semaphore maxConcurrentRequests,
       @Nullable RateLimiter rateLimiter,
+      @Nullable ByteRateLimiter byteRateLimiter,
       boolean failFast) {
-    super(subscriber, statement, listener, maxConcurrentRequests, rateLimiter, failFast);
+    super(
+        subscriber,
+        statement,
+        listener,
+        maxConcurrentRequests,
+        rateLimiter,
+        byteRateLimiter,
+        failFast);
   }
 
   @Override
@@ -95,5 +104,8 @@ public class ReadResultSubscription extends ResultSubscription<ReadResult, Async
     if (rateLimiter != null) {
       rateLimiter.acquire();
     }
+    if (byteRateLimiter != null) {
+      result.getRow().ifPresent(byteRateLimiter::acquire);
+    }
   }
 }
@@ -21,6 +21,8 @@ import com.datastax.oss.driver.api.core.cql.BatchStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
+import com.datastax.oss.dsbulk.executor.api.AdaptiveConcurrencyLimiter;
+import com.datastax.oss.dsbulk.executor.api.ByteRateLimiter;
 import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
 import com.datastax.oss.dsbulk.executor.api.listener.DefaultExecutionContext;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionContext;
@@ -78,6 +80,7 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
   final @Nullable ExecutionListener listener;
   private final @Nullable Semaphore maxConcurrentRequests;
   final @Nullable RateLimiter rateLimiter;
+  final @Nullable ByteRateLimiter byteRateLimiter;
   private final boolean failFast;
 
   /** The number of writes in the batch. 1 for other types of statement. */
@@ -147,12 +150,14 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
       @Nullable ExecutionListener listener,
       @Nullable Semaphore maxConcurrentRequests,
       @Nullable RateLimiter rateLimiter,
+      @Nullable ByteRateLimiter byteRateLimiter,
       boolean failFast) {
     this.statement = statement;
     this.subscriber = subscriber;
     this.listener = listener;
     this.maxConcurrentRequests = maxConcurrentRequests;
     this.rateLimiter = rateLimiter;
+    this.byteRateLimiter = byteRateLimiter;
     this.failFast = failFast;
     if (statement instanceof BatchStatement) {
       batchSize = ((BatchStatement) statement).size();
@@ -348,10 +353,13 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
         // update maxConcurrentRequests.
         .whenComplete(
             (rs, t) -> {
-              if (maxConcurrentRequests != null) {
+              local.stop();
+              if (maxConcurrentRequests instanceof AdaptiveConcurrencyLimiter) {
+                ((AdaptiveConcurrencyLimiter) maxConcurrentRequests)
+                    .release(local.elapsedTimeNanos(), t);
+              } else if (maxConcurrentRequests != null) {
                 maxConcurrentRequests.release();
               }
-              local.stop();
               if (t == null) {
                 onRequestSuccessful(rs, local);
               } else {
@@ -18,6 +18,7 @@ package com.datastax.oss.dsbulk.executor.api.subscription;
 import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
+import com.datastax.oss.dsbulk.executor.api.ByteRateLimiter;
 import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionContext;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
@@ -38,8 +39,16 @@ public class WriteResultSubscription extends ResultSubscription<WriteResult, Asy
       @Nullable ExecutionListener listener,
       @Nullable Semaphore maxConcurrentRequests,
       @Nullable RateLimiter rateLimiter,
+      @Nullable ByteRateLimiter byteRateLimiter,
       boolean failFast) {
-    super(subscriber, statement, listener, maxConcurrentRequests, rateLimiter, failFast);
+    super(
+        subscriber,
+        statement,
+        listener,
+        maxConcurrentRequests,
+        rateLimiter,
+        byteRateLimiter,
+        failFast);
   }
 
   @Override
@@ -59,6 +68,9 @@ public class WriteResultSubscription extends ResultSubscription<WriteResult, Asy
     if (rateLimiter != null) {
       rateLimiter.acquire(batchSize);
     }
+    if (byteRateLimiter != null) {
+      byteRateLimiter.acquire(statement);
+    }
     super.onBeforeRequestStarted();
   }
 
@@ -0,0 +1,138 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.SyntaxError;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long LATENCY = 1_000_000;
+
+  @Test
+  void should_start_at_max_limit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+    assertThat(limiter.getLimit()).isEqualTo(100);
+    assertThat(limiter.availablePermits()).isEqualTo(100);
+  }
+
+  @Test
+  void should_reject_invalid_limits() {
+    assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(0, 100))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid limits: expecting 0 < 0 <= 100");
+    assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(10, 5))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid limits: expecting 0 < 10 <= 5");
+  }
+
+  @Test
+  void should_back_off_once_per_window_when_overloaded() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+    complete(limiter, 1, new OverloadedException(mock(Node.class)));
+    assertThat(limiter.getLimit()).isEqualTo(90);
+    assertThat(limiter.availablePermits()).isEqualTo(90);
+    // requests that were in flight when the limit was decreased do not count
+    complete(limiter, 89, new CompletionException(new DriverTimeoutException("timeout")));
+    assertThat(limiter.getLimit()).isEqualTo(90);
+    complete(limiter, 1, new DriverTimeoutException("timeout"));
+    assertThat(limiter.getLimit()).isEqualTo(81);
+    assertThat(limiter.availablePermits()).isEqualTo(81);
+  }
+
+  @Test
+  void should_not_back_off_on_other_errors() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+    complete(limiter, 100, new SyntaxError(mock(Node.class), "syntax error"));
+    assertThat(limiter.getLimit()).isEqualTo(100);
+  }
+
+  @Test
+  void should_not_back_off_below_min_limit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 12);
+    complete(limiter, 12, new DriverTimeoutException("timeout"));
+    complete(limiter, 12, new DriverTimeoutException("timeout"));
+    assertThat(limiter.getLimit()).isEqualTo(10);
+    assertThat(limiter.availablePermits()).isEqualTo(10);
+  }
+
+  @Test
+  void should_back_off_when_latency_rises() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+    for (int i = 0; i < 1000; i++) {
+      complete(limiter, LATENCY, null);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(100);
+    for (int i = 0; i < 10; i++) {
+      complete(limiter, LATENCY * 10, null);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(90);
+  }
+
+  @Test
+  void should_grow_when_limit_is_used() throws InterruptedException {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+    complete(limiter, 90, new DriverTimeoutException("timeout"));
+    assertThat(limiter.getLimit()).isEqualTo(90);
+    limiter.acquire(90);
+    for (int i = 0; i < 90; i++) {
+      limiter.release(LATENCY, null);
+      limiter.acquire();
+    }
+    assertThat(limiter.getLimit()).isEqualTo(91);
+    assertThat(limiter.availablePermits()).isEqualTo(1);
+  }
+
+  @Test
+  void should_not_grow_when_limit_is_not_used() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+    complete(limiter, 90, new DriverTimeoutException("timeout"));
+    complete(limiter, 1000, null);
+    assertThat(limiter.getLimit()).isEqualTo(90);
+  }
+
+  @Test
+  void should_not_grow_above_max_limit() throws InterruptedException {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+    limiter.acquire(100);
+    for (int i = 0; i < 100; i++) {
+      limiter.release(LATENCY, null);
+      limiter.acquire();
+    }
+    assertThat(limiter.getLimit()).isEqualTo(100);
+    assertThat(limiter.availablePermits()).isEqualTo(0);
+  }
+
+  private static void complete(AdaptiveConcurrencyLimiter limiter, int count, Throwable error) {
+    for (int i = 0; i < count; i++) {
+      limiter.acquireUninterruptibly();
+      limiter.release(LATENCY, error);
+    }
+  }
+
+  private static void complete(AdaptiveConcurrencyLimiter limiter, long latency, Throwable error) {
+    limiter.acquireUninterruptibly();
+    limiter.release(latency, error);
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ByteRateLimiterTest {
+
+  @Test
+  void should_reject_invalid_rate() {
+    assertThatThrownBy(() -> new ByteRateLimiter(0, ProtocolVersion.DEFAULT, CodecRegistry.DEFAULT))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid rate: expecting 0 < 0");
+  }
+
+  @Test
+  void should_not_throttle_statements_without_data() {
+    ByteRateLimiter limiter =
+        new ByteRateLimiter(1, ProtocolVersion.DEFAULT, CodecRegistry.DEFAULT);
+    long start = System.nanoTime();
+    for (int i = 0; i < 10; i++) {
+      limiter.acquire(SimpleStatement.newInstance("DELETE"));
+    }
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+  }
+
+  @Test
+  void should_charge_statements_their_data_size() {
+    ByteRateLimiter limiter =
+        new ByteRateLimiter(1000, ProtocolVersion.DEFAULT, CodecRegistry.DEFAULT);
+    SimpleStatement insert = newInsert(250);
+    BatchStatement batch = BatchStatement.newInstance(DefaultBatchType.UNLOGGED, insert, insert);
+    long start = System.nanoTime();
+    // the first acquisition is free, but the next one has to wait for the 500 bytes of the batch
+    limiter.acquire(batch);
+    limiter.acquire(insert);
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThan(400);
+  }
+
+  private static SimpleStatement newInsert(int size) {
+    return SimpleStatement.newInstance("INSERT", ByteBuffer.allocate(size));
+  }
+}
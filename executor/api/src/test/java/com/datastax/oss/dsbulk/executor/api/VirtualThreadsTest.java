@@ -0,0 +1,52 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadsTest {
+
+  @Test
+  void should_run_tasks_on_new_virtual_threads() throws Exception {
+    assumeTrue(VirtualThreads.isSupported());
+    ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor("test-");
+    try {
+      Future<Thread> first = executor.submit(Thread::currentThread);
+      Future<Thread> second = executor.submit(Thread::currentThread);
+      assertThat(first.get(1, TimeUnit.SECONDS).getName()).startsWith("test-");
+      assertThat(first.get()).isNotSameAs(second.get(1, TimeUnit.SECONDS));
+      assertThat(first.get().isDaemon()).isTrue();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void should_fail_when_virtual_threads_not_supported() {
+    assumeFalse(VirtualThreads.isSupported());
+    assertThatThrownBy(() -> VirtualThreads.newVirtualThreadPerTaskExecutor("test-"))
+        .isInstanceOf(UnsupportedOperationException.class)
+        .hasMessageStartingWith("Virtual threads require Java 21 or higher");
+  }
+}
@@ -27,6 +27,7 @@ import com.datastax.oss.dsbulk.tests.logging.LogInterceptor;
 import java.util.Optional;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -118,4 +119,26 @@ class WritesReportingExecutionListenerTest extends AbstractReportingExecutionLis
       assertThat(interceptor).hasMessageContaining(line);
     }
   }
+
+  @Test
+  void should_report_bytes_limit() {
+    Logger logger = LoggerFactory.getLogger(WritesReportingExecutionListener.class);
+    delegate.getRegistry().gauge("executor/bytes/limit", () -> () -> 2d * 1024d * 1024d);
+    when(delegate.getBytesSentMeter()).thenReturn(Optional.of(bytesSent));
+    when(bytesSent.getMeanRate()).thenReturn(1024d * 1024d);
+
+    WritesReportingExecutionListener listener =
+        WritesReportingExecutionListener.builder()
+            .convertDurationsTo(MILLISECONDS)
+            .convertRatesTo(SECONDS)
+            .extractingMetricsFrom(delegate)
+            .withLogSink(LogSink.buildFrom(logger::isDebugEnabled, logger::debug))
+            .build();
+
+    listener.report();
+
+    assertThat(interceptor)
+        .hasMessageContaining(
+            "Throughput: 1,000 writes/second, 1.00 mb/second (1.024 kb/write), limited to 2.00 mb/second");
+  }
 }
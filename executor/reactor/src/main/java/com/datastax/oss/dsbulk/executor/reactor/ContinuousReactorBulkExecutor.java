@@ -20,8 +20,10 @@ import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.dsbulk.executor.api.BulkExecutor;
 import com.datastax.oss.dsbulk.executor.api.publisher.ContinuousReadResultPublisher;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.Objects;
 import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * An implementation of {@link BulkExecutor} using <a href="https://projectreactor.io">Reactor</a>,
@@ -59,16 +61,30 @@ public class ContinuousReactorBulkExecutor extends DefaultReactorBulkExecutor
     this.cqlSession = cqlSession;
   }
 
-  ContinuousReactorBulkExecutor(ContinuousReactorBulkExecutorBuilder builder) {
-    super(builder);
+  ContinuousReactorBulkExecutor(
+      ContinuousReactorBulkExecutorBuilder builder,
+      @Nullable NodeConcurrencyLimiter maxConcurrentRequestsPerNode,
+      @Nullable Scheduler throttlingScheduler) {
+    super(builder, null, null, maxConcurrentRequestsPerNode, throttlingScheduler);
     this.cqlSession = builder.cqlSession;
   }
 
   @Override
   public Flux<ReadResult> readReactive(Statement<?> statement) {
     Objects.requireNonNull(statement);
-    return Flux.from(
-        new ContinuousReadResultPublisher(
-            statement, cqlSession, failFast, listener, maxConcurrentRequests, rateLimiter));
+    Flux<ReadResult> read =
+        Flux.from(
+            new ContinuousReadResultPublisher(
+                statement,
+                cqlSession,
+                failFast,
+                listener,
+                maxConcurrentRequests,
+                rateLimiter,
+                byteRateLimiter));
+    if (maxConcurrentRequestsPerNode != null) {
+      read = maxConcurrentRequestsPerNode.limit(statement, read);
+    }
+    return statementScheduler == null ? read : read.subscribeOn(statementScheduler);
   }
 }
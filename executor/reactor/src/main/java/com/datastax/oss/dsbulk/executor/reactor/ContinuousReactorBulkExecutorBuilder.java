@@ -17,6 +17,7 @@ package com.datastax.oss.dsbulk.executor.reactor;
 
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.dsbulk.executor.api.AbstractBulkExecutorBuilder;
+import reactor.core.scheduler.Scheduler;
 
 /** A builder for {@link ContinuousReactorBulkExecutor} instances. */
 public class ContinuousReactorBulkExecutorBuilder
@@ -31,6 +32,13 @@ public class ContinuousReactorBulkExecutorBuilder
 
   @Override
   public ContinuousReactorBulkExecutor build() {
-    return new ContinuousReactorBulkExecutor(this);
+    if (maxInFlightRequestsPerNode <= 0) {
+      return new ContinuousReactorBulkExecutor(this, null, null);
+    }
+    Scheduler throttlingScheduler = DefaultReactorBulkExecutorBuilder.newThrottlingScheduler();
+    return new ContinuousReactorBulkExecutor(
+        this,
+        new NodeConcurrencyLimiter(cqlSession, maxInFlightRequestsPerNode, throttlingScheduler),
+        throttlingScheduler);
   }
 }
@@ -16,6 +16,7 @@
 package com.datastax.oss.dsbulk.executor.reactor;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.dsbulk.executor.api.AbstractBulkExecutor;
@@ -26,6 +27,7 @@ import com.datastax.oss.dsbulk.executor.api.publisher.ReadResultPublisher;
 import com.datastax.oss.dsbulk.executor.api.publisher.WriteResultPublisher;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import com.datastax.oss.dsbulk.executor.api.result.WriteResult;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
@@ -33,6 +35,8 @@ import java.util.stream.Stream;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * An implementation of {@link BulkExecutor} using <a href="https://projectreactor.io">Reactor</a>.
@@ -40,6 +44,18 @@ import reactor.core.publisher.Mono;
 public class DefaultReactorBulkExecutor extends AbstractBulkExecutor
     implements ReactorBulkExecutor {
 
+  private final @Nullable NonBlockingConcurrencyLimiter writeConcurrencyLimiter;
+
+  private final @Nullable NonBlockingRateLimiter writeRateLimiter;
+
+  protected final @Nullable NodeConcurrencyLimiter maxConcurrentRequestsPerNode;
+
+  /** The scheduler resuming throttled statements, if any throttling is done without blocking. */
+  private final @Nullable Scheduler throttlingScheduler;
+
+  /** The scheduler subscribing to each statement on its own virtual thread, if enabled. */
+  protected final @Nullable Scheduler statementScheduler;
+
   /**
    * Creates a new builder of {@link DefaultReactorBulkExecutor} instances.
    *
@@ -61,10 +77,38 @@ public class DefaultReactorBulkExecutor extends AbstractBulkExecutor
    */
   public DefaultReactorBulkExecutor(CqlSession session) {
     super(session);
+    writeConcurrencyLimiter = null;
+    writeRateLimiter = null;
+    maxConcurrentRequestsPerNode = null;
+    throttlingScheduler = null;
+    statementScheduler = null;
   }
 
   DefaultReactorBulkExecutor(AbstractBulkExecutorBuilder builder) {
+    this(builder, null, null, null, null);
+  }
+
+  DefaultReactorBulkExecutor(
+      AbstractBulkExecutorBuilder builder,
+      @Nullable NonBlockingConcurrencyLimiter writeConcurrencyLimiter,
+      @Nullable NonBlockingRateLimiter writeRateLimiter,
+      @Nullable NodeConcurrencyLimiter maxConcurrentRequestsPerNode,
+      @Nullable Scheduler throttlingScheduler) {
     super(builder);
+    this.writeConcurrencyLimiter = writeConcurrencyLimiter;
+    this.writeRateLimiter = writeRateLimiter;
+    this.maxConcurrentRequestsPerNode = maxConcurrentRequestsPerNode;
+    this.throttlingScheduler = throttlingScheduler;
+    statementScheduler =
+        statementExecutor == null ? null : Schedulers.fromExecutorService(statementExecutor);
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    if (throttlingScheduler != null) {
+      throttlingScheduler.dispose();
+    }
   }
 
   @Override
@@ -121,9 +165,34 @@ public class DefaultReactorBulkExecutor extends AbstractBulkExecutor
   @Override
   public Mono<WriteResult> writeReactive(Statement<?> statement) {
     Objects.requireNonNull(statement);
-    return Mono.from(
-        new WriteResultPublisher(
-            statement, session, failFast, listener, maxConcurrentRequests, rateLimiter));
+    // when throttling without blocking, the publisher must not block on the same limits; the
+    // publisher emits exactly one result, and completing only once it terminates guarantees that
+    // the listener was notified, even when the write was resumed on another thread
+    Mono<WriteResult> write =
+        Mono.fromDirect(
+            new WriteResultPublisher(
+                statement,
+                session,
+                failFast,
+                listener,
+                writeConcurrencyLimiter == null ? maxConcurrentRequests : null,
+                writeRateLimiter == null ? rateLimiter : null,
+                byteRateLimiter));
+    if (writeConcurrencyLimiter != null) {
+      write = writeConcurrencyLimiter.limit(write);
+    }
+    if (maxConcurrentRequestsPerNode != null) {
+      // acquire the replicas' permits first: while waiting for a saturated replica, the write
+      // should not hold any global permit that writes bound for other replicas could use
+      write = maxConcurrentRequestsPerNode.limit(statement, write);
+    }
+    if (writeRateLimiter != null) {
+      // acquire rate permits first, so that waiting writes do not hold in-flight permits
+      int permits = statement instanceof BatchStatement ? ((BatchStatement) statement).size() : 1;
+      // then() would complete as soon as the result is emitted, thenMany() waits for completion
+      write = Mono.fromDirect(writeRateLimiter.acquire(permits).thenMany(write));
+    }
+    return statementScheduler == null ? write : write.subscribeOn(statementScheduler);
   }
 
   @Override
@@ -199,9 +268,20 @@ public class DefaultReactorBulkExecutor extends AbstractBulkExecutor
   @Override
   public Flux<ReadResult> readReactive(Statement<?> statement) {
     Objects.requireNonNull(statement);
-    return Flux.from(
-        new ReadResultPublisher(
-            statement, session, failFast, listener, maxConcurrentRequests, rateLimiter));
+    Flux<ReadResult> read =
+        Flux.from(
+            new ReadResultPublisher(
+                statement,
+                session,
+                failFast,
+                listener,
+                maxConcurrentRequests,
+                rateLimiter,
+                byteRateLimiter));
+    if (maxConcurrentRequestsPerNode != null) {
+      read = maxConcurrentRequestsPerNode.limit(statement, read);
+    }
+    return statementScheduler == null ? read : read.subscribeOn(statementScheduler);
   }
 
   @Override
@@ -17,6 +17,8 @@ package com.datastax.oss.dsbulk.executor.reactor;
 
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.dsbulk.executor.api.AbstractBulkExecutorBuilder;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /** A builder for {@link DefaultReactorBulkExecutor} instances. */
 public class DefaultReactorBulkExecutorBuilder
@@ -28,6 +30,40 @@ public class DefaultReactorBulkExecutorBuilder
 
   @Override
   public DefaultReactorBulkExecutor build() {
-    return new DefaultReactorBulkExecutor(this);
+    // these limits can only be enforced by blocking, which would defeat the purpose
+    if (nonBlockingThrottling && (maxBytesPerSecond > 0 || adaptiveLimiter != null)) {
+      throw new IllegalArgumentException(
+          "Non-blocking throttling cannot be combined with a maximum number of bytes per second "
+              + "or an adaptive maximum number of in-flight requests");
+    }
+    boolean throttleWrites =
+        nonBlockingThrottling && (maxInFlightRequests > 0 || maxRequestsPerSecond > 0);
+    if (!throttleWrites && maxInFlightRequestsPerNode <= 0) {
+      return new DefaultReactorBulkExecutor(this);
+    }
+    Scheduler throttlingScheduler = newThrottlingScheduler();
+    NonBlockingConcurrencyLimiter writeConcurrencyLimiter =
+        !nonBlockingThrottling || maxInFlightRequests <= 0
+            ? null
+            : new NonBlockingConcurrencyLimiter(maxInFlightRequests, throttlingScheduler);
+    NonBlockingRateLimiter writeRateLimiter =
+        !nonBlockingThrottling || maxRequestsPerSecond <= 0
+            ? null
+            : new NonBlockingRateLimiter(maxRequestsPerSecond, throttlingScheduler);
+    NodeConcurrencyLimiter maxConcurrentRequestsPerNode =
+        maxInFlightRequestsPerNode <= 0
+            ? null
+            : new NodeConcurrencyLimiter(session, maxInFlightRequestsPerNode, throttlingScheduler);
+    return new DefaultReactorBulkExecutor(
+        this,
+        writeConcurrencyLimiter,
+        writeRateLimiter,
+        maxConcurrentRequestsPerNode,
+        throttlingScheduler);
+  }
+
+  static Scheduler newThrottlingScheduler() {
+    // resumed statements must not run on the driver I/O threads that release permits
+    return Schedulers.newParallel("bulk-executor-throttling", Schedulers.DEFAULT_POOL_SIZE, true);
   }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.reactor;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.loadbalancing.NodeDistance;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableList;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Regulates the amount of in-flight requests per node without blocking threads.
+ *
+ * <p>Each node has its own {@link NonBlockingConcurrencyLimiter}. A regulated statement is only
+ * subscribed to once it holds a permit from the budget of each of its local replicas, as computed
+ * from the statement's routing token or routing key with the driver's {@link TokenMap}; until then,
+ * only its subscription waits, and statements bound for other nodes keep being executed. Statements
+ * whose replicas cannot be computed are not regulated.
+ *
+ * <p>Only replicas at distance {@link NodeDistance#LOCAL} are charged: the load-balancing policy
+ * never picks the coordinator among the other nodes, and the replication to remote datacenters is
+ * done by the coordinator, without involving this client. Ideally, only the coordinator would be
+ * charged, but the default load-balancing policy shuffles the local replicas of each request, so
+ * the coordinator is not known before the request is sent. The budget of a node therefore bounds
+ * the number of in-flight requests for which it is a local replica, which include all the requests
+ * it coordinates.
+ *
+ * <p>Permits are always acquired in the same node order, which prevents statements sharing replicas
+ * from waiting for each other forever.
+ */
+public class NodeConcurrencyLimiter {
+
+  private static final Comparator<Node> NODE_ORDER =
+      Comparator.comparing(node -> node.getEndPoint().toString());
+
+  private final CqlSession session;
+  private final int maxInFlightPerNode;
+  private final Scheduler scheduler;
+  private final ConcurrentMap<Node, NonBlockingConcurrencyLimiter> budgets =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new limiter.
+   *
+   * @param session the session to compute replicas with.
+   * @param maxInFlightPerNode the maximum number of in-flight requests per node, must be strictly
+   *     positive.
+   * @param scheduler the scheduler to resume waiting statements on.
+   */
+  public NodeConcurrencyLimiter(
+      @NonNull CqlSession session, int maxInFlightPerNode, @NonNull Scheduler scheduler) {
+    if (maxInFlightPerNode < 1) {
+      throw new IllegalArgumentException(
+          String.format("Invalid limit: expecting 0 < %d", maxInFlightPerNode));
+    }
+    this.session = session;
+    this.maxInFlightPerNode = maxInFlightPerNode;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Returns a {@link Mono} that subscribes to the given execution of the given statement only once
+   * a permit of each of the statement's local replicas is available, and releases the permits when
+   * the execution terminates or is cancelled.
+   *
+   * @param statement the statement to be executed.
+   * @param execution the execution of the statement.
+   * @param <T> the type of the execution's result.
+   * @return the regulated execution.
+   */
+  @NonNull
+  public <T> Mono<T> limit(@NonNull Statement<?> statement, @NonNull Mono<T> execution) {
+    ImmutableList<Node> replicas = getLocalReplicas(statement);
+    // the permit of the first replica is the outermost, hence the first to be acquired
+    for (Node replica : replicas.reverse()) {
+      execution = getBudget(replica).limit(execution);
+    }
+    return execution;
+  }
+
+  /**
+   * Returns a {@link Flux} that subscribes to the given execution of the given statement only once
+   * a permit of each of the statement's local replicas is available, and releases the permits when
+   * the execution terminates or is cancelled; permits are therefore held until all the pages of the
+   * statement have been emitted.
+   *
+   * @param statement the statement to be executed.
+   * @param execution the execution of the statement.
+   * @param <T> the type of the execution's results.
+   * @return the regulated execution.
+   */
+  @NonNull
+  public <T> Flux<T> limit(@NonNull Statement<?> statement, @NonNull Flux<T> execution) {
+    ImmutableList<Node> replicas = getLocalReplicas(statement);
+    // the permit of the first replica is the outermost, hence the first to be acquired
+    for (Node replica : replicas.reverse()) {
+      execution = getBudget(replica).limit(execution);
+    }
+    return execution;
+  }
+
+  /**
+   * @param node the node to inspect.
+   * @return the current number of in-flight requests involving the given node.
+   */
+  public int getInFlightRequests(@NonNull Node node) {
+    NonBlockingConcurrencyLimiter budget = budgets.get(node);
+    return budget == null ? 0 : maxInFlightPerNode - budget.availablePermits();
+  }
+
+  @NonNull
+  private NonBlockingConcurrencyLimiter getBudget(@NonNull Node node) {
+    return budgets.computeIfAbsent(
+        node, n -> new NonBlockingConcurrencyLimiter(maxInFlightPerNode, scheduler));
+  }
+
+  @NonNull
+  private ImmutableList<Node> getLocalReplicas(@NonNull Statement<?> statement) {
+    Optional<TokenMap> tokenMap = session.getMetadata().getTokenMap();
+    CqlIdentifier keyspace = statement.getKeyspace();
+    if (keyspace == null) {
+      keyspace = statement.getRoutingKeyspace();
+    }
+    if (keyspace == null) {
+      keyspace = session.getKeyspace().orElse(null);
+    }
+    if (!tokenMap.isPresent() || keyspace == null) {
+      return ImmutableList.of();
+    }
+    Set<Node> replicas;
+    Token token = statement.getRoutingToken();
+    if (token != null) {
+      replicas = tokenMap.get().getReplicas(keyspace, token);
+    } else {
+      ByteBuffer key = statement.getRoutingKey();
+      if (key == null) {
+        return ImmutableList.of();
+      }
+      replicas = tokenMap.get().getReplicas(keyspace, key);
+    }
+    return replicas.stream()
+        .filter(replica -> replica.getDistance() == NodeDistance.LOCAL)
+        .sorted(NODE_ORDER)
+        .collect(ImmutableList.toImmutableList());
+  }
+}
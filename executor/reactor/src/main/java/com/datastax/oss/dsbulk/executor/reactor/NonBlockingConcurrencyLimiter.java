@@ -0,0 +1,206 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.reactor;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.Context;
+
+/**
+ * Regulates the amount of in-flight requests without blocking threads.
+ *
+ * <p>This is the non-blocking counterpart of a {@link java.util.concurrent.Semaphore}: instead of
+ * parking the subscribing thread until a permit is available, {@link #limit(Mono)} and {@link
+ * #limit(Flux)} defer the subscription to their source until a permit is available; the permit is
+ * then handed over to the next waiting subscription as soon as the source terminates or is
+ * cancelled. Waiting subscriptions are resumed in order on the given scheduler, and never on the
+ * thread that released the permit, which is usually a driver I/O thread.
+ */
+public class NonBlockingConcurrencyLimiter {
+
+  private final Scheduler scheduler;
+
+  // The following fields are guarded by this.
+  private final Queue<PermitSubscriber<?>> waiters = new ArrayDeque<>();
+  private int permits;
+
+  /**
+   * Creates a new limiter.
+   *
+   * @param maxConcurrentRequests the maximum number of in-flight requests, must be strictly
+   *     positive.
+   * @param scheduler the scheduler to resume waiting subscriptions on.
+   */
+  public NonBlockingConcurrencyLimiter(int maxConcurrentRequests, @NonNull Scheduler scheduler) {
+    if (maxConcurrentRequests < 1) {
+      throw new IllegalArgumentException(
+          String.format("Invalid limit: expecting 0 < %d", maxConcurrentRequests));
+    }
+    permits = maxConcurrentRequests;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Returns a {@link Mono} that subscribes to the given source only once a permit is available, and
+   * releases the permit when the source terminates or when the subscription is cancelled.
+   *
+   * @param source the source to regulate.
+   * @param <T> the type of the source's item.
+   * @return the regulated source.
+   */
+  @NonNull
+  public <T> Mono<T> limit(@NonNull Mono<T> source) {
+    return Mono.fromDirect(withPermit(source));
+  }
+
+  /**
+   * Returns a {@link Flux} that subscribes to the given source only once a permit is available, and
+   * releases the permit when the source terminates or when the subscription is cancelled.
+   *
+   * @param source the source to regulate.
+   * @param <T> the type of the source's items.
+   * @return the regulated source.
+   */
+  @NonNull
+  public <T> Flux<T> limit(@NonNull Flux<T> source) {
+    return Flux.from(withPermit(source));
+  }
+
+  private <T> Publisher<T> withPermit(Publisher<T> source) {
+    return subscriber -> {
+      PermitSubscriber<T> permitSubscriber = new PermitSubscriber<>(subscriber, source);
+      subscriber.onSubscribe(permitSubscriber);
+      acquire(permitSubscriber);
+    };
+  }
+
+  /** @return the number of available permits. */
+  public synchronized int availablePermits() {
+    return permits;
+  }
+
+  private void acquire(PermitSubscriber<?> subscriber) {
+    synchronized (this) {
+      if (permits == 0) {
+        waiters.add(subscriber);
+        return;
+      }
+      permits--;
+    }
+    subscriber.onPermitAcquired();
+  }
+
+  private void release() {
+    PermitSubscriber<?> next;
+    synchronized (this) {
+      next = waiters.poll();
+      if (next == null) {
+        permits++;
+        return;
+      }
+    }
+    // hand over the permit to the next waiting subscription
+    try {
+      scheduler.schedule(next::onPermitAcquired);
+    } catch (RejectedExecutionException e) {
+      // the scheduler was disposed, resume the subscription here rather than leave it hanging
+      next.onPermitAcquired();
+    }
+  }
+
+  private synchronized boolean removeWaiter(PermitSubscriber<?> subscriber) {
+    return waiters.remove(subscriber);
+  }
+
+  private class PermitSubscriber<T> extends Operators.DeferredSubscription
+      implements CoreSubscriber<T> {
+
+    private final Subscriber<? super T> actual;
+    private final Publisher<T> source;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private PermitSubscriber(Subscriber<? super T> actual, Publisher<T> source) {
+      this.actual = actual;
+      this.source = source;
+    }
+
+    void onPermitAcquired() {
+      if (isCancelled()) {
+        releasePermit();
+      } else {
+        source.subscribe(this);
+      }
+    }
+
+    @Override
+    @NonNull
+    public Context currentContext() {
+      return actual instanceof CoreSubscriber
+          ? ((CoreSubscriber<? super T>) actual).currentContext()
+          : Context.empty();
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+      set(s);
+    }
+
+    @Override
+    public void onNext(T t) {
+      actual.onNext(t);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      releasePermit();
+      actual.onError(t);
+    }
+
+    @Override
+    public void onComplete() {
+      releasePermit();
+      actual.onComplete();
+    }
+
+    @Override
+    public void cancel() {
+      super.cancel();
+      // If the subscription was still waiting, it does not hold any permit. Otherwise, the permit
+      // is released now; if it is cancelled before even trying to acquire it, the release is
+      // compensated by the acquisition that follows, see onPermitAcquired().
+      if (!removeWaiter(this)) {
+        releasePermit();
+      }
+    }
+
+    private void releasePermit() {
+      if (released.compareAndSet(false, true)) {
+        release();
+      }
+    }
+  }
+}
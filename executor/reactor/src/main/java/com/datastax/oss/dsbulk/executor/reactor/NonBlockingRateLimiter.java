@@ -0,0 +1,95 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.reactor;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Regulates throughput without blocking threads.
+ *
+ * <p>This is a token bucket holding at most one second worth of permits, and behaves like the
+ * {@linkplain com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter rate limiter}
+ * used by blocking executors: an acquisition never waits for its own permits, but delays the next
+ * acquisitions until the permits it took are paid for. Instead of sleeping, {@link #acquire(int)}
+ * returns a {@link Mono} that completes once the permits are available, on the given timer.
+ */
+public class NonBlockingRateLimiter {
+
+  private final double intervalNanos;
+  private final double maxStoredPermits;
+  private final Scheduler timer;
+
+  // The following fields are guarded by this.
+  private double storedPermits;
+  private long nextFreeNanos;
+
+  /**
+   * Creates a new limiter.
+   *
+   * @param permitsPerSecond the number of permits per second, must be strictly positive.
+   * @param timer the scheduler to complete delayed acquisitions on.
+   */
+  public NonBlockingRateLimiter(double permitsPerSecond, @NonNull Scheduler timer) {
+    if (permitsPerSecond <= 0) {
+      throw new IllegalArgumentException(
+          String.format("Invalid rate: expecting 0 < %s", permitsPerSecond));
+    }
+    intervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    maxStoredPermits = permitsPerSecond;
+    this.timer = timer;
+    nextFreeNanos = System.nanoTime();
+  }
+
+  /**
+   * Acquires the given number of permits.
+   *
+   * @param permits the number of permits to acquire.
+   * @return a {@link Mono} that completes when the permits are available.
+   */
+  @NonNull
+  public Mono<Void> acquire(int permits) {
+    return Mono.defer(
+        () -> {
+          long waitNanos = reserve(permits, System.nanoTime());
+          return waitNanos == 0
+              ? Mono.empty()
+              : Mono.delay(Duration.ofNanos(waitNanos), timer).then();
+        });
+  }
+
+  /**
+   * Reserves the given number of permits.
+   *
+   * @return the time to wait before the permits are available, in nanoseconds.
+   */
+  synchronized long reserve(int permits, long nowNanos) {
+    if (nowNanos > nextFreeNanos) {
+      // refill the bucket with the permits that accumulated since the last reservation
+      storedPermits =
+          Math.min(maxStoredPermits, storedPermits + (nowNanos - nextFreeNanos) / intervalNanos);
+      nextFreeNanos = nowNanos;
+    }
+    long waitNanos = nextFreeNanos - nowNanos;
+    double fromStored = Math.min(permits, storedPermits);
+    storedPermits -= fromStored;
+    nextFreeNanos += (long) ((permits - fromStored) * intervalNanos);
+    return waitNanos;
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.reactor;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.oss.dsbulk.executor.api.AbstractBulkExecutorBuilder;
+import com.datastax.oss.dsbulk.executor.api.AdaptiveConcurrencyLimiter;
+import com.datastax.oss.dsbulk.executor.api.BulkExecutor;
+import com.datastax.oss.dsbulk.executor.api.NonContinuousBulkExecutorTestBase;
+import org.junit.jupiter.api.Test;
+
+public class DefaultReactorBulkExecutorNonBlockingTest extends NonContinuousBulkExecutorTestBase {
+
+  @Override
+  protected BulkExecutor newBulkExecutor(boolean failSafe) {
+    AbstractBulkExecutorBuilder<DefaultReactorBulkExecutor> builder =
+        DefaultReactorBulkExecutor.builder(session)
+            .withExecutionListener(listener)
+            .withMaxInFlightRequests(2)
+            .withMaxRequestsPerSecond(1000)
+            .withNonBlockingThrottling();
+    if (failSafe) {
+      builder.failSafe();
+    }
+    return builder.build();
+  }
+
+  @Test
+  void should_reject_blocking_limits() {
+    assertThatThrownBy(
+            () ->
+                DefaultReactorBulkExecutor.builder(session)
+                    .withNonBlockingThrottling()
+                    .withMaxBytesPerSecond(1000)
+                    .build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Non-blocking throttling cannot be combined with");
+    assertThatThrownBy(
+            () ->
+                DefaultReactorBulkExecutor.builder(session)
+                    .withNonBlockingThrottling()
+                    .withAdaptiveMaxInFlightRequests(new AdaptiveConcurrencyLimiter(10, 100))
+                    .build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Non-blocking throttling cannot be combined with");
+  }
+}
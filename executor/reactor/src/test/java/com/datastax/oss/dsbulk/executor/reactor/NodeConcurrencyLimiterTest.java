@@ -0,0 +1,164 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.reactor;
+
+import static java.net.InetSocketAddress.createUnresolved;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.loadbalancing.NodeDistance;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.internal.core.metadata.DefaultEndPoint;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.scheduler.Schedulers;
+
+class NodeConcurrencyLimiterTest {
+
+  private final CqlIdentifier ks = CqlIdentifier.fromInternal("ks");
+  private final Token token1 = mock(Token.class);
+  private final Token token2 = mock(Token.class);
+  private final ByteBuffer key = ByteBuffer.wrap(new byte[] {1});
+
+  private final Node node1 = mock(Node.class);
+  private final Node node2 = mock(Node.class);
+  private final Node node3 = mock(Node.class);
+  private final Node remote = mock(Node.class);
+
+  private CqlSession session;
+
+  @BeforeEach
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void setUp() {
+    mockNode(node1, "node1", NodeDistance.LOCAL);
+    mockNode(node2, "node2", NodeDistance.LOCAL);
+    mockNode(node3, "node3", NodeDistance.LOCAL);
+    mockNode(remote, "remote", NodeDistance.REMOTE);
+    TokenMap tokenMap = mock(TokenMap.class);
+    when(tokenMap.getReplicas(ks, token1)).thenReturn(ImmutableSet.of(node2, remote, node1));
+    when(tokenMap.getReplicas(ks, token2)).thenReturn(ImmutableSet.of(node3, node2));
+    when(tokenMap.getReplicas(ks, key)).thenReturn(ImmutableSet.of(node3));
+    Metadata metadata = mock(Metadata.class);
+    when(metadata.getTokenMap()).thenReturn((Optional) Optional.of(tokenMap));
+    session = mock(CqlSession.class);
+    when(session.getMetadata()).thenReturn(metadata);
+    when(session.getKeyspace()).thenReturn(Optional.empty());
+  }
+
+  @Test
+  void should_reject_invalid_limit() {
+    assertThatThrownBy(() -> new NodeConcurrencyLimiter(session, 0, Schedulers.immediate()))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid limit: expecting 0 < 0");
+  }
+
+  @Test
+  void should_acquire_and_release_permits_of_local_replicas() {
+    NodeConcurrencyLimiter limiter =
+        new NodeConcurrencyLimiter(session, 10, Schedulers.immediate());
+    MonoProcessor<Integer> execution = MonoProcessor.create();
+    limiter.limit(newStatement(token1), execution).subscribe();
+    assertThat(limiter.getInFlightRequests(node1)).isOne();
+    assertThat(limiter.getInFlightRequests(node2)).isOne();
+    assertThat(limiter.getInFlightRequests(node3)).isZero();
+    assertThat(limiter.getInFlightRequests(remote)).isZero();
+    execution.onNext(1);
+    assertThat(limiter.getInFlightRequests(node1)).isZero();
+    assertThat(limiter.getInFlightRequests(node2)).isZero();
+  }
+
+  @Test
+  void should_compute_replicas_from_routing_key() {
+    NodeConcurrencyLimiter limiter =
+        new NodeConcurrencyLimiter(session, 10, Schedulers.immediate());
+    SimpleStatement statement =
+        SimpleStatement.newInstance("INSERT").setRoutingKeyspace(ks).setRoutingKey(key);
+    limiter.limit(statement, Mono.never()).subscribe();
+    assertThat(limiter.getInFlightRequests(node3)).isOne();
+  }
+
+  @Test
+  void should_not_regulate_statements_without_routing_information() {
+    NodeConcurrencyLimiter limiter = new NodeConcurrencyLimiter(session, 1, Schedulers.immediate());
+    Mono<Integer> execution = Mono.just(1);
+    assertThat(limiter.limit(SimpleStatement.newInstance("INSERT"), execution)).isSameAs(execution);
+    assertThat(
+            limiter.limit(SimpleStatement.newInstance("INSERT").setRoutingToken(token1), execution))
+        .isSameAs(execution);
+  }
+
+  @Test
+  void should_only_defer_statements_involving_saturated_node() {
+    NodeConcurrencyLimiter limiter = new NodeConcurrencyLimiter(session, 1, Schedulers.immediate());
+    List<String> subscriptions = new ArrayList<>();
+    MonoProcessor<Integer> first = MonoProcessor.create();
+    limiter.limit(newStatement(token1), first).subscribe();
+    limiter
+        .limit(newStatement(token2), Mono.never().doOnSubscribe(s -> subscriptions.add("second")))
+        .subscribe();
+    SimpleStatement third =
+        SimpleStatement.newInstance("INSERT").setRoutingKeyspace(ks).setRoutingKey(key);
+    MonoProcessor<Integer> thirdExecution = MonoProcessor.create();
+    limiter.limit(third, thirdExecution.doOnSubscribe(s -> subscriptions.add("third"))).subscribe();
+    // the second statement waits for node2 before acquiring node3, which remains available
+    assertThat(subscriptions).containsExactly("third");
+    thirdExecution.onNext(3);
+    first.onNext(1);
+    assertThat(subscriptions).containsExactly("third", "second");
+    assertThat(limiter.getInFlightRequests(node1)).isZero();
+    assertThat(limiter.getInFlightRequests(node2)).isOne();
+    assertThat(limiter.getInFlightRequests(node3)).isOne();
+  }
+
+  @Test
+  void should_hold_permits_until_all_pages_are_emitted() {
+    NodeConcurrencyLimiter limiter = new NodeConcurrencyLimiter(session, 1, Schedulers.immediate());
+    DirectProcessor<Integer> pages = DirectProcessor.create();
+    List<Integer> rows = new ArrayList<>();
+    limiter.limit(newStatement(token1), pages).subscribe(rows::add);
+    pages.onNext(1);
+    pages.onNext(2);
+    assertThat(limiter.getInFlightRequests(node1)).isOne();
+    pages.onComplete();
+    assertThat(rows).containsExactly(1, 2);
+    assertThat(limiter.getInFlightRequests(node1)).isZero();
+  }
+
+  private void mockNode(Node node, String name, NodeDistance distance) {
+    when(node.getEndPoint()).thenReturn(new DefaultEndPoint(createUnresolved(name, 9042)));
+    when(node.getDistance()).thenReturn(distance);
+  }
+
+  private SimpleStatement newStatement(Token token) {
+    return SimpleStatement.newInstance("INSERT").setRoutingKeyspace(ks).setRoutingToken(token);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.reactor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+class NonBlockingConcurrencyLimiterTest {
+
+  @Test
+  void should_reject_invalid_limit() {
+    assertThatThrownBy(() -> new NonBlockingConcurrencyLimiter(0, Schedulers.immediate()))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid limit: expecting 0 < 0");
+  }
+
+  @Test
+  void should_defer_subscriptions_until_permits_are_released() {
+    NonBlockingConcurrencyLimiter limiter =
+        new NonBlockingConcurrencyLimiter(1, Schedulers.immediate());
+    MonoProcessor<Integer> first = MonoProcessor.create();
+    List<Integer> results = new ArrayList<>();
+    limiter.limit(first).subscribe(results::add);
+    assertThat(limiter.availablePermits()).isZero();
+    // the second source must not be subscribed to while the first one holds the only permit
+    List<String> subscriptions = new ArrayList<>();
+    limiter
+        .limit(Mono.just(2).doOnSubscribe(s -> subscriptions.add("second")))
+        .subscribe(results::add);
+    assertThat(subscriptions).isEmpty();
+    first.onNext(1);
+    assertThat(subscriptions).containsExactly("second");
+    assertThat(results).containsExactly(1, 2);
+    assertThat(limiter.availablePermits()).isOne();
+  }
+
+  @Test
+  void should_resume_waiting_subscriptions_on_scheduler() {
+    Scheduler scheduler = Schedulers.newSingle("resume");
+    try {
+      NonBlockingConcurrencyLimiter limiter = new NonBlockingConcurrencyLimiter(1, scheduler);
+      MonoProcessor<Integer> first = MonoProcessor.create();
+      limiter.limit(first).subscribe();
+      MonoProcessor<String> resumedOn = MonoProcessor.create();
+      limiter.limit(Mono.fromCallable(() -> Thread.currentThread().getName())).subscribe(resumedOn);
+      // the releasing thread stands for a driver I/O thread completing the first request
+      first.onNext(1);
+      assertThat(resumedOn.block(Duration.ofSeconds(5))).startsWith("resume");
+    } finally {
+      scheduler.dispose();
+    }
+  }
+
+  @Test
+  void should_release_permit_on_error() {
+    NonBlockingConcurrencyLimiter limiter =
+        new NonBlockingConcurrencyLimiter(1, Schedulers.immediate());
+    assertThatThrownBy(() -> limiter.limit(Mono.error(new IllegalStateException())).block())
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(limiter.availablePermits()).isOne();
+  }
+
+  @Test
+  void should_release_permit_on_cancel() {
+    NonBlockingConcurrencyLimiter limiter =
+        new NonBlockingConcurrencyLimiter(1, Schedulers.immediate());
+    Disposable running = limiter.limit(Mono.never()).subscribe();
+    Disposable waiting = limiter.limit(Mono.never()).subscribe();
+    assertThat(limiter.availablePermits()).isZero();
+    // cancelling a waiting subscription must not release a permit it does not hold
+    waiting.dispose();
+    assertThat(limiter.availablePermits()).isZero();
+    running.dispose();
+    assertThat(limiter.availablePermits()).isOne();
+  }
+
+  @Test
+  void should_regulate_concurrent_subscriptions() {
+    NonBlockingConcurrencyLimiter limiter =
+        new NonBlockingConcurrencyLimiter(4, Schedulers.immediate());
+    List<Mono<Integer>> sources = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      sources.add(limiter.limit(Mono.delay(Duration.ofMillis(1)).thenReturn(1)));
+    }
+    // contrary to zip(), merge() completes only once all sources completed and released permits
+    assertThat(Flux.merge(sources).count().block()).isEqualTo(100);
+    assertThat(limiter.availablePermits()).isEqualTo(4);
+  }
+}
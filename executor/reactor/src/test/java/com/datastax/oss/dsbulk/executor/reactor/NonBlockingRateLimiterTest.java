@@ -0,0 +1,70 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.reactor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+
+class NonBlockingRateLimiterTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  // permits accumulated between the creation of the limiter and the first reservation
+  private static final Offset<Long> TOLERANCE = within(TimeUnit.MILLISECONDS.toNanos(10));
+
+  @Test
+  void should_reject_invalid_rate() {
+    assertThatThrownBy(() -> new NonBlockingRateLimiter(0, Schedulers.immediate()))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid rate: expecting 0 < 0.0");
+  }
+
+  @Test
+  void should_delay_acquisitions_following_an_acquisition() {
+    NonBlockingRateLimiter limiter = new NonBlockingRateLimiter(10, Schedulers.immediate());
+    long now = System.nanoTime();
+    // the first acquisition is free, the next ones pay for the previous ones
+    assertThat(limiter.reserve(5, now)).isZero();
+    assertThat(limiter.reserve(1, now)).isCloseTo(SECOND / 2, TOLERANCE);
+    assertThat(limiter.reserve(1, now)).isCloseTo(SECOND / 2 + SECOND / 10, TOLERANCE);
+  }
+
+  @Test
+  void should_store_unused_permits_up_to_one_second() {
+    NonBlockingRateLimiter limiter = new NonBlockingRateLimiter(10, Schedulers.immediate());
+    long now = System.nanoTime() + 5 * SECOND;
+    // at most 10 permits were stored in the meantime
+    assertThat(limiter.reserve(10, now)).isZero();
+    assertThat(limiter.reserve(1, now)).isZero();
+    assertThat(limiter.reserve(1, now)).isCloseTo(SECOND / 10, TOLERANCE);
+  }
+
+  @Test
+  void should_complete_acquisitions_when_permits_are_available() {
+    NonBlockingRateLimiter limiter = new NonBlockingRateLimiter(10, Schedulers.parallel());
+    long start = System.nanoTime();
+    limiter.acquire(5).block(Duration.ofSeconds(5));
+    limiter.acquire(1).block(Duration.ofSeconds(5));
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThan(400);
+  }
+}
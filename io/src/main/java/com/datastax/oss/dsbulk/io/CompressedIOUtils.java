@@ -16,17 +16,27 @@
 package com.datastax.oss.dsbulk.io;
 
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.ThreadFactoryBuilder;
+import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadFactory;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorInputStream;
 import org.apache.commons.compress.compressors.CompressorOutputStream;
@@ -36,6 +46,16 @@ public final class CompressedIOUtils {
 
   private static final int BUFFER_SIZE = 8192 * 2;
 
+  private static final int READ_AHEAD_BUFFER_SIZE = 64 * 1024;
+
+  private static final int READ_AHEAD_BUFFERS = 4;
+
+  private static final ThreadFactory DECOMPRESSION_THREAD_FACTORY =
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("decompression-%d").build();
+
+  private static final ThreadFactory COMPRESSION_THREAD_FACTORY =
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("compression-%d").build();
+
   public static final String NONE_COMPRESSION = "none";
   public static final String XZ_COMPRESSION = "xz";
   public static final String GZIP_COMPRESSION = "gzip";
@@ -102,7 +122,7 @@ public final class CompressedIOUtils {
       InputStream in = IOUtils.newBufferedInputStream(url);
       try {
         CompressorInputStream cin =
-            new CompressorStreamFactory().createCompressorInputStream(compressor, in);
+            new CompressorStreamFactory(true).createCompressorInputStream(compressor, in);
         reader = new BufferedReader(new InputStreamReader(cin, charset), BUFFER_SIZE);
       } catch (CompressorException ex) {
         throw new IOException("Can't instantiate class for compression: " + compression, ex);
@@ -111,6 +131,156 @@ public final class CompressedIOUtils {
     return reader;
   }
 
+  /**
+   * Creates a new {@link Reader} for the given URL.
+   *
+   * <p>Uncompressed, local regular files are read through a {@link java.nio.channels.FileChannel}
+   * and a direct buffer of the given size, see {@link IOUtils#newFileReader(Path, Charset, int)};
+   * all other URLs are read with {@link #newBufferedReader(URL, Charset, String)}.
+   *
+   * @param url The URL to read.
+   * @param charset The charset to use to decode bytes.
+   * @param compression The compression to use, or null for no compression.
+   * @param bufferSize The size of the byte buffer to use for local files.
+   * @return A new {@link Reader}; not necessarily thread-safe.
+   * @throws IOException If the URL cannot be opened.
+   */
+  public static Reader newReader(
+      final URL url, final Charset charset, final String compression, final int bufferSize)
+      throws IOException {
+    return newReader(url, charset, compression, bufferSize, 0);
+  }
+
+  /**
+   * Creates a new {@link Reader} for the given URL, optionally decompressing it with dedicated
+   * threads.
+   *
+   * <p>When {@code decompressionThreads} is zero, compressed data is decompressed by the thread
+   * consuming the returned reader. When it is 1, compressed data is decompressed by a dedicated
+   * thread, ahead of the consumer. When it is greater than 1, gzip and zstd data is decompressed by
+   * that many threads, provided that it is made of independently compressed blocks (BGZF gzip
+   * members or zstd frames); other formats are decompressed by one dedicated thread. Uncompressed
+   * data is not affected by this parameter.
+   *
+   * @param url The URL to read.
+   * @param charset The charset to use to decode bytes.
+   * @param compression The compression to use, or null for no compression.
+   * @param bufferSize The size of the byte buffer to use for local files.
+   * @param decompressionThreads The number of threads to use to decompress data.
+   * @return A new {@link Reader}; not necessarily thread-safe.
+   * @throws IOException If the URL cannot be opened.
+   */
+  public static Reader newReader(
+      final URL url,
+      final Charset charset,
+      final String compression,
+      final int bufferSize,
+      final int decompressionThreads)
+      throws IOException {
+    if (compression == null || isNoneCompression(compression)) {
+      if (url.getProtocol().equalsIgnoreCase("file")) {
+        Path path = null;
+        try {
+          path = Paths.get(url.toURI());
+        } catch (URISyntaxException
+            | FileSystemNotFoundException
+            | IllegalArgumentException ignored) {
+          // not a path on a known filesystem, fall back to reading from URL directly
+        }
+        if (path != null && Files.isRegularFile(path)) {
+          return IOUtils.newFileReader(path, charset, bufferSize);
+        }
+      }
+    } else if (decompressionThreads > 0) {
+      String compressor = INPUT_COMPRESSORS.get(compression.toLowerCase());
+      if (compressor == null) {
+        throw new IOException("Unsupported compression format: " + compression);
+      }
+      InputStream in = IOUtils.newBufferedInputStream(url);
+      InputStream decompressed;
+      try {
+        decompressed = newDecompressingInputStream(in, compressor, decompressionThreads);
+      } catch (IOException | RuntimeException e) {
+        in.close();
+        throw e;
+      }
+      return new BufferedReader(new InputStreamReader(decompressed, charset), BUFFER_SIZE);
+    }
+    return newBufferedReader(url, charset, compression);
+  }
+
+  /**
+   * Creates a new {@link InputStream} for the given URL, decompressing its contents if required.
+   *
+   * <p>The {@code decompressionThreads} parameter has the same meaning as in {@link #newReader(URL,
+   * Charset, String, int, int)}.
+   *
+   * @param url The URL to read.
+   * @param compression The compression to use, or null for no compression.
+   * @param decompressionThreads The number of threads to use to decompress data.
+   * @return A new {@link InputStream}; not thread-safe.
+   * @throws IOException If the URL cannot be opened.
+   */
+  public static InputStream newInputStream(
+      final URL url, final String compression, final int decompressionThreads) throws IOException {
+    if (compression == null || isNoneCompression(compression)) {
+      return IOUtils.newBufferedInputStream(url);
+    }
+    String compressor = INPUT_COMPRESSORS.get(compression.toLowerCase());
+    if (compressor == null) {
+      throw new IOException("Unsupported compression format: " + compression);
+    }
+    InputStream in = IOUtils.newBufferedInputStream(url);
+    try {
+      if (decompressionThreads > 0) {
+        return newDecompressingInputStream(in, compressor, decompressionThreads);
+      }
+      return new CompressorStreamFactory(true).createCompressorInputStream(compressor, in);
+    } catch (CompressorException ex) {
+      in.close();
+      throw new IOException("Can't instantiate class for compression: " + compression, ex);
+    } catch (IOException | RuntimeException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  private static InputStream newDecompressingInputStream(
+      InputStream in, String compressor, int decompressionThreads) throws IOException {
+    ParallelDecompressingInputStream.Decompressor decompressor =
+        compressed -> {
+          try {
+            return new CompressorStreamFactory(true)
+                .createCompressorInputStream(compressor, compressed);
+          } catch (CompressorException ex) {
+            throw new IOException("Can't instantiate class for compression: " + compressor, ex);
+          }
+        };
+    if (decompressionThreads > 1) {
+      if (compressor.equals(CompressorStreamFactory.GZIP)) {
+        return new ParallelDecompressingInputStream(
+            in,
+            ParallelDecompressingInputStream.Framing.GZIP,
+            decompressor,
+            decompressionThreads,
+            DECOMPRESSION_THREAD_FACTORY);
+      }
+      if (compressor.equals(CompressorStreamFactory.ZSTANDARD)) {
+        return new ParallelDecompressingInputStream(
+            in,
+            ParallelDecompressingInputStream.Framing.ZSTD,
+            decompressor,
+            decompressionThreads,
+            DECOMPRESSION_THREAD_FACTORY);
+      }
+    }
+    return new ReadAheadInputStream(
+        decompressor.decompress(in),
+        READ_AHEAD_BUFFER_SIZE,
+        READ_AHEAD_BUFFERS,
+        DECOMPRESSION_THREAD_FACTORY);
+  }
+
   public static BufferedWriter newBufferedWriter(
       final URL url, final Charset charset, final String compression) throws IOException {
     final BufferedWriter writer;
@@ -133,6 +303,153 @@ public final class CompressedIOUtils {
     return writer;
   }
 
+  /**
+   * Creates a new {@link BufferedWriter} for the given URL, optionally compressing data with
+   * dedicated threads.
+   *
+   * <p>When {@code compressionThreads} is greater than zero and the compression is gzip or zstd,
+   * data is cut into blocks that are compressed independently by that many threads, and written in
+   * their original order as a multi-member gzip stream or as a multi-frame zstd stream; see {@link
+   * ParallelCompressingOutputStream}. Otherwise, this method is equivalent to {@link
+   * #newBufferedWriter(URL, Charset, String)}.
+   *
+   * @param url The URL to write to.
+   * @param charset The charset to use to encode characters.
+   * @param compression The compression to use, or null for no compression.
+   * @param compressionThreads The number of threads to use to compress data.
+   * @return A new {@link BufferedWriter}; not thread-safe.
+   * @throws IOException If the URL cannot be opened.
+   */
+  public static BufferedWriter newBufferedWriter(
+      final URL url, final Charset charset, final String compression, final int compressionThreads)
+      throws IOException {
+    ParallelCompressingOutputStream.Framing framing = null;
+    if (compressionThreads > 0 && compression != null) {
+      if (compression.equalsIgnoreCase(GZIP_COMPRESSION)) {
+        framing = ParallelCompressingOutputStream.Framing.GZIP;
+      } else if (compression.equalsIgnoreCase(ZSTD_COMPRESSION)) {
+        framing = ParallelCompressingOutputStream.Framing.ZSTD;
+      }
+    }
+    if (framing == null) {
+      return newBufferedWriter(url, charset, compression);
+    }
+    OutputStream os = IOUtils.newBufferedOutputStream(url);
+    OutputStream cos =
+        new ParallelCompressingOutputStream(
+            os, framing, compressionThreads, COMPRESSION_THREAD_FACTORY);
+    return new BufferedWriter(new OutputStreamWriter(cos, charset), BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a new {@link BufferedWriter} that writes to the given stream, compressing data if
+   * required. This is equivalent to {@link #newBufferedWriter(URL, Charset, String, int)}, except
+   * that the destination stream is provided by the caller, e.g. to track how many bytes were
+   * written to the destination.
+   *
+   * @param out The stream to write to; expected to be buffered already. Closing the returned writer
+   *     closes this stream.
+   * @param charset The charset to use to encode characters.
+   * @param compression The compression to use, or null for no compression.
+   * @param compressionThreads The number of threads to use to compress data.
+   * @return A new {@link BufferedWriter}; not thread-safe.
+   * @throws IOException If the compressor cannot be created.
+   */
+  public static BufferedWriter newBufferedWriter(
+      final OutputStream out,
+      final Charset charset,
+      final String compression,
+      final int compressionThreads)
+      throws IOException {
+    return new BufferedWriter(
+        new OutputStreamWriter(newOutputStream(out, compression, compressionThreads), charset),
+        BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a new {@link OutputStream} for the given URL, compressing data if required.
+   *
+   * <p>The {@code compressionThreads} parameter has the same meaning as in {@link
+   * #newBufferedWriter(URL, Charset, String, int)}.
+   *
+   * @param url The URL to write to.
+   * @param compression The compression to use, or null for no compression.
+   * @param compressionThreads The number of threads to use to compress data.
+   * @return A new {@link OutputStream}; not thread-safe.
+   * @throws IOException If the URL cannot be opened.
+   */
+  public static OutputStream newOutputStream(
+      final URL url, final String compression, final int compressionThreads) throws IOException {
+    if (compression == null || isNoneCompression(compression)) {
+      return IOUtils.newBufferedOutputStream(url);
+    }
+    if (!OUTPUT_COMPRESSORS.containsKey(compression.toLowerCase())) {
+      throw new IOException("Unsupported compression format: " + compression);
+    }
+    return newOutputStream(IOUtils.newBufferedOutputStream(url), compression, compressionThreads);
+  }
+
+  /**
+   * Creates a new {@link OutputStream} that writes to the given stream, compressing data if
+   * required. This is equivalent to {@link #newOutputStream(URL, String, int)}, except that the
+   * destination stream is provided by the caller.
+   *
+   * @param os The stream to write to; expected to be buffered already. Closing the returned stream
+   *     closes this stream; it is also closed if this method fails.
+   * @param compression The compression to use, or null for no compression.
+   * @param compressionThreads The number of threads to use to compress data.
+   * @return A new {@link OutputStream}; not thread-safe.
+   * @throws IOException If the compressor cannot be created.
+   */
+  public static OutputStream newOutputStream(
+      final OutputStream os, final String compression, final int compressionThreads)
+      throws IOException {
+    if (compression == null || isNoneCompression(compression)) {
+      return os;
+    }
+    String compressor = OUTPUT_COMPRESSORS.get(compression.toLowerCase());
+    if (compressor == null) {
+      os.close();
+      throw new IOException("Unsupported compression format: " + compression);
+    }
+    try {
+      if (compressionThreads > 0 && compressor.equals(CompressorStreamFactory.GZIP)) {
+        return new ParallelCompressingOutputStream(
+            os,
+            ParallelCompressingOutputStream.Framing.GZIP,
+            compressionThreads,
+            COMPRESSION_THREAD_FACTORY);
+      }
+      if (compressionThreads > 0 && compressor.equals(CompressorStreamFactory.ZSTANDARD)) {
+        return new ParallelCompressingOutputStream(
+            os,
+            ParallelCompressingOutputStream.Framing.ZSTD,
+            compressionThreads,
+            COMPRESSION_THREAD_FACTORY);
+      }
+      CompressorOutputStream cos =
+          new CompressorStreamFactory().createCompressorOutputStream(compressor, os);
+      // Some compressors, such as framed LZ4, fail on single writes spanning several blocks
+      return new FilterOutputStream(cos) {
+        @Override
+        public void write(@NonNull byte[] b, int off, int len) throws IOException {
+          while (len > 0) {
+            int chunk = Math.min(len, BUFFER_SIZE);
+            cos.write(b, off, chunk);
+            off += chunk;
+            len -= chunk;
+          }
+        }
+      };
+    } catch (CompressorException ex) {
+      os.close();
+      throw new IOException("Can't instantiate class for compression: " + compression, ex);
+    } catch (RuntimeException e) {
+      os.close();
+      throw e;
+    }
+  }
+
   public static String getCompressionSuffix(final String compression) {
     return COMPRESSION_EXTENSIONS.getOrDefault(compression, "");
   }
@@ -0,0 +1,169 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * A {@link Reader} that reads a range of bytes from a {@link FileChannel} into a heap {@link
+ * ByteBuffer}, and decodes them with a single {@link CharsetDecoder}.
+ *
+ * <p>A heap buffer is used because readers are short-lived – one per file or split – and direct
+ * buffers are costly to allocate and only released by the garbage collector; the channel itself
+ * reads through a temporary direct buffer that the JDK caches per thread.
+ *
+ * <p>Compared to an {@link java.io.InputStreamReader} wrapped in a {@link java.io.BufferedReader},
+ * this reader avoids one intermediary copy of the data, and does not synchronize on each read; it
+ * is therefore not thread-safe.
+ *
+ * <p>Like {@link java.io.InputStreamReader}, malformed input and unmappable characters are replaced
+ * with the charset's default replacement string.
+ */
+final class FileChannelReader extends Reader {
+
+  private static final int MIN_BUFFER_SIZE = 64;
+
+  private final FileChannel channel;
+  private final CharsetDecoder decoder;
+  private final ByteBuffer bytes;
+  private final char[] pair = new char[2];
+
+  private long position;
+  private long remaining;
+  private boolean endOfInput;
+  private boolean done;
+  private boolean hasLeftover;
+  private char leftover;
+
+  /**
+   * Creates a new reader.
+   *
+   * @param channel The channel to read from; will be closed when this reader is closed.
+   * @param position The absolute position, in bytes, of the first byte to read.
+   * @param length The number of bytes to read.
+   * @param charset The charset to use to decode bytes.
+   * @param bufferSize The maximum size of the byte buffer; the actual buffer will not be bigger
+   *     than the number of bytes to read.
+   */
+  FileChannelReader(
+      @NonNull FileChannel channel,
+      long position,
+      long length,
+      @NonNull Charset charset,
+      int bufferSize) {
+    this.channel = channel;
+    this.position = position;
+    this.remaining = length;
+    decoder =
+        charset
+            .newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    int capacity = (int) Math.max(MIN_BUFFER_SIZE, Math.min(bufferSize, length));
+    bytes = ByteBuffer.allocate(capacity);
+    bytes.flip();
+  }
+
+  @Override
+  public int read(@NonNull char[] cbuf, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    int n = 0;
+    if (hasLeftover) {
+      cbuf[off++] = leftover;
+      hasLeftover = false;
+      n++;
+      if (--len == 0) {
+        return n;
+      }
+    }
+    if (len == 1) {
+      // make sure we can always decode a surrogate pair
+      int read = decode(pair, 0, 2);
+      if (read == -1) {
+        return n == 0 ? -1 : n;
+      }
+      cbuf[off] = pair[0];
+      if (read == 2) {
+        leftover = pair[1];
+        hasLeftover = true;
+      }
+      return n + 1;
+    }
+    int read = decode(cbuf, off, len);
+    if (read == -1) {
+      return n == 0 ? -1 : n;
+    }
+    return n + read;
+  }
+
+  @Override
+  public boolean ready() {
+    return hasLeftover || bytes.hasRemaining();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private int decode(char[] cbuf, int off, int len) throws IOException {
+    CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+    while (out.position() == off && !done) {
+      CoderResult result = decoder.decode(bytes, out, endOfInput);
+      if (result.isError()) {
+        result.throwException();
+      }
+      if (result.isUnderflow()) {
+        if (endOfInput) {
+          if (decoder.flush(out).isUnderflow()) {
+            done = true;
+          }
+        } else {
+          fill();
+        }
+      }
+    }
+    int n = out.position() - off;
+    return n == 0 ? -1 : n;
+  }
+
+  private void fill() throws IOException {
+    bytes.compact();
+    if (bytes.remaining() > remaining) {
+      bytes.limit(bytes.position() + (int) remaining);
+    }
+    int read = remaining == 0 ? -1 : channel.read(bytes, position);
+    bytes.limit(bytes.capacity());
+    bytes.flip();
+    if (read == -1) {
+      endOfInput = true;
+    } else {
+      position += read;
+      remaining -= read;
+    }
+  }
+}
@@ -27,14 +27,17 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.stream.Stream;
 
 public final class IOUtils {
@@ -86,6 +89,44 @@ public final class IOUtils {
         new InputStreamReader(newBufferedInputStream(url), charset), BUFFER_SIZE);
   }
 
+  /**
+   * Creates a new {@link Reader} for the given local file, that reads the file through a {@link
+   * FileChannel} and a heap buffer of the given size. The returned reader is not thread-safe.
+   *
+   * @param path The file to read.
+   * @param charset The charset to use to decode bytes.
+   * @param bufferSize The size of the byte buffer.
+   * @return A new {@link Reader}.
+   * @throws IOException If the file cannot be opened.
+   */
+  public static Reader newFileReader(Path path, Charset charset, int bufferSize)
+      throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    return new FileChannelReader(channel, 0, channel.size(), charset, bufferSize);
+  }
+
+  /**
+   * Creates a new {@link Reader} that reads only the given byte range of the given local file,
+   * through a {@link FileChannel} and a heap buffer of the given size. The returned reader is not
+   * thread-safe.
+   *
+   * <p>The range is expected to start and end on character boundaries; this is the caller's
+   * responsibility.
+   *
+   * @param path The file to read.
+   * @param position The absolute position, in bytes, of the first byte to read.
+   * @param length The number of bytes to read.
+   * @param charset The charset to use to decode bytes.
+   * @param bufferSize The size of the byte buffer.
+   * @return A new {@link Reader} reading the requested range.
+   * @throws IOException If the file cannot be opened.
+   */
+  public static Reader newFileReader(
+      Path path, long position, long length, Charset charset, int bufferSize) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    return new FileChannelReader(channel, position, length, charset, bufferSize);
+  }
+
   public static BufferedWriter newBufferedWriter(URL url, Charset charset) throws IOException {
     return new BufferedWriter(
         new OutputStreamWriter(newBufferedOutputStream(url), charset), BUFFER_SIZE);
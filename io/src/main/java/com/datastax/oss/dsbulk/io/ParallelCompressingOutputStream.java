@@ -0,0 +1,287 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+
+/**
+ * An {@link OutputStream} that compresses its data with several threads.
+ *
+ * <p>Data written to this stream is cut into blocks of {@link #BLOCK_SIZE} bytes; each block is
+ * compressed independently by a pool of compressing threads, and compressed blocks are written to
+ * the underlying stream in their original order, by the thread writing to this stream. At most
+ * {@code 2 * threads} blocks are in flight at any time.
+ *
+ * <p>The output is a standard multi-member gzip stream or a standard multi-frame zstd stream, that
+ * can be read by any compliant decompressor:
+ *
+ * <ol>
+ *   <li>For gzip, each block is compressed into a sequence of BGZF members, i.e., gzip members
+ *       declaring their compressed size in a {@code BC} extra subfield, followed by the standard
+ *       BGZF end-of-file marker; this allows {@link ParallelDecompressingInputStream} to decompress
+ *       the output in parallel as well.
+ *   <li>For zstd, each block is compressed into one frame.
+ * </ol>
+ *
+ * <p>Flushing this stream only writes blocks that were already compressed, without compressing
+ * pending data, to avoid creating small blocks; all pending data is compressed and written when
+ * this stream is closed. This stream is not thread-safe.
+ */
+final class ParallelCompressingOutputStream extends OutputStream {
+
+  /** The framing formats that can be produced in parallel. */
+  enum Framing {
+    GZIP,
+    ZSTD
+  }
+
+  private static final int BLOCK_SIZE = 1024 * 1024;
+
+  /** The maximum uncompressed size of a BGZF member, as used by bgzip. */
+  private static final int BGZF_MAX_DATA_SIZE = 0xFF00;
+
+  /** The maximum total size of a BGZF member. */
+  private static final int BGZF_MAX_MEMBER_SIZE = 0x10000;
+
+  /** The BGZF member header size: gzip header (10 bytes) and extra field (8 bytes). */
+  private static final int BGZF_HEADER_SIZE = 18;
+
+  /** The BGZF member trailer size: CRC32 and ISIZE. */
+  private static final int BGZF_TRAILER_SIZE = 8;
+
+  /**
+   * The standard BGZF end-of-file marker, an empty BGZF member: {@code 1f 8b 08 04 00 00 00 00 00
+   * ff 06 00 42 43 02 00 1b 00 03 00 00 00 00 00 00 00 00 00}.
+   */
+  private static final byte[] BGZF_EOF = {
+    0x1f, -0x75, 8, 4, 0, 0, 0, 0, 0, -1, 6, 0, 0x42, 0x43, 2, 0, 0x1b, 0, 3, 0, 0, 0, 0, 0, 0, 0,
+    0, 0
+  };
+
+  private final OutputStream out;
+  private final Framing framing;
+  private final ExecutorService compressors;
+  private final int maxPendingBlocks;
+  private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+  private final Queue<byte[]> freeBuffers = new ConcurrentLinkedQueue<>();
+
+  private byte[] buffer;
+  private int count;
+  private boolean closed;
+
+  /**
+   * Creates a new parallel compressing stream.
+   *
+   * @param out The underlying stream; will be closed when this stream is closed.
+   * @param framing The framing format to produce.
+   * @param threads The number of compressing threads; at least 1.
+   * @param threadFactory The factory to use to create threads.
+   */
+  ParallelCompressingOutputStream(
+      @NonNull OutputStream out,
+      @NonNull Framing framing,
+      int threads,
+      @NonNull ThreadFactory threadFactory) {
+    this.out = out;
+    this.framing = framing;
+    compressors = Executors.newFixedThreadPool(threads, threadFactory);
+    maxPendingBlocks = threads * 2;
+    buffer = new byte[BLOCK_SIZE];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureOpen();
+    buffer[count++] = (byte) b;
+    if (count == buffer.length) {
+      submitBlock();
+    }
+  }
+
+  @Override
+  public void write(@NonNull byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    while (len > 0) {
+      int n = Math.min(len, buffer.length - count);
+      System.arraycopy(b, off, buffer, count, n);
+      count += n;
+      off += n;
+      len -= n;
+      if (count == buffer.length) {
+        submitBlock();
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+    while (!pendingBlocks.isEmpty() && pendingBlocks.peekFirst().isDone()) {
+      writeFirstBlock();
+    }
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      try {
+        if (count > 0) {
+          submitBlock();
+        }
+        while (!pendingBlocks.isEmpty()) {
+          writeFirstBlock();
+        }
+        if (framing == Framing.GZIP) {
+          out.write(BGZF_EOF);
+        }
+      } finally {
+        closed = true;
+        compressors.shutdownNow();
+        out.close();
+      }
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+
+  private void submitBlock() throws IOException {
+    if (pendingBlocks.size() >= maxPendingBlocks) {
+      writeFirstBlock();
+    }
+    byte[] data = buffer;
+    int length = count;
+    pendingBlocks.addLast(compressors.submit(() -> compressBlock(data, length)));
+    buffer = freeBuffers.poll();
+    if (buffer == null) {
+      buffer = new byte[BLOCK_SIZE];
+    }
+    count = 0;
+    // opportunistically write blocks that are already compressed
+    while (!pendingBlocks.isEmpty() && pendingBlocks.peekFirst().isDone()) {
+      writeFirstBlock();
+    }
+  }
+
+  private void writeFirstBlock() throws IOException {
+    byte[] compressed;
+    try {
+      compressed = pendingBlocks.removeFirst().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while compressing data");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw new IOException(cause.getMessage(), cause);
+      }
+      throw new IOException("Error compressing data", cause);
+    }
+    out.write(compressed);
+  }
+
+  private byte[] compressBlock(byte[] data, int length) throws IOException {
+    try {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2);
+      if (framing == Framing.GZIP) {
+        writeBgzfMembers(data, length, compressed);
+      } else {
+        try (ZstdCompressorOutputStream zstd = new ZstdCompressorOutputStream(compressed)) {
+          zstd.write(data, 0, length);
+        }
+      }
+      return compressed.toByteArray();
+    } finally {
+      freeBuffers.offer(data);
+    }
+  }
+
+  private static void writeBgzfMembers(byte[] data, int length, ByteArrayOutputStream out) {
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    CRC32 crc = new CRC32();
+    byte[] deflated = new byte[BGZF_MAX_MEMBER_SIZE];
+    try {
+      int offset = 0;
+      while (offset < length) {
+        int dataSize = Math.min(BGZF_MAX_DATA_SIZE, length - offset);
+        int deflatedSize;
+        while (true) {
+          deflater.reset();
+          deflater.setInput(data, offset, dataSize);
+          deflater.finish();
+          deflatedSize = deflater.deflate(deflated, 0, deflated.length);
+          int memberSize = BGZF_HEADER_SIZE + deflatedSize + BGZF_TRAILER_SIZE;
+          if (deflater.finished() && memberSize <= BGZF_MAX_MEMBER_SIZE) {
+            break;
+          }
+          // incompressible data: retry with less data
+          dataSize /= 2;
+        }
+        int blockSize = BGZF_HEADER_SIZE + deflatedSize + BGZF_TRAILER_SIZE - 1;
+        out.write(0x1f);
+        out.write(0x8b);
+        out.write(8); // CM: deflate
+        out.write(4); // FLG: FEXTRA
+        writeIntLE(out, 0); // MTIME
+        out.write(0); // XFL
+        out.write(0xff); // OS: unknown
+        writeShortLE(out, 6); // XLEN
+        out.write('B');
+        out.write('C');
+        writeShortLE(out, 2); // SLEN
+        writeShortLE(out, blockSize); // BSIZE
+        out.write(deflated, 0, deflatedSize);
+        crc.reset();
+        crc.update(data, offset, dataSize);
+        writeIntLE(out, (int) crc.getValue());
+        writeIntLE(out, dataSize);
+        offset += dataSize;
+      }
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static void writeShortLE(ByteArrayOutputStream out, int value) {
+    out.write(value & 0xFF);
+    out.write((value >>> 8) & 0xFF);
+  }
+
+  private static void writeIntLE(ByteArrayOutputStream out, int value) {
+    writeShortLE(out, value & 0xFFFF);
+    writeShortLE(out, value >>> 16);
+  }
+}
@@ -0,0 +1,474 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * An {@link InputStream} that decompresses its source with several threads.
+ *
+ * <p>Decompression can only be parallelized when the compressed stream is made of independent units
+ * whose boundaries can be found without decompressing them:
+ *
+ * <ol>
+ *   <li>Zstandard streams are made of independent frames, and frame boundaries can be found by
+ *       reading frame and block headers only; this is the case of files compressed with {@code zstd
+ *       -T0} or with {@code pzstd}, for example.
+ *   <li>Gzip streams are made of independent members, but the compressed size of a member is only
+ *       known upfront if the member is a BGZF block, i.e., it declares its size in a {@code BC}
+ *       extra subfield; this is the case of files compressed with {@code bgzip}, for example.
+ * </ol>
+ *
+ * <p>A splitting thread reads the source, groups consecutive units into batches of about {@link
+ * #TARGET_BATCH_SIZE} compressed bytes and submits each batch to a pool of decompressing threads.
+ * The consumer reads the decompressed batches in their original order. At most {@code 2 * threads}
+ * batches are in flight at any time.
+ *
+ * <p>As soon as a unit boundary cannot be determined, e.g. because a regular gzip member or an
+ * oversized frame is met, the remainder of the source is decompressed sequentially, on a dedicated
+ * thread reading ahead of the consumer.
+ */
+final class ParallelDecompressingInputStream extends InputStream {
+
+  /** The framing formats that can be decompressed in parallel. */
+  enum Framing {
+    GZIP,
+    ZSTD
+  }
+
+  /** Creates a decompressing stream over a compressed one. */
+  @FunctionalInterface
+  interface Decompressor {
+
+    @NonNull
+    InputStream decompress(@NonNull InputStream compressed) throws IOException;
+  }
+
+  private static final int TARGET_BATCH_SIZE = 1024 * 1024;
+
+  private static final int MAX_BATCH_SIZE = 64 * 1024 * 1024;
+
+  private static final int READ_AHEAD_BUFFER_SIZE = 64 * 1024;
+
+  private static final int ZSTD_MAGIC = 0xFD2FB528;
+
+  private static final int ZSTD_SKIPPABLE_MAGIC = 0x184D2A50;
+
+  private static final Future<InputStream> END_OF_STREAM = CompletableFuture.completedFuture(null);
+
+  private final InputStream source;
+  private final Framing framing;
+  private final Decompressor decompressor;
+  private final ThreadFactory threadFactory;
+  private final ExecutorService decompressors;
+  private final BlockingQueue<Future<InputStream>> batches;
+  private final Thread splitter;
+
+  private volatile boolean closed;
+
+  private InputStream current;
+
+  /**
+   * Creates a new parallel decompressing stream and starts reading the source immediately.
+   *
+   * @param source The compressed source; will be closed when this stream is closed.
+   * @param framing The framing format of the source.
+   * @param decompressor The decompressor to use for each batch and for the sequential remainder.
+   * @param threads The number of decompressing threads; at least 2.
+   * @param threadFactory The factory to use to create threads.
+   */
+  ParallelDecompressingInputStream(
+      @NonNull InputStream source,
+      @NonNull Framing framing,
+      @NonNull Decompressor decompressor,
+      int threads,
+      @NonNull ThreadFactory threadFactory) {
+    this.source = source;
+    this.framing = framing;
+    this.decompressor = decompressor;
+    this.threadFactory = threadFactory;
+    decompressors = Executors.newFixedThreadPool(threads, threadFactory);
+    // one extra slot for the end-of-stream marker
+    batches = new ArrayBlockingQueue<>(threads * 2 + 1);
+    splitter = threadFactory.newThread(this::split);
+    splitter.start();
+  }
+
+  @Override
+  public int read() throws IOException {
+    while (true) {
+      InputStream in = currentStream();
+      if (in == null) {
+        return -1;
+      }
+      int b = in.read();
+      if (b != -1) {
+        return b;
+      }
+      nextStream();
+    }
+  }
+
+  @Override
+  public int read(@NonNull byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    while (true) {
+      InputStream in = currentStream();
+      if (in == null) {
+        return -1;
+      }
+      int n = in.read(b, off, len);
+      if (n != -1) {
+        return n;
+      }
+      nextStream();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      splitter.interrupt();
+      decompressors.shutdownNow();
+      try {
+        if (current != null) {
+          current.close();
+        }
+      } finally {
+        source.close();
+      }
+    }
+  }
+
+  @Nullable
+  private InputStream currentStream() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (current == null) {
+      Future<InputStream> batch;
+      try {
+        batch = batches.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for data");
+      }
+      if (batch == END_OF_STREAM) {
+        // keep returning end of stream on subsequent reads
+        batches.add(END_OF_STREAM);
+        return null;
+      }
+      try {
+        current = batch.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for data");
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+          throw new IOException(cause.getMessage(), cause);
+        }
+        throw new IOException("Error decompressing data", cause);
+      }
+    }
+    return current;
+  }
+
+  private void nextStream() throws IOException {
+    InputStream in = current;
+    current = null;
+    in.close();
+  }
+
+  private void split() {
+    Batch batch = new Batch();
+    try {
+      while (!closed) {
+        boolean complete;
+        try {
+          complete = framing == Framing.ZSTD ? readZstdFrame(batch) : readGzipMember(batch);
+        } catch (UnsplittableException e) {
+          complete = false;
+        }
+        if (complete) {
+          batch.commit();
+          if (batch.committed >= TARGET_BATCH_SIZE) {
+            submit(batch.takeCommitted());
+          }
+        } else {
+          // end of stream, or a unit whose boundary cannot be determined
+          if (batch.committed > 0) {
+            submit(batch.takeCommitted());
+          }
+          if (batch.count > 0 || !batch.endOfStream) {
+            decompressRemainder(batch.takePending());
+          }
+          break;
+        }
+      }
+    } catch (InterruptedException e) {
+      // closed by the consumer
+      return;
+    } catch (Throwable t) {
+      CompletableFuture<InputStream> failed = new CompletableFuture<>();
+      failed.completeExceptionally(t);
+      try {
+        batches.put(failed);
+      } catch (InterruptedException ignored) {
+        return;
+      }
+    }
+    try {
+      batches.put(END_OF_STREAM);
+    } catch (InterruptedException ignored) {
+      // closed by the consumer
+    }
+  }
+
+  private void submit(byte[] compressed) throws InterruptedException {
+    batches.put(decompressors.submit(() -> decompressFully(compressed)));
+  }
+
+  private InputStream decompressFully(byte[] compressed) throws IOException {
+    Batch decompressed = new Batch();
+    try (InputStream in = decompressor.decompress(new ByteArrayInputStream(compressed))) {
+      decompressed.readAll(in, compressed.length * 4);
+    }
+    return new ByteArrayInputStream(decompressed.buffer, 0, decompressed.count);
+  }
+
+  private void decompressRemainder(byte[] pending) throws IOException, InterruptedException {
+    InputStream remainder = new SequenceInputStream(new ByteArrayInputStream(pending), source);
+    InputStream in =
+        new ReadAheadInputStream(
+            decompressor.decompress(remainder), READ_AHEAD_BUFFER_SIZE, 4, threadFactory);
+    try {
+      batches.put(CompletableFuture.completedFuture(in));
+    } catch (InterruptedException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Reads one zstd frame into the batch.
+   *
+   * @return true if a full frame was read, false if the end of the source was reached.
+   */
+  private boolean readZstdFrame(Batch batch) throws IOException {
+    if (!batch.read(source, 4)) {
+      return false;
+    }
+    int magic = batch.intLE(batch.count - 4);
+    if ((magic & 0xFFFFFFF0) == ZSTD_SKIPPABLE_MAGIC) {
+      if (!batch.read(source, 4)) {
+        return false;
+      }
+      return batch.read(source, Integer.toUnsignedLong(batch.intLE(batch.count - 4)));
+    }
+    if (magic != ZSTD_MAGIC || !batch.read(source, 1)) {
+      throw new UnsplittableException();
+    }
+    int descriptor = batch.buffer[batch.count - 1] & 0xFF;
+    int contentSizeFlag = descriptor >>> 6;
+    boolean singleSegment = (descriptor & 0x20) != 0;
+    boolean checksum = (descriptor & 0x04) != 0;
+    int dictionaryIdFlag = descriptor & 0x03;
+    int headerSize = singleSegment ? 0 : 1;
+    headerSize += dictionaryIdFlag == 3 ? 4 : dictionaryIdFlag;
+    headerSize += contentSizeFlag == 0 ? (singleSegment ? 1 : 0) : 1 << contentSizeFlag;
+    if (!batch.read(source, headerSize)) {
+      return false;
+    }
+    boolean lastBlock = false;
+    while (!lastBlock) {
+      if (!batch.read(source, 3)) {
+        return false;
+      }
+      int blockHeader = batch.mediumLE(batch.count - 3);
+      lastBlock = (blockHeader & 1) != 0;
+      int blockType = (blockHeader >>> 1) & 0x03;
+      int blockSize = blockHeader >>> 3;
+      if (blockType == 3) {
+        // reserved block type: let the decompressor report the error
+        throw new UnsplittableException();
+      }
+      if (!batch.read(source, blockType == 1 ? 1 : blockSize)) {
+        return false;
+      }
+    }
+    return !checksum || batch.read(source, 4);
+  }
+
+  /**
+   * Reads one BGZF gzip member into the batch.
+   *
+   * @return true if a full member was read, false if the end of the source was reached.
+   */
+  private boolean readGzipMember(Batch batch) throws IOException {
+    // ID1, ID2, CM, FLG, MTIME (4 bytes), XFL, OS, XLEN (2 bytes)
+    if (!batch.read(source, 12)) {
+      return false;
+    }
+    int start = batch.count - 12;
+    if ((batch.buffer[start] & 0xFF) != 0x1F
+        || (batch.buffer[start + 1] & 0xFF) != 0x8B
+        || (batch.buffer[start + 3] & 0x04) == 0) {
+      // not a gzip member, or no extra field
+      throw new UnsplittableException();
+    }
+    int extraLength = batch.shortLE(start + 10);
+    if (!batch.read(source, extraLength)) {
+      return false;
+    }
+    int blockSize = -1;
+    int position = start + 12;
+    int extraEnd = position + extraLength;
+    while (position + 4 <= extraEnd) {
+      int subfieldLength = batch.shortLE(position + 2);
+      if (batch.buffer[position] == 'B'
+          && batch.buffer[position + 1] == 'C'
+          && subfieldLength == 2
+          && position + 6 <= extraEnd) {
+        blockSize = batch.shortLE(position + 4) + 1;
+        break;
+      }
+      position += 4 + subfieldLength;
+    }
+    if (blockSize < 12 + extraLength) {
+      throw new UnsplittableException();
+    }
+    return batch.read(source, blockSize - 12 - extraLength);
+  }
+
+  /**
+   * A growable byte buffer holding complete units (committed) followed by a unit being read
+   * (pending).
+   */
+  private static final class Batch {
+
+    private byte[] buffer = new byte[TARGET_BATCH_SIZE + 64 * 1024];
+    private int count;
+    private int committed;
+    private boolean endOfStream;
+
+    /**
+     * Appends exactly {@code length} bytes from the given stream.
+     *
+     * @return true if all bytes were read, false if the end of the stream was reached before.
+     * @throws UnsplittableException if the pending unit would exceed the maximum batch size.
+     */
+    boolean read(InputStream in, long length) throws IOException {
+      if (count - committed + length > MAX_BATCH_SIZE) {
+        throw new UnsplittableException();
+      }
+      ensureCapacity(count + (int) length);
+      int end = count + (int) length;
+      while (count < end) {
+        int n = in.read(buffer, count, end - count);
+        if (n == -1) {
+          endOfStream = true;
+          return false;
+        }
+        count += n;
+      }
+      return true;
+    }
+
+    void readAll(InputStream in, int sizeHint) throws IOException {
+      ensureCapacity(sizeHint);
+      int n;
+      do {
+        if (count == buffer.length) {
+          ensureCapacity(count + 1);
+        }
+        n = in.read(buffer, count, buffer.length - count);
+        if (n > 0) {
+          count += n;
+        }
+      } while (n != -1);
+    }
+
+    void commit() {
+      committed = count;
+    }
+
+    byte[] takeCommitted() {
+      byte[] bytes = Arrays.copyOf(buffer, committed);
+      System.arraycopy(buffer, committed, buffer, 0, count - committed);
+      count -= committed;
+      committed = 0;
+      return bytes;
+    }
+
+    byte[] takePending() {
+      byte[] bytes = Arrays.copyOfRange(buffer, committed, count);
+      count = committed;
+      return bytes;
+    }
+
+    int shortLE(int offset) {
+      return (buffer[offset] & 0xFF) | (buffer[offset + 1] & 0xFF) << 8;
+    }
+
+    int mediumLE(int offset) {
+      return shortLE(offset) | (buffer[offset + 2] & 0xFF) << 16;
+    }
+
+    int intLE(int offset) {
+      return (buffer[offset] & 0xFF)
+          | (buffer[offset + 1] & 0xFF) << 8
+          | (buffer[offset + 2] & 0xFF) << 16
+          | (buffer[offset + 3] & 0xFF) << 24;
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+      }
+    }
+  }
+
+  /** Thrown when the boundary of the next unit cannot be determined. */
+  private static final class UnsplittableException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      // used for control flow only
+      return this;
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * An {@link InputStream} that reads its source on a dedicated thread, ahead of its consumer.
+ *
+ * <p>The source is read into a bounded ring of buffers: the reading thread fills free buffers and
+ * hands them over to the consumer, which gives them back once consumed. This is typically used to
+ * run decompression on its own thread, concurrently with parsing.
+ *
+ * <p>Errors raised while reading the source are rethrown to the consumer, once all the data read
+ * before the error has been consumed. This stream is not thread-safe: it is meant to be consumed by
+ * one thread at a time.
+ */
+final class ReadAheadInputStream extends InputStream {
+
+  private static final Chunk END_OF_STREAM = new Chunk(new byte[0]);
+
+  private final InputStream source;
+  private final BlockingQueue<Chunk> free;
+  private final BlockingQueue<Chunk> filled;
+  private final Thread reader;
+
+  private volatile boolean closed;
+  private volatile Throwable error;
+
+  private Chunk current;
+  private int position;
+
+  /**
+   * Creates a new read-ahead stream and starts reading the source immediately.
+   *
+   * @param source The source to read; will be closed when this stream is closed.
+   * @param bufferSize The size of each buffer.
+   * @param buffers The number of buffers in the ring; at least 2.
+   * @param threadFactory The factory to use to create the reading thread.
+   */
+  ReadAheadInputStream(
+      @NonNull InputStream source,
+      int bufferSize,
+      int buffers,
+      @NonNull ThreadFactory threadFactory) {
+    this.source = source;
+    int capacity = Math.max(2, buffers);
+    free = new ArrayBlockingQueue<>(capacity);
+    // one extra slot for the end-of-stream marker
+    filled = new ArrayBlockingQueue<>(capacity + 1);
+    for (int i = 0; i < capacity; i++) {
+      free.add(new Chunk(new byte[bufferSize]));
+    }
+    reader = threadFactory.newThread(this::readSource);
+    reader.start();
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!ensureAvailable()) {
+      return -1;
+    }
+    return current.data[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(@NonNull byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!ensureAvailable()) {
+      return -1;
+    }
+    int n = Math.min(len, current.length - position);
+    System.arraycopy(current.data, position, b, off, n);
+    position += n;
+    return n;
+  }
+
+  @Override
+  public int available() {
+    return current == null || current == END_OF_STREAM ? 0 : current.length - position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      reader.interrupt();
+      source.close();
+    }
+  }
+
+  private boolean ensureAvailable() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    while (current == null || (current != END_OF_STREAM && position == current.length)) {
+      if (current != null) {
+        free.add(current);
+      }
+      try {
+        current = filled.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for data");
+      }
+      position = 0;
+    }
+    if (current == END_OF_STREAM) {
+      Throwable t = error;
+      if (t != null) {
+        if (t instanceof IOException) {
+          throw new IOException(t.getMessage(), t);
+        }
+        throw new IOException("Error reading from source", t);
+      }
+      return false;
+    }
+    return true;
+  }
+
+  private void readSource() {
+    try {
+      while (!closed) {
+        Chunk chunk = free.take();
+        chunk.length = 0;
+        int n = 0;
+        while (n != -1 && chunk.length < chunk.data.length) {
+          n = source.read(chunk.data, chunk.length, chunk.data.length - chunk.length);
+          if (n > 0) {
+            chunk.length += n;
+          }
+        }
+        if (chunk.length > 0) {
+          filled.put(chunk);
+        }
+        if (n == -1) {
+          break;
+        }
+      }
+    } catch (InterruptedException e) {
+      // closed by the consumer
+      return;
+    } catch (Throwable t) {
+      error = t;
+    }
+    try {
+      filled.put(END_OF_STREAM);
+    } catch (InterruptedException ignored) {
+      // closed by the consumer
+    }
+  }
+
+  private static final class Chunk {
+
+    private final byte[] data;
+    private int length;
+
+    private Chunk(byte[] data) {
+      this.data = data;
+      this.length = data.length;
+    }
+  }
+}
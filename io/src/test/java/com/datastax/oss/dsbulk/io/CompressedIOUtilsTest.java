@@ -20,20 +20,35 @@ import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import com.datastax.oss.driver.shaded.guava.common.base.Charsets;
+import com.datastax.oss.driver.shaded.guava.common.base.Splitter;
+import com.datastax.oss.driver.shaded.guava.common.io.ByteStreams;
+import com.datastax.oss.driver.shaded.guava.common.io.CharStreams;
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.LineNumberReader;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class CompressedIOUtilsTest {
 
@@ -197,6 +212,264 @@ class CompressedIOUtilsTest {
         arguments("z", "Unsupported compression format: z"));
   }
 
+  @ParameterizedTest(name = "[{index}] Should read local file with buffer size {0}")
+  @ValueSource(ints = {1, 64, 100, 8192})
+  void should_read_local_file_through_file_channel(int bufferSize) throws IOException {
+    Path path = Files.createTempFile("dsbulk-", "-channel");
+    try {
+      String contents = createMultiByteContents();
+      Files.write(path, contents.getBytes(Charsets.UTF_8));
+      URL url = path.toUri().toURL();
+      try (Reader reader = CompressedIOUtils.newReader(url, Charsets.UTF_8, "none", bufferSize)) {
+        assertThat(reader).isNotInstanceOf(BufferedReader.class);
+        assertThat(CharStreams.toString(reader)).isEqualTo(contents);
+      }
+      // read char by char to exercise surrogate pairs
+      try (Reader reader = CompressedIOUtils.newReader(url, Charsets.UTF_8, "none", bufferSize)) {
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+          sb.append((char) c);
+        }
+        assertThat(sb.toString()).isEqualTo(contents);
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  void should_read_compressed_file_with_buffered_reader() throws IOException {
+    URL url = getClass().getResource("/compression/test.gz");
+    try (Reader reader =
+        CompressedIOUtils.newReader(url, Charsets.UTF_8, CompressedIOUtils.GZIP_COMPRESSION, 1)) {
+      assertThat(reader).isInstanceOf(BufferedReader.class);
+      assertThat(CharStreams.readLines(reader)).containsExactly("this is", "a", "test file");
+    }
+  }
+
+  @ParameterizedTest(name = "[{index}] Should read file {0} with compression {1} and {2} threads")
+  @MethodSource
+  void should_read_compressed_file_with_decompression_threads(
+      String filename, String compression, int threads) throws IOException {
+    URL url = getClass().getResource("/compression/" + filename);
+    try (Reader reader =
+        CompressedIOUtils.newReader(url, Charsets.UTF_8, compression, 1, threads)) {
+      assertThat(CharStreams.readLines(reader)).containsExactly("this is", "a", "test file");
+    }
+  }
+
+  @SuppressWarnings("unused")
+  private static Stream<Arguments> should_read_compressed_file_with_decompression_threads() {
+    return should_read_compressed_file()
+        .filter(args -> !args.get()[1].equals(CompressedIOUtils.NONE_COMPRESSION))
+        .flatMap(
+            args ->
+                Stream.of(1, 4).map(threads -> arguments(args.get()[0], args.get()[1], threads)));
+  }
+
+  @ParameterizedTest(name = "[{index}] Should read multi-frame zstd file with {0} threads")
+  @ValueSource(ints = {1, 2, 4})
+  void should_read_multi_frame_zstd_file(int threads) throws IOException {
+    String contents = createLargeContents();
+    byte[] bytes = contents.getBytes(Charsets.UTF_8);
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    // 1 frame per 100,000 bytes
+    for (int offset = 0; offset < bytes.length; offset += 100_000) {
+      ByteArrayOutputStream frame = new ByteArrayOutputStream();
+      try (ZstdCompressorOutputStream out = new ZstdCompressorOutputStream(frame)) {
+        out.write(bytes, offset, Math.min(100_000, bytes.length - offset));
+      }
+      frame.writeTo(compressed);
+    }
+    assertCanReadLargeContents(
+        compressed.toByteArray(), CompressedIOUtils.ZSTD_COMPRESSION, threads, contents);
+  }
+
+  @ParameterizedTest(name = "[{index}] Should read BGZF gzip file with {0} threads")
+  @ValueSource(ints = {1, 2, 4})
+  void should_read_bgzf_file(int threads) throws IOException {
+    String contents = createLargeContents();
+    byte[] bytes = contents.getBytes(Charsets.UTF_8);
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    // BGZF blocks for the first half, then a regular gzip member for the second half
+    int half = bytes.length / 2;
+    for (int offset = 0; offset < half; offset += 50_000) {
+      writeBgzfBlock(compressed, bytes, offset, Math.min(50_000, half - offset));
+    }
+    try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+      out.write(bytes, half, bytes.length - half);
+    }
+    assertCanReadLargeContents(
+        compressed.toByteArray(), CompressedIOUtils.GZIP_COMPRESSION, threads, contents);
+  }
+
+  @Test
+  void should_report_truncated_zstd_file_when_decompressing_in_parallel() throws IOException {
+    byte[] bytes = createLargeContents().getBytes(Charsets.UTF_8);
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (ZstdCompressorOutputStream out = new ZstdCompressorOutputStream(compressed)) {
+      out.write(bytes);
+    }
+    byte[] truncated = new byte[compressed.size() - 10];
+    System.arraycopy(compressed.toByteArray(), 0, truncated, 0, truncated.length);
+    Path path = Files.createTempFile("dsbulk-", "-truncated.zstd");
+    try {
+      Files.write(path, truncated);
+      URL url = path.toUri().toURL();
+      Throwable error =
+          catchThrowable(
+              () -> {
+                try (Reader reader =
+                    CompressedIOUtils.newReader(
+                        url, Charsets.UTF_8, CompressedIOUtils.ZSTD_COMPRESSION, 1, 4)) {
+                  CharStreams.toString(reader);
+                }
+              });
+      assertThat(error).isInstanceOf(IOException.class);
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @ParameterizedTest(name = "[{index}] Should write file with compression {0} and {1} threads")
+  @MethodSource
+  void should_write_compressed_file_with_compression_threads(String compression, int threads)
+      throws IOException {
+    String contents = createLargeContents();
+    Path path = Files.createTempFile("dsbulk-", "-parallel");
+    Files.delete(path);
+    try {
+      URL url = path.toUri().toURL();
+      try (BufferedWriter writer =
+          CompressedIOUtils.newBufferedWriter(url, Charsets.UTF_8, compression, threads)) {
+        // flushing must not interfere with block compression
+        for (String line : Splitter.on('\n').omitEmptyStrings().split(contents)) {
+          writer.write(line);
+          writer.write('\n');
+          if (line.endsWith("0 \u00e9\u00e0\u00fc")) {
+            writer.flush();
+          }
+        }
+      }
+      for (int decompressionThreads : new int[] {0, 4}) {
+        try (Reader reader =
+            CompressedIOUtils.newReader(
+                url, Charsets.UTF_8, compression, 1, decompressionThreads)) {
+          assertThat(CharStreams.toString(reader)).isEqualTo(contents);
+        }
+      }
+      if (compression.equals(CompressedIOUtils.GZIP_COMPRESSION)) {
+        // output must be readable by standard tools
+        try (Reader reader =
+            new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path)), Charsets.UTF_8)) {
+          assertThat(CharStreams.toString(reader)).isEqualTo(contents);
+        }
+      }
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @SuppressWarnings("unused")
+  private static Stream<Arguments> should_write_compressed_file_with_compression_threads() {
+    return Stream.of(
+        arguments(CompressedIOUtils.GZIP_COMPRESSION, 1),
+        arguments(CompressedIOUtils.GZIP_COMPRESSION, 4),
+        arguments(CompressedIOUtils.ZSTD_COMPRESSION, 1),
+        arguments(CompressedIOUtils.ZSTD_COMPRESSION, 4));
+  }
+
+  @ParameterizedTest(name = "[{index}] Should write and read bytes with compression {0}")
+  @MethodSource
+  void should_write_and_read_binary_streams(String compression, int threads) throws IOException {
+    byte[] contents = createLargeContents().getBytes(Charsets.UTF_8);
+    Path path = Files.createTempFile("dsbulk-", "-binary");
+    Files.delete(path);
+    try {
+      URL url = path.toUri().toURL();
+      try (OutputStream out = CompressedIOUtils.newOutputStream(url, compression, threads)) {
+        out.write(contents);
+      }
+      try (InputStream in = CompressedIOUtils.newInputStream(url, compression, threads)) {
+        assertThat(ByteStreams.toByteArray(in)).isEqualTo(contents);
+      }
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @SuppressWarnings("unused")
+  private static Stream<Arguments> should_write_and_read_binary_streams() {
+    return Stream.of(
+        arguments(CompressedIOUtils.NONE_COMPRESSION, 0),
+        arguments(CompressedIOUtils.GZIP_COMPRESSION, 0),
+        arguments(CompressedIOUtils.GZIP_COMPRESSION, 4),
+        arguments(CompressedIOUtils.ZSTD_COMPRESSION, 4),
+        arguments(CompressedIOUtils.LZ4_COMPRESSION, 1));
+  }
+
+  static String createMultiByteContents() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      sb.append("line ").append(i).append(" \u00e9\u00e0\u00fc \uD834\uDD1E\n");
+    }
+    return sb.toString();
+  }
+
+  private static String createLargeContents() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 200_000; i++) {
+      sb.append(i).append(",line ").append(i).append(" \u00e9\u00e0\u00fc\n");
+    }
+    return sb.toString();
+  }
+
+  private static void writeBgzfBlock(ByteArrayOutputStream out, byte[] data, int offset, int length)
+      throws IOException {
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    deflater.setInput(data, offset, length);
+    deflater.finish();
+    byte[] deflated = new byte[length + 1024];
+    int deflatedLength = 0;
+    while (!deflater.finished()) {
+      deflatedLength +=
+          deflater.deflate(deflated, deflatedLength, deflated.length - deflatedLength);
+    }
+    deflater.end();
+    // header (10 bytes) + extra field (8 bytes) + deflated data + trailer (8 bytes), minus 1
+    int blockSize = 18 + deflatedLength + 8 - 1;
+    out.write(new byte[] {0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0});
+    out.write(new byte[] {'B', 'C', 2, 0, (byte) blockSize, (byte) (blockSize >> 8)});
+    out.write(deflated, 0, deflatedLength);
+    CRC32 crc = new CRC32();
+    crc.update(data, offset, length);
+    writeIntLE(out, (int) crc.getValue());
+    writeIntLE(out, length);
+  }
+
+  private static void writeIntLE(ByteArrayOutputStream out, int value) {
+    for (int i = 0; i < 4; i++) {
+      out.write(value >>> (8 * i));
+    }
+  }
+
+  private static void assertCanReadLargeContents(
+      byte[] compressed, String compression, int threads, String expected) throws IOException {
+    Path path = Files.createTempFile("dsbulk-", "-parallel");
+    try {
+      Files.write(path, compressed);
+      URL url = path.toUri().toURL();
+      try (Reader reader =
+          CompressedIOUtils.newReader(url, Charsets.UTF_8, compression, 1, threads)) {
+        assertThat(CharStreams.toString(reader)).isEqualTo(expected);
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
   private static void assertCanReadCompressed(URL url, String compression) throws IOException {
     List<String> lines = readCompressed(url, compression);
     assertThat(lines)
@@ -17,9 +17,15 @@ package com.datastax.oss.dsbulk.io;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.datastax.oss.driver.shaded.guava.common.base.Charsets;
+import com.datastax.oss.driver.shaded.guava.common.io.CharStreams;
 import com.datastax.oss.dsbulk.url.BulkLoaderURLStreamHandlerFactory;
+import java.io.IOException;
+import java.io.Reader;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
 
 class IOUtilsTest {
@@ -33,4 +39,23 @@ class IOUtilsTest {
     assertThat(IOUtils.isStandardStream(new URL("http://acme.com"))).isFalse();
     assertThat(IOUtils.isStandardStream(new URL("std:/"))).isTrue();
   }
+
+  @Test
+  void should_read_file_range() throws IOException {
+    Path path = Files.createTempFile("dsbulk-", "-range");
+    try {
+      String contents = CompressedIOUtilsTest.createMultiByteContents();
+      byte[] bytes = contents.getBytes(Charsets.UTF_8);
+      Files.write(path, bytes);
+      String prefix = contents.substring(0, contents.indexOf("line 500"));
+      int start = prefix.getBytes(Charsets.UTF_8).length;
+      String expected = contents.substring(prefix.length(), contents.indexOf("line 600"));
+      int length = expected.getBytes(Charsets.UTF_8).length;
+      try (Reader reader = IOUtils.newFileReader(path, start, length, Charsets.UTF_8, 100)) {
+        assertThat(CharStreams.toString(reader)).isEqualTo(expected);
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
 }
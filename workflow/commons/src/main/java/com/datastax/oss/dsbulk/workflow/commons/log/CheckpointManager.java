@@ -0,0 +1,292 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.datastax.oss.driver.shaded.guava.common.base.Splitter;
+import com.datastax.oss.dsbulk.connectors.api.Checkpoint;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link Checkpoint} of a load or unload operation.
+ *
+ * <p>When loading, resources are the files or other sources read by the connector, and positions
+ * are record numbers. When unloading, resources are the token ranges read from the database, and
+ * have no positions: a token range is reported as entirely processed once all its rows were written
+ * and flushed by the connector.
+ *
+ * <p>Checkpoints are saved as text files containing one line per resource; each line contains the
+ * resource URI, whether the resource was entirely processed or not, and the ranges of positions
+ * that were processed, separated by semicolons, e.g.:
+ *
+ * <pre>
+ * file:/data/file1.csv;complete;1:10000
+ * file:/data/file2.csv;partial;1:4999,5001:6000
+ * cql://ks1/table1?start=-9223372036854775808&amp;end=-3074457345618258603;complete;
+ * </pre>
+ *
+ * When resuming an operation, the checkpoint of the previous execution is {@linkplain #load(Path)
+ * loaded}, and its positions are merged with the positions of the current execution every time the
+ * checkpoint is {@linkplain #save(Path, Map) saved}, so that resumed operations can be resumed in
+ * turn.
+ */
+public class CheckpointManager implements Checkpoint {
+
+  private static final String COMPLETE = "complete";
+  private static final String PARTIAL = "partial";
+
+  private static final Comparator<Range> BY_LOWER = Comparator.comparingLong(Range::getLower);
+
+  private final Map<URI, List<Range>> previousPositions;
+  private final Set<URI> previousCompleteResources;
+
+  // The first and last positions of resources entirely read by the current execution.
+  private final ConcurrentMap<URI, Range> readResources = new ConcurrentHashMap<>();
+
+  /** Creates a new checkpoint for an operation that is not being resumed. */
+  public CheckpointManager() {
+    this(Collections.emptyMap(), Collections.emptySet());
+  }
+
+  private CheckpointManager(
+      @NonNull Map<URI, List<Range>> previousPositions,
+      @NonNull Set<URI> previousCompleteResources) {
+    this.previousPositions = previousPositions;
+    this.previousCompleteResources = previousCompleteResources;
+  }
+
+  /**
+   * Loads the checkpoint saved by a previous execution of the operation.
+   *
+   * @param checkpointFile the checkpoint file to load.
+   * @return a new checkpoint for the operation being resumed.
+   * @throws IOException if the file cannot be read.
+   * @throws IllegalArgumentException if the file is not a valid checkpoint file.
+   */
+  @NonNull
+  public static CheckpointManager load(@NonNull Path checkpointFile) throws IOException {
+    Map<URI, List<Range>> positions = new HashMap<>();
+    Set<URI> completeResources = new HashSet<>();
+    try (BufferedReader reader = Files.newBufferedReader(checkpointFile, UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isEmpty()) {
+          continue;
+        }
+        try {
+          // URIs may contain semicolons, so parse the line from the end
+          int rangesStart = line.lastIndexOf(';');
+          int statusStart = line.lastIndexOf(';', rangesStart - 1);
+          URI resource = URI.create(line.substring(0, statusStart));
+          String status = line.substring(statusStart + 1, rangesStart);
+          if (status.equals(COMPLETE)) {
+            completeResources.add(resource);
+          } else if (!status.equals(PARTIAL)) {
+            throw new IllegalArgumentException("unknown status: " + status);
+          }
+          positions.put(resource, parseRanges(line.substring(rangesStart + 1)));
+        } catch (RuntimeException e) {
+          throw new IllegalArgumentException(
+              String.format(
+                  "Invalid checkpoint file %s, line %d: %s", checkpointFile, lineNumber, line),
+              e);
+        }
+      }
+    }
+    return new CheckpointManager(positions, completeResources);
+  }
+
+  /**
+   * Whether this checkpoint is empty, that is, whether the operation is not being resumed, and no
+   * resource was entirely read yet.
+   */
+  public boolean isEmpty() {
+    return previousPositions.isEmpty()
+        && previousCompleteResources.isEmpty()
+        && readResources.isEmpty();
+  }
+
+  @Override
+  public boolean isComplete(@NonNull URI resource) {
+    return previousCompleteResources.contains(resource);
+  }
+
+  @Override
+  public boolean isProcessed(@NonNull URI resource, long position) {
+    return findRange(resource, position) != null;
+  }
+
+  @Override
+  public long nextUnprocessedPosition(@NonNull URI resource, long position) {
+    // ranges are coalesced, so the position right after a range is never processed
+    Range range = findRange(resource, position);
+    return range == null ? position : range.getUpper() + 1;
+  }
+
+  /** Returns the range of previously processed positions containing the given position, if any. */
+  @Nullable
+  private Range findRange(@NonNull URI resource, long position) {
+    List<Range> ranges = previousPositions.get(resource);
+    if (ranges == null) {
+      return null;
+    }
+    int low = 0;
+    int high = ranges.size() - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      Range range = ranges.get(mid);
+      if (position < range.getLower()) {
+        high = mid - 1;
+      } else if (position > range.getUpper()) {
+        low = mid + 1;
+      } else {
+        return range;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void onResourceRead(@NonNull URI resource, long firstPosition, long lastPosition) {
+    readResources.put(resource, new Range(firstPosition, lastPosition));
+  }
+
+  /**
+   * Saves this checkpoint, merging the positions processed by the previous execution, if any, with
+   * the given positions processed by the current execution.
+   *
+   * <p>The file is first written to a temporary file, then atomically moved to its final
+   * destination, so that a checkpoint file is never left half-written if the operation dies while
+   * saving it.
+   *
+   * @param checkpointFile the file to save the checkpoint to; will be replaced if it exists.
+   * @param positions the positions processed by the current execution.
+   * @throws IOException if the file cannot be written.
+   */
+  public void save(@NonNull Path checkpointFile, @NonNull Map<URI, List<Range>> positions)
+      throws IOException {
+    Set<URI> resources = new TreeSet<>(previousPositions.keySet());
+    resources.addAll(positions.keySet());
+    resources.addAll(readResources.keySet());
+    Path tempFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+    try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(tempFile, UTF_8))) {
+      for (URI resource : resources) {
+        List<Range> ranges = mergeRanges(previousPositions.get(resource), positions.get(resource));
+        boolean complete =
+            previousCompleteResources.contains(resource)
+                || isEntirelyProcessed(readResources.get(resource), ranges);
+        writer.print(resource);
+        writer.print(';');
+        writer.print(complete ? COMPLETE : PARTIAL);
+        writer.print(';');
+        for (int i = 0; i < ranges.size(); i++) {
+          if (i > 0) {
+            writer.print(',');
+          }
+          Range range = ranges.get(i);
+          writer.print(range.getLower());
+          writer.print(':');
+          writer.print(range.getUpper());
+        }
+        writer.println();
+      }
+    }
+    Files.move(tempFile, checkpointFile, REPLACE_EXISTING, ATOMIC_MOVE);
+  }
+
+  @NonNull
+  private static List<Range> parseRanges(@NonNull String ranges) {
+    List<Range> result = new ArrayList<>();
+    if (!ranges.isEmpty()) {
+      for (String range : Splitter.on(',').split(ranges)) {
+        int colon = range.indexOf(':');
+        result.add(
+            new Range(
+                Long.parseLong(range.substring(0, colon)),
+                Long.parseLong(range.substring(colon + 1))));
+      }
+    }
+    // make sure ranges are sorted and coalesced, as required by isProcessed()
+    return mergeRanges(result, null);
+  }
+
+  /**
+   * Merges the given lists of ranges into a new list of sorted, non-adjacent ranges. The ranges in
+   * the given lists are not modified.
+   */
+  @NonNull
+  private static List<Range> mergeRanges(@Nullable List<Range> left, @Nullable List<Range> right) {
+    List<Range> all = new ArrayList<>();
+    if (left != null) {
+      all.addAll(left);
+    }
+    if (right != null) {
+      all.addAll(right);
+    }
+    all.sort(BY_LOWER);
+    List<Range> merged = new ArrayList<>(all.size());
+    Range current = null;
+    for (Range range : all) {
+      if (current != null && range.getLower() <= current.getUpper() + 1L) {
+        current.setUpper(Math.max(current.getUpper(), range.getUpper()));
+      } else {
+        current = new Range(range.getLower(), range.getUpper());
+        merged.add(current);
+      }
+    }
+    return merged;
+  }
+
+  private static boolean isEntirelyProcessed(@Nullable Range read, @NonNull List<Range> ranges) {
+    if (read == null) {
+      // resource not entirely read yet
+      return false;
+    }
+    if (read.getLower() == -1) {
+      // empty resource
+      return true;
+    }
+    for (Range range : ranges) {
+      if (range.contains(read.getLower())) {
+        return range.getUpper() >= read.getUpper();
+      }
+    }
+    return false;
+  }
+}
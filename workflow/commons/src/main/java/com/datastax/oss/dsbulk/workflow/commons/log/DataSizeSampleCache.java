@@ -0,0 +1,133 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.UniformReservoir;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of data size samples, stored in operation directories.
+ *
+ * <p>Each sample is saved in the directory of the operation that took it, in a text file named
+ * after the fingerprint of the sampled data, and containing one sampled size per line. When looking
+ * up a sample, the directories of all the operations sharing the same log directory are searched,
+ * and the most recent sample found for the given fingerprint is returned; this allows repeated
+ * operations on the same data to skip sampling altogether.
+ */
+public class DataSizeSampleCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DataSizeSampleCache.class);
+
+  private static final String FILE_NAME_PREFIX = "data-size-sample-";
+  private static final String FILE_NAME_SUFFIX = ".txt";
+
+  private final Path operationDirectory;
+  private final String fileName;
+
+  /**
+   * Creates a new cache.
+   *
+   * @param operationDirectory the directory of the current operation.
+   * @param fingerprint the fingerprint of the sampled data.
+   */
+  public DataSizeSampleCache(@NonNull Path operationDirectory, @NonNull String fingerprint) {
+    this.operationDirectory = operationDirectory;
+    fileName = FILE_NAME_PREFIX + fingerprint + FILE_NAME_SUFFIX;
+  }
+
+  /**
+   * Returns the most recent sample stored by an operation that sampled the same data, if any.
+   * Unreadable samples are ignored.
+   *
+   * @return the most recent sample of the same data, or empty if none was found.
+   */
+  @NonNull
+  public Optional<Histogram> load() {
+    Path logDirectory = operationDirectory.toAbsolutePath().getParent();
+    if (logDirectory == null) {
+      return Optional.empty();
+    }
+    Optional<Path> latest;
+    try (Stream<Path> operationDirectories = Files.list(logDirectory)) {
+      latest =
+          operationDirectories
+              .map(directory -> directory.resolve(fileName))
+              .filter(Files::isReadable)
+              .max(
+                  (file1, file2) ->
+                      getLastModifiedTime(file1).compareTo(getLastModifiedTime(file2)));
+    } catch (IOException | RuntimeException e) {
+      LOGGER.debug("Could not search for data size samples in {}", logDirectory, e);
+      return Optional.empty();
+    }
+    return latest.flatMap(DataSizeSampleCache::read);
+  }
+
+  /**
+   * Stores the given sample in the directory of the current operation.
+   *
+   * @param sample the sample to store.
+   * @throws IOException if the sample cannot be written.
+   */
+  public void store(@NonNull Histogram sample) throws IOException {
+    try (PrintWriter writer =
+        new PrintWriter(Files.newBufferedWriter(operationDirectory.resolve(fileName), UTF_8))) {
+      for (long size : sample.getSnapshot().getValues()) {
+        writer.println(size);
+      }
+    }
+  }
+
+  @NonNull
+  private static Optional<Histogram> read(@NonNull Path file) {
+    Histogram sample = new Histogram(new UniformReservoir());
+    try (BufferedReader reader = Files.newBufferedReader(file, UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty()) {
+          sample.update(Long.parseLong(line));
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      LOGGER.debug("Could not read data size sample {}", file, e);
+      return Optional.empty();
+    }
+    LOGGER.debug("Reusing data size sample {}", file);
+    return Optional.of(sample);
+  }
+
+  @NonNull
+  private static FileTime getLastModifiedTime(@NonNull Path file) {
+    try {
+      return Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+}
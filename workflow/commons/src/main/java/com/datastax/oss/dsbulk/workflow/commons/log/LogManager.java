@@ -18,6 +18,8 @@ package com.datastax.oss.dsbulk.workflow.commons.log;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.StandardOpenOption.CREATE_NEW;
 import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.stream.Collectors.toList;
 
 import ch.qos.logback.classic.LoggerContext;
@@ -39,6 +41,8 @@ import com.datastax.oss.driver.api.core.servererrors.QueryExecutionException;
 import com.datastax.oss.driver.api.core.servererrors.ServerError;
 import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
 import com.datastax.oss.driver.shaded.guava.common.base.Joiner;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.MoreExecutors;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.ThreadFactoryBuilder;
 import com.datastax.oss.dsbulk.connectors.api.ErrorRecord;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
@@ -66,9 +70,13 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.time.Duration;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAdder;
@@ -97,6 +105,7 @@ public class LogManager implements AutoCloseable {
   private static final String CAS_BAD_FILE = "paxos.bad";
 
   private static final String POSITIONS_FILE = "positions.txt";
+  public static final String CHECKPOINT_FILE = "checkpoint.txt";
 
   private final CqlSession session;
   private final Path operationDirectory;
@@ -106,6 +115,8 @@ public class LogManager implements AutoCloseable {
   private final StatementFormatter statementFormatter;
   private final StatementFormatVerbosity statementFormatVerbosity;
   private final RowFormatter rowFormatter;
+  private final CheckpointManager checkpointManager;
+  private final long checkpointIntervalNanos;
 
   private final AtomicInteger errors = new AtomicInteger(0);
   private final LongAdder totalItems = new LongAdder();
@@ -124,6 +135,7 @@ public class LogManager implements AutoCloseable {
 
   private PositionsTracker positionsTracker;
   private PrintWriter positionsPrinter;
+  private ScheduledExecutorService checkpointScheduler;
 
   private FluxSink<ErrorRecord> failedRecordSink;
   private FluxSink<ErrorRecord> unmappableRecordSink;
@@ -147,6 +159,30 @@ public class LogManager implements AutoCloseable {
       StatementFormatter statementFormatter,
       StatementFormatVerbosity statementFormatVerbosity,
       RowFormatter rowFormatter) {
+    this(
+        session,
+        operationDirectory,
+        errorThreshold,
+        queryWarningsThreshold,
+        trackPositions,
+        statementFormatter,
+        statementFormatVerbosity,
+        rowFormatter,
+        new CheckpointManager(),
+        Duration.ZERO);
+  }
+
+  public LogManager(
+      CqlSession session,
+      Path operationDirectory,
+      ErrorThreshold errorThreshold,
+      ErrorThreshold queryWarningsThreshold,
+      boolean trackPositions,
+      StatementFormatter statementFormatter,
+      StatementFormatVerbosity statementFormatVerbosity,
+      RowFormatter rowFormatter,
+      CheckpointManager checkpointManager,
+      Duration checkpointInterval) {
     this.session = session;
     this.operationDirectory = operationDirectory;
     this.errorThreshold = errorThreshold;
@@ -155,6 +191,8 @@ public class LogManager implements AutoCloseable {
     this.statementFormatter = statementFormatter;
     this.statementFormatVerbosity = statementFormatVerbosity;
     this.rowFormatter = rowFormatter;
+    this.checkpointManager = checkpointManager;
+    this.checkpointIntervalNanos = checkpointInterval.toNanos();
   }
 
   public void init() {
@@ -164,6 +202,17 @@ public class LogManager implements AutoCloseable {
     stackTracePrinter.setOptionList(LogSettings.STACK_TRACE_PRINTER_OPTIONS);
     stackTracePrinter.start();
     positionsTracker = new PositionsTracker();
+    if (trackPositions && checkpointIntervalNanos > 0) {
+      ThreadFactory threadFactory =
+          new ThreadFactoryBuilder()
+              .setDaemon(true)
+              .setNameFormat("checkpoint-%d")
+              .setPriority(Thread.MIN_PRIORITY)
+              .build();
+      checkpointScheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+      checkpointScheduler.scheduleWithFixedDelay(
+          this::saveCheckpoint, checkpointIntervalNanos, checkpointIntervalNanos, NANOSECONDS);
+    }
     failedRecordSink = newFailedRecordSink();
     unmappableRecordSink = newUnmappableRecordSink();
     unmappableStatementSink = newUnmappableStatementSink();
@@ -187,6 +236,14 @@ public class LogManager implements AutoCloseable {
     return operationDirectory;
   }
 
+  /**
+   * Returns the checkpoint of the current operation. Only meaningful if positions are being
+   * tracked.
+   */
+  public CheckpointManager getCheckpointManager() {
+    return checkpointManager;
+  }
+
   public int getTotalErrors() {
     return errors.get();
   }
@@ -213,6 +270,10 @@ public class LogManager implements AutoCloseable {
               pw.close();
             });
     positionsSink.complete();
+    if (checkpointScheduler != null) {
+      // wait for any periodic save in progress, the final checkpoint is saved below
+      MoreExecutors.shutdownAndAwaitTermination(checkpointScheduler, 1, MINUTES);
+    }
     if (trackPositions && !positionsTracker.isEmpty()) {
       positionsPrinter =
           new PrintWriter(
@@ -224,6 +285,10 @@ public class LogManager implements AutoCloseable {
       positionsPrinter.flush();
       positionsPrinter.close();
     }
+    if (trackPositions && !(positionsTracker.isEmpty() && checkpointManager.isEmpty())) {
+      checkpointManager.save(
+          operationDirectory.resolve(CHECKPOINT_FILE), positionsTracker.getPositions());
+    }
   }
 
   public void reportLastLocations() {
@@ -248,6 +313,12 @@ public class LogManager implements AutoCloseable {
     if (positionsTracker != null) {
       LOGGER.info("Last processed positions can be found in {}", POSITIONS_FILE);
     }
+    if (trackPositions) {
+      LOGGER.info(
+          "Operation checkpoint can be found in {}; to resume this operation, use -resume {}",
+          CHECKPOINT_FILE,
+          operationDirectory.getFileName());
+    }
   }
 
   /**
@@ -653,6 +724,19 @@ public class LogManager implements AutoCloseable {
     return processor.sink();
   }
 
+  /**
+   * Periodically saves the operation checkpoint, on the dedicated checkpoint scheduler, so that
+   * writing the checkpoint file never delays the processing of records.
+   */
+  private void saveCheckpoint() {
+    try {
+      checkpointManager.save(
+          operationDirectory.resolve(CHECKPOINT_FILE), positionsTracker.getPositions());
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Could not save operation checkpoint", e);
+    }
+  }
+
   // Bad file management
 
   private void appendToBadFile(Record record, String file) {
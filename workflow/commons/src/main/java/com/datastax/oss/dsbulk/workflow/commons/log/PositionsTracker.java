@@ -20,15 +20,44 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Tracks the positions of processed records, per resource, as sets of disjoint, non-adjacent
+ * {@linkplain Range ranges}.
+ *
+ * <p>The ranges of each resource are kept in a tree indexed by their lower bounds, so that updates
+ * take logarithmic time in the number of ranges, even when positions arrive out of order and the
+ * ranges get fragmented. This class is thread-safe: updates to different resources proceed in
+ * parallel, while updates to the same resource are serialized.
+ */
 public class PositionsTracker {
 
-  private final Map<URI, List<Range>> positions = new HashMap<>();
+  private final ConcurrentMap<URI, NavigableMap<Long, Range>> positions = new ConcurrentHashMap<>();
 
+  /**
+   * Returns a snapshot of the positions tracked so far, as lists of ranges sorted by their lower
+   * bounds.
+   */
   public Map<URI, List<Range>> getPositions() {
-    return positions;
+    Map<URI, List<Range>> snapshot = new HashMap<>();
+    positions.forEach(
+        (resource, ranges) -> {
+          List<Range> copy;
+          synchronized (ranges) {
+            copy = new ArrayList<>(ranges.size());
+            for (Range range : ranges.values()) {
+              copy.add(new Range(range.getLower(), range.getUpper()));
+            }
+          }
+          snapshot.put(resource, copy);
+        });
+    return snapshot;
   }
 
   public boolean isEmpty() {
@@ -37,48 +66,36 @@ public class PositionsTracker {
 
   public void update(URI resource, long position) {
     if (position > 0) {
-      positions.compute(
-          resource,
-          (res, positions) -> {
-            if (positions == null) {
-              positions = new ArrayList<>(100);
-              positions.add(new Range(position));
-              return positions;
-            } else {
-              return addPosition(positions, position);
-            }
-          });
+      NavigableMap<Long, Range> ranges =
+          positions.computeIfAbsent(resource, res -> new TreeMap<>());
+      synchronized (ranges) {
+        addPosition(ranges, position);
+      }
     }
   }
 
-  @NonNull
-  private static List<Range> addPosition(@NonNull List<Range> positions, long position) {
-    ListIterator<Range> iterator = positions.listIterator();
-    while (iterator.hasNext()) {
-      Range range = iterator.next();
-      if (range.contains(position)) {
-        return positions;
-      } else if (range.getUpper() + 1L == position) {
-        range.setUpper(position);
-        if (iterator.hasNext()) {
-          Range next = iterator.next();
-          if (range.getUpper() == next.getLower() - 1L) {
-            iterator.remove();
-            range = iterator.previous();
-            range.setUpper(next.getUpper());
-          }
-        }
-        return positions;
-      } else if (range.getLower() - 1L == position) {
-        range.setLower(position);
-        return positions;
-      } else if (position < range.getLower()) {
-        iterator.previous();
-        iterator.add(new Range(position));
-        return positions;
+  private static void addPosition(@NonNull NavigableMap<Long, Range> ranges, long position) {
+    Entry<Long, Range> floor = ranges.floorEntry(position);
+    Range previous = floor == null ? null : floor.getValue();
+    if (previous != null && previous.getUpper() >= position) {
+      // already tracked
+      return;
+    }
+    Range next = ranges.get(position + 1L);
+    if (previous != null && previous.getUpper() + 1L == position) {
+      if (next != null) {
+        // position fills the gap between previous and next
+        ranges.remove(next.getLower());
+        previous.setUpper(next.getUpper());
+      } else {
+        previous.setUpper(position);
       }
+    } else if (next != null) {
+      ranges.remove(next.getLower());
+      next.setLower(position);
+      ranges.put(position, next);
+    } else {
+      ranges.put(position, new Range(position));
     }
-    iterator.add(new Range(position));
-    return positions;
   }
 }
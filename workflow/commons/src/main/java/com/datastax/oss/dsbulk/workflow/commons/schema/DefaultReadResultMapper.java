@@ -52,12 +52,19 @@ public class DefaultReadResultMapper implements ReadResultMapper {
   @NonNull
   @Override
   public Record map(@NonNull ReadResult result) {
+    return map(result, resource);
+  }
+
+  @NonNull
+  @Override
+  public Record map(@NonNull ReadResult result, @NonNull URI resource) {
     Object source = retainRecordSources ? result : null;
     try {
       Row row = result.getRow().orElseThrow(IllegalStateException::new);
       ColumnDefinitions columnDefinitions = row.getColumnDefinitions();
       DefaultRecord record = new DefaultRecord(source, resource, -1);
-      for (ColumnDefinition def : columnDefinitions) {
+      for (int i = 0; i < columnDefinitions.size(); i++) {
+        ColumnDefinition def = columnDefinitions.get(i);
         CQLWord variable = CQLWord.fromInternal(def.getName().asInternal());
         CqlIdentifier name = variable.asIdentifier();
         DataType cqlType = def.getType();
@@ -67,7 +74,8 @@ public class DefaultReadResultMapper implements ReadResultMapper {
           try {
             fieldType = recordMetadata.getFieldType(field, cqlType);
             TypeCodec<?> codec = mapping.codec(variable, cqlType, fieldType);
-            Object value = row.get(name, codec);
+            // access the column by index: cheaper than by name, which requires a lookup
+            Object value = row.get(i, codec);
             record.setFieldValue(field, value);
           } catch (Exception e) {
             String msg =
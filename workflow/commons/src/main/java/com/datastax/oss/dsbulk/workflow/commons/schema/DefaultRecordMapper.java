@@ -33,9 +33,11 @@ import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
 import com.datastax.oss.dsbulk.connectors.api.Field;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.oss.dsbulk.connectors.api.RecordSchema;
 import com.datastax.oss.dsbulk.mapping.CQLWord;
 import com.datastax.oss.dsbulk.mapping.InvalidMappingException;
 import com.datastax.oss.dsbulk.mapping.Mapping;
@@ -49,7 +51,10 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
 public class DefaultRecordMapper implements RecordMapper {
@@ -65,6 +70,8 @@ public class DefaultRecordMapper implements RecordMapper {
   private final boolean allowMissingFields;
   private final Function<PreparedStatement, BoundStatementBuilder> boundStatementBuilderFactory;
   private final ImmutableMap<CQLWord, List<Integer>> variablesToIndices;
+  private final ConcurrentMap<RecordSchema, Optional<BindingPlan>> bindingPlans =
+      new ConcurrentHashMap<>();
 
   public DefaultRecordMapper(
       PreparedStatement insertStatement,
@@ -118,35 +125,116 @@ public class DefaultRecordMapper implements RecordMapper {
   @Override
   public BatchableStatement<?> map(@NonNull Record record) {
     try {
+      BoundStatementBuilder builder = boundStatementBuilderFactory.apply(insertStatement);
+      BindingPlan plan = null;
+      if (record instanceof ArrayBackedRecord) {
+        plan = getBindingPlan(((ArrayBackedRecord) record).getSchema());
+      }
+      if (plan == null) {
+        builder = bindByField(builder, record);
+      } else {
+        builder = bindByPosition(builder, (ArrayBackedRecord) record, plan);
+      }
+      ensurePrimaryKeySet(builder);
+      if (protocolVersion.getCode() < DefaultProtocolVersion.V4.getCode()) {
+        ensureAllVariablesSet(builder);
+      }
+      record.clear();
+      BoundStatement bs = builder.build();
+      return new MappedBoundStatement(record, bs);
+    } catch (Exception e) {
+      return new UnmappableStatement(record, e);
+    }
+  }
+
+  private BoundStatementBuilder bindByField(BoundStatementBuilder builder, Record record) {
+    if (!allowMissingFields) {
+      ensureAllFieldsPresent(record.fields());
+    }
+    ColumnDefinitions variableDefinitions = insertStatement.getVariableDefinitions();
+    for (Field field : record.fields()) {
+      Set<CQLWord> variables = mapping.fieldToVariables(field);
+      if (!variables.isEmpty()) {
+        for (CQLWord variable : variables) {
+          CqlIdentifier name = variable.asIdentifier();
+          DataType cqlType = variableDefinitions.get(name).getType();
+          GenericType<?> fieldType = recordMetadata.getFieldType(field, cqlType);
+          Object raw = record.getFieldValue(field);
+          builder = bindColumn(builder, variable, raw, cqlType, fieldType);
+        }
+      } else if (!allowExtraFields) {
+        // the field wasn't mapped to any known variable
+        throw InvalidMappingException.extraneousField(field);
+      }
+    }
+    return builder;
+  }
+
+  private BoundStatementBuilder bindByPosition(
+      BoundStatementBuilder builder, ArrayBackedRecord record, BindingPlan plan) {
+    if (plan.missingField != null) {
+      throw InvalidMappingException.missingField(plan.missingField, plan.missingVariable);
+    }
+    for (Binding binding : plan.bindings) {
+      if (binding.variable == null) {
+        throw InvalidMappingException.extraneousField(binding.field);
+      }
+      Object raw = record.getValue(binding.valueIndex);
+      builder = bindColumn(builder, binding.variable, raw, binding.cqlType, binding.fieldType);
+    }
+    return builder;
+  }
+
+  /**
+   * Returns the plan to bind the records of the given schema by position, or null if such records
+   * must be bound field by field, which happens if the plan could not be computed.
+   */
+  @Nullable
+  private BindingPlan getBindingPlan(RecordSchema schema) {
+    Optional<BindingPlan> plan = bindingPlans.get(schema);
+    if (plan == null) {
+      plan = bindingPlans.computeIfAbsent(schema, this::newBindingPlan);
+    }
+    return plan.orElse(null);
+  }
+
+  private Optional<BindingPlan> newBindingPlan(RecordSchema schema) {
+    try {
+      BindingPlan plan = new BindingPlan();
       if (!allowMissingFields) {
-        ensureAllFieldsPresent(record.fields());
+        ColumnDefinitions variables = insertStatement.getVariableDefinitions();
+        for (int i = 0; i < variables.size() && plan.missingField == null; i++) {
+          CQLWord variable = CQLWord.fromCqlIdentifier(variables.get(i).getName());
+          for (Field field : mapping.variableToFields(variable)) {
+            if (!schema.fields().contains(field)) {
+              plan.missingField = field;
+              plan.missingVariable = variable;
+              break;
+            }
+          }
+        }
       }
-      BoundStatementBuilder builder = boundStatementBuilderFactory.apply(insertStatement);
       ColumnDefinitions variableDefinitions = insertStatement.getVariableDefinitions();
-      for (Field field : record.fields()) {
+      List<Binding> bindings = new ArrayList<>();
+      for (Field field : schema.fields()) {
         Set<CQLWord> variables = mapping.fieldToVariables(field);
         if (!variables.isEmpty()) {
           for (CQLWord variable : variables) {
-            CqlIdentifier name = variable.asIdentifier();
-            DataType cqlType = variableDefinitions.get(name).getType();
+            DataType cqlType = variableDefinitions.get(variable.asIdentifier()).getType();
             GenericType<?> fieldType = recordMetadata.getFieldType(field, cqlType);
-            Object raw = record.getFieldValue(field);
-            builder = bindColumn(builder, variable, raw, cqlType, fieldType);
+            bindings.add(new Binding(field, schema.indexOf(field), variable, cqlType, fieldType));
           }
         } else if (!allowExtraFields) {
           // the field wasn't mapped to any known variable
-          throw InvalidMappingException.extraneousField(field);
+          bindings.add(new Binding(field, -1, null, null, null));
+          break;
         }
       }
-      ensurePrimaryKeySet(builder);
-      if (protocolVersion.getCode() < DefaultProtocolVersion.V4.getCode()) {
-        ensureAllVariablesSet(builder);
-      }
-      record.clear();
-      BoundStatement bs = builder.build();
-      return new MappedBoundStatement(record, bs);
-    } catch (Exception e) {
-      return new UnmappableStatement(record, e);
+      plan.bindings = bindings.toArray(new Binding[0]);
+      return Optional.of(plan);
+    } catch (RuntimeException e) {
+      // the records will be bound field by field, and will fail with the appropriate error
+      return Optional.empty();
     }
   }
 
@@ -240,6 +328,39 @@ public class DefaultRecordMapper implements RecordMapper {
     }
   }
 
+  /**
+   * How to bind the records of a given {@link RecordSchema}: which value goes to which variable,
+   * with which types, and which field is missing or extraneous, if any.
+   */
+  private static class BindingPlan {
+    private Field missingField;
+    private CQLWord missingVariable;
+    private Binding[] bindings;
+  }
+
+  private static class Binding {
+
+    private final Field field;
+    private final int valueIndex;
+    // null if the field is extraneous
+    private final CQLWord variable;
+    private final DataType cqlType;
+    private final GenericType<?> fieldType;
+
+    private Binding(
+        Field field,
+        int valueIndex,
+        @Nullable CQLWord variable,
+        @Nullable DataType cqlType,
+        @Nullable GenericType<?> fieldType) {
+      this.field = field;
+      this.valueIndex = valueIndex;
+      this.variable = variable;
+      this.cqlType = cqlType;
+      this.fieldType = fieldType;
+    }
+  }
+
   private ImmutableMap<CQLWord, List<Integer>> buildVariablesToIndices() {
     Map<CQLWord, List<Integer>> variablesToIndices = new HashMap<>();
     ColumnDefinitions variables = insertStatement.getVariableDefinitions();
@@ -18,9 +18,21 @@ package com.datastax.oss.dsbulk.workflow.commons.schema;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.net.URI;
 
 public interface ReadResultMapper {
 
   @NonNull
   Record map(@NonNull ReadResult result);
+
+  /**
+   * Maps the given result to a record originating from the given resource, e.g. the token range the
+   * result was read from, instead of the table it was read from.
+   *
+   * @param result the result to map.
+   * @param resource the resource of the record.
+   * @return the record.
+   */
+  @NonNull
+  Record map(@NonNull ReadResult result, @NonNull URI resource);
 }
@@ -18,6 +18,7 @@ package com.datastax.oss.dsbulk.workflow.commons.settings;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.OptionalInt;
 
@@ -27,6 +28,8 @@ public class EngineSettings {
   private static final String EXECUTION_ID = "executionId";
   private static final String MAX_CONCURRENT_QUERIES = "maxConcurrentQueries";
   private static final String DATA_SIZE_SAMPLING_ENABLED = "dataSizeSamplingEnabled";
+  private static final String DATA_SIZE_SAMPLING_RESOURCES = "dataSizeSamplingResources";
+  private static final String DATA_SIZE_SAMPLING_TIMEOUT = "dataSizeSamplingTimeout";
 
   private final Config config;
 
@@ -34,6 +37,8 @@ public class EngineSettings {
   private String executionId;
   private int maxConcurrentQueries;
   private boolean dataSizeSamplingEnabled;
+  private int dataSizeSamplingResources;
+  private Duration dataSizeSamplingTimeout;
 
   EngineSettings(Config config) {
     this.config = config;
@@ -48,6 +53,14 @@ public class EngineSettings {
               ? -1
               : ConfigUtils.getThreads(config, MAX_CONCURRENT_QUERIES);
       dataSizeSamplingEnabled = config.getBoolean(DATA_SIZE_SAMPLING_ENABLED);
+      dataSizeSamplingResources = ConfigUtils.getThreads(config, DATA_SIZE_SAMPLING_RESOURCES);
+      dataSizeSamplingTimeout = config.getDuration(DATA_SIZE_SAMPLING_TIMEOUT);
+      if (dataSizeSamplingTimeout.isNegative() || dataSizeSamplingTimeout.isZero()) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for dsbulk.engine.%s: expecting duration > 0, got '%s'",
+                DATA_SIZE_SAMPLING_TIMEOUT, config.getString(DATA_SIZE_SAMPLING_TIMEOUT)));
+      }
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.engine");
     }
@@ -68,4 +81,12 @@ public class EngineSettings {
   public boolean isDataSizeSamplingEnabled() {
     return dataSizeSamplingEnabled;
   }
+
+  public int getDataSizeSamplingResources() {
+    return dataSizeSamplingResources;
+  }
+
+  public Duration getDataSizeSamplingTimeout() {
+    return dataSizeSamplingTimeout;
+  }
 }
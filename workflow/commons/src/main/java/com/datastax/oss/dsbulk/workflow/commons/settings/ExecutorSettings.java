@@ -23,16 +23,18 @@ import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
 import com.datastax.oss.driver.api.core.metadata.Node;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.executor.api.AdaptiveConcurrencyLimiter;
 import com.datastax.oss.dsbulk.executor.api.BulkExecutor;
 import com.datastax.oss.dsbulk.executor.api.BulkExecutorBuilder;
 import com.datastax.oss.dsbulk.executor.api.BulkExecutorBuilderFactory;
-import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
+import com.datastax.oss.dsbulk.executor.api.VirtualThreads;
 import com.datastax.oss.dsbulk.executor.api.listener.MetricsCollectingExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.reader.BulkReader;
 import com.datastax.oss.dsbulk.executor.api.writer.BulkWriter;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.OptionalInt;
 import java.util.ServiceLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,10 +43,17 @@ public class ExecutorSettings {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorSettings.class);
 
+  private static final int DEFAULT_ADAPTIVE_MAX_IN_FLIGHT = 1000;
+
   private final Config config;
 
   private int maxPerSecond;
+  private long maxBytesPerSecond;
   private int maxInFlight;
+  private int maxInFlightPerNode;
+  private boolean adaptiveMaxInFlight;
+  private boolean nonBlockingThrottling;
+  private boolean virtualThreads;
   private boolean continuousPagingEnabled;
 
   ExecutorSettings(Config config) {
@@ -54,7 +63,25 @@ public class ExecutorSettings {
   public void init() {
     try {
       maxPerSecond = config.getInt("maxPerSecond");
+      maxBytesPerSecond = config.getLong("maxBytesPerSecond");
       maxInFlight = config.getInt("maxInFlight");
+      maxInFlightPerNode = config.getInt("maxInFlightPerNode");
+      adaptiveMaxInFlight = config.getBoolean("adaptiveMaxInFlight");
+      nonBlockingThrottling = config.getBoolean("nonBlockingThrottling");
+      if (nonBlockingThrottling && (maxBytesPerSecond > 0 || adaptiveMaxInFlight)) {
+        throw new IllegalArgumentException(
+            "Setting executor.nonBlockingThrottling cannot be combined with "
+                + "executor.maxBytesPerSecond or executor.adaptiveMaxInFlight. "
+                + "See settings.md for more information.");
+      }
+      virtualThreads = config.getBoolean("virtualThreads");
+      if (virtualThreads && !VirtualThreads.isSupported()) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Setting executor.virtualThreads requires Java 21 or higher, got: %s. "
+                    + "See settings.md for more information.",
+                System.getProperty("java.version")));
+      }
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.executor");
     }
@@ -76,9 +103,23 @@ public class ExecutorSettings {
     }
   }
 
+  /**
+   * Returns the maximum number of in-flight requests, if it adapts to the load of the cluster.
+   *
+   * @return the maximum number of in-flight requests, or empty if it does not adapt to the load of
+   *     the cluster.
+   */
+  @NonNull
+  public OptionalInt getAdaptiveMaxInFlight() {
+    if (!adaptiveMaxInFlight) {
+      return OptionalInt.empty();
+    }
+    return OptionalInt.of(maxInFlight > 0 ? maxInFlight : DEFAULT_ADAPTIVE_MAX_IN_FLIGHT);
+  }
+
   @NonNull
   public BulkWriter newWriteExecutor(
-      @NonNull CqlSession session, @NonNull ExecutionListener executionListener) {
+      @NonNull CqlSession session, @NonNull MetricsCollectingExecutionListener executionListener) {
     return newBulkExecutor(session, executionListener, false, false);
   }
 
@@ -93,7 +134,7 @@ public class ExecutorSettings {
   @NonNull
   protected BulkExecutor newBulkExecutor(
       @NonNull CqlSession session,
-      @NonNull ExecutionListener executionListener,
+      @NonNull MetricsCollectingExecutionListener executionListener,
       boolean read,
       boolean searchQuery) {
     boolean useContinuousPagingForReads = read && checkContinuousPaging(session, searchQuery);
@@ -104,8 +145,27 @@ public class ExecutorSettings {
     builder
         .withExecutionListener(executionListener)
         .withMaxInFlightRequests(maxInFlight)
+        .withMaxInFlightRequestsPerNode(maxInFlightPerNode)
         .withMaxRequestsPerSecond(maxPerSecond)
+        .withMaxBytesPerSecond(maxBytesPerSecond)
         .failSafe();
+    if (nonBlockingThrottling) {
+      builder.withNonBlockingThrottling();
+    }
+    if (virtualThreads) {
+      builder.withVirtualThreads();
+    }
+    OptionalInt adaptiveMaxInFlight = getAdaptiveMaxInFlight();
+    if (adaptiveMaxInFlight.isPresent()) {
+      int max = adaptiveMaxInFlight.getAsInt();
+      AdaptiveConcurrencyLimiter limiter =
+          new AdaptiveConcurrencyLimiter(Math.max(1, max / 10), max);
+      builder.withAdaptiveMaxInFlightRequests(limiter);
+      executionListener.getRegistry().gauge("executor/in-flight-limit", () -> limiter::getLimit);
+    }
+    if (maxBytesPerSecond > 0) {
+      executionListener.getRegistry().gauge("executor/bytes/limit", () -> () -> maxBytesPerSecond);
+    }
     return builder.build();
   }
 
@@ -38,6 +38,7 @@ import com.datastax.oss.dsbulk.workflow.api.log.OperationDirectory;
 import com.datastax.oss.dsbulk.workflow.api.log.OperationDirectoryResolver;
 import com.datastax.oss.dsbulk.workflow.api.utils.WorkflowUtils;
 import com.datastax.oss.dsbulk.workflow.commons.format.statement.MappedBoundStatementPrinter;
+import com.datastax.oss.dsbulk.workflow.commons.log.CheckpointManager;
 import com.datastax.oss.dsbulk.workflow.commons.log.LogManager;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
@@ -45,7 +46,9 @@ import com.typesafe.config.ConfigRenderOptions;
 import com.typesafe.config.ConfigValue;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map.Entry;
@@ -124,6 +127,9 @@ public class LogSettings {
   private static final String MAX_QUERY_WARNINGS = "maxQueryWarnings";
   private static final String VERBOSITY = "verbosity";
   private static final String SOURCES = "sources";
+  private static final String CHECKPOINT = "checkpoint";
+  private static final String CHECKPOINT_INTERVAL = CHECKPOINT + '.' + "interval";
+  private static final String CHECKPOINT_RESUME = CHECKPOINT + '.' + "resume";
 
   private final Config config;
   private final String executionId;
@@ -140,6 +146,8 @@ public class LogSettings {
   @VisibleForTesting ErrorThreshold queryWarningsThreshold;
   private Verbosity verbosity;
   private boolean sources;
+  private Duration checkpointInterval;
+  private CheckpointManager checkpointManager;
 
   public LogSettings(Config config, String executionId) {
     this.config = config;
@@ -150,9 +158,8 @@ public class LogSettings {
     try {
       // Note: log.ansiMode is handled upstream by the runner
       // com.datastax.oss.dsbulk.runner.cli.AnsiConfigurator
-      operationDirectory =
-          new OperationDirectoryResolver(ConfigUtils.getPath(config, "directory"), executionId)
-              .resolve();
+      Path logDirectory = ConfigUtils.getPath(config, "directory");
+      operationDirectory = new OperationDirectoryResolver(logDirectory, executionId).resolve();
       OperationDirectory.setCurrentOperationDirectory(operationDirectory);
       maxQueryStringLength = config.getInt(MAX_QUERY_STRING_LENGTH);
       maxBoundValueLength = config.getInt(MAX_BOUND_VALUE_LENGTH);
@@ -195,6 +202,27 @@ public class LogSettings {
       }
       this.verbosity = Verbosity.values()[verbosity];
       sources = config.getBoolean(SOURCES);
+      checkpointInterval = config.getDuration(CHECKPOINT_INTERVAL);
+      if (checkpointInterval.isNegative()) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for dsbulk.log.%s: expecting duration >= 0, got '%s'",
+                CHECKPOINT_INTERVAL, config.getString(CHECKPOINT_INTERVAL)));
+      }
+      String resume = config.getString(CHECKPOINT_RESUME);
+      if (resume.isEmpty()) {
+        checkpointManager = new CheckpointManager();
+      } else {
+        Path checkpointFile = logDirectory.resolve(resume).resolve(LogManager.CHECKPOINT_FILE);
+        if (!Files.isReadable(checkpointFile)) {
+          throw new IllegalArgumentException(
+              String.format(
+                  "Invalid value for dsbulk.log.%s: checkpoint file %s does not exist or is not readable",
+                  CHECKPOINT_RESUME, checkpointFile));
+        }
+        checkpointManager = CheckpointManager.load(checkpointFile);
+        LOGGER.info("Resuming operation {} from {}", resume, checkpointFile);
+      }
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.log");
     }
@@ -248,13 +276,20 @@ public class LogSettings {
         trackPositions,
         statementFormatter,
         level,
-        rowFormatter);
+        rowFormatter,
+        checkpointManager,
+        checkpointInterval);
   }
 
   public Verbosity getVerbosity() {
     return verbosity;
   }
 
+  /** How often to save the operation checkpoint while the operation is running; zero if never. */
+  public Duration getCheckpointInterval() {
+    return checkpointInterval;
+  }
+
   /**
    * Whether {@linkplain Record#getSource() record sources} should be retained in memory. When
    * sources are retained, DSBulk is able to print record sources in debug files, for easier error
@@ -37,6 +37,7 @@ import com.datastax.oss.driver.api.core.CqlIdentifier;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.DefaultProtocolVersion;
 import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
@@ -47,6 +48,7 @@ import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.RelationMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.ViewMetadata;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
 import com.datastax.oss.driver.api.core.type.DataTypes;
 import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
 import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
@@ -71,6 +73,7 @@ import com.datastax.oss.dsbulk.mapping.MappingField;
 import com.datastax.oss.dsbulk.mapping.MappingInspector;
 import com.datastax.oss.dsbulk.mapping.MappingPreference;
 import com.datastax.oss.dsbulk.partitioner.TokenRangeReadStatementGenerator;
+import com.datastax.oss.dsbulk.partitioner.utils.TokenUtils;
 import com.datastax.oss.dsbulk.workflow.commons.schema.DefaultReadResultCounter;
 import com.datastax.oss.dsbulk.workflow.commons.schema.DefaultReadResultMapper;
 import com.datastax.oss.dsbulk.workflow.commons.schema.DefaultRecordMapper;
@@ -80,10 +83,13 @@ import com.datastax.oss.dsbulk.workflow.commons.schema.ReadResultMapper;
 import com.datastax.oss.dsbulk.workflow.commons.schema.RecordMapper;
 import com.datastax.oss.dsbulk.workflow.commons.settings.StatsSettings.StatisticsMode;
 import com.datastax.oss.dsbulk.workflow.commons.utils.GraphUtils;
+import com.datastax.oss.protocol.internal.util.Bytes;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.Collection;
@@ -559,6 +565,41 @@ public class SchemaSettings {
     return statements;
   }
 
+  /**
+   * Returns a "resource URI" identifying the token range read by the given statement, if the
+   * statement was created by {@link #createReadStatements(CqlSession)} and reads a token range.
+   * Token range URIs are stable across operations targeting the same table, as long as the token
+   * ring and the number of splits do not change, and can thus be used to checkpoint unload
+   * operations.
+   *
+   * @return the token range URI, or {@code null} if the statement does not read a token range.
+   */
+  @Nullable
+  public URI getTokenRangeURI(@NonNull Statement<?> statement) {
+    int start = queryInspector.getTokenRangeRestrictionStartVariableIndex();
+    int end = queryInspector.getTokenRangeRestrictionEndVariableIndex();
+    if (start == -1
+        || end == -1
+        || preparedStatement.getVariableDefinitions().size() == 0
+        || !(statement instanceof BoundStatement)) {
+      return null;
+    }
+    BoundStatement bs = (BoundStatement) statement;
+    return URI.create(
+        getTargetTableURI()
+            + "?start="
+            + formatTokenValue(bs.getToken(start))
+            + "&end="
+            + formatTokenValue(bs.getToken(end)));
+  }
+
+  @NonNull
+  private static String formatTokenValue(@Nullable Token token) {
+    Objects.requireNonNull(token, "Token range variables must be bound");
+    Object value = TokenUtils.getTokenValue(token);
+    return value instanceof ByteBuffer ? Bytes.toHexString((ByteBuffer) value) : value.toString();
+  }
+
   @NonNull
   public RowType getRowType() {
     boolean isTable = table instanceof DseTableMetadata;
@@ -0,0 +1,132 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import static com.datastax.oss.driver.shaded.guava.common.collect.Lists.newArrayList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.oss.dsbulk.tests.utils.FileUtils;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CheckpointManagerTest {
+
+  private static final URI RESOURCE1 = URI.create("file://file1.csv");
+  private static final URI RESOURCE2 = URI.create("file://file2;v=2.csv");
+  private static final URI RESOURCE3 = URI.create("file://file3.csv");
+  private static final URI RESOURCE4 = URI.create("file://file4.csv");
+
+  private Path dir;
+  private Path checkpointFile;
+
+  @BeforeEach
+  void createCheckpointFile() throws IOException {
+    dir = Files.createTempDirectory("checkpoint");
+    checkpointFile = dir.resolve(LogManager.CHECKPOINT_FILE);
+  }
+
+  @AfterEach
+  void deleteCheckpointFile() {
+    FileUtils.deleteDirectory(dir);
+  }
+
+  @Test
+  void should_save_checkpoint() throws IOException {
+    CheckpointManager checkpoint = new CheckpointManager();
+    Map<URI, List<Range>> positions = new HashMap<>();
+    positions.put(RESOURCE1, newArrayList(new Range(1, 10)));
+    positions.put(RESOURCE2, newArrayList(new Range(1, 4), new Range(6, 10)));
+    positions.put(RESOURCE3, newArrayList(new Range(1, 3)));
+    checkpoint.onResourceRead(RESOURCE1, 1, 10);
+    checkpoint.onResourceRead(RESOURCE2, 1, 10);
+    checkpoint.onResourceRead(RESOURCE4, -1, -1);
+    checkpoint.save(checkpointFile, positions);
+    assertThat(Files.readAllLines(checkpointFile, UTF_8))
+        .containsExactly(
+            "file://file1.csv;complete;1:10",
+            "file://file2;v=2.csv;partial;1:4,6:10",
+            "file://file3.csv;partial;1:3",
+            "file://file4.csv;complete;");
+    // positions must not be modified
+    assertThat(positions.get(RESOURCE2)).containsExactly(new Range(1, 4), new Range(6, 10));
+  }
+
+  @Test
+  void should_load_checkpoint() throws IOException {
+    Files.write(
+        checkpointFile,
+        newArrayList(
+            "file://file1.csv;complete;1:10",
+            "file://file2;v=2.csv;partial;6:10,1:4,11:12",
+            "file://file3.csv;partial;1:3"),
+        UTF_8);
+    CheckpointManager checkpoint = CheckpointManager.load(checkpointFile);
+    assertThat(checkpoint.isComplete(RESOURCE1)).isTrue();
+    assertThat(checkpoint.isComplete(RESOURCE2)).isFalse();
+    assertThat(checkpoint.isComplete(RESOURCE3)).isFalse();
+    assertThat(checkpoint.isComplete(RESOURCE4)).isFalse();
+    assertThat(checkpoint.isProcessed(RESOURCE2, 1)).isTrue();
+    assertThat(checkpoint.isProcessed(RESOURCE2, 4)).isTrue();
+    assertThat(checkpoint.isProcessed(RESOURCE2, 5)).isFalse();
+    assertThat(checkpoint.isProcessed(RESOURCE2, 6)).isTrue();
+    assertThat(checkpoint.isProcessed(RESOURCE2, 12)).isTrue();
+    assertThat(checkpoint.isProcessed(RESOURCE2, 13)).isFalse();
+    assertThat(checkpoint.isProcessed(RESOURCE3, 4)).isFalse();
+    assertThat(checkpoint.isProcessed(RESOURCE4, 1)).isFalse();
+    assertThat(checkpoint.nextUnprocessedPosition(RESOURCE2, 1)).isEqualTo(5);
+    assertThat(checkpoint.nextUnprocessedPosition(RESOURCE2, 5)).isEqualTo(5);
+    assertThat(checkpoint.nextUnprocessedPosition(RESOURCE2, 7)).isEqualTo(13);
+    assertThat(checkpoint.nextUnprocessedPosition(RESOURCE4, 1)).isEqualTo(1);
+  }
+
+  @Test
+  void should_merge_previous_checkpoint_when_saving() throws IOException {
+    Files.write(
+        checkpointFile,
+        newArrayList("file://file1.csv;complete;1:10", "file://file2;v=2.csv;partial;1:4,6:8"),
+        UTF_8);
+    CheckpointManager checkpoint = CheckpointManager.load(checkpointFile);
+    Map<URI, List<Range>> positions = new HashMap<>();
+    positions.put(RESOURCE2, newArrayList(new Range(5), new Range(9, 10)));
+    checkpoint.save(checkpointFile, positions);
+    // file2 was not entirely read yet
+    assertThat(Files.readAllLines(checkpointFile, UTF_8))
+        .containsExactly("file://file1.csv;complete;1:10", "file://file2;v=2.csv;partial;1:10");
+    checkpoint.onResourceRead(RESOURCE2, 1, 10);
+    checkpoint.save(checkpointFile, positions);
+    assertThat(Files.readAllLines(checkpointFile, UTF_8))
+        .containsExactly("file://file1.csv;complete;1:10", "file://file2;v=2.csv;complete;1:10");
+  }
+
+  @Test
+  void should_reject_invalid_checkpoint_file() throws IOException {
+    Files.write(checkpointFile, newArrayList("file://file1.csv;weird;1:10"), UTF_8);
+    assertThatThrownBy(() -> CheckpointManager.load(checkpointFile))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Invalid checkpoint file")
+        .hasMessageContaining("line 1");
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.UniformReservoir;
+import com.datastax.oss.dsbulk.tests.utils.FileUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DataSizeSampleCacheTest {
+
+  private Path logDirectory;
+
+  @BeforeEach
+  void createLogDirectory() throws IOException {
+    logDirectory = Files.createTempDirectory("logs");
+  }
+
+  @AfterEach
+  void deleteLogDirectory() {
+    FileUtils.deleteDirectory(logDirectory);
+  }
+
+  @Test
+  void should_load_sample_stored_by_previous_operation() throws IOException {
+    Path previous = Files.createDirectory(logDirectory.resolve("LOAD_1"));
+    Path current = Files.createDirectory(logDirectory.resolve("LOAD_2"));
+    new DataSizeSampleCache(previous, "abc").store(newSample(10, 20, 30));
+    Optional<Histogram> sample = new DataSizeSampleCache(current, "abc").load();
+    assertThat(sample).isPresent();
+    assertThat(sample.get().getSnapshot().getValues()).containsExactly(10, 20, 30);
+  }
+
+  @Test
+  void should_load_most_recent_sample() throws IOException {
+    Path older = Files.createDirectory(logDirectory.resolve("LOAD_1"));
+    Path newer = Files.createDirectory(logDirectory.resolve("LOAD_2"));
+    Path current = Files.createDirectory(logDirectory.resolve("LOAD_3"));
+    new DataSizeSampleCache(newer, "abc").store(newSample(100));
+    new DataSizeSampleCache(older, "abc").store(newSample(10));
+    Files.setLastModifiedTime(older.resolve("data-size-sample-abc.txt"), FileTime.fromMillis(1000));
+    Optional<Histogram> sample = new DataSizeSampleCache(current, "abc").load();
+    assertThat(sample).isPresent();
+    assertThat(sample.get().getSnapshot().getValues()).containsExactly(100);
+  }
+
+  @Test
+  void should_not_load_sample_of_other_data() throws IOException {
+    Path previous = Files.createDirectory(logDirectory.resolve("LOAD_1"));
+    Path current = Files.createDirectory(logDirectory.resolve("LOAD_2"));
+    new DataSizeSampleCache(previous, "abc").store(newSample(10, 20, 30));
+    assertThat(new DataSizeSampleCache(current, "def").load()).isEmpty();
+  }
+
+  @Test
+  void should_ignore_invalid_sample() throws IOException {
+    Path previous = Files.createDirectory(logDirectory.resolve("LOAD_1"));
+    Path current = Files.createDirectory(logDirectory.resolve("LOAD_2"));
+    Files.write(
+        previous.resolve("data-size-sample-abc.txt"), Arrays.asList("10", "not a size"), UTF_8);
+    assertThat(new DataSizeSampleCache(current, "abc").load()).isEmpty();
+  }
+
+  private static Histogram newSample(long... sizes) {
+    Histogram sample = new Histogram(new UniformReservoir());
+    for (long size : sizes) {
+      sample.update(size);
+    }
+    return sample;
+  }
+}
@@ -64,7 +64,9 @@ import java.net.URI;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.BeforeEach;
@@ -220,11 +222,13 @@ class LogManagerTest {
     Path bad = logManager.getOperationDirectory().resolve("mapping.bad");
     Path errors = logManager.getOperationDirectory().resolve("mapping-errors.log");
     Path positions = logManager.getOperationDirectory().resolve("positions.txt");
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
     assertThat(bad.toFile()).exists();
     assertThat(errors.toFile()).exists();
     assertThat(positions.toFile()).exists();
+    assertThat(checkpoint.toFile()).exists();
     assertThat(FileUtils.listAllFilesInDirectory(logManager.getOperationDirectory()))
-        .containsOnly(bad, errors, positions);
+        .containsOnly(bad, errors, positions, checkpoint);
     List<String> badLines = Files.readAllLines(bad, UTF_8);
     assertThat(badLines).hasSize(3);
     assertThat(badLines.get(0)).isEqualTo(source1.trim());
@@ -247,6 +251,45 @@ class LogManagerTest {
         .contains("file:///file1.csv:1")
         .contains("file:///file2.csv:2")
         .contains("file:///file3.csv:3");
+    assertThat(Files.readAllLines(checkpoint, UTF_8))
+        .containsExactly(
+            "file:///file1.csv;partial;1:1",
+            "file:///file2.csv;partial;2:2",
+            "file:///file3.csv;partial;3:3");
+  }
+
+  @Test
+  void should_save_checkpoint_periodically() throws Exception {
+    Path outputDir = Files.createTempDirectory("test");
+    LogManager logManager =
+        new LogManager(
+            session,
+            outputDir,
+            ErrorThreshold.unlimited(),
+            ErrorThreshold.unlimited(),
+            true,
+            statementFormatter,
+            EXTENDED,
+            rowFormatter,
+            new CheckpointManager(),
+            Duration.ofMillis(10));
+    logManager.init();
+    Flux<BatchableStatement<?>> stmts =
+        Flux.just(unmappableStmt1, unmappableStmt2, unmappableStmt3);
+    stmts.transform(logManager.newUnmappableStatementsHandler()).blockLast();
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
+    // saved before the operation ends
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!Files.exists(checkpoint) && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(Files.readAllLines(checkpoint, UTF_8))
+        .containsExactly(
+            "file:///file1.csv;partial;1:1",
+            "file:///file2.csv;partial;2:2",
+            "file:///file3.csv;partial;3:3");
+    logManager.close();
+    assertThat(Files.readAllLines(checkpoint, UTF_8)).hasSize(3);
   }
 
   @Test
@@ -275,11 +318,13 @@ class LogManagerTest {
     Path bad = logManager.getOperationDirectory().resolve("mapping.bad");
     Path errors = logManager.getOperationDirectory().resolve("mapping-errors.log");
     Path positions = logManager.getOperationDirectory().resolve("positions.txt");
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
     assertThat(bad.toFile()).exists();
     assertThat(errors.toFile()).exists();
     assertThat(positions.toFile()).exists();
+    assertThat(checkpoint.toFile()).exists();
     assertThat(FileUtils.listAllFilesInDirectory(logManager.getOperationDirectory()))
-        .containsOnly(bad, errors, positions);
+        .containsOnly(bad, errors, positions, checkpoint);
     List<String> badLines = Files.readAllLines(bad, UTF_8);
     assertThat(badLines).hasSize(1);
     assertThat(badLines.get(0)).isEqualTo(source1.trim());
@@ -314,11 +359,13 @@ class LogManagerTest {
     Path bad = logManager.getOperationDirectory().resolve("mapping.bad");
     Path errors = logManager.getOperationDirectory().resolve("mapping-errors.log");
     Path positions = logManager.getOperationDirectory().resolve("positions.txt");
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
     assertThat(bad.toFile()).exists();
     assertThat(errors.toFile()).exists();
     assertThat(positions.toFile()).exists();
+    assertThat(checkpoint.toFile()).exists();
     assertThat(FileUtils.listAllFilesInDirectory(logManager.getOperationDirectory()))
-        .containsOnly(bad, errors, positions);
+        .containsOnly(bad, errors, positions, checkpoint);
     List<String> badLines = Files.readAllLines(bad, UTF_8);
     assertThat(badLines).hasSize(3);
     assertThat(badLines.get(0)).isEqualTo(source1.trim());
@@ -364,11 +411,13 @@ class LogManagerTest {
     Path bad = logManager.getOperationDirectory().resolve("connector.bad");
     Path errors = logManager.getOperationDirectory().resolve("connector-errors.log");
     Path positions = logManager.getOperationDirectory().resolve("positions.txt");
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
     assertThat(bad.toFile()).exists();
     assertThat(errors.toFile()).exists();
     assertThat(positions.toFile()).exists();
+    assertThat(checkpoint.toFile()).exists();
     assertThat(FileUtils.listAllFilesInDirectory(logManager.getOperationDirectory()))
-        .containsOnly(bad, errors, positions);
+        .containsOnly(bad, errors, positions, checkpoint);
     List<String> lines = Files.readAllLines(errors, UTF_8);
     String content = String.join("\n", lines);
     assertThat(content)
@@ -412,6 +461,7 @@ class LogManagerTest {
     Path bad = logManager.getOperationDirectory().resolve("load.bad");
     Path errors = logManager.getOperationDirectory().resolve("load-errors.log");
     Path positions = logManager.getOperationDirectory().resolve("positions.txt");
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
     assertThat(bad.toFile()).exists();
     assertThat(errors.toFile()).exists();
     assertThat(positions.toFile()).exists();
@@ -421,7 +471,7 @@ class LogManagerTest {
     assertThat(badLines.get(1)).isEqualTo(source2.trim());
     assertThat(badLines.get(2)).isEqualTo(source3.trim());
     assertThat(FileUtils.listAllFilesInDirectory(logManager.getOperationDirectory()))
-        .containsOnly(bad, errors, positions);
+        .containsOnly(bad, errors, positions, checkpoint);
     List<String> lines = Files.readAllLines(errors, UTF_8);
     String content = String.join("\n", lines);
     assertThat(content)
@@ -470,6 +520,7 @@ class LogManagerTest {
     Path bad = logManager.getOperationDirectory().resolve("load.bad");
     Path errors = logManager.getOperationDirectory().resolve("load-errors.log");
     Path positions = logManager.getOperationDirectory().resolve("positions.txt");
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
     assertThat(bad.toFile()).exists();
     assertThat(errors.toFile()).exists();
     assertThat(positions.toFile()).exists();
@@ -479,7 +530,7 @@ class LogManagerTest {
     assertThat(badLines.get(1)).isEqualTo(source2.trim());
     assertThat(badLines.get(2)).isEqualTo(source3.trim());
     assertThat(FileUtils.listAllFilesInDirectory(logManager.getOperationDirectory()))
-        .containsOnly(bad, errors, positions);
+        .containsOnly(bad, errors, positions, checkpoint);
     List<String> lines = Files.readAllLines(errors, UTF_8);
     String content = String.join("\n", lines);
     assertThat(content)
@@ -531,6 +582,7 @@ class LogManagerTest {
     Path bad = logManager.getOperationDirectory().resolve("load.bad");
     Path errors = logManager.getOperationDirectory().resolve("load-errors.log");
     Path positions = logManager.getOperationDirectory().resolve("positions.txt");
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
     assertThat(bad.toFile()).exists();
     assertThat(errors.toFile()).exists();
     assertThat(positions.toFile()).exists();
@@ -540,7 +592,7 @@ class LogManagerTest {
     assertThat(badLines.get(1)).isEqualTo(source2.trim());
     assertThat(badLines.get(2)).isEqualTo(source3.trim());
     assertThat(FileUtils.listAllFilesInDirectory(logManager.getOperationDirectory()))
-        .containsOnly(bad, errors, positions);
+        .containsOnly(bad, errors, positions, checkpoint);
     List<String> lines = Files.readAllLines(errors, UTF_8);
     String content = String.join("\n", lines);
     assertThat(content)
@@ -794,6 +846,7 @@ class LogManagerTest {
     Path bad = logManager.getOperationDirectory().resolve("load.bad");
     Path errors = logManager.getOperationDirectory().resolve("load-errors.log");
     Path positions = logManager.getOperationDirectory().resolve("positions.txt");
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
     assertThat(bad.toFile()).exists();
     assertThat(errors.toFile()).exists();
     assertThat(positions.toFile()).exists();
@@ -801,7 +854,7 @@ class LogManagerTest {
     assertThat(badLines).hasSize(1);
     assertThat(badLines.get(0)).isEqualTo(source1.trim());
     assertThat(FileUtils.listAllFilesInDirectory(logManager.getOperationDirectory()))
-        .containsOnly(bad, errors, positions);
+        .containsOnly(bad, errors, positions, checkpoint);
     List<String> lines = Files.readAllLines(errors, UTF_8);
     String content = String.join("\n", lines);
     assertThat(content)
@@ -900,6 +953,7 @@ class LogManagerTest {
     Path bad = logManager.getOperationDirectory().resolve("paxos.bad");
     Path errors = logManager.getOperationDirectory().resolve("paxos-errors.log");
     Path positions = logManager.getOperationDirectory().resolve("positions.txt");
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
     assertThat(bad.toFile()).exists();
     assertThat(errors.toFile()).exists();
     assertThat(positions.toFile()).exists();
@@ -909,7 +963,7 @@ class LogManagerTest {
     assertThat(badLines.get(1)).isEqualTo(source2.trim());
     assertThat(badLines.get(2)).isEqualTo(source3.trim());
     assertThat(FileUtils.listAllFilesInDirectory(logManager.getOperationDirectory()))
-        .containsOnly(bad, errors, positions);
+        .containsOnly(bad, errors, positions, checkpoint);
     List<String> lines = Files.readAllLines(errors, UTF_8);
     String content = String.join("\n", lines);
     assertThat(content)
@@ -1014,10 +1068,11 @@ class LogManagerTest {
     logManager.close();
     Path errors = logManager.getOperationDirectory().resolve("connector-errors.log");
     Path positions = logManager.getOperationDirectory().resolve("positions.txt");
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
     assertThat(errors.toFile()).exists();
     assertThat(positions.toFile()).exists();
     assertThat(FileUtils.listAllFilesInDirectory(logManager.getOperationDirectory()))
-        .containsOnly(errors, positions);
+        .containsOnly(errors, positions, checkpoint);
     List<String> lines = Files.readAllLines(errors, UTF_8);
     String content = String.join("\n", lines);
     assertThat(content)
@@ -1049,10 +1104,11 @@ class LogManagerTest {
     logManager.close();
     Path errors = logManager.getOperationDirectory().resolve("mapping-errors.log");
     Path positions = logManager.getOperationDirectory().resolve("positions.txt");
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
     assertThat(errors.toFile()).exists();
     assertThat(positions.toFile()).exists();
     assertThat(FileUtils.listAllFilesInDirectory(logManager.getOperationDirectory()))
-        .containsOnly(errors, positions);
+        .containsOnly(errors, positions, checkpoint);
     List<String> lines = Files.readAllLines(errors, UTF_8);
     String content = String.join("\n", lines);
     assertThat(content)
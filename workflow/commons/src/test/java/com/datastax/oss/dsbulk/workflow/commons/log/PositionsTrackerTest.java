@@ -21,7 +21,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import java.net.URI;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -77,6 +82,37 @@ class PositionsTrackerTest {
     assertThat(positionsTracker.getPositions()).hasSize(1).containsEntry(RESOURCE, expected);
   }
 
+  @Test
+  void should_update_positions_concurrently() {
+    PositionsTracker tracker = new PositionsTracker();
+    URI other = URI.create("file://other.csv");
+    List<Long> positions = LongStream.rangeClosed(1, 100_000).boxed().collect(Collectors.toList());
+    // odd positions first, then even ones, in random order and in parallel
+    Collections.shuffle(positions, new Random(42));
+    positions.sort(Comparator.comparingLong(position -> position % 2 == 1 ? 0 : 1));
+    positions
+        .parallelStream()
+        .forEach(
+            position -> {
+              tracker.update(RESOURCE, position);
+              tracker.update(other, position);
+            });
+    assertThat(tracker.getPositions())
+        .hasSize(2)
+        .containsEntry(RESOURCE, ranges(new Range(1L, 100_000L)))
+        .containsEntry(other, ranges(new Range(1L, 100_000L)));
+  }
+
+  @Test
+  void should_return_snapshot_of_positions() {
+    PositionsTracker tracker = new PositionsTracker();
+    tracker.update(RESOURCE, 1);
+    List<Range> snapshot = tracker.getPositions().get(RESOURCE);
+    tracker.update(RESOURCE, 2);
+    assertThat(snapshot).containsExactly(new Range(1L));
+    assertThat(tracker.getPositions().get(RESOURCE)).containsExactly(new Range(1L, 2L));
+  }
+
   static List<Range> ranges(Range... ranges) {
     return ranges == null ? emptyList() : newArrayList(ranges);
   }
@@ -47,6 +47,7 @@ import java.nio.ByteBuffer;
 import java.util.Optional;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -101,9 +102,9 @@ class DefaultReadResultMapperTest {
     when(mapping.codec(C1, DataTypes.INT, GenericType.of(Integer.class))).thenReturn(codec1);
     when(mapping.codec(C2, DataTypes.TEXT, GenericType.of(String.class))).thenReturn(codec2);
     when(mapping.codec(C3, DataTypes.TEXT, GenericType.of(String.class))).thenReturn(codec2);
-    when(row.get(C1.asIdentifier(), codec1)).thenReturn(42);
-    when(row.get(C2.asIdentifier(), codec2)).thenReturn("foo");
-    when(row.get(C3.asIdentifier(), codec2)).thenReturn("bar");
+    when(row.get(0, codec1)).thenReturn(42);
+    when(row.get(1, codec2)).thenReturn("foo");
+    when(row.get(2, codec2)).thenReturn("bar");
 
     // to generate locations
     BoundStatement boundStatement = mock(BoundStatement.class);
@@ -140,6 +141,16 @@ class DefaultReadResultMapperTest {
     assertThat(record.getResource()).isEqualTo(URI.create("cql://ks1/table1"));
   }
 
+  @Test
+  void should_map_result_to_record_of_given_resource() {
+    DefaultReadResultMapper mapper =
+        new DefaultReadResultMapper(mapping, recordMetadata, RESOURCE, false);
+    URI tokenRange = URI.create("cql://ks1/table1?start=1234&end=5678");
+    Record record = mapper.map(result, tokenRange);
+    assertThat(record.getFieldValue(F0)).isEqualTo(42);
+    assertThat(record.getResource()).isEqualTo(tokenRange);
+  }
+
   @ParameterizedTest
   @ValueSource(booleans = {true, false})
   void should_map_result_to_error_record_when_mapping_fails(boolean retainRecordSources) {
@@ -170,7 +181,7 @@ class DefaultReadResultMapperTest {
     // emulate bad byte buffer contents when deserializing a 4-byte integer
     String msg = "Invalid 32-bits integer value, expecting 4 bytes but got 5";
     IllegalArgumentException error = new IllegalArgumentException(msg);
-    when(row.get(C1.asIdentifier(), codec1)).thenThrow(error);
+    when(row.get(0, codec1)).thenThrow(error);
     byte[] array = {1, 2, 3, 4, 5};
     when(row.getBytesUnsafe(C1.asIdentifier())).thenReturn(ByteBuffer.wrap(array));
     DefaultReadResultMapper mapper =
@@ -56,10 +56,12 @@ import com.datastax.oss.dsbulk.codecs.api.util.ZonedTemporalFormat;
 import com.datastax.oss.dsbulk.codecs.text.string.StringToIntegerCodec;
 import com.datastax.oss.dsbulk.codecs.text.string.StringToLongCodec;
 import com.datastax.oss.dsbulk.codecs.text.string.StringToStringCodec;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
 import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
 import com.datastax.oss.dsbulk.connectors.api.Field;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.oss.dsbulk.connectors.api.RecordSchema;
 import com.datastax.oss.dsbulk.mapping.CQLWord;
 import com.datastax.oss.dsbulk.mapping.InvalidMappingException;
 import com.datastax.oss.dsbulk.mapping.Mapping;
@@ -67,6 +69,7 @@ import com.datastax.oss.dsbulk.tests.utils.ReflectionUtils;
 import com.datastax.oss.dsbulk.workflow.commons.statement.MappedBoundStatement;
 import com.datastax.oss.dsbulk.workflow.commons.statement.UnmappableStatement;
 import io.netty.util.concurrent.FastThreadLocal;
+import java.net.URI;
 import java.nio.ByteBuffer;
 import java.text.NumberFormat;
 import java.time.Instant;
@@ -575,6 +578,97 @@ class DefaultRecordMapperTest {
                 + "or set schema.allowMissingFields to true.");
   }
 
+  @Test
+  void should_map_array_backed_record_by_position() {
+    RecordSchema schema = RecordSchema.mappedAndIndexed(F1, F2, F3);
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            insertStatement,
+            set(C1),
+            set(C2, C3),
+            V4,
+            mapping,
+            recordMetadata,
+            true,
+            true,
+            false,
+            statement -> boundStatementBuilder);
+    for (int i = 0; i < 2; i++) {
+      Record arrayBackedRecord =
+          new ArrayBackedRecord(
+              "source", URI.create("file://file1"), i + 1, schema, "42", "4242", "foo");
+      Statement<?> result = mapper.map(arrayBackedRecord);
+      assertThat(result).isInstanceOf(MappedBoundStatement.class);
+      assertThat(arrayBackedRecord.fields()).isEmpty();
+    }
+    verify(boundStatementBuilder, times(6))
+        .setBytesUnsafe(variableCaptor.capture(), valueCaptor.capture());
+    assertParameter(0, 0, TypeCodecs.INT.encode(42, V4));
+    assertParameter(1, 1, TypeCodecs.BIGINT.encode(4242L, V4));
+    assertParameter(2, 2, TypeCodecs.TEXT.encode("foo", V4));
+    assertParameter(3, 0, TypeCodecs.INT.encode(42, V4));
+    assertParameter(4, 1, TypeCodecs.BIGINT.encode(4242L, V4));
+    assertParameter(5, 2, TypeCodecs.TEXT.encode("foo", V4));
+    // the binding plan is computed only once per schema
+    verify(mapping).fieldToVariables(F1);
+  }
+
+  @Test
+  void should_return_unmappable_statement_when_array_backed_record_has_extra_field() {
+    when(mapping.fieldToVariables(F3)).thenReturn(emptySet());
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            insertStatement,
+            set(C1),
+            set(C2, C3),
+            V4,
+            mapping,
+            recordMetadata,
+            false,
+            false,
+            false,
+            statement -> boundStatementBuilder);
+    Record record =
+        new ArrayBackedRecord(
+            "source",
+            URI.create("file://file1"),
+            1,
+            RecordSchema.mapped(F1, F2, F3),
+            "42",
+            "4242",
+            "foo");
+    Statement<?> result = mapper.map(record);
+    assertThat(result).isInstanceOf(UnmappableStatement.class);
+    assertThat(((UnmappableStatement) result).getError())
+        .isInstanceOf(InvalidMappingException.class)
+        .hasMessageContaining("Extraneous field field3 was found in record.");
+  }
+
+  @Test
+  void should_return_unmappable_statement_when_array_backed_record_has_missing_field() {
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            insertStatement,
+            set(C1),
+            set(C2, C3),
+            V4,
+            mapping,
+            recordMetadata,
+            false,
+            true,
+            false,
+            statement -> boundStatementBuilder);
+    Record record =
+        new ArrayBackedRecord(
+            "source", URI.create("file://file1"), 1, RecordSchema.mapped(F1, F2), "42", "4242");
+    Statement<?> result = mapper.map(record);
+    assertThat(result).isInstanceOf(UnmappableStatement.class);
+    assertThat(((UnmappableStatement) result).getError())
+        .isInstanceOf(InvalidMappingException.class)
+        .hasMessageContaining(
+            "Required field field3 (mapped to column \"My Fancy Column Name\") was missing from record.");
+  }
+
   @Test
   void should_map_when_pk_column_is_empty_blob() {
     when(record.fields()).thenReturn(set(F1, F2, F3));
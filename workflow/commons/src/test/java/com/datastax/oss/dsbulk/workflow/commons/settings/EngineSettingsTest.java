@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.datastax.oss.dsbulk.tests.utils.TestConfigUtils;
 import com.typesafe.config.Config;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
 
 class EngineSettingsTest {
@@ -84,4 +85,26 @@ class EngineSettingsTest {
     settings.init();
     assertThat(settings.isDataSizeSamplingEnabled()).isFalse();
   }
+
+  @Test
+  void should_report_data_size_sampling_limits() {
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.engine", "dataSizeSamplingResources", 2, "dataSizeSamplingTimeout", "3s");
+    EngineSettings settings = new EngineSettings(config);
+    settings.init();
+    assertThat(settings.getDataSizeSamplingResources()).isEqualTo(2);
+    assertThat(settings.getDataSizeSamplingTimeout()).isEqualTo(Duration.ofSeconds(3));
+  }
+
+  @Test
+  void should_throw_when_data_size_sampling_timeout_invalid() {
+    Config config =
+        TestConfigUtils.createTestConfig("dsbulk.engine", "dataSizeSamplingTimeout", "0s");
+    EngineSettings settings = new EngineSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining(
+            "Invalid value for dsbulk.engine.dataSizeSamplingTimeout: expecting duration > 0, got '0s'");
+  }
 }
@@ -18,6 +18,8 @@ package com.datastax.oss.dsbulk.workflow.commons.settings;
 import static com.datastax.oss.dsbulk.tests.assertions.TestAssertions.assertThat;
 import static com.datastax.oss.dsbulk.tests.utils.ReflectionUtils.getInternalState;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -29,10 +31,17 @@ import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
 import com.datastax.oss.driver.api.core.metadata.Node;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
+import com.datastax.oss.dsbulk.executor.api.AdaptiveConcurrencyLimiter;
+import com.datastax.oss.dsbulk.executor.api.ByteRateLimiter;
+import com.datastax.oss.dsbulk.executor.api.VirtualThreads;
+import com.datastax.oss.dsbulk.executor.api.listener.MetricsCollectingExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.reader.ReactiveBulkReader;
 import com.datastax.oss.dsbulk.executor.api.writer.ReactiveBulkWriter;
 import com.datastax.oss.dsbulk.executor.reactor.ContinuousReactorBulkExecutor;
 import com.datastax.oss.dsbulk.executor.reactor.DefaultReactorBulkExecutor;
+import com.datastax.oss.dsbulk.executor.reactor.NodeConcurrencyLimiter;
+import com.datastax.oss.dsbulk.executor.reactor.NonBlockingConcurrencyLimiter;
+import com.datastax.oss.dsbulk.executor.reactor.NonBlockingRateLimiter;
 import com.datastax.oss.dsbulk.tests.driver.DriverUtils;
 import com.datastax.oss.dsbulk.tests.logging.LogCapture;
 import com.datastax.oss.dsbulk.tests.logging.LogInterceptingExtension;
@@ -45,6 +54,8 @@ import java.util.concurrent.Semaphore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 
 @ExtendWith(LogInterceptingExtension.class)
 class ExecutorSettingsTest {
@@ -159,6 +170,32 @@ class ExecutorSettingsTest {
     assertThat(getInternalState(executor, "rateLimiter")).isNull();
   }
 
+  @Test
+  void should_enable_maxBytesPerSecond() {
+    Config config =
+        TestConfigUtils.createTestConfig("dsbulk.executor", "maxBytesPerSecond", 1_000_000);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    MetricsCollectingExecutionListener listener = new MetricsCollectingExecutionListener();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, listener);
+    ByteRateLimiter byteRateLimiter =
+        (ByteRateLimiter) getInternalState(executor, "byteRateLimiter");
+    assertThat(byteRateLimiter.getRate()).isEqualTo(1_000_000d);
+    assertThat(listener.getRegistry().getGauges().get("executor/bytes/limit").getValue())
+        .isEqualTo(1_000_000L);
+  }
+
+  @Test
+  void should_disable_maxBytesPerSecond_by_default() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.executor");
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    MetricsCollectingExecutionListener listener = new MetricsCollectingExecutionListener();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, listener);
+    assertThat(getInternalState(executor, "byteRateLimiter")).isNull();
+    assertThat(listener.getRegistry().getGauges()).doesNotContainKey("executor/bytes/limit");
+  }
+
   @Test
   void should_throw_exception_when_maxPerSecond_not_a_number() {
     Config config =
@@ -183,6 +220,24 @@ class ExecutorSettingsTest {
     assertThat(maxConcurrentRequests.availablePermits()).isEqualTo(100);
   }
 
+  @Test
+  void should_enable_adaptive_maxInFlight() {
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.executor", "maxInFlight", 100, "adaptiveMaxInFlight", true);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    MetricsCollectingExecutionListener listener = new MetricsCollectingExecutionListener();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, listener);
+    AdaptiveConcurrencyLimiter maxConcurrentRequests =
+        (AdaptiveConcurrencyLimiter) getInternalState(executor, "maxConcurrentRequests");
+    assertThat(maxConcurrentRequests.getLimit()).isEqualTo(100);
+    assertThat(maxConcurrentRequests.availablePermits()).isEqualTo(100);
+    assertThat(settings.getAdaptiveMaxInFlight()).hasValue(100);
+    assertThat(listener.getRegistry().getGauges().get("executor/in-flight-limit").getValue())
+        .isEqualTo(100);
+  }
+
   @Test
   void should_disable_maxInFlight() {
     Config config = TestConfigUtils.createTestConfig("dsbulk.executor", "maxInFlight", 0);
@@ -196,6 +251,120 @@ class ExecutorSettingsTest {
     assertThat(maxConcurrentRequests).isNull();
   }
 
+  @Test
+  void should_enable_maxInFlightPerNode() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.executor", "maxInFlightPerNode", 10);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, null);
+    assertThat(getInternalState(executor, "maxConcurrentRequestsPerNode"))
+        .isInstanceOf(NodeConcurrencyLimiter.class)
+        .hasFieldOrPropertyWithValue("maxInFlightPerNode", 10);
+  }
+
+  @Test
+  void should_disable_maxInFlightPerNode_by_default() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.executor");
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, null);
+    assertThat(getInternalState(executor, "maxConcurrentRequestsPerNode")).isNull();
+  }
+
+  @Test
+  void should_enable_nonBlockingThrottling() {
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.executor",
+            "maxInFlight",
+            100,
+            "maxPerSecond",
+            100,
+            "nonBlockingThrottling",
+            true);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, null);
+    assertThat(getInternalState(executor, "writeConcurrencyLimiter"))
+        .isInstanceOf(NonBlockingConcurrencyLimiter.class);
+    assertThat(getInternalState(executor, "writeRateLimiter"))
+        .isInstanceOf(NonBlockingRateLimiter.class);
+  }
+
+  @Test
+  void should_enable_nonBlockingThrottling_with_maxInFlightPerNode() {
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.executor",
+            "maxInFlight",
+            100,
+            "maxInFlightPerNode",
+            10,
+            "nonBlockingThrottling",
+            true);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, null);
+    assertThat(getInternalState(executor, "writeConcurrencyLimiter"))
+        .isInstanceOf(NonBlockingConcurrencyLimiter.class);
+    assertThat(getInternalState(executor, "maxConcurrentRequestsPerNode"))
+        .isInstanceOf(NodeConcurrencyLimiter.class);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"maxBytesPerSecond,1000", "adaptiveMaxInFlight,true"})
+  void should_reject_nonBlockingThrottling_with_blocking_limits(String setting, String value) {
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.executor", setting, value, "nonBlockingThrottling", true);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith(
+            "Setting executor.nonBlockingThrottling cannot be combined with "
+                + "executor.maxBytesPerSecond or executor.adaptiveMaxInFlight");
+  }
+
+  @Test
+  void should_disable_nonBlockingThrottling_by_default() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.executor", "maxInFlight", 100);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, null);
+    assertThat(getInternalState(executor, "writeConcurrencyLimiter")).isNull();
+    assertThat(getInternalState(executor, "writeRateLimiter")).isNull();
+  }
+
+  @Test
+  void should_enable_virtualThreads() {
+    assumeTrue(VirtualThreads.isSupported());
+    Config config = TestConfigUtils.createTestConfig("dsbulk.executor", "virtualThreads", true);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, null);
+    assertThat(getInternalState(executor, "statementExecutor")).isNotNull();
+    assertThat(getInternalState(executor, "statementScheduler")).isNotNull();
+  }
+
+  @Test
+  void should_throw_exception_when_virtualThreads_not_supported() {
+    assumeFalse(VirtualThreads.isSupported());
+    Config config = TestConfigUtils.createTestConfig("dsbulk.executor", "virtualThreads", true);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Setting executor.virtualThreads requires Java 21 or higher");
+  }
+
+  @Test
+  void should_disable_virtualThreads_by_default() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.executor");
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, null);
+    assertThat(getInternalState(executor, "statementExecutor")).isNull();
+  }
+
   @Test
   void should_throw_exception_when_maxInFlight_not_a_number() {
     Config config =
@@ -63,6 +63,7 @@ import com.datastax.oss.driver.api.core.context.DriverContext;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
 import com.datastax.oss.driver.api.core.metadata.Node;
@@ -1239,6 +1240,30 @@ class SchemaSettingsTest {
     assertThat(statements).hasSize(3).contains(bs1, bs2, bs3);
   }
 
+  @Test
+  void should_create_token_range_uri() {
+    ColumnDefinitions definitions =
+        mockColumnDefinitions(
+            mockColumnDefinition("start", BIGINT), mockColumnDefinition("end", BIGINT));
+    when(ps.getVariableDefinitions()).thenReturn(definitions);
+    BoundStatement bs = mock(BoundStatement.class);
+    when(bs.getToken(0)).thenReturn(token1);
+    when(bs.getToken(1)).thenReturn(token2);
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.schema",
+            "keyspace",
+            "ks",
+            "query",
+            "\"SELECT a,b,c FROM t1 WHERE token(a) > :start and token(a) <= :end \"");
+    SchemaSettings schemaSettings = new SchemaSettings(config);
+    schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    assertThat(schemaSettings.getTokenRangeURI(bs))
+        .hasToString("cql://ks/t1?start=-9223372036854775808&end=-3074457345618258603");
+    assertThat(schemaSettings.getTokenRangeURI(SimpleStatement.newInstance("irrelevant"))).isNull();
+  }
+
   @Test
   void should_create_multiple_read_statements_when_token_range_provided_in_query_positional() {
     ColumnDefinitions definitions =
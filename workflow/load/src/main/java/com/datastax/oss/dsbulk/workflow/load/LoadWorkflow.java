@@ -15,6 +15,8 @@
  */
 package com.datastax.oss.dsbulk.workflow.load;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Snapshot;
@@ -24,6 +26,8 @@ import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.metrics.Metrics;
 import com.datastax.oss.driver.shaded.guava.common.base.Stopwatch;
+import com.datastax.oss.driver.shaded.guava.common.hash.Hasher;
+import com.datastax.oss.driver.shaded.guava.common.hash.Hashing;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.Connector;
@@ -35,6 +39,7 @@ import com.datastax.oss.dsbulk.sampler.DataSizeSampler;
 import com.datastax.oss.dsbulk.workflow.api.Workflow;
 import com.datastax.oss.dsbulk.workflow.api.utils.DurationUtils;
 import com.datastax.oss.dsbulk.workflow.api.utils.ThrowableUtils;
+import com.datastax.oss.dsbulk.workflow.commons.log.DataSizeSampleCache;
 import com.datastax.oss.dsbulk.workflow.commons.log.LogManager;
 import com.datastax.oss.dsbulk.workflow.commons.metrics.MetricsManager;
 import com.datastax.oss.dsbulk.workflow.commons.schema.RecordMapper;
@@ -52,8 +57,11 @@ import com.datastax.oss.dsbulk.workflow.commons.settings.SettingsManager;
 import com.datastax.oss.dsbulk.workflow.commons.utils.CloseableUtils;
 import com.datastax.oss.dsbulk.workflow.commons.utils.ClusterInformationUtils;
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigRenderOptions;
 import io.netty.util.concurrent.DefaultThreadFactory;
+import java.io.IOException;
 import java.time.Duration;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
@@ -73,6 +81,10 @@ public class LoadWorkflow implements Workflow {
   private static final int _1_KB = 1024;
   private static final int _10_KB = 10 * _1_KB;
 
+  private static final int SAMPLE_SIZE = 1000;
+
+  private static final String[] FINGERPRINT_SETTINGS = {"connector", "schema", "codec"};
+
   private final SettingsManager settingsManager;
   private final AtomicBoolean closed = new AtomicBoolean(false);
 
@@ -193,12 +205,22 @@ public class LoadWorkflow implements Workflow {
     readConcurrency = connector.readConcurrency();
     hasManyReaders = readConcurrency >= Math.max(4, numCores / 4);
     LOGGER.debug("Using read concurrency: {}", readConcurrency);
+    // with an adaptive limit of in-flight requests, the executor regulates concurrency by itself
     writeConcurrency =
-        engineSettings.getMaxConcurrentQueries().orElseGet(this::determineWriteConcurrency);
+        engineSettings
+            .getMaxConcurrentQueries()
+            .orElseGet(
+                () ->
+                    executorSettings
+                        .getAdaptiveMaxInFlight()
+                        .orElseGet(this::determineWriteConcurrency));
     LOGGER.debug(
         "Using write concurrency: {} (user-supplied: {})",
         writeConcurrency,
         engineSettings.getMaxConcurrentQueries().isPresent());
+    // only install the checkpoint once data size sampling is done, otherwise resources entirely
+    // read while sampling would be reported as processed
+    connector.setCheckpoint(logManager.getCheckpointManager());
   }
 
   @Override
@@ -392,16 +414,8 @@ public class LoadWorkflow implements Workflow {
   private double getMeanRowSize() {
     double meanSize;
     try {
-      LOGGER.debug("Sampling data...");
-      Histogram sample =
-          DataSizeSampler.sampleWrites(
-              session.getContext(),
-              Flux.merge(connector.read())
-                  .<Statement<?>>map(mapper)
-                  .filter(BoundStatement.class::isInstance)
-                  .take(1000)
-                  .toIterable());
-      if (sample.getCount() < 1000) {
+      Histogram sample = getDataSizeSample();
+      if (sample.getCount() < SAMPLE_SIZE) {
         // sample too small, go with a common value
         LOGGER.debug("Data sample is too small: {}, discarding", sample.getCount());
         meanSize = _1_KB;
@@ -426,4 +440,80 @@ public class LoadWorkflow implements Workflow {
     }
     return meanSize;
   }
+
+  /**
+   * Returns a sample of the data sizes of the statements to execute.
+   *
+   * <p>If a previous operation sampled the same data with the same settings, its sample is reused.
+   * Otherwise, records are sampled from up to {@code dataSizeSamplingResources} resources in
+   * parallel, each resource contributing an equal share of the sample, until the sample is complete
+   * or {@code dataSizeSamplingTimeout} elapses; only complete samples are saved for subsequent
+   * operations, since a sample can also end early because the data is exhausted or a read failed.
+   */
+  private Histogram getDataSizeSample() throws IOException {
+    DataSizeSampleCache cache = newDataSizeSampleCache();
+    if (cache != null) {
+      Optional<Histogram> cached = cache.load();
+      if (cached.isPresent()) {
+        return cached.get();
+      }
+    }
+    LOGGER.debug("Sampling data...");
+    int parallelism = Math.min(readConcurrency, engineSettings.getDataSizeSamplingResources());
+    int recordsPerResource = (SAMPLE_SIZE + parallelism - 1) / parallelism;
+    Duration timeout = engineSettings.getDataSizeSamplingTimeout();
+    Scheduler samplingScheduler =
+        Schedulers.newParallel(parallelism, new DefaultThreadFactory("sampling"));
+    Stopwatch timer = Stopwatch.createStarted();
+    Histogram sample;
+    try {
+      sample =
+          DataSizeSampler.sampleWrites(
+              session.getContext(),
+              // only parallelism resources are open at a time, and each resource is abandoned as
+              // soon as it contributed its share of the sample
+              Flux.from(connector.read())
+                  .flatMap(
+                      records ->
+                          Flux.from(records)
+                              .take(recordsPerResource)
+                              .<Statement<?>>map(mapper)
+                              .filter(BoundStatement.class::isInstance)
+                              .subscribeOn(samplingScheduler),
+                      parallelism)
+                  .take(timeout)
+                  .take(SAMPLE_SIZE)
+                  .toIterable());
+    } finally {
+      samplingScheduler.dispose();
+    }
+    if (sample.getCount() >= SAMPLE_SIZE) {
+      if (cache != null) {
+        cache.store(sample);
+      }
+    } else if (timer.elapsed().compareTo(timeout) >= 0) {
+      LOGGER.debug("Sampling interrupted after {}", timeout);
+    }
+    return sample;
+  }
+
+  /**
+   * Creates the cache of data size samples of the data to read, or returns null if the connector
+   * cannot fingerprint its data. Statements depend not only on the data, but also on the way it is
+   * read and mapped, so the relevant settings are part of the cache key.
+   */
+  private DataSizeSampleCache newDataSizeSampleCache() {
+    String dataFingerprint = connector.getFingerprint();
+    if (dataFingerprint == null) {
+      return null;
+    }
+    Config settings = settingsManager.getEffectiveBulkLoaderConfig();
+    Hasher hasher = Hashing.sha256().newHasher().putString(dataFingerprint, UTF_8);
+    for (String path : FINGERPRINT_SETTINGS) {
+      if (settings.hasPath(path)) {
+        hasher.putString(settings.getValue(path).render(ConfigRenderOptions.concise()), UTF_8);
+      }
+    }
+    return new DataSizeSampleCache(logManager.getOperationDirectory(), hasher.hash().toString());
+  }
 }
@@ -20,15 +20,19 @@ import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.metrics.Metrics;
 import com.datastax.oss.driver.shaded.guava.common.base.Stopwatch;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.MoreExecutors;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.ThreadFactoryBuilder;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.Connector;
+import com.datastax.oss.dsbulk.connectors.api.ErrorRecord;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
 import com.datastax.oss.dsbulk.executor.api.reader.BulkReader;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import com.datastax.oss.dsbulk.workflow.api.Workflow;
 import com.datastax.oss.dsbulk.workflow.api.utils.DurationUtils;
+import com.datastax.oss.dsbulk.workflow.commons.log.CheckpointManager;
 import com.datastax.oss.dsbulk.workflow.commons.log.LogManager;
 import com.datastax.oss.dsbulk.workflow.commons.metrics.MetricsManager;
 import com.datastax.oss.dsbulk.workflow.commons.schema.ReadResultMapper;
@@ -45,13 +49,29 @@ import com.datastax.oss.dsbulk.workflow.commons.settings.SettingsManager;
 import com.datastax.oss.dsbulk.workflow.commons.utils.CloseableUtils;
 import com.datastax.oss.dsbulk.workflow.commons.utils.ClusterInformationUtils;
 import com.typesafe.config.Config;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import io.netty.util.concurrent.DefaultThreadFactory;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
@@ -77,6 +97,17 @@ public class UnloadWorkflow implements Workflow {
   private CqlSession session;
   private BulkReader executor;
   private List<Statement<?>> readStatements;
+  private CheckpointManager checkpointManager;
+  private Duration checkpointInterval;
+  private ScheduledExecutorService checkpointScheduler;
+  // Token ranges whose records were all handed to the connector, but not reported to the checkpoint
+  // yet: they can only be reported once the connector has flushed their records.
+  private Queue<URI> unflushedRanges;
+  // The token range read by each statement, for statements that read a token range.
+  private Map<Statement<?>, URI> tokenRanges;
+  // The progress of each token range being read; records read from a token range have the token
+  // range as resource, so that the connector can hand them back without any per-record bookkeeping.
+  private Map<URI, TokenRangeProgress> rangeProgresses;
   private Function<Publisher<Record>, Publisher<Record>> writer;
   private Function<Flux<ReadResult>, Flux<ReadResult>> totalItemsMonitor;
   private Function<Flux<Record>, Flux<Record>> failedRecordsMonitor;
@@ -150,7 +181,30 @@ public class UnloadWorkflow implements Workflow {
     readResultMapper =
         schemaSettings.createReadResultMapper(
             session, recordMetadata, codecFactory, logSettings.isSources());
-    readStatements = schemaSettings.createReadStatements(session);
+    checkpointManager = logManager.getCheckpointManager();
+    checkpointInterval = logSettings.getCheckpointInterval();
+    unflushedRanges = new ConcurrentLinkedQueue<>();
+    tokenRanges = new IdentityHashMap<>();
+    rangeProgresses = new ConcurrentHashMap<>();
+    readStatements = new ArrayList<>();
+    int skipped = 0;
+    for (Statement<?> statement : schemaSettings.createReadStatements(session)) {
+      URI tokenRange = schemaSettings.getTokenRangeURI(statement);
+      if (tokenRange != null && checkpointManager.isComplete(tokenRange)) {
+        skipped++;
+      } else {
+        readStatements.add(statement);
+        if (tokenRange != null) {
+          tokenRanges.put(statement, tokenRange);
+        }
+      }
+    }
+    if (skipped > 0) {
+      LOGGER.info(
+          "Skipping {} token ranges already unloaded by the operation being resumed, {} remaining",
+          skipped,
+          readStatements.size());
+    }
     executor =
         executorSettings.newReadExecutor(
             session, metricsManager.getExecutionListener(), schemaSettings.isSearchQuery());
@@ -173,11 +227,13 @@ public class UnloadWorkflow implements Workflow {
     writeConcurrency = connector.writeConcurrency();
     LOGGER.debug("Using write concurrency: {}", writeConcurrency);
     readConcurrency =
-        Math.min(
-            readStatements.size(),
-            // Most connectors have a default of numCores/2 for writeConcurrency;
-            // a good readConcurrency is then numCores.
-            engineSettings.getMaxConcurrentQueries().orElse(numCores));
+        Math.max(
+            1,
+            Math.min(
+                readStatements.size(),
+                // Most connectors have a default of numCores/2 for writeConcurrency;
+                // a good readConcurrency is then numCores.
+                engineSettings.getMaxConcurrentQueries().orElse(numCores)));
     LOGGER.debug(
         "Using read concurrency: {} (user-supplied: {})",
         readConcurrency,
@@ -189,6 +245,18 @@ public class UnloadWorkflow implements Workflow {
   public boolean execute() {
     LOGGER.debug("{} started.", this);
     metricsManager.start();
+    if (!tokenRanges.isEmpty() && !checkpointInterval.isZero()) {
+      ThreadFactory threadFactory =
+          new ThreadFactoryBuilder()
+              .setDaemon(true)
+              .setNameFormat("checkpoint-%d")
+              .setPriority(Thread.MIN_PRIORITY)
+              .build();
+      checkpointScheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+      long intervalNanos = checkpointInterval.toNanos();
+      checkpointScheduler.scheduleWithFixedDelay(
+          this::saveCheckpointPeriodically, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
     Flux<Record> flux;
     if (writeConcurrency == 1) {
       flux = oneWriter();
@@ -221,21 +289,9 @@ public class UnloadWorkflow implements Workflow {
             : Schedulers.newParallel(numThreads, new DefaultThreadFactory("workflow"));
     schedulers.add(scheduler);
     return Flux.fromIterable(readStatements)
-        .flatMap(
-            results ->
-                Flux.from(executor.readReactive(results))
-                    .publishOn(scheduler, 500)
-                    .transform(queryWarningsHandler)
-                    .transform(totalItemsMonitor)
-                    .transform(totalItemsCounter)
-                    .transform(failedReadResultsMonitor)
-                    .transform(failedReadsHandler)
-                    .map(readResultMapper::map)
-                    .transform(failedRecordsMonitor)
-                    .transform(unmappableRecordsHandler),
-            readConcurrency,
-            500)
+        .flatMap(statement -> readRecords(statement, scheduler), readConcurrency, 500)
         .transform(writer)
+        .doOnNext(this::releaseRecord)
         .transform(failedRecordsMonitor)
         .transform(failedRecordsHandler);
   }
@@ -253,20 +309,7 @@ public class UnloadWorkflow implements Workflow {
     schedulers.add(schedulerForReads);
     schedulers.add(schedulerForWrites);
     return Flux.fromIterable(readStatements)
-        .flatMap(
-            results ->
-                Flux.from(executor.readReactive(results))
-                    .publishOn(schedulerForReads, 500)
-                    .transform(queryWarningsHandler)
-                    .transform(totalItemsMonitor)
-                    .transform(totalItemsCounter)
-                    .transform(failedReadResultsMonitor)
-                    .transform(failedReadsHandler)
-                    .map(readResultMapper::map)
-                    .transform(failedRecordsMonitor)
-                    .transform(unmappableRecordsHandler),
-            readConcurrency,
-            500)
+        .flatMap(statement -> readRecords(statement, schedulerForReads), readConcurrency, 500)
         .parallel(writeConcurrency)
         .runOn(schedulerForWrites)
         .groups()
@@ -274,6 +317,7 @@ public class UnloadWorkflow implements Workflow {
             records ->
                 records
                     .transform(writer)
+                    .doOnNext(this::releaseRecord)
                     .transform(failedRecordsMonitor)
                     .transform(failedRecordsHandler),
             writeConcurrency,
@@ -288,18 +332,8 @@ public class UnloadWorkflow implements Workflow {
     schedulers.add(scheduler);
     return Flux.fromIterable(readStatements)
         .flatMap(
-            results -> {
-              Flux<Record> records =
-                  Flux.from(executor.readReactive(results))
-                      .publishOn(scheduler, 500)
-                      .transform(queryWarningsHandler)
-                      .transform(totalItemsMonitor)
-                      .transform(totalItemsCounter)
-                      .transform(failedReadResultsMonitor)
-                      .transform(failedReadsHandler)
-                      .map(readResultMapper::map)
-                      .transform(failedRecordsMonitor)
-                      .transform(unmappableRecordsHandler);
+            statement -> {
+              Flux<Record> records = readRecords(statement, scheduler);
               if (actualConcurrency == writeConcurrency) {
                 records = records.transform(writer);
               } else {
@@ -311,19 +345,74 @@ public class UnloadWorkflow implements Workflow {
                 // in a round-robin fashion.
                 records = records.window(500).flatMap(window -> window.transform(writer), 1, 500);
               }
-              return records.transform(failedRecordsMonitor).transform(failedRecordsHandler);
+              return records
+                  .doOnNext(this::releaseRecord)
+                  .transform(failedRecordsMonitor)
+                  .transform(failedRecordsHandler);
             },
             actualConcurrency,
             500);
   }
 
+  private Flux<Record> readRecords(Statement<?> statement, Scheduler scheduler) {
+    Flux<ReadResult> results =
+        Flux.from(executor.readReactive(statement)).publishOn(scheduler, 500);
+    URI tokenRange = tokenRanges.get(statement);
+    if (tokenRange == null) {
+      return mapResults(results, readResultMapper::map);
+    }
+    TokenRangeProgress progress = new TokenRangeProgress(tokenRange);
+    rangeProgresses.put(tokenRange, progress);
+    return mapResults(
+        results.doOnNext(result -> progress.acquire()).doOnComplete(progress::release),
+        result -> readResultMapper.map(result, tokenRange));
+  }
+
+  private Flux<Record> mapResults(Flux<ReadResult> results, Function<ReadResult, Record> mapper) {
+    return results
+        .transform(queryWarningsHandler)
+        .transform(totalItemsMonitor)
+        .transform(totalItemsCounter)
+        .transform(failedReadResultsMonitor)
+        .transform(failedReadsHandler)
+        .map(mapper)
+        .transform(failedRecordsMonitor)
+        .transform(unmappableRecordsHandler);
+  }
+
+  /**
+   * Invoked for each record successfully handed to the connector; records that failed to be read,
+   * mapped or written never reach this method, and thus prevent their token range from being marked
+   * as complete.
+   */
+  private void releaseRecord(Record record) {
+    if (!(record instanceof ErrorRecord)) {
+      TokenRangeProgress progress = rangeProgresses.get(record.getResource());
+      if (progress != null) {
+        progress.release();
+      }
+    }
+  }
+
   @Override
   public void close() throws Exception {
     if (closed.compareAndSet(false, true)) {
       LOGGER.debug("{} closing.", this);
+      if (checkpointScheduler != null) {
+        // periodic saves flush the connector, they must be over before it is closed
+        MoreExecutors.shutdownAndAwaitTermination(checkpointScheduler, 1, TimeUnit.MINUTES);
+      }
       Exception e = CloseableUtils.closeQuietly(metricsManager, null);
       e = CloseableUtils.closeQuietly(logManager, e);
+      Exception beforeConnector = e;
       e = CloseableUtils.closeQuietly(connector, e);
+      if (e == beforeConnector) {
+        // Records handed to the connector are guaranteed to be written once the connector is
+        // closed, so the remaining token ranges can be reported to the checkpoint now, but only if
+        // the connector closed successfully.
+        reportFlushedRanges(drainUnflushedRanges());
+        e = saveCheckpoint(e);
+      }
       if (schedulers != null) {
         for (Scheduler scheduler : schedulers) {
           e = CloseableUtils.closeQuietly(scheduler, e);
@@ -341,6 +430,105 @@ public class UnloadWorkflow implements Workflow {
     }
   }
 
+  /**
+   * Flushes the connector, then reports to the checkpoint the token ranges whose records were all
+   * handed to the connector before the flush, and saves the checkpoint. Runs periodically on the
+   * dedicated checkpoint scheduler.
+   */
+  private void saveCheckpointPeriodically() {
+    List<URI> ranges = drainUnflushedRanges();
+    if (ranges.isEmpty()) {
+      return;
+    }
+    try {
+      if (!connector.flush()) {
+        LOGGER.debug(
+            "Connector cannot flush records, operation checkpoint will be saved at the end");
+        unflushedRanges.addAll(ranges);
+        checkpointScheduler.shutdown();
+        return;
+      }
+    } catch (Exception e) {
+      LOGGER.warn("Could not flush records, operation checkpoint not saved", e);
+      unflushedRanges.addAll(ranges);
+      return;
+    }
+    reportFlushedRanges(ranges);
+    try {
+      checkpointManager.save(
+          logManager.getOperationDirectory().resolve(LogManager.CHECKPOINT_FILE),
+          Collections.emptyMap());
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Could not save operation checkpoint", e);
+    }
+  }
+
+  @NonNull
+  private List<URI> drainUnflushedRanges() {
+    List<URI> ranges = new ArrayList<>();
+    URI range;
+    while ((range = unflushedRanges.poll()) != null) {
+      ranges.add(range);
+    }
+    return ranges;
+  }
+
+  private void reportFlushedRanges(@NonNull List<URI> ranges) {
+    for (URI range : ranges) {
+      // token ranges have no positions: report them as empty, i.e. entirely processed
+      checkpointManager.onResourceRead(range, -1, -1);
+    }
+  }
+
+  @Nullable
+  private Exception saveCheckpoint(@Nullable Exception suppressed) {
+    if (checkpointManager != null && !checkpointManager.isEmpty()) {
+      Path operationDirectory = logManager.getOperationDirectory();
+      try {
+        checkpointManager.save(
+            operationDirectory.resolve(LogManager.CHECKPOINT_FILE), Collections.emptyMap());
+        LOGGER.info(
+            "Operation checkpoint can be found in {}; to resume this operation, use -resume {}",
+            LogManager.CHECKPOINT_FILE,
+            operationDirectory.getFileName());
+      } catch (IOException e) {
+        if (suppressed != null) {
+          e.addSuppressed(suppressed);
+        }
+        return e;
+      }
+    }
+    return suppressed;
+  }
+
+  /**
+   * Tracks the records of a token range that are still in flight; the token range is queued for the
+   * checkpoint when all of its rows were read, and all the corresponding records were handed to the
+   * connector.
+   */
+  private class TokenRangeProgress {
+
+    private final URI tokenRange;
+
+    // one permit for the read itself, then one permit per row
+    private final AtomicLong pending = new AtomicLong(1);
+
+    private TokenRangeProgress(URI tokenRange) {
+      this.tokenRange = tokenRange;
+    }
+
+    private void acquire() {
+      pending.incrementAndGet();
+    }
+
+    private void release() {
+      if (pending.decrementAndGet() == 0) {
+        rangeProgresses.remove(tokenRange);
+        unflushedRanges.offer(tokenRange);
+      }
+    }
+  }
+
   @Override
   public String toString() {
     if (executionId == null) {